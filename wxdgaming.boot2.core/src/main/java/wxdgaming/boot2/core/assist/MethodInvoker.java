@@ -0,0 +1,149 @@
+package wxdgaming.boot2.core.assist;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 方法调用代理
+ * <p>
+ * 通过 javassist 生成直接调用目标方法的字节码，避免每次走 {@link Method#invoke(Object, Object...)}
+ * <p>
+ * 生成的类在独立的 classloader 里面，访问不到非 public 的类和方法，这种情况退化为 {@link MethodHandle}
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 18:20
+ **/
+public abstract class MethodInvoker {
+
+    /** 构建调用代理 */
+    public static MethodInvoker of(Method method) {
+        if (accessible(method)) {
+            return generate(method);
+        }
+        return new HandleInvoker(method);
+    }
+
+    /**
+     * 调用方法，目标方法的异常直接抛出，不会包装成 InvocationTargetException
+     *
+     * @param ins  实例，静态方法传 null
+     * @param args 参数
+     * @return 返回值，void 方法返回 null
+     */
+    public abstract Object invoke(Object ins, Object[] args) throws Throwable;
+
+    static boolean accessible(Method method) {
+        if (!Modifier.isPublic(method.getModifiers())) return false;
+        if (!accessible(method.getDeclaringClass())) return false;
+        if (!accessible(method.getReturnType())) return false;
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!accessible(parameterType)) return false;
+        }
+        return true;
+    }
+
+    static boolean accessible(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive()) return true;
+        for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) return false;
+        }
+        return !clazz.isAnonymousClass() && !clazz.isHidden();
+    }
+
+    static MethodInvoker generate(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        ClassLoader classLoader = declaringClass.getClassLoader();
+        if (classLoader == null) {
+            classLoader = MethodInvoker.class.getClassLoader();
+        }
+        JavaAssistBox.JavaAssist javaAssist = JavaAssistBox.DefaultJavaAssistBox.extendSuperclass(MethodInvoker.class, classLoader);
+
+        StringBuilder call = new StringBuilder();
+        if (Modifier.isStatic(method.getModifiers())) {
+            call.append(typeName(declaringClass));
+        } else {
+            call.append("((").append(typeName(declaringClass)).append(")$1)");
+        }
+        call.append('.').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) call.append(", ");
+            call.append(unbox(parameterTypes[i], "$2[" + i + "]"));
+        }
+        call.append(')');
+
+        String body;
+        if (method.getReturnType() == void.class) {
+            body = call + "; return null;";
+        } else {
+            body = "return ($w)" + call + ";";
+        }
+
+        String formatted = """
+                    public Object invoke(Object ins, Object[] args) throws Throwable {
+                        %s
+                    }
+                """
+                .formatted(body);
+        javaAssist.createMethod(formatted);
+
+        MethodInvoker methodInvoker = javaAssist.toInstance();
+        javaAssist.getCtClass().defrost();
+        javaAssist.getCtClass().detach();
+        return methodInvoker;
+    }
+
+    /** javassist 只识别 a.b.C 和 a.b.C[] 这种写法 */
+    static String typeName(Class<?> clazz) {
+        if (clazz.isArray()) {
+            return typeName(clazz.getComponentType()) + "[]";
+        }
+        return clazz.getName();
+    }
+
+    /** 参数强转，基础类型需要手动拆箱 */
+    static String unbox(Class<?> type, String arg) {
+        if (type.isPrimitive()) {
+            String wrapper = MethodType.methodType(type).wrap().returnType().getName();
+            return "((" + wrapper + ")" + arg + ")." + type.getName() + "Value()";
+        }
+        if (type == Object.class) {
+            return arg;
+        }
+        return "(" + typeName(type) + ")" + arg;
+    }
+
+    /** 非 public 的方法，使用 MethodHandle 调用 */
+    static final class HandleInvoker extends MethodInvoker {
+
+        private final MethodHandle methodHandle;
+
+        HandleInvoker(Method method) {
+            try {
+                method.setAccessible(true);
+                MethodHandle handle = MethodHandles.lookup().unreflect(method);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                int parameterCount = method.getParameterCount();
+                this.methodHandle = handle
+                        .asSpreader(Object[].class, parameterCount)
+                        .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(method.toString(), e);
+            }
+        }
+
+        @Override public Object invoke(Object ins, Object[] args) throws Throwable {
+            return methodHandle.invokeExact(ins, args);
+        }
+
+    }
+
+}
@@ -10,7 +10,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
-import wxdgaming.boot2.core.collection.concurrent.ConcurrentTable;
+import wxdgaming.boot2.core.collection.concurrent.MpscLinkedQueue;
 import wxdgaming.boot2.core.function.Consumer2;
 import wxdgaming.boot2.core.function.Function1;
 import wxdgaming.boot2.core.function.Function2;
@@ -21,8 +21,16 @@ import wxdgaming.boot2.core.threading.TimerJob;
 import wxdgaming.boot2.core.timer.MyClock;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 缓存
@@ -38,8 +46,18 @@ import java.util.concurrent.TimeUnit;
 @Accessors(chain = true)
 public final class Cache<K, V> {
 
-    /** key: hash分区, value: {key: 缓存键, value: 缓存对象} */
-    private final ConcurrentTable<Integer, K, CacheHolder> hkv = new ConcurrentTable<>();
+    /** 读缓冲区大小，读取只记录到缓冲区，由维护任务批量调整访问顺序，缓冲区满了直接覆盖 */
+    static final int READ_BUFFER_SIZE = 64;
+    /** 写缓冲区积压超过这个数量就提交维护任务 */
+    static final int WRITE_BUFFER_DRAIN = 64;
+    /** 过期检查时访问顺序落后的缓存，单次最多挪到队尾的数量 */
+    static final int STALE_MOVE_LIMIT = 16;
+
+    static final int NONE = 0;
+    static final int WINDOW = 1;
+    static final int PROBATION = 2;
+    static final int PROTECTED = 3;
+
     private final String cacheName;
     /** hash桶,通过hash分区 */
     private final int hashArea;
@@ -49,32 +67,55 @@ public final class Cache<K, V> {
     private final long expireAfterAccess;
     /** 写入过期时间 */
     private final long expireAfterWrite;
+    /** 最大数量，设置了 weigher 的时候是最大权重，小于等于 0 不限制 */
+    private final long maximumWeight;
     /** 加载 */
     private Function1<K, V> loader;
+    /** 批量加载，返回的 map 里没有的 key 表示不存在 */
+    private Function1<Set<K>, Map<K, V>> bulkLoader;
     /** 移除监听, 如果返回 false 者不会删除 */
     private Function2<K, V, Boolean> removalListener;
+    /** 计算权重，为 null 的时候每个缓存的权重都是 1 */
+    private Function2<K, V, Integer> weigher;
     /** 心跳间隔时间 */
     private final long heartTime;
     /** 心跳监听 */
     private Consumer2<K, V> heartListener;
     private Map<Integer, TimerJob> timerJobs = Map.of();
+    /** 读取过期时，距离上一次刷新不到这个时间的读取不再修改过期时间 */
+    @Getter(AccessLevel.NONE) private final long accessTolerance;
+    @Getter(AccessLevel.NONE) private final List<CacheArea> areas;
+    @Getter(AccessLevel.NONE) private final LongAdder hitCount = new LongAdder();
+    @Getter(AccessLevel.NONE) private final LongAdder missCount = new LongAdder();
+    @Getter(AccessLevel.NONE) private final LongAdder loadCount = new LongAdder();
+    @Getter(AccessLevel.NONE) private final LongAdder evictionCount = new LongAdder();
+    @Getter(AccessLevel.NONE) private final LongAdder expireCount = new LongAdder();
 
     private CacheHolder buildValue(K k, V v) {
-        CacheHolder tuple = new CacheHolder(k, v);
-        refresh(tuple);
+        int weight = 1;
+        if (weigher != null) {
+            weight = weigher.apply(k, v);
+            if (weight < 0) {
+                throw new IllegalArgumentException("缓存权重不能小于 0：" + k);
+            }
+        }
+        CacheHolder tuple = new CacheHolder(k, v, weight);
+        refresh(tuple, MyClock.millis());
         return tuple;
     }
 
-    private void refresh(CacheHolder holder) {
-        long now = MyClock.millis();
+    private void refresh(CacheHolder holder, long now) {
         if (this.expireAfterWrite > 0L) {
             /*表示当前是写入过期*/
             if (holder.expireEndTime == 0) {
                 holder.expireEndTime = (now + this.expireAfterWrite);
             }
-        } else {
-            /*表示读取过期*/
-            holder.expireEndTime = (now + this.expireAfterAccess);
+        } else if (this.expireAfterAccess > 0L) {
+            /*表示读取过期，频繁读取的时候不需要每次都写*/
+            long expireEndTime = now + this.expireAfterAccess;
+            if (expireEndTime - holder.expireEndTime > accessTolerance) {
+                holder.expireEndTime = expireEndTime;
+            }
         }
     }
 
@@ -88,9 +129,13 @@ public final class Cache<K, V> {
         return Math.abs(h);
     }
 
+    private CacheArea area(K k) {
+        return areas.get(hashKey(k));
+    }
+
     /** 是否包含kay */
     public boolean containsKey(K k) {
-        return hkv.containsKey(hashKey(k), k);
+        return area(k).nodes.containsKey(k);
     }
 
     /** 如果获取缓存没有，可以根据加载,失败回抛出异常 */
@@ -114,59 +159,296 @@ public final class Cache<K, V> {
 
     /** 获取数据，如果没有数据返回null */
     public V getIfPresent(K k, Function1<K, V> load) {
-        int hk = hashKey(k);
-        CacheHolder holder = this.hkv.get(hk).computeIfAbsent(k, l -> {
-            V apply = null;
-            if (load != null) {
-                apply = load.apply(l);
-            }
-            if (apply == null) return null;
-            return buildValue(k, apply);
-        });
+        CacheArea area = area(k);
+        CacheHolder holder = area.nodes.get(k);
         if (holder != null) {
-            if (this.expireAfterAccess > 0L) {
-                refresh(holder);
-            }
+            hitCount.increment();
+            area.afterRead(holder);
             return holder.value;
+        }
+        missCount.increment();
+        if (load == null) return null;
+        /*在 map 锁外加载，同一个 key 同时只有一个线程加载，其它线程等待同一个结果*/
+        Loading future = new Loading();
+        Loading loading = area.loading.putIfAbsent(k, future);
+        if (loading != null) return join(loading);
+        load(area, k, load, future);
+        return join(future);
+    }
+
+    /** 异步获取，缓存没有的时候在虚拟线程加载，同一个 key 的并发加载合并成一次 */
+    public CompletableFuture<V> getAsync(K k) {
+        return getAsync(k, loader);
+    }
+
+    /** 异步获取，缓存没有的时候在虚拟线程加载，同一个 key 的并发加载合并成一次 */
+    public CompletableFuture<V> getAsync(K k, Function1<K, V> load) {
+        CacheArea area = area(k);
+        CacheHolder holder = area.nodes.get(k);
+        if (holder != null) {
+            hitCount.increment();
+            area.afterRead(holder);
+            return CompletableFuture.completedFuture(holder.value);
+        }
+        missCount.increment();
+        if (load == null) return CompletableFuture.completedFuture(null);
+        Loading future = new Loading();
+        Loading loading = area.loading.putIfAbsent(k, future);
+        if (loading != null) return loading;
+        try {
+            ExecutorUtil.getInstance().getVirtualExecutor().submit(new Event(cacheName + "-load", 1000, 10_000) {
+                @Override public void onEvent() throws Exception {
+                    load(area, k, load, future);
+                }
+
+                @Override public void onRejected() {
+                    area.loading.remove(k, future);
+                    future.completeExceptionally(new RejectedExecutionException(cacheName + " 加载线程繁忙 " + k));
+                }
+            });
+        } catch (RuntimeException e) {
+            area.loading.remove(k, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 批量获取，缓存中没有的 key 通过 {@link #bulkLoader} 一次加载，没有设置批量加载的时候逐个使用 {@link #loader}
+     *
+     * @return 只包含存在的数据
+     */
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> result = new HashMap<>();
+        Map<K, CompletableFuture<V>> waiting = new HashMap<>();
+        Map<K, Loading> owned = new HashMap<>();
+        for (K k : keys) {
+            CacheArea area = area(k);
+            CacheHolder holder = area.nodes.get(k);
+            if (holder != null) {
+                hitCount.increment();
+                area.afterRead(holder);
+                result.put(k, holder.value);
+                continue;
+            }
+            missCount.increment();
+            if (bulkLoader == null && loader == null) continue;
+            Loading future = new Loading();
+            Loading loading = area.loading.putIfAbsent(k, future);
+            if (loading != null) {
+                waiting.put(k, loading);
+            } else {
+                owned.put(k, future);
+            }
+        }
+        if (!owned.isEmpty()) {
+            loadAll(owned);
+            waiting.putAll(owned);
+        }
+        for (Map.Entry<K, CompletableFuture<V>> entry : waiting.entrySet()) {
+            V v = join(entry.getValue());
+            if (v != null) {
+                result.put(entry.getKey(), v);
+            }
+        }
+        return result;
+    }
+
+    /** 正在加载的结果，记录加载的线程，同一个线程重复加载同一个 key 的时候直接报错 */
+    private class Loading extends CompletableFuture<V> {
+
+        private volatile Thread owner;
+
+    }
+
+    /** 先放入缓存再移除加载状态，最后通知等待的线程，保证等待的线程醒来之后不会再看到旧的加载状态 */
+    private void load(CacheArea area, K k, Function1<K, V> load, Loading future) {
+        V value = null;
+        Throwable throwable = null;
+        future.owner = Thread.currentThread();
+        try {
+            /*注册加载之前可能刚好有其它线程加载完成*/
+            CacheHolder holder = area.nodes.get(k);
+            if (holder != null) {
+                value = holder.value;
+            } else {
+                value = load.apply(k);
+                if (value != null) {
+                    value = putLoaded(area, k, value);
+                }
+            }
+        } catch (Throwable t) {
+            throwable = t;
+        } finally {
+            area.loading.remove(k, future);
+        }
+        if (throwable == null) {
+            future.complete(value);
         } else {
-            return null;
+            future.completeExceptionally(throwable);
+        }
+    }
+
+    private void loadAll(Map<K, Loading> owned) {
+        Map<K, V> result = new HashMap<>();
+        Throwable throwable = null;
+        owned.values().forEach(future -> future.owner = Thread.currentThread());
+        try {
+            Map<K, V> loaded;
+            if (bulkLoader != null) {
+                loaded = bulkLoader.apply(Collections.unmodifiableSet(owned.keySet()));
+            } else {
+                loaded = new HashMap<>();
+                for (K k : owned.keySet()) {
+                    V v = loader.apply(k);
+                    if (v != null) {
+                        loaded.put(k, v);
+                    }
+                }
+            }
+            for (Map.Entry<K, Loading> entry : owned.entrySet()) {
+                K k = entry.getKey();
+                V v = loaded == null ? null : loaded.get(k);
+                if (v != null) {
+                    result.put(k, putLoaded(area(k), k, v));
+                }
+            }
+        } catch (Throwable t) {
+            throwable = t;
+        } finally {
+            owned.forEach((k, future) -> area(k).loading.remove(k, future));
+        }
+        for (Map.Entry<K, Loading> entry : owned.entrySet()) {
+            if (throwable == null) {
+                entry.getValue().complete(result.get(entry.getKey()));
+            } else {
+                entry.getValue().completeExceptionally(throwable);
+            }
+        }
+    }
+
+    /** 加载完成放入缓存，加载期间已经被写入的以已有的为准 */
+    private V putLoaded(CacheArea area, K k, V v) {
+        CacheHolder holder = buildValue(k, v);
+        CacheHolder exist = area.nodes.putIfAbsent(k, holder);
+        if (exist != null) {
+            return exist.value;
+        }
+        loadCount.increment();
+        area.afterWrite(holder);
+        return v;
+    }
+
+    private V join(CompletableFuture<V> future) {
+        if (future instanceof Cache<?, ?>.Loading loading && !loading.isDone() && loading.owner == Thread.currentThread()) {
+            /*加载的时候又加载同一个 key，等待自己会永远等下去*/
+            throw new IllegalStateException(cacheName + " 加载的时候在同一个线程重复加载同一个 key");
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
         }
     }
 
     /** 添加缓存 */
     public void put(K k, V v) {
-        int hk = hashKey(k);
-        this.hkv.put(hk, k, buildValue(k, v));
+        CacheArea area = area(k);
+        CacheHolder holder = buildValue(k, v);
+        CacheHolder old = area.nodes.put(k, holder);
+        if (old != null) {
+            area.afterRemove(old);
+        }
+        area.afterWrite(holder);
     }
 
-    /** 添加缓存 */
-    public void putIfAbsent(K k, V v) {
-        int hk = hashKey(k);
-        this.hkv.putIfAbsent(hk, k, buildValue(k, v));
+    /**
+     * 添加缓存，已经存在的时候不覆盖
+     *
+     * @return true 放入成功，false 已经存在
+     */
+    public boolean putIfAbsent(K k, V v) {
+        CacheArea area = area(k);
+        CacheHolder holder = buildValue(k, v);
+        if (area.nodes.putIfAbsent(k, holder) == null) {
+            area.afterWrite(holder);
+            return true;
+        }
+        return false;
     }
 
     /** 过期 */
     public V invalidate(K k) {
-        int hk = hashKey(k);
-        return Optional.ofNullable(this.hkv.remove(hk, k)).map(holder -> holder.value).orElse(null);
+        CacheArea area = area(k);
+        CacheHolder old = area.nodes.remove(k);
+        if (old == null) return null;
+        area.afterRemove(old);
+        return old.value;
     }
 
     /** 过期 */
     public void invalidateAll() {
-        this.hkv.clear();
+        for (CacheArea area : areas) {
+            for (CacheHolder holder : area.nodes.values()) {
+                if (area.nodes.remove(holder.key, holder)) {
+                    area.afterRemove(holder);
+                }
+            }
+        }
     }
 
     public long cacheSize() {
-        return hkv.size();
+        long size = 0;
+        for (CacheArea area : areas) {
+            size += area.nodes.size();
+        }
+        return size;
+    }
+
+    /** 当前的总权重，没有设置 weigher 的时候和数量一致，维护任务执行之后才会更新 */
+    public long weightedSize() {
+        long size = 0;
+        for (CacheArea area : areas) {
+            size += area.weightedSize;
+        }
+        return size;
+    }
+
+    /** 命中统计 */
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadCount.sum(), evictionCount.sum(), expireCount.sum());
+    }
+
+    /** 立即执行一次维护：整理访问顺序，处理过期、心跳和容量淘汰 */
+    public void cleanUp() {
+        for (CacheArea area : areas) {
+            area.maintenance();
+        }
     }
 
     public Cache(String cacheName, int hashArea, long delay, long expireAfterAccess, long expireAfterWrite, long heartTime) {
+        this(cacheName, hashArea, delay, expireAfterAccess, expireAfterWrite, heartTime, 0);
+    }
+
+    public Cache(String cacheName, int hashArea, long delay, long expireAfterAccess, long expireAfterWrite, long heartTime, long maximumWeight) {
         this.cacheName = cacheName;
         this.hashArea = hashArea;
         this.delay = delay;
         this.expireAfterAccess = expireAfterAccess;
         this.expireAfterWrite = expireAfterWrite;
         this.heartTime = heartTime;
+        this.maximumWeight = maximumWeight;
+        this.accessTolerance = Math.min(1000, expireAfterAccess >> 4);
+        int areaCount = Math.max(1, hashArea);
+        List<CacheArea> list = new ArrayList<>(areaCount);
+        for (int i = 0; i < areaCount; i++) {
+            /*容量平均分配到每个分区*/
+            long maximum = maximumWeight <= 0 ? 0 : Math.max(1, (maximumWeight + areaCount - 1) / areaCount);
+            list.add(new CacheArea(i, maximum));
+        }
+        this.areas = List.copyOf(list);
     }
 
     @shutdown
@@ -174,9 +456,8 @@ public final class Cache<K, V> {
 
         timerJobs.values().forEach(TimerJob::cancel);
 
-        for (Map.Entry<Integer, ConcurrentHashMap<K, CacheHolder>> next : hkv.entrySet()) {
-            ConcurrentHashMap<K, CacheHolder> nextValue = next.getValue();
-            for (Map.Entry<K, CacheHolder> entryNext : nextValue.entrySet()) {
+        for (CacheArea area : areas) {
+            for (Map.Entry<K, CacheHolder> entryNext : area.nodes.entrySet()) {
                 K key = entryNext.getKey();
                 CacheHolder holder = entryNext.getValue();
                 if (removalListener != null) {
@@ -191,39 +472,10 @@ public final class Cache<K, V> {
 
     private void init() {
         HashMap<Integer, TimerJob> tmpJobMap = new HashMap<>();
-        for (int i = 0; i < hashArea; i++) {
-            final int hkey = i;
-            final Map<K, CacheHolder> hash = hkv.row(hkey);
-
-            Event event = new Event(cacheName + "-" + hkey, 10_000, 100_000) {
+        for (CacheArea area : areas) {
+            Event event = new Event(cacheName + "-" + area.index, 10_000, 100_000) {
                 @Override public void onEvent() throws Exception {
-                    long now = MyClock.millis();
-                    Iterator<Map.Entry<K, CacheHolder>> entryIterator = hash.entrySet().iterator();
-                    while (entryIterator.hasNext()) {
-                        Map.Entry<K, CacheHolder> entryNext = entryIterator.next();
-                        K key = entryNext.getKey();
-                        CacheHolder holder = entryNext.getValue();
-
-                        if (heartTime > 0 && heartListener != null && holder.lastHeartTime < now) {
-                            heartListener.accept(key, holder.value);
-                            holder.lastHeartTime = now + heartTime;
-                        }
-
-                        if (holder.expireEndTime > 0 && holder.expireEndTime < now) {
-                            if (removalListener != null) {
-                                Boolean apply = removalListener.apply(key, holder.value);
-                                if (Boolean.TRUE.equals(apply)) {
-                                    entryIterator.remove();
-                                } else {
-                                    refresh(holder);
-                                    log.info("缓存过期：{} 移除失败", key);
-                                }
-                            } else {
-                                entryIterator.remove();
-                                log.info("缓存过期：{}", key);
-                            }
-                        }
-                    }
+                    area.maintenance();
                 }
             };
 
@@ -233,41 +485,374 @@ public final class Cache<K, V> {
                     delay,
                     TimeUnit.MILLISECONDS
             );
-            tmpJobMap.put(hkey, timerJob);
+            tmpJobMap.put(area.index, timerJob);
         }
         timerJobs = Map.copyOf(tmpJobMap);
     }
 
-    private class CacheHolder implements Comparable<CacheHolder> {
+    /**
+     * 缓存分区
+     * <p>
+     * 读写只操作 {@link ConcurrentHashMap}，然后把节点记录到读写缓冲区；
+     * 访问顺序、过期、心跳和容量淘汰都由维护任务在锁内批量处理，每次只处理队列头部到期的节点，不需要遍历全部缓存
+     * <p>
+     * 设置了容量的时候使用 W-TinyLFU：新缓存先进入窗口区，窗口满了之后和试用区最老的缓存比较访问频率，频率高的留下；
+     * 试用区再次被访问晋升到保护区
+     */
+    private final class CacheArea {
+
+        private final int index;
+        /** 分区容量，小于等于 0 不限制 */
+        private final long maximum;
+        private final ConcurrentHashMap<K, CacheHolder> nodes = new ConcurrentHashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        private final AtomicReferenceArray<CacheHolder> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong readCounter = new AtomicLong();
+        private final MpscLinkedQueue<CacheHolder> writeBuffer = new MpscLinkedQueue<>();
+        /** 正在加载的 key */
+        private final ConcurrentHashMap<K, Loading> loading = new ConcurrentHashMap<>();
+
+        /*下面的字段只在锁内访问*/
+        private final FrequencySketch sketch;
+        private final LinkedHashSet<CacheHolder> window = new LinkedHashSet<>();
+        private final LinkedHashSet<CacheHolder> probation = new LinkedHashSet<>();
+        private final LinkedHashSet<CacheHolder> protect = new LinkedHashSet<>();
+        /** 写入顺序，也就是写入过期的顺序 */
+        private final LinkedHashSet<CacheHolder> writeOrder = new LinkedHashSet<>();
+        /** 心跳顺序 */
+        private final LinkedHashSet<CacheHolder> heartOrder = new LinkedHashSet<>();
+        private final long windowMaximum;
+        private final long protectedMaximum;
+        private long windowWeight;
+        private long protectedWeight;
+        private volatile long weightedSize;
+
+        CacheArea(int index, long maximum) {
+            this.index = index;
+            this.maximum = maximum;
+            if (maximum > 0) {
+                this.sketch = new FrequencySketch(maximum);
+                this.windowMaximum = Math.max(1, maximum / 100);
+                this.protectedMaximum = (maximum - windowMaximum) * 8 / 10;
+            } else {
+                this.sketch = null;
+                this.windowMaximum = 0;
+                this.protectedMaximum = 0;
+            }
+        }
 
-        private final K key;
-        private final V value;
-        /** 最后执行心跳的时间 */
-        private long lastHeartTime;
-        /** 过期时间 */
-        private long expireEndTime;
+        /** 是否需要维护访问顺序 */
+        boolean accessOrder() {
+            return maximum > 0 || expireAfterAccess > 0;
+        }
 
-        public CacheHolder(K key, V value) {
-            this.key = key;
-            this.value = value;
-            this.lastHeartTime = MyClock.millis() + Cache.this.heartTime;
+        void afterRead(CacheHolder holder) {
+            if (expireAfterAccess > 0) {
+                refresh(holder, MyClock.millis());
+            }
+            if (!accessOrder()) return;
+            int slot = (int) (readCounter.getAndIncrement() & (READ_BUFFER_SIZE - 1));
+            readBuffer.lazySet(slot, holder);
+            if (slot == READ_BUFFER_SIZE - 1) {
+                scheduleDrain();
+            }
+        }
+
+        void afterWrite(CacheHolder holder) {
+            writeBuffer.offer(holder);
+            if (maximum > 0 || writeBuffer.size() >= WRITE_BUFFER_DRAIN) {
+                scheduleDrain();
+            }
+        }
+
+        void afterRemove(CacheHolder holder) {
+            holder.removed = true;
+            writeBuffer.offer(holder);
+            if (writeBuffer.size() >= WRITE_BUFFER_DRAIN) {
+                scheduleDrain();
+            }
+        }
+
+        /** 提交维护任务到默认线程池，移除监听和心跳监听都不会在业务线程执行 */
+        void scheduleDrain() {
+            if (!drainScheduled.compareAndSet(false, true)) return;
+            try {
+                ExecutorUtil.getInstance().getDefaultExecutor().submit(new Event(cacheName + "-" + index + "-drain", 1000, 10_000) {
+                    @Override public void onEvent() throws Exception {
+                        drainScheduled.set(false);
+                        /*正在维护的时候不等待，剩下的由定时维护处理*/
+                        if (lock.tryLock()) {
+                            try {
+                                maintenance0();
+                            } finally {
+                                lock.unlock();
+                            }
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                /*线程池已满或者已经关闭，等定时维护*/
+                drainScheduled.set(false);
+            }
+        }
+
+        void maintenance() {
+            lock.lock();
+            try {
+                maintenance0();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void maintenance0() {
+            long now = MyClock.millis();
+            drainReadBuffer();
+            drainWriteBuffer();
+            expire(now);
+            heart(now);
+            evict();
+        }
+
+        private void drainReadBuffer() {
+            for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                CacheHolder holder = readBuffer.getAndSet(i, null);
+                if (holder != null) {
+                    onAccess(holder);
+                }
+            }
+        }
+
+        private void drainWriteBuffer() {
+            CacheHolder holder;
+            while ((holder = writeBuffer.poll()) != null) {
+                if (holder.removed) {
+                    unlink(holder);
+                } else if (!holder.linked) {
+                    link(holder);
+                }
+            }
+        }
+
+        private void onAccess(CacheHolder holder) {
+            if (holder.removed || !holder.linked) return;
+            if (sketch != null) {
+                sketch.increment(holder.key);
+            }
+            switch (holder.queue) {
+                case WINDOW -> moveToLast(window, holder);
+                case PROBATION -> {
+                    if (maximum > 0) {
+                        /*试用区再次访问，晋升到保护区*/
+                        probation.remove(holder);
+                        holder.queue = PROTECTED;
+                        protect.addLast(holder);
+                        protectedWeight += holder.weight;
+                        demoteProtected();
+                    } else {
+                        moveToLast(probation, holder);
+                    }
+                }
+                case PROTECTED -> moveToLast(protect, holder);
+            }
+        }
+
+        /** 保护区超出容量，把最老的降级到试用区 */
+        private void demoteProtected() {
+            while (protectedWeight > protectedMaximum && !protect.isEmpty()) {
+                CacheHolder demote = protect.removeFirst();
+                protectedWeight -= demote.weight;
+                demote.queue = PROBATION;
+                probation.addLast(demote);
+            }
+        }
+
+        private void link(CacheHolder holder) {
+            holder.linked = true;
+            weightedSize += holder.weight;
+            if (maximum > 0) {
+                sketch.increment(holder.key);
+                holder.queue = WINDOW;
+                window.addLast(holder);
+                windowWeight += holder.weight;
+            } else if (expireAfterAccess > 0) {
+                holder.queue = PROBATION;
+                probation.addLast(holder);
+            }
+            if (expireAfterWrite > 0) {
+                writeOrder.addLast(holder);
+            }
+            if (heartTime > 0 && heartListener != null) {
+                heartOrder.addLast(holder);
+            }
+        }
+
+        private void unlink(CacheHolder holder) {
+            if (!holder.linked) return;
+            holder.linked = false;
+            weightedSize -= holder.weight;
+            switch (holder.queue) {
+                case WINDOW -> {
+                    window.remove(holder);
+                    windowWeight -= holder.weight;
+                }
+                case PROBATION -> probation.remove(holder);
+                case PROTECTED -> {
+                    protect.remove(holder);
+                    protectedWeight -= holder.weight;
+                }
+            }
+            holder.queue = NONE;
+            writeOrder.remove(holder);
+            heartOrder.remove(holder);
+        }
+
+        private void expire(long now) {
+            if (expireAfterWrite > 0) {
+                expire(writeOrder, now, false);
+            } else if (expireAfterAccess > 0) {
+                expire(window, now, true);
+                expire(probation, now, true);
+                expire(protect, now, true);
+            }
+        }
+
+        /** 从队列头开始处理到期的缓存，遇到没有到期的就停止 */
+        private void expire(LinkedHashSet<CacheHolder> queue, long now, boolean accessOrder) {
+            int stale = 0;
+            while (!queue.isEmpty()) {
+                CacheHolder holder = queue.getFirst();
+                if (holder.expireEndTime == 0 || holder.expireEndTime >= now) {
+                    /*读缓冲区会丢弃一部分记录，队列顺序可能落后于实际访问，少量挪到队尾继续检查*/
+                    if (accessOrder && ++stale <= STALE_MOVE_LIMIT) {
+                        moveToLast(queue, holder);
+                        continue;
+                    }
+                    break;
+                }
+                if (remove(holder, true)) {
+                    expireCount.increment();
+                } else {
+                    /*否决移除，重新计算过期时间*/
+                    holder.expireEndTime = now + (expireAfterWrite > 0 ? expireAfterWrite : expireAfterAccess);
+                    moveToLast(queue, holder);
+                    log.info("缓存过期：{} 移除失败", holder.key);
+                }
+            }
+        }
+
+        private void heart(long now) {
+            if (heartTime <= 0 || heartListener == null) return;
+            while (!heartOrder.isEmpty()) {
+                CacheHolder holder = heartOrder.getFirst();
+                if (holder.lastHeartTime >= now) break;
+                moveToLast(heartOrder, holder);
+                holder.lastHeartTime = now + heartTime;
+                heartListener.accept(holder.key, holder.value);
+            }
         }
 
-        public int compareTo(CacheHolder o) {
-            if (this.expireEndTime != o.expireEndTime)
-                return Long.compare(this.expireEndTime, o.expireEndTime);
-            return Integer.compare(this.hashCode(), o.hashCode());
+        /** 超出容量淘汰 */
+        private void evict() {
+            if (maximum <= 0) return;
+            ArrayDeque<CacheHolder> candidates = null;
+            while (windowWeight > windowMaximum && !window.isEmpty()) {
+                CacheHolder candidate = window.removeFirst();
+                windowWeight -= candidate.weight;
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+                if (candidates == null) candidates = new ArrayDeque<>();
+                candidates.addLast(candidate);
+            }
+            /*移除监听否决的缓存会挪到队尾，最多尝试一轮*/
+            long attempts = nodes.size() + 1L;
+            while (weightedSize > maximum && attempts-- > 0) {
+                CacheHolder evict = null;
+                while (candidates != null && !candidates.isEmpty() && evict == null) {
+                    CacheHolder candidate = candidates.pollFirst();
+                    if (candidate.removed || candidate.queue != PROBATION) continue;
+                    CacheHolder victim = victim(candidate);
+                    if (victim == null) {
+                        evict = candidate;
+                    } else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                        evict = victim;
+                    } else {
+                        evict = candidate;
+                    }
+                }
+                if (evict == null) {
+                    evict = victim(null);
+                }
+                if (evict == null) break;
+                if (remove(evict, false)) {
+                    evictionCount.increment();
+                } else {
+                    /*否决移除，当作一次访问*/
+                    onAccess(evict);
+                    log.info("缓存淘汰：{} 移除失败", evict.key);
+                }
+            }
         }
 
-        @Override public boolean equals(Object o) {
-            if (o == null || getClass() != o.getClass()) return false;
+        /** 淘汰的对象，依次从试用区、保护区、窗口区的最老位置获取 */
+        private CacheHolder victim(CacheHolder exclude) {
+            if (!probation.isEmpty() && probation.getFirst() != exclude) return probation.getFirst();
+            if (!protect.isEmpty()) return protect.getFirst();
+            if (exclude == null && !window.isEmpty()) return window.getFirst();
+            return null;
+        }
 
-            CacheHolder that = (CacheHolder) o;
-            return Objects.equals(key, that.key);
+        /**
+         * 过期或者超出容量移除
+         *
+         * @return 移除监听返回 false 的时候不移除
+         */
+        private boolean remove(CacheHolder holder, boolean expired) {
+            if (!holder.removed && removalListener != null) {
+                Boolean apply = removalListener.apply(holder.key, holder.value);
+                if (!Boolean.TRUE.equals(apply)) {
+                    return false;
+                }
+            }
+            if (nodes.remove(holder.key, holder)) {
+                holder.removed = true;
+                if (log.isDebugEnabled()) {
+                    log.debug("缓存{}：{}", expired ? "过期" : "淘汰", holder.key);
+                }
+            }
+            unlink(holder);
+            return true;
         }
 
-        @Override public int hashCode() {
-            return Objects.hashCode(key);
+        private void moveToLast(LinkedHashSet<CacheHolder> queue, CacheHolder holder) {
+            queue.remove(holder);
+            queue.addLast(holder);
+        }
+
+    }
+
+    private class CacheHolder {
+
+        private final K key;
+        private final V value;
+        private final int weight;
+        /** 最后执行心跳的时间 */
+        private long lastHeartTime;
+        /** 过期时间 */
+        private volatile long expireEndTime;
+        /** 已经从缓存移除 */
+        private volatile boolean removed;
+        /** 已经加入分区的队列，只在维护锁内访问 */
+        private boolean linked;
+        /** 所在的访问顺序队列，只在维护锁内访问 */
+        private int queue = NONE;
+
+        public CacheHolder(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.lastHeartTime = MyClock.millis() + Cache.this.heartTime;
         }
 
         @Override public String toString() {
@@ -286,7 +871,10 @@ public final class Cache<K, V> {
         /** hash桶,通过hash分区 */
         private int hashArea = 0;
         private Function1<K, V> loader;
+        private Function1<Set<K>, Map<K, V>> bulkLoader;
         private Function2<K, V, Boolean> removalListener;
+        private long maximumWeight;
+        private Function2<K, V, Integer> weigher;
         private long expireAfterAccess;
         private long expireAfterWrite;
         private long heartTime;
@@ -324,12 +912,39 @@ public final class Cache<K, V> {
             return this;
         }
 
+        /** 批量加载，{@link Cache#getAll(Collection)} 使用 */
+        public CacheBuilder<K, V> bulkLoader(Function1<Set<K>, Map<K, V>> bulkLoader) {
+            this.bulkLoader = bulkLoader;
+            return this;
+        }
+
         /** 移除监听 */
         public CacheBuilder<K, V> removalListener(Function2<K, V, Boolean> removalListener) {
             this.removalListener = removalListener;
             return this;
         }
 
+        /** 最大缓存数量，超出之后按照 W-TinyLFU 淘汰，移除监听同样可以否决 */
+        public CacheBuilder<K, V> maximumSize(long maximumSize) {
+            if (this.weigher != null) {
+                throw new RuntimeException("设置了 weigher 需要使用 maximumWeight");
+            }
+            this.maximumWeight = maximumSize;
+            return this;
+        }
+
+        /** 最大权重，需要配合 {@link #weigher(Function2)} 使用 */
+        public CacheBuilder<K, V> maximumWeight(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /** 计算缓存的权重，写入的时候计算一次 */
+        public CacheBuilder<K, V> weigher(Function2<K, V, Integer> weigher) {
+            this.weigher = weigher;
+            return this;
+        }
+
         /** 读取过期时间 */
         public CacheBuilder<K, V> expireAfterAccess(long duration, TimeUnit timeUnit) {
             return this.expireAfterAccess(timeUnit.toMillis(duration));
@@ -377,8 +992,13 @@ public final class Cache<K, V> {
         }
 
         public Cache<K, V> build() {
-            Cache<K, V> kvCache = new Cache<K, V>(cacheName, hashArea, delay, expireAfterAccess, expireAfterWrite, heartTime)
+            if (weigher != null && maximumWeight <= 0) {
+                throw new RuntimeException("设置了 weigher 需要同时设置 maximumWeight");
+            }
+            Cache<K, V> kvCache = new Cache<K, V>(cacheName, hashArea, delay, expireAfterAccess, expireAfterWrite, heartTime, maximumWeight)
                     .setLoader(loader)
+                    .setBulkLoader(bulkLoader)
+                    .setWeigher(weigher)
                     .setHeartListener(heartListener)
                     .setRemovalListener(removalListener);
             kvCache.init();
@@ -0,0 +1,22 @@
+package wxdgaming.boot2.core.cache;
+
+/**
+ * 缓存统计快照
+ *
+ * @param hitCount      命中次数
+ * @param missCount     未命中次数，包括加载成功的
+ * @param loadCount     加载成功次数
+ * @param evictionCount 超过容量淘汰的数量
+ * @param expireCount   过期移除的数量
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 21:25
+ */
+public record CacheStats(long hitCount, long missCount, long loadCount, long evictionCount, long expireCount) {
+
+    /** 命中率 */
+    public double hitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+}
@@ -0,0 +1,98 @@
+package wxdgaming.boot2.core.collection;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 只读的 int 键 映射表
+ * <p>
+ * 开放寻址 + 线性探测，容量为 2 的幂且负载不超过一半，查询不装箱
+ * <p>
+ * 创建后不可修改，可以安全的在多线程之间共享，需要变更的时候重新创建整体替换
+ *
+ * @param <V>
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 19:10
+ */
+public final class FrozenIntMap<V> {
+
+    private static final FrozenIntMap<?> EMPTY = new FrozenIntMap<>(Map.of());
+
+    @SuppressWarnings("unchecked")
+    public static <V> FrozenIntMap<V> empty() {
+        return (FrozenIntMap<V>) EMPTY;
+    }
+
+    public static <V> FrozenIntMap<V> of(Map<Integer, ? extends V> map) {
+        if (map.isEmpty()) return empty();
+        return new FrozenIntMap<>(map);
+    }
+
+    private final int[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int shift;
+    private final int size;
+
+    private FrozenIntMap(Map<Integer, ? extends V> map) {
+        int capacity = Integer.highestOneBit(Math.max(2, map.size() * 2 - 1)) << 1;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        this.size = map.size();
+        for (Map.Entry<Integer, ? extends V> entry : map.entrySet()) {
+            V value = entry.getValue();
+            if (value == null) {
+                throw new IllegalArgumentException("value is null, key: " + entry.getKey());
+            }
+            int key = entry.getKey();
+            int index = index(key);
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = value;
+        }
+    }
+
+    /** 斐波那契散列，消息id 这种字符串 hash 低位分布不均匀也能打散 */
+    private int index(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = index(key);
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<Integer, V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+}
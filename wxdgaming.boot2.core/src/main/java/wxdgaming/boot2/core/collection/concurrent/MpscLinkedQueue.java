@@ -0,0 +1,91 @@
+package wxdgaming.boot2.core.collection.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 无锁 多生产者-单消费者 队列
+ * <p>
+ * 生产者通过 getAndSet 抢占尾节点，不需要加锁；消费者只能有一个线程，由调用方保证
+ * <p>
+ * {@link #offer(Object)} 任意线程都可以调用，{@link #poll()} 同一时刻只允许一个线程调用
+ *
+ * @param <E>
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 10:12
+ */
+public class MpscLinkedQueue<E> {
+
+    /** 生产者写入的位置 */
+    private final AtomicReference<Node<E>> producerNode;
+    /** 消费者读取的位置，只会被消费线程修改 */
+    private volatile Node<E> consumerNode;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public MpscLinkedQueue() {
+        Node<E> stub = new Node<>(null);
+        producerNode = new AtomicReference<>(stub);
+        consumerNode = stub;
+    }
+
+    /** 添加元素，多线程安全 */
+    public void offer(E e) {
+        if (e == null) throw new NullPointerException();
+        Node<E> node = new Node<>(e);
+        Node<E> prev = producerNode.getAndSet(node);
+        /*这之后 node 对消费者可见*/
+        prev.next = node;
+        size.incrementAndGet();
+    }
+
+    /**
+     * 获取并且移除头部元素，只允许单线程调用
+     *
+     * @return 队列为空，或者生产者尚未完成链接的时候返回 null
+     */
+    public E poll() {
+        Node<E> current = consumerNode;
+        Node<E> next = current.next;
+        if (next == null) {
+            if (current == producerNode.get()) {
+                return null;
+            }
+            /*生产者已经抢占了尾节点，但是还没有设置 next，自旋等待*/
+            while ((next = current.next) == null) {
+                Thread.onSpinWait();
+            }
+        }
+        E value = next.value;
+        next.value = null;
+        consumerNode = next;
+        size.decrementAndGet();
+        return value;
+    }
+
+    /** 查看头部元素，只允许消费线程调用 */
+    public E peek() {
+        Node<E> next = consumerNode.next;
+        return next == null ? null : next.value;
+    }
+
+    public boolean isEmpty() {
+        return consumerNode == producerNode.get();
+    }
+
+    /** 近似值，并发情况下只作为参考 */
+    public int size() {
+        return Math.max(0, size.get());
+    }
+
+    private static final class Node<E> {
+
+        E value;
+        volatile Node<E> next;
+
+        Node(E value) {
+            this.value = value;
+        }
+
+    }
+
+}
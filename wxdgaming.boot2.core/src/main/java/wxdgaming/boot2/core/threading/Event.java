@@ -91,8 +91,12 @@ public abstract class Event implements Runnable, RunMonitor {
 
     public abstract void onEvent() throws Exception;
 
+    /** 队列已满任务被丢弃，不会再执行 {@link #onEvent()}，需要释放资源的在这里处理 */
+    public void onRejected() {
+    }
+
     /** 提交待线程池执行 */
-    public final void submit() {
+    public final Job submit() {
         IExecutorServices executor;
         if (StringUtils.isNotBlank(getThreadName())) {
             executor = ExecutorUtil.getInstance().All_THREAD_LOCAL.get(getThreadName());
@@ -101,7 +105,7 @@ public abstract class Event implements Runnable, RunMonitor {
         } else {
             executor = ExecutorUtil.getInstance().getLogicExecutor();
         }
-        executor.submit(getQueueName(), this, 3);
+        return executor.submit(getQueueName(), this, 3);
     }
 
 }
@@ -34,6 +34,33 @@ public class ExecutorConfig extends ObjectBase {
     @JSONField(ordinal = 21)
     private final int virtualMaxSize;
 
+    /** 定时器时间轮刻度精度，单位毫秒 */
+    @JSONField(ordinal = 30)
+    private final int timerTickMillis;
+
+    /** 默认线程池 逻辑线程池 虚拟线程池 的主队列容量，小于等于 0 不限制 */
+    @JSONField(ordinal = 40)
+    private final int queueCapacity;
+    /** 子队列默认容量，小于等于 0 不限制 */
+    @JSONField(ordinal = 41)
+    private final int subQueueCapacity;
+    /** 队列已满的拒绝策略 */
+    @JSONField(ordinal = 42)
+    private final RejectPolicy rejectPolicy;
+
+    public ExecutorConfig(int defaultCoreSize, int defaultMaxSize,
+                          int logicCoreSize, int logicMaxSize,
+                          int virtualCoreSize, int virtualMaxSize) {
+        this(defaultCoreSize, defaultMaxSize, logicCoreSize, logicMaxSize, virtualCoreSize, virtualMaxSize, 1);
+    }
+
+    public ExecutorConfig(int defaultCoreSize, int defaultMaxSize,
+                          int logicCoreSize, int logicMaxSize,
+                          int virtualCoreSize, int virtualMaxSize,
+                          int timerTickMillis) {
+        this(defaultCoreSize, defaultMaxSize, logicCoreSize, logicMaxSize, virtualCoreSize, virtualMaxSize, timerTickMillis, 0, 0, null);
+    }
+
     @JSONCreator
     public ExecutorConfig(
             @JSONField(name = "defaultCoreSize") int defaultCoreSize,
@@ -41,12 +68,20 @@ public class ExecutorConfig extends ObjectBase {
             @JSONField(name = "logicCoreSize") int logicCoreSize,
             @JSONField(name = "logicMaxSize") int logicMaxSize,
             @JSONField(name = "virtualCoreSize") int virtualCoreSize,
-            @JSONField(name = "virtualMaxSize") int virtualMaxSize) {
+            @JSONField(name = "virtualMaxSize") int virtualMaxSize,
+            @JSONField(name = "timerTickMillis") int timerTickMillis,
+            @JSONField(name = "queueCapacity") int queueCapacity,
+            @JSONField(name = "subQueueCapacity") int subQueueCapacity,
+            @JSONField(name = "rejectPolicy") RejectPolicy rejectPolicy) {
         this.defaultCoreSize = defaultCoreSize;
         this.defaultMaxSize = defaultMaxSize;
         this.logicCoreSize = logicCoreSize;
         this.logicMaxSize = logicMaxSize;
         this.virtualCoreSize = virtualCoreSize;
         this.virtualMaxSize = virtualMaxSize;
+        this.timerTickMillis = timerTickMillis > 0 ? timerTickMillis : 1;
+        this.queueCapacity = queueCapacity;
+        this.subQueueCapacity = subQueueCapacity;
+        this.rejectPolicy = rejectPolicy == null ? RejectPolicy.FailFast : rejectPolicy;
     }
 }
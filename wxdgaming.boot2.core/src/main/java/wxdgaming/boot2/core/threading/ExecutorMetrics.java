@@ -0,0 +1,126 @@
+package wxdgaming.boot2.core.threading;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程池和子队列的统计
+ * <p>
+ * 计数使用 {@link LongAdder}，耗时使用 {@link LatencyHistogram}，执行路径上没有锁
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 20:40
+ **/
+public final class ExecutorMetrics {
+
+    /**
+     * 子队列是否单独统计，默认关闭，只影响之后创建的子队列
+     * <p>
+     * 每个子队列统计有两个 {@link LatencyHistogram}，按玩家划分子队列的时候数量很多，需要排查的时候再打开
+     */
+    @Getter @Setter private static volatile boolean queueMetrics = false;
+
+    /** 全部线程池的统计快照 */
+    public static List<ExecutorSnapshot> snapshots(boolean withQueue) {
+        List<ExecutorSnapshot> list = new ArrayList<>();
+        for (IExecutorServices executorServices : ExecutorUtil.getInstance().All_THREAD_LOCAL.values()) {
+            list.add(snapshot(executorServices, withQueue));
+        }
+        list.sort(Comparator.comparing(s -> s.metrics().name()));
+        return list;
+    }
+
+    /** 线程池的统计快照 */
+    public static ExecutorSnapshot snapshot(IExecutorServices executorServices, boolean withQueue) {
+        List<Snapshot> queues = new ArrayList<>();
+        if (withQueue) {
+            executorServices.getExecutorQueueMap().forEach((queueName, executorQueue) -> {
+                ExecutorMetrics metrics = executorQueue.getMetrics();
+                if (metrics != null) {
+                    queues.add(metrics.snapshot(queueName, executorQueue.size()));
+                }
+            });
+            queues.sort(Comparator.comparing(Snapshot::name));
+        }
+        return new ExecutorSnapshot(executorServices.getMetrics().snapshot(executorServices.getName(), executorServices.queueSize()), queues);
+    }
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder active = new LongAdder();
+    /** 提交到开始执行的等待时间 */
+    private final LatencyHistogram waitTime;
+    /** 执行耗时 */
+    private final LatencyHistogram execTime;
+
+    /** @param stripes 同时写入的线程数量，子队列串行执行用 1 */
+    public ExecutorMetrics(int stripes) {
+        stripes = Math.min(stripes, 8);
+        this.waitTime = new LatencyHistogram(stripes);
+        this.execTime = new LatencyHistogram(stripes);
+    }
+
+    void onSubmit() {
+        submitted.increment();
+    }
+
+    void onReject() {
+        rejected.increment();
+    }
+
+    void onStart(long waitNanos) {
+        active.increment();
+        waitTime.recordNanos(waitNanos);
+    }
+
+    void onComplete(long execNanos) {
+        active.decrement();
+        completed.increment();
+        execTime.recordNanos(execNanos);
+    }
+
+    public Snapshot snapshot(String name, int queueSize) {
+        return new Snapshot(
+                name,
+                submitted.sum(),
+                completed.sum(),
+                rejected.sum(),
+                active.sum(),
+                queueSize,
+                waitTime.snapshot(),
+                execTime.snapshot()
+        );
+    }
+
+    /**
+     * 统计快照，耗时单位微秒
+     *
+     * @param name      线程池名称或者子队列名称
+     * @param submitted 提交数量
+     * @param completed 执行完成数量
+     * @param rejected  拒绝数量
+     * @param active    正在执行的数量
+     * @param queueSize 当前排队数量
+     * @param waitTime  排队等待耗时
+     * @param execTime  执行耗时
+     */
+    public record Snapshot(String name, long submitted, long completed, long rejected, long active, int queueSize,
+                           LatencyHistogram.Snapshot waitTime, LatencyHistogram.Snapshot execTime) {
+    }
+
+    /**
+     * 线程池快照
+     *
+     * @param metrics 线程池统计，包含主队列和全部子队列
+     * @param queues  子队列统计
+     */
+    public record ExecutorSnapshot(Snapshot metrics, List<Snapshot> queues) {
+    }
+
+}
@@ -1,14 +1,22 @@
 package wxdgaming.boot2.core.threading;
 
 import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.collection.concurrent.MpscLinkedQueue;
 import wxdgaming.boot2.core.util.GlobalUtil;
 
-import java.util.LinkedList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 线程任务队列
+ * <p>
+ * 多个线程投递，同一时刻只有一个线程消费，保证队列内任务串行执行
+ * <p>
+ * 每次调度最多连续执行 {@link #DRAIN_BATCH_SIZE} 个任务，然后重新投递到线程池，避免单个队列长时间占用线程
+ * <p>
+ * 有容量上限的队列，生产者在锁内检查容量并且丢弃最早的任务，消费线程出队也在同一个锁内，保证同一时刻只有一个线程出队；
+ * 没有容量上限的队列消费线程不加锁
  *
  * @author: wxd-gaming(無心道, 15388152619)
  * @version: 2023-11-10 22:48
@@ -16,80 +24,170 @@ import java.util.concurrent.locks.ReentrantLock;
 @Slf4j
 class ExecutorQueue implements Runnable {
 
-    private final ReentrantLock lock = new ReentrantLock();
+    /** 每次调度最多连续执行的任务数量 */
+    static final int DRAIN_BATCH_SIZE = 64;
+
     private final IExecutorServices iExecutorServices;
     private final String queueName;
     private final AtomicBoolean isAppend = new AtomicBoolean();
-    private final LinkedList<ExecutorServiceJob> queues = new LinkedList<>();
+    private final MpscLinkedQueue<ExecutorServiceJob> queues = new MpscLinkedQueue<>();
+    /** 已经取消但是还在队列里等消费线程跳过的任务数量 */
+    private final AtomicInteger cancelled = new AtomicInteger();
+    /** 出队锁，没有容量上限的时候都不需要 */
+    private final ReentrantLock pollLock = new ReentrantLock();
+    /** 消费线程这一批不加锁出队，期间改成有容量上限的时候生产者不能出队，按丢弃新任务处理 */
+    private volatile boolean unlockedDrain = false;
+    /** 队列容量，小于等于 0 不限制 */
+    private volatile int capacity;
+    /** 子队列统计，{@link ExecutorMetrics#isQueueMetrics()} 关闭的时候为 null */
+    private final ExecutorMetrics metrics;
 
     public ExecutorQueue(IExecutorServices iExecutorServices, String queueName) {
+        this(iExecutorServices, queueName, 0);
+    }
+
+    public ExecutorQueue(IExecutorServices iExecutorServices, String queueName, int capacity) {
         this.iExecutorServices = iExecutorServices;
         this.queueName = queueName;
+        this.capacity = capacity;
+        this.metrics = ExecutorMetrics.isQueueMetrics() ? new ExecutorMetrics(1) : null;
+    }
+
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
     }
 
     public void add(ExecutorServiceJob job) {
-        lock.lock();
-        try {
-            this.queues.add(job);
-            if (queues.size() > iExecutorServices.getQueueCheckSize()) {
-                RuntimeException runtimeException = new RuntimeException();
-                GlobalUtil.exception("任务剩余过多 主队列：" + iExecutorServices.queueSize() + ", 子队列：" + queueName + ", size：" + this.size() + ", append：" + this.isAppend.get(), runtimeException);
+        job.queueMetrics = metrics;
+        if (metrics != null) metrics.onSubmit();
+        int capacity = this.capacity;
+        if (capacity > 0) {
+            RejectPolicy rejectPolicy = null;
+            ExecutorServiceJob oldest = null;
+            pollLock.lock();
+            try {
+                if (size() >= capacity) {
+                    rejectPolicy = iExecutorServices.getRejectPolicy();
+                    if (rejectPolicy == RejectPolicy.DropOldest) {
+                        if (unlockedDrain) {
+                            rejectPolicy = RejectPolicy.DropNewest;
+                        } else {
+                            oldest = pollOldest();
+                        }
+                    }
+                }
+                if (rejectPolicy == null || rejectPolicy == RejectPolicy.DropOldest) {
+                    job.queued.set(true);
+                    this.queues.offer(job);
+                }
+            } finally {
+                pollLock.unlock();
             }
-            if (!this.isAppend.get()) {
-                this.isAppend.set(true);
-                iExecutorServices.threadPoolExecutor(this);
+            /*回调和 CallerRuns 都不能在锁内执行*/
+            if (rejectPolicy == RejectPolicy.DropOldest) {
+                job.queueFull = true;
+                if (oldest != null) {
+                    oldest.reject();
+                    if (log.isDebugEnabled()) {
+                        log.debug("{} 子队列：{} 已满，丢弃最早的任务 {}", iExecutorServices.getName(), queueName, oldest);
+                    }
+                }
+            } else if (rejectPolicy != null) {
+                if (rejectPolicy == RejectPolicy.CallerRuns && !IExecutorServices.isIoThread()) {
+                    /*调用线程直接执行会插到排队的任务前面，破坏串行顺序*/
+                    rejectPolicy = RejectPolicy.FailFast;
+                }
+                iExecutorServices.reject(rejectPolicy, job, "子队列：" + queueName);
+                return;
             }
-        } finally {
-            lock.unlock();
+        } else {
+            job.queued.set(true);
+            this.queues.offer(job);
+        }
+        if (size() > iExecutorServices.getQueueCheckSize()) {
+            RuntimeException runtimeException = new RuntimeException();
+            GlobalUtil.exception("任务剩余过多 主队列：" + iExecutorServices.queueSize() + ", 子队列：" + queueName + ", size：" + this.size() + ", append：" + this.isAppend.get(), runtimeException);
+        }
+        if (this.isAppend.compareAndSet(false, true)) {
+            iExecutorServices.threadPoolExecutor(this);
         }
     }
 
+    /** 移除只是做标记，等消费线程取出的时候跳过 */
     public boolean remove(ExecutorServiceJob job) {
-        lock.lock();
-        try {
-            return this.queues.remove(job);
-        } finally {
-            lock.unlock();
+        if (job.queued.compareAndSet(true, false)) {
+            cancelled.incrementAndGet();
+            return true;
         }
+        return false;
     }
 
+    /** 等待执行的任务数量，不包含已经取消的，并发情况下是近似值 */
     public int size() {
-        return queues.size();
+        return Math.max(0, queues.size() - cancelled.get());
     }
 
     @Override public void run() {
         try {
-            ExecutorServiceJob executorServiceJob = null;
             try {
-                lock.lock();
-                try {
-                    if (!this.queues.isEmpty()) {
-                        executorServiceJob = this.queues.removeFirst();
+                /*先发布标记再读容量，和生产者先写容量再读标记配合，保证不会同时出队*/
+                unlockedDrain = true;
+                boolean bounded = capacity > 0;
+                if (bounded) unlockedDrain = false;
+                for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+                    ExecutorServiceJob executorServiceJob;
+                    if (bounded) {
+                        pollLock.lock();
+                        try {
+                            executorServiceJob = this.queues.poll();
+                        } finally {
+                            pollLock.unlock();
+                        }
+                    } else {
+                        executorServiceJob = this.queues.poll();
+                    }
+                    if (executorServiceJob == null) break;
+                    /*已经取消的任务*/
+                    if (!executorServiceJob.queued.compareAndSet(true, false)) {
+                        cancelled.decrementAndGet();
+                        continue;
+                    }
+                    try {
+                        executorServiceJob.run();
+                    } catch (Throwable throwable) {
+                        GlobalUtil.exception("执行：" + executorServiceJob, throwable);
                     }
-                } finally {
-                    lock.unlock();
-                }
-                if (executorServiceJob != null) {
-                    executorServiceJob.run();
                 }
-            } catch (Throwable throwable) {
-                GlobalUtil.exception("执行：" + executorServiceJob, throwable);
             } finally {
-                lock.lock();
-                try {
-                    if (!this.queues.isEmpty()) {
-                        iExecutorServices.threadPoolExecutor(this);
-                    } else {
-                        this.isAppend.set(false);
-                    }
-                } finally {
-                    lock.unlock();
+                unlockedDrain = false;
+                this.isAppend.set(false);
+                /*先释放标记再检查，保证生产者不会丢失调度*/
+                if (!this.queues.isEmpty() && this.isAppend.compareAndSet(false, true)) {
+                    iExecutorServices.threadPoolExecutor(this);
                 }
             }
         } catch (Throwable throwable) {/*不能加东西，log也有可能异常*/}
     }
 
+    /** 取出最早的没有取消的任务，已经取消的顺便出队，需要持有出队锁 */
+    private ExecutorServiceJob pollOldest() {
+        ExecutorServiceJob oldest;
+        while ((oldest = this.queues.poll()) != null) {
+            if (oldest.queued.compareAndSet(true, false)) return oldest;
+            cancelled.decrementAndGet();
+        }
+        return null;
+    }
+
     @Override public String toString() {
-        return queueName + " - " + this.queues.size();
+        return queueName + " - " + size();
     }
-}
\ No newline at end of file
+}
@@ -28,6 +28,14 @@ public class ExecutorServiceJob implements Runnable, Job {
     protected volatile Thread currentThread;
     /** 是否已经追加到队列 */
     protected AtomicBoolean append = new AtomicBoolean();
+    /** 在子队列中等待执行，取消的时候置为 false */
+    protected final AtomicBoolean queued = new AtomicBoolean();
+    /** 队列已满被拒绝 */
+    protected volatile boolean rejected = false;
+    /** 提交的时候队列已满 */
+    protected volatile boolean queueFull = false;
+    /** 所在子队列的统计，主队列或者子队列关闭统计的时候为 null */
+    protected volatile ExecutorMetrics queueMetrics;
 
     public ExecutorServiceJob(IExecutorServices iExecutorServices, Runnable task, int stackTrace) {
         this.iExecutorServices = iExecutorServices;
@@ -90,6 +98,11 @@ public class ExecutorServiceJob implements Runnable, Job {
 
         currentThread = Thread.currentThread();
         startExecTime = System.nanoTime();
+        ExecutorMetrics metrics = iExecutorServices.getMetrics();
+        ExecutorMetrics queueMetrics = this.queueMetrics;
+        long waitNanos = initTaskTime == 0 ? 0 : startExecTime - initTaskTime;
+        metrics.onStart(waitNanos);
+        if (queueMetrics != null) queueMetrics.onStart(waitNanos);
         ExecutorUtil.getInstance().Run_THREAD_LOCAL.put(currentThread, this);
         ExecutorUtil.getInstance().CurrentThread.set(this);
 
@@ -134,19 +147,39 @@ public class ExecutorServiceJob implements Runnable, Job {
         } catch (Throwable throwable) {
             GlobalUtil.exception("执行：" + runName, throwable);
         } finally {
+            long execNanos = System.nanoTime() - startExecTime;
+            metrics.onComplete(execNanos);
+            if (queueMetrics != null) queueMetrics.onComplete(execNanos);
             ExecutorUtil.getInstance().CurrentThread.remove();
             ExecutorUtil.getInstance().Run_THREAD_LOCAL.remove(currentThread);
             this.append.set(false);
         }
     }
 
+    /** 队列已满，标记拒绝并且通知任务 */
+    void reject() {
+        this.rejected = true;
+        this.queued.set(false);
+        this.append.set(false);
+        iExecutorServices.getMetrics().onReject();
+        ExecutorMetrics queueMetrics = this.queueMetrics;
+        if (queueMetrics != null) queueMetrics.onReject();
+        if (task instanceof Event event) {
+            try {
+                event.onRejected();
+            } catch (Throwable throwable) {
+                GlobalUtil.exception("拒绝回调：" + runName, throwable);
+            }
+        }
+    }
+
     @Override public String names() {
         return toString();
     }
 
     @Override public boolean cancel() {
         if (StringUtils.isNotBlank(queueName)) {
-            return iExecutorServices.getExecutorQueueMap().computeIfAbsent(queueName, k -> new ExecutorQueue(iExecutorServices, k)).remove(this);
+            return iExecutorServices.executorQueue(queueName).remove(this);
         } else {
             return iExecutorServices.threadPoolQueue().remove(this);
         }
@@ -24,6 +24,14 @@ public final class ExecutorServices implements IExecutorServices {
     final ConcurrentHashMap<String, ExecutorQueue> executorQueueMap = new ConcurrentHashMap<>();
     /** 当队列执行数量剩余过多的预警 */
     long queueCheckSize = 5000;
+    /** 主队列容量，小于等于 0 不限制 */
+    volatile int queueCapacity = 0;
+    /** 子队列默认容量，小于等于 0 不限制 */
+    volatile int subQueueCapacity = 0;
+    /** 队列已满的拒绝策略 */
+    volatile RejectPolicy rejectPolicy = RejectPolicy.FailFast;
+    /** 统计 */
+    final ExecutorMetrics metrics;
 
     ExecutorServices(String name, boolean daemon, int coreSize, int maxSize) {
 
@@ -40,6 +48,7 @@ public final class ExecutorServices implements IExecutorServices {
                 maxSize,
                 new LinkedBlockingQueue<>()
         );
+        metrics = new ExecutorMetrics(maxSize);
 
     }
 
@@ -52,6 +61,21 @@ public final class ExecutorServices implements IExecutorServices {
         return this;
     }
 
+    @Override public ExecutorServices setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    @Override public ExecutorServices setSubQueueCapacity(int subQueueCapacity) {
+        this.subQueueCapacity = subQueueCapacity;
+        return this;
+    }
+
+    @Override public ExecutorServices setRejectPolicy(RejectPolicy rejectPolicy) {
+        this.rejectPolicy = rejectPolicy;
+        return this;
+    }
+
     /** 线程池名字 */
     @Override public String getName() {
         return this.threadPoolExecutor.getName();
@@ -5,6 +5,7 @@ import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import wxdgaming.boot2.core.ann.Sort;
+import wxdgaming.boot2.core.collection.concurrent.MpscLinkedQueue;
 import wxdgaming.boot2.core.function.ConsumerE0;
 import wxdgaming.boot2.core.lang.Tick;
 import wxdgaming.boot2.core.shutdown;
@@ -12,10 +13,13 @@ import wxdgaming.boot2.core.timer.MyClock;
 import wxdgaming.boot2.core.util.GlobalUtil;
 
 import java.io.Serializable;
-import java.util.*;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 默认线程池
@@ -75,7 +79,13 @@ public final class ExecutorUtil implements Serializable {
         defaultExecutor = newExecutorServices("default-executor", config.getDefaultCoreSize(), config.getDefaultMaxSize());
         logicExecutor = newExecutorServices("logic-executor", config.getLogicCoreSize(), config.getLogicMaxSize());
         virtualExecutor = newExecutorVirtualServices("virtual-executor", config.getVirtualCoreSize(), config.getVirtualMaxSize());
+        for (IExecutorServices executorServices : new IExecutorServices[]{defaultExecutor, logicExecutor, virtualExecutor}) {
+            executorServices.setQueueCapacity(config.getQueueCapacity());
+            executorServices.setSubQueueCapacity(config.getSubQueueCapacity());
+            executorServices.setRejectPolicy(config.getRejectPolicy());
+        }
 
+        TIMER_THREAD.setTickMillis(config.getTimerTickMillis());
         TIMER_THREAD.start();
         GUARD_THREAD.start();
 
@@ -200,6 +210,11 @@ public final class ExecutorUtil implements Serializable {
         return Optional.ofNullable(CurrentThread.get()).map(s -> s.queueName).orElse("");
     }
 
+    /** 当前线程所在的线程池，不是线程池任务返回 null */
+    public IExecutorServices currentThreadExecutor() {
+        return Optional.ofNullable(CurrentThread.get()).map(s -> s.iExecutorServices).orElse(null);
+    }
+
     ExecutorUtil() {}
 
     /** 守护线程 */
@@ -236,84 +251,134 @@ public final class ExecutorUtil implements Serializable {
 
     protected class TimerThread extends Thread {
 
-        final ReentrantLock relock = new ReentrantLock();
-        private LinkedList<TimerJob> timerJobs = new LinkedList<>();
+        /** 待加入时间轮的任务 */
+        private final MpscLinkedQueue<TimerJob> addQueue = new MpscLinkedQueue<>();
+        /** 待从时间轮移除的任务 */
+        private final MpscLinkedQueue<TimerJob> cancelQueue = new MpscLinkedQueue<>();
+        private final AtomicBoolean clearFlag = new AtomicBoolean();
+        private final long startNanos = System.nanoTime();
+        /** 时间轮刻度精度 */
+        private volatile long tickMillis = 1;
+        /** 定时器线程计划唤醒的刻度 */
+        private volatile long wakeTick = Long.MAX_VALUE;
 
         public TimerThread() {
             super("timer-executor");
             setPriority(6);
         }
 
+        /** 设置时间轮刻度精度，需要在线程启动前设置 */
+        void setTickMillis(long tickMillis) {
+            if (isAlive()) throw new IllegalStateException("定时器线程已经启动");
+            this.tickMillis = Math.max(1, tickMillis);
+        }
+
+        long nowTick() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) / tickMillis;
+        }
+
         public void add(TimerJob timerJob) {
-            relock.lock();
-            try {
-                timerJobs.add(timerJob);
-                timerJobs.sort(Comparator.comparingLong(TimerJob::getLastExecTime));
-            } finally {
-                relock.unlock();
+            timerJob.timerThread = this;
+            addQueue.offer(timerJob);
+            long delayTick = Math.max(0, timerJob.getLastExecTime() - MyClock.millis()) / tickMillis;
+            if (nowTick() + delayTick < wakeTick) {
+                LockSupport.unpark(this);
             }
         }
 
+        void cancel(TimerJob timerJob) {
+            cancelQueue.offer(timerJob);
+        }
+
         public void clear() {
-            relock.lock();
-            try {
-                timerJobs = new LinkedList<>();
-            } finally {
-                relock.unlock();
-            }
+            clearFlag.set(true);
+            LockSupport.unpark(this);
         }
 
         @Override public void run() {
-            Tick tick = new Tick(1, 2, TimeUnit.MILLISECONDS);
             Logger logger = LoggerFactory.getLogger(this.getClass());
+            TimerWheel timerWheel = new TimerWheel(nowTick());
             while (!Thread.currentThread().isInterrupted()) {
                 try {
-                    tick.waitNext();
-                    relock.lock();
-                    long millis = MyClock.millis();
-                    try {
-                        boolean needSort = false;
-                        Iterator<TimerJob> iterator = timerJobs.iterator();
-                        while (iterator.hasNext()) {
-                            try {
-                                TimerJob next = iterator.next();
-                                if (next.IExecutorServices.isShutdown() || next.IExecutorServices.isTerminated()) {
-                                    /*线程正在关闭不处理*/
-                                    iterator.remove();
-                                    if (logger.isDebugEnabled()) {
-                                        logger.debug("线程{}正在关闭不处理{}", next.IExecutorServices.getName(), next.executorServiceJob.toString());
-                                    }
-                                    continue;
-                                }
-                                if (next.checkRunTime(millis)) {
-                                    if (next.runJob()) {
-                                        if (next.isOver()) {
-                                            /*移除当前对象*/
-                                            iterator.remove();
-                                            if (logger.isDebugEnabled()) {
-                                                logger.debug("线程{}执行时间到期，移除{}", next.IExecutorServices.getName(), next.executorServiceJob.toString());
-                                            }
-                                        } else {
-                                            needSort = true;
-                                        }
-                                    }
-                                } else {
-                                    break;
-                                }
-                            } catch (Throwable throwable) {
-                                GlobalUtil.exception("定时任务公共处理器", throwable);
-                            }
-                        }
-                        if (needSort) {
-                            timerJobs.sort(Comparator.comparingLong(TimerJob::getLastExecTime));
+                    if (clearFlag.compareAndSet(true, false)) {
+                        timerWheel.clear();
+                        while (addQueue.poll() != null) {}
+                        while (cancelQueue.poll() != null) {}
+                    }
+                    /*先推进到当前刻度，新任务的到期刻度按当前时间计算，休眠之后的旧刻度会让新任务提前执行；已经取消的任务到期也不会执行*/
+                    timerWheel.advance(nowTick(), job -> expired(logger, timerWheel, job));
+                    TimerJob timerJob;
+                    while ((timerJob = addQueue.poll()) != null) {
+                        if (timerJob.isOver()) continue;
+                        timerWheel.add(timerJob, deadlineTick(timerWheel, timerJob));
+                    }
+                    while ((timerJob = cancelQueue.poll()) != null) {
+                        timerWheel.remove(timerJob);
+                    }
+                    long next = timerWheel.nextWakeTick();
+                    wakeTick = next;
+                    /*先发布唤醒刻度再检查队列，避免错过新加入的任务*/
+                    if (!addQueue.isEmpty() || clearFlag.get()) continue;
+                    if (next == Long.MAX_VALUE) {
+                        LockSupport.park(this);
+                    } else {
+                        long parkNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(next * tickMillis) - System.nanoTime();
+                        if (parkNanos > 0) {
+                            LockSupport.parkNanos(this, parkNanos);
                         }
-                    } finally {
-                        relock.unlock();
                     }
                 } catch (Throwable throwable) {/*不能加东西，log也有可能异常*/}
             }
             logger.info("线程 {} 退出", Thread.currentThread());
         }
+
+        long deadlineTick(TimerWheel timerWheel, TimerJob timerJob) {
+            long delayMillis = Math.max(0, timerJob.getLastExecTime() - MyClock.millis());
+            /*向上取整，保证不会提前执行*/
+            return timerWheel.currentTick() + (delayMillis + tickMillis - 1) / tickMillis;
+        }
+
+        void expired(Logger logger, TimerWheel timerWheel, TimerJob next) {
+            try {
+                if (next.IExecutorServices.isShutdown() || next.IExecutorServices.isTerminated()) {
+                    /*线程正在关闭不处理*/
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("线程{}正在关闭不处理{}", next.IExecutorServices.getName(), next.executorServiceJob.toString());
+                    }
+                    return;
+                }
+                if (next.isOver()) return;
+                if (!next.checkRunTime(MyClock.millis())) {
+                    /*时钟被调整过，按照剩余时间重新放回去*/
+                    timerWheel.add(next, deadlineTick(timerWheel, next));
+                    return;
+                }
+                if (next.runJob()) {
+                    if (next.isOver()) {
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("线程{}执行时间到期，移除{}", next.IExecutorServices.getName(), next.executorServiceJob.toString());
+                        }
+                        return;
+                    }
+                    timerWheel.add(next, deadlineTick(timerWheel, next));
+                } else {
+                    /*上一次还没有执行完成，下一个刻度再检查*/
+                    timerWheel.add(next, timerWheel.currentTick() + 1);
+                }
+            } catch (RejectedExecutionException e) {
+                /*队列已满，任务已经标记拒绝并且回调了 onRejected，跳过这一次，下一个刻度重试只会一直拒绝*/
+                next.skipRun();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("线程{}队列已满，跳过定时任务{}", next.IExecutorServices.getName(), next.executorServiceJob.toString());
+                }
+                if (!next.isOver()) {
+                    timerWheel.add(next, deadlineTick(timerWheel, next));
+                }
+            } catch (Throwable throwable) {
+                GlobalUtil.exception("定时任务公共处理器", throwable);
+                timerWheel.add(next, timerWheel.currentTick() + 1);
+            }
+        }
     }
 
 }
@@ -29,6 +29,14 @@ public final class ExecutorVirtualServices implements Executor, IExecutorService
     final ConcurrentHashMap<String, ExecutorQueue> executorQueueMap = new ConcurrentHashMap<>();
     /** 当队列执行数量剩余过多的预警 */
     public long queueCheckSize = 5000;
+    /** 主队列容量，小于等于 0 不限制 */
+    volatile int queueCapacity = 0;
+    /** 子队列默认容量，小于等于 0 不限制 */
+    volatile int subQueueCapacity = 0;
+    /** 队列已满的拒绝策略 */
+    volatile RejectPolicy rejectPolicy = RejectPolicy.FailFast;
+    /** 统计 */
+    final ExecutorMetrics metrics;
 
     /**
      * @param name     线程池名称
@@ -49,6 +57,7 @@ public final class ExecutorVirtualServices implements Executor, IExecutorService
                 maxSize,
                 new LinkedBlockingQueue<>()
         );
+        metrics = new ExecutorMetrics(maxSize);
     }
 
     /** 线程池名字 */
@@ -103,6 +112,37 @@ public final class ExecutorVirtualServices implements Executor, IExecutorService
         return this;
     }
 
+    @Override public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    @Override public ExecutorVirtualServices setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    @Override public int getSubQueueCapacity() {
+        return this.subQueueCapacity;
+    }
+
+    @Override public ExecutorVirtualServices setSubQueueCapacity(int subQueueCapacity) {
+        this.subQueueCapacity = subQueueCapacity;
+        return this;
+    }
+
+    @Override public RejectPolicy getRejectPolicy() {
+        return this.rejectPolicy;
+    }
+
+    @Override public ExecutorVirtualServices setRejectPolicy(RejectPolicy rejectPolicy) {
+        this.rejectPolicy = rejectPolicy;
+        return this;
+    }
+
+    @Override public ExecutorMetrics getMetrics() {
+        return this.metrics;
+    }
+
     @Override public ConcurrentHashMap<String, ExecutorQueue> getExecutorQueueMap() {
         return this.executorQueueMap;
     }
@@ -1,5 +1,6 @@
 package wxdgaming.boot2.core.threading;
 
+import io.netty.util.concurrent.FastThreadLocalThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import wxdgaming.boot2.core.util.GlobalUtil;
@@ -26,6 +27,33 @@ public interface IExecutorServices extends Executor {
     /** 当前线程池触发警告队列长度 */
     IExecutorServices setQueueCheckSize(long queueCheckSize);
 
+    /** 主队列容量，小于等于 0 不限制 */
+    int getQueueCapacity();
+
+    /** 主队列容量，小于等于 0 不限制 */
+    IExecutorServices setQueueCapacity(int queueCapacity);
+
+    /** 子队列默认容量，小于等于 0 不限制，只影响之后创建的子队列 */
+    int getSubQueueCapacity();
+
+    /** 子队列默认容量，小于等于 0 不限制，只影响之后创建的子队列 */
+    IExecutorServices setSubQueueCapacity(int subQueueCapacity);
+
+    /** 指定子队列的容量，小于等于 0 不限制 */
+    default IExecutorServices setSubQueueCapacity(String queueName, int capacity) {
+        executorQueue(queueName).setCapacity(capacity);
+        return this;
+    }
+
+    /** 队列已满的拒绝策略 */
+    RejectPolicy getRejectPolicy();
+
+    /** 队列已满的拒绝策略 */
+    IExecutorServices setRejectPolicy(RejectPolicy rejectPolicy);
+
+    /** 线程池统计，包含主队列和全部子队列 */
+    ExecutorMetrics getMetrics();
+
     /** 当前线程池队列是否为空 */
     boolean isQueueEmpty();
 
@@ -44,6 +72,11 @@ public interface IExecutorServices extends Executor {
 
     ConcurrentHashMap<String, ExecutorQueue> getExecutorQueueMap();
 
+    /** 获取子队列，不存在就创建 */
+    default ExecutorQueue executorQueue(String queueName) {
+        return getExecutorQueueMap().computeIfAbsent(queueName, k -> new ExecutorQueue(this, k, getSubQueueCapacity()));
+    }
+
     /** 提交到线程 */
     void threadPoolExecutor(Runnable command);
 
@@ -329,11 +362,27 @@ public interface IExecutorServices extends Executor {
         job.queueName = queueName;
         /*TODO 定时器任务，需要重置一次*/
         job.initTaskTime = System.nanoTime();
+        job.rejected = false;
+        job.queueFull = false;
+        job.queueMetrics = null;
         job.append.set(true);
+        getMetrics().onSubmit();
         if (StringUtils.isNotBlank(queueName)) {
-            ExecutorQueue executorQueue = getExecutorQueueMap().computeIfAbsent(queueName, k -> new ExecutorQueue(this, k));
-            executorQueue.add(job);
+            executorQueue(queueName).add(job);
         } else {
+            int queueCapacity = getQueueCapacity();
+            if (queueCapacity > 0 && queueSize() >= queueCapacity) {
+                job.queueFull = true;
+                RejectPolicy rejectPolicy = getRejectPolicy();
+                if (rejectPolicy == RejectPolicy.DropOldest && !dropOldest(queueCapacity)) {
+                    /*没有可以丢弃的任务，丢弃新任务，保证不超过容量*/
+                    rejectPolicy = RejectPolicy.DropNewest;
+                }
+                if (rejectPolicy != RejectPolicy.DropOldest) {
+                    reject(rejectPolicy, job, "主队列");
+                    return;
+                }
+            }
             threadPoolExecutor(job);
             int queueSize = queueSize();
             if (queueSize > getQueueCheckSize()) {
@@ -343,4 +392,58 @@ public interface IExecutorServices extends Executor {
         }
     }
 
+    /**
+     * 从队列头部丢弃最早的普通任务，直到低于容量，并发提交超出的部分也一起丢弃
+     * <p>
+     * 主队列里面还有子队列的调度任务，这些不能丢弃，否则子队列再也不会被执行；取到的时候放回队尾，本次按没有可以丢弃的任务处理
+     *
+     * @return false 没有可以丢弃的任务
+     */
+    private boolean dropOldest(int queueCapacity) {
+        BlockingQueue<Runnable> queue = threadPoolQueue();
+        while (queue.size() >= queueCapacity) {
+            Runnable head = queue.poll();
+            if (head == null) return true;
+            if (!(head instanceof ExecutorServiceJob oldest)) {
+                threadPoolExecutor(head);
+                return false;
+            }
+            oldest.reject();
+            if (log.isDebugEnabled()) {
+                log.debug("{} 主队列已满，丢弃最早的任务 {}", getName(), oldest);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 当前线程是 netty 的 io 线程
+     * <p>
+     * io 线程执行业务会卡住同一个线程上的全部连接，{@link RejectPolicy#CallerRuns} 在这里按丢弃新任务处理，由网络层暂停读取
+     */
+    static boolean isIoThread() {
+        return Thread.currentThread() instanceof FastThreadLocalThread;
+    }
+
+    /** 队列已满，按照策略处理新提交的任务 */
+    default void reject(RejectPolicy rejectPolicy, ExecutorServiceJob job, String queueInfo) {
+        job.queueFull = true;
+        if (rejectPolicy == RejectPolicy.CallerRuns && isIoThread()) {
+            rejectPolicy = RejectPolicy.DropNewest;
+        }
+        switch (rejectPolicy) {
+            case CallerRuns -> job.run();
+            case FailFast -> {
+                job.reject();
+                throw new RejectedExecutionException(getName() + " " + queueInfo + " 已满，拒绝任务 " + job);
+            }
+            default -> {
+                job.reject();
+                if (log.isDebugEnabled()) {
+                    log.debug("{} {} 已满，丢弃任务 {}", getName(), queueInfo, job);
+                }
+            }
+        }
+    }
+
 }
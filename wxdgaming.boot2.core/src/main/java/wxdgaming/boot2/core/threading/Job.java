@@ -10,4 +10,14 @@ public interface Job {
     /** 取消 */
     boolean cancel();
 
+    /** 队列已满被拒绝，任务不会执行 */
+    default boolean isRejected() {
+        return false;
+    }
+
+    /** 提交的时候队列已满，不管任务本身有没有被拒绝，提交方都应该限流 */
+    default boolean isQueueFull() {
+        return false;
+    }
+
 }
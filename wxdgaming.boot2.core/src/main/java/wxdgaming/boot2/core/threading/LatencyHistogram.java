@@ -0,0 +1,129 @@
+package wxdgaming.boot2.core.threading;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时直方图，单位微秒
+ * <p>
+ * 参考 HdrHistogram 的对数线性分桶：小于 {@code 2 * SUB_COUNT} 的值精确记录，
+ * 之后每个 2 的幂区间再平均分成 {@link #SUB_COUNT} 个桶，相对误差不超过 1 / SUB_COUNT
+ * <p>
+ * 记录只有一次原子自增，不加锁；多个线程同时写入的直方图按照线程id 分段，减少同一个桶上的竞争；
+ * 快照不会阻塞记录，期间并发写入的数据可能部分可见
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 20:30
+ **/
+public final class LatencyHistogram {
+
+    static final int SUB_BITS = 3;
+    static final int SUB_COUNT = 1 << SUB_BITS;
+    /** 最大记录 2^36 微秒，大约 19 个小时，超出的计入最后一个桶 */
+    static final int MAX_EXPONENT = 36;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+    private final int stripeMask;
+    private final AtomicLongArray buckets;
+    private final LongAdder sum = new LongAdder();
+
+    public LatencyHistogram() {
+        this(1);
+    }
+
+    /** @param stripes 分段数量，会向上取整到 2 的幂，只有单线程写入的时候用 1 */
+    public LatencyHistogram(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << (stripes > 1 ? 1 : 0);
+        this.stripeMask = size - 1;
+        this.buckets = new AtomicLongArray(BUCKETS * size);
+    }
+
+    /** 记录一次耗时，单位纳秒 */
+    public void recordNanos(long nanos) {
+        record(nanos / 1000);
+    }
+
+    /** 记录一次耗时，单位微秒 */
+    public void record(long micros) {
+        if (micros < 0) micros = 0;
+        int stripe = stripeMask == 0 ? 0 : (int) Thread.currentThread().threadId() & stripeMask;
+        buckets.incrementAndGet(stripe * BUCKETS + index(micros));
+        sum.add(micros);
+    }
+
+    static int index(long value) {
+        if (value < SUB_COUNT * 2) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        int index = (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    /** 桶的最小值 */
+    static long lowerBound(int index) {
+        if (index < SUB_COUNT * 2) return index;
+        int shift = index / SUB_COUNT - 1;
+        return (long) (SUB_COUNT + index % SUB_COUNT) << shift;
+    }
+
+    /** 桶的最大值 */
+    static long upperBound(int index) {
+        return lowerBound(index + 1) - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = counts();
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+        long total = sum.sum();
+        return new Snapshot(
+                count,
+                count == 0 ? 0 : total / count,
+                percentile(counts, count, 0.5),
+                percentile(counts, count, 0.9),
+                percentile(counts, count, 0.99),
+                percentile(counts, count, 0.999),
+                percentile(counts, count, 1)
+        );
+    }
+
+    /** 返回所在桶的上限，宁可偏大不可偏小 */
+    static long percentile(long[] counts, long count, double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length - 1);
+    }
+
+    /** 各个分段按桶汇总 */
+    long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0, length = buckets.length(); i < length; i++) {
+            counts[i % BUCKETS] += buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * 直方图快照，单位微秒
+     *
+     * @param count 记录次数
+     * @param mean  平均值
+     * @param p50   中位数
+     * @param p90   90 分位
+     * @param p99   99 分位
+     * @param p999  99.9 分位
+     * @param max   最大值
+     */
+    public record Snapshot(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+    }
+
+}
@@ -0,0 +1,30 @@
+package wxdgaming.boot2.core.threading;
+
+/**
+ * 队列达到容量上限之后的拒绝策略
+ * <p>
+ * 被丢弃的任务 {@link Job#isRejected()} 返回 true，{@link Event} 会收到 {@link Event#onRejected()} 回调
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 19:40
+ **/
+public enum RejectPolicy {
+    /**
+     * 丢弃队列里最早的任务，新任务正常入队
+     * <p>
+     * 主队列头部是子队列的调度任务时没有可以丢弃的，按 {@link #DropNewest} 处理
+     */
+    DropOldest,
+    /** 丢弃新提交的任务 */
+    DropNewest,
+    /**
+     * 由提交任务的线程直接执行，只用于主队列
+     * <p>
+     * 子队列直接执行会插到排队的任务前面，按 {@link #FailFast} 处理，保证串行顺序；
+     * netty 的 io 线程提交时按 {@link #DropNewest} 处理
+     */
+    CallerRuns,
+    /** 丢弃新提交的任务并且抛出 RejectedExecutionException */
+    FailFast,
+    ;
+}
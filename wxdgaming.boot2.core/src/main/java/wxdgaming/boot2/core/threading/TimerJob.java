@@ -1,5 +1,6 @@
 package wxdgaming.boot2.core.threading;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -27,7 +28,16 @@ public final class TimerJob implements Job {
     long lastExecTime;
     TimeUnit unit;
     int execCount;
-    int maxExecCount;
+    volatile int maxExecCount;
+
+    /** 所在的定时器线程 */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) ExecutorUtil.TimerThread timerThread;
+    /** 时间轮到期刻度 */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) long deadlineTick;
+    /** 时间轮槽位 */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) TimerWheel.Bucket bucket;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) TimerJob prev;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) TimerJob next;
 
     TimerJob(IExecutorServices IExecutorServices,
              String queueName,
@@ -62,6 +72,14 @@ public final class TimerJob implements Job {
         return true;
     }
 
+    /** 本次到期被队列拒绝，按执行过一次处理，等下一个周期 */
+    void skipRun() {
+        if (maxExecCount >= 0) {
+            execCount++;
+        }
+        resetLastTimer(delay);
+    }
+
     public boolean isOver() {
         return maxExecCount >= 0 && execCount >= maxExecCount;
     }
@@ -73,6 +91,9 @@ public final class TimerJob implements Job {
     /** 取消 */
     @Override public boolean cancel() {
         maxExecCount = 0;
+        if (timerThread != null) {
+            timerThread.cancel(this);
+        }
         return true;
     }
 
@@ -0,0 +1,233 @@
+package wxdgaming.boot2.core.threading;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * <p>
+ * 每层 64 个槽位，共 {@link #LEVELS} 层，槽位下标直接取到期刻度的对应位段，
+ * 当低层转完一圈时把高层对应槽位的任务重新分配到低层
+ * <p>
+ * 添加和移除都是 O(1)，每层用一个 long 记录哪些槽位有任务，推进的时候直接跳到下一个有任务到期或者下沉的刻度
+ * <p>
+ * 非线程安全，只允许定时器线程访问
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 14:05
+ **/
+final class TimerWheel {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int SLOT_MASK = SLOTS - 1;
+    static final int LEVELS = 6;
+
+    private final Bucket[][] buckets = new Bucket[LEVELS][SLOTS];
+    /** 每一层有任务的槽位 */
+    private final long[] occupied = new long[LEVELS];
+    /** 超出时间轮范围的任务 */
+    private ArrayList<TimerJob> overflow = new ArrayList<>();
+    /** 已经处理到的刻度 */
+    private long currentTick;
+    private int size;
+
+    TimerWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                buckets[level][slot] = new Bucket(level, slot);
+            }
+        }
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** 添加任务，到期刻度小于当前刻度的会在下一个刻度执行 */
+    void add(TimerJob timerJob, long deadlineTick) {
+        remove(timerJob);
+        timerJob.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+        place(timerJob);
+        size++;
+    }
+
+    /** 移除任务 */
+    void remove(TimerJob timerJob) {
+        Bucket bucket = timerJob.bucket;
+        if (bucket == null) {
+            if (overflow.remove(timerJob)) size--;
+            return;
+        }
+        bucket.unlink(timerJob);
+        if (bucket.head == null) {
+            occupied[bucket.level] &= ~(1L << bucket.slot);
+        }
+        size--;
+    }
+
+    /** 推进到指定刻度，到期的任务交给 expired 处理 */
+    void advance(long targetTick, Consumer<TimerJob> expired) {
+        if (size == 0) {
+            /*没有任务直接跳过*/
+            currentTick = Math.max(currentTick, targetTick);
+            return;
+        }
+        while (currentTick < targetTick) {
+            long wake = nextWakeTick();
+            if (wake > targetTick) {
+                /*中间的刻度没有任务到期也没有下沉*/
+                currentTick = targetTick;
+                return;
+            }
+            currentTick = wake;
+            long tick = wake;
+            if ((tick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0 && !overflow.isEmpty()) {
+                ArrayList<TimerJob> jobs = overflow;
+                overflow = new ArrayList<>();
+                for (TimerJob job : jobs) {
+                    place(job);
+                }
+            }
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                }
+            }
+            int slot = (int) tick & SLOT_MASK;
+            if ((occupied[0] & (1L << slot)) != 0) {
+                TimerJob job = detach(0, slot);
+                while (job != null) {
+                    TimerJob next = job.next;
+                    job.next = null;
+                    size--;
+                    expired.accept(job);
+                    job = next;
+                }
+            }
+            if (size == 0) {
+                currentTick = Math.max(currentTick, targetTick);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 下一个需要唤醒的刻度
+     * <p>
+     * 从最低层开始找当前这一圈后面有任务的槽位，最低层是任务到期的刻度，高层是这个槽位下沉的刻度；
+     * 低层的刻度一定早于高层，找到就返回。各层都没有任务时返回超出范围的任务重新分配的刻度
+     * <p>
+     * 高层的槽位只会放在当前位置的后面，到达当前位置的时候已经下沉
+     */
+    long nextWakeTick() {
+        if (size == 0) return Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            int slot = (int) (currentTick >>> shift) & SLOT_MASK;
+            if (slot == SLOT_MASK) continue;
+            long later = occupied[level] & (-1L << (slot + 1));
+            if (later != 0) {
+                long roundStart = currentTick & -(1L << (shift + SLOT_BITS));
+                return roundStart + ((long) Long.numberOfTrailingZeros(later) << shift);
+            }
+        }
+        int shift = SLOT_BITS * LEVELS;
+        return (currentTick & -(1L << shift)) + (1L << shift);
+    }
+
+    private void cascade(int level, int slot) {
+        if ((occupied[level] & (1L << slot)) == 0) return;
+        TimerJob job = detach(level, slot);
+        while (job != null) {
+            TimerJob next = job.next;
+            job.next = null;
+            place(job);
+            job = next;
+        }
+    }
+
+    /** 取出整个槽位的链表 */
+    private TimerJob detach(int level, int slot) {
+        Bucket bucket = buckets[level][slot];
+        TimerJob head = bucket.head;
+        bucket.head = null;
+        occupied[level] &= ~(1L << slot);
+        for (TimerJob job = head; job != null; job = job.next) {
+            job.bucket = null;
+            job.prev = null;
+        }
+        return head;
+    }
+
+    private void place(TimerJob timerJob) {
+        long deadline = timerJob.deadlineTick;
+        long diff = deadline ^ currentTick;
+        int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+        if (level >= LEVELS) {
+            overflow.add(timerJob);
+            return;
+        }
+        int slot = (int) (deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+        buckets[level][slot].link(timerJob);
+        occupied[level] |= 1L << slot;
+    }
+
+    /** 清理全部任务 */
+    void clear() {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if ((occupied[level] & (1L << slot)) != 0) {
+                    detach(level, slot);
+                }
+            }
+        }
+        overflow = new ArrayList<>();
+        size = 0;
+    }
+
+    static final class Bucket {
+
+        final int level;
+        final int slot;
+        TimerJob head;
+
+        Bucket(int level, int slot) {
+            this.level = level;
+            this.slot = slot;
+        }
+
+        void link(TimerJob timerJob) {
+            timerJob.bucket = this;
+            timerJob.prev = null;
+            timerJob.next = head;
+            if (head != null) head.prev = timerJob;
+            head = timerJob;
+        }
+
+        void unlink(TimerJob timerJob) {
+            if (timerJob.prev != null) {
+                timerJob.prev.next = timerJob.next;
+            } else {
+                head = timerJob.next;
+            }
+            if (timerJob.next != null) {
+                timerJob.next.prev = timerJob.prev;
+            }
+            timerJob.prev = null;
+            timerJob.next = null;
+            timerJob.bucket = null;
+        }
+
+    }
+
+}
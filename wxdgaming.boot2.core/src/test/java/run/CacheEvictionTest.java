@@ -0,0 +1,129 @@
+package run;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import wxdgaming.boot2.core.cache.Cache;
+import wxdgaming.boot2.core.cache.CacheStats;
+import wxdgaming.boot2.core.threading.ExecutorConfig;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+
+/**
+ * 缓存容量淘汰和过期测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 21:40
+ **/
+public class CacheEvictionTest {
+
+    @BeforeClass
+    public static void init() {
+        if (ExecutorUtil.getInstance().getDefaultExecutor() == null) {
+            ExecutorUtil.getInstance().init(ExecutorConfig.INSTANCE);
+        }
+    }
+
+    @Test
+    public void maximumSize() {
+        Cache<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+                .cacheName("max-size")
+                .hashArea(2)
+                .maximumSize(100)
+                .loader(k -> k)
+                .build();
+        for (int i = 0; i < 1000; i++) {
+            cache.get(i);
+        }
+        cache.cleanUp();
+        Assert.assertEquals(100, cache.cacheSize());
+        Assert.assertEquals(100, cache.weightedSize());
+        CacheStats stats = cache.stats();
+        Assert.assertEquals(1000, stats.missCount());
+        Assert.assertEquals(1000, stats.loadCount());
+        Assert.assertEquals(900, stats.evictionCount());
+        cache.shutdown();
+    }
+
+    @Test
+    public void frequency() {
+        Cache<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+                .cacheName("frequency")
+                .maximumSize(100)
+                .loader(k -> k)
+                .build();
+        for (int k = 0; k < 20; k++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get(i);
+            }
+            cache.cleanUp();
+        }
+        /*一次性访问的扫描不能把热点挤出去*/
+        for (int i = 1000; i < 20000; i++) {
+            cache.get(i);
+            if (i % 32 == 0) cache.cleanUp();
+        }
+        cache.cleanUp();
+        int hot = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.containsKey(i)) hot++;
+        }
+        Assert.assertTrue("hot " + hot, hot >= 45);
+        Assert.assertEquals(100, cache.cacheSize());
+        cache.shutdown();
+    }
+
+    @Test
+    public void weight() {
+        Cache<Integer, String> cache = Cache.<Integer, String>builder()
+                .cacheName("weight")
+                .maximumWeight(100)
+                .weigher((k, v) -> v.length())
+                .build();
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "0123456789");
+        }
+        cache.cleanUp();
+        Assert.assertTrue(cache.weightedSize() <= 100);
+        Assert.assertEquals(cache.cacheSize() * 10, cache.weightedSize());
+        cache.shutdown();
+    }
+
+    @Test
+    public void expireVeto() throws Exception {
+        Cache<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+                .cacheName("expire")
+                .delay(10)
+                .expireAfterWrite(50)
+                .removalListener((k, v) -> k != 1)
+                .build();
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        Thread.sleep(200);
+        cache.cleanUp();
+        Assert.assertEquals(1, cache.cacheSize());
+        Assert.assertEquals(Integer.valueOf(1), cache.getIfPresent(1));
+        Assert.assertEquals(9, cache.stats().expireCount());
+        cache.shutdown();
+    }
+
+    @Test
+    public void expireAfterAccess() throws Exception {
+        Cache<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+                .cacheName("access")
+                .delay(10)
+                .expireAfterAccess(200)
+                .build();
+        cache.put(1, 1);
+        cache.put(2, 2);
+        for (int i = 0; i < 6; i++) {
+            Thread.sleep(50);
+            cache.getIfPresent(1);
+        }
+        cache.cleanUp();
+        Assert.assertTrue(cache.containsKey(1));
+        Assert.assertFalse(cache.containsKey(2));
+        cache.shutdown();
+    }
+
+}
@@ -0,0 +1,119 @@
+package run;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import wxdgaming.boot2.core.cache.Cache;
+import wxdgaming.boot2.core.threading.ExecutorConfig;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存加载测试，合并并发加载和批量加载
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 22:10
+ **/
+public class CacheLoaderTest {
+
+    @BeforeClass
+    public static void init() {
+        if (ExecutorUtil.getInstance().getDefaultExecutor() == null) {
+            ExecutorUtil.getInstance().init(ExecutorConfig.INSTANCE);
+        }
+    }
+
+    /** 加载的时候在同一个线程重复加载同一个 key，直接报错而不是等待自己 */
+    @Test(timeout = 5000)
+    public void recursiveLoad() throws Exception {
+        Cache<Integer, String> cache = Cache.<Integer, String>builder()
+                .cacheName("recursive")
+                .build();
+        Assert.assertThrows(IllegalStateException.class, () -> cache.getIfPresent(1, k -> cache.getIfPresent(k, k2 -> "v" + k2)));
+        CompletableFuture<String> async = cache.getAsync(2, k -> cache.getIfPresent(k, k2 -> "v" + k2));
+        Assert.assertTrue(Assert.assertThrows(CompletionException.class, async::join).getCause() instanceof IllegalStateException);
+        Assert.assertNull(cache.getIfPresent(1, null));
+        /*不同的 key 可以嵌套加载*/
+        Assert.assertEquals("v4", cache.getIfPresent(3, k -> cache.getIfPresent(4, k2 -> "v" + k2)));
+        cache.shutdown();
+    }
+
+    @Test
+    public void getAsync() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch block = new CountDownLatch(1);
+        Cache<Integer, String> cache = Cache.<Integer, String>builder()
+                .cacheName("async")
+                .loader(k -> {
+                    loadCount.incrementAndGet();
+                    try {
+                        block.await();
+                    } catch (InterruptedException ignored) {}
+                    return "v" + k;
+                })
+                .build();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(cache.getAsync(1));
+        }
+        /*加载中的时候同步读取也合并到同一次加载*/
+        CompletableFuture<String> sync = CompletableFuture.supplyAsync(() -> cache.getIfPresent(1));
+        Thread.sleep(50);
+        block.countDown();
+        for (CompletableFuture<String> future : futures) {
+            Assert.assertEquals("v1", future.get(5, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals("v1", sync.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, cache.stats().loadCount());
+        Assert.assertEquals("v1", cache.getAsync(1).getNow(null));
+        cache.shutdown();
+    }
+
+    @Test
+    public void getAll() {
+        List<Set<Integer>> batches = new ArrayList<>();
+        Cache<Integer, String> cache = Cache.<Integer, String>builder()
+                .cacheName("bulk")
+                .hashArea(4)
+                .bulkLoader(keys -> {
+                    batches.add(new HashSet<>(keys));
+                    Map<Integer, String> map = new HashMap<>();
+                    for (Integer key : keys) {
+                        /*奇数不存在*/
+                        if (key % 2 == 0) map.put(key, "v" + key);
+                    }
+                    return map;
+                })
+                .build();
+        cache.put(0, "cached");
+        Map<Integer, String> all = cache.getAll(List.of(0, 1, 2, 3, 4));
+        Assert.assertEquals(Map.of(0, "cached", 2, "v2", 4, "v4"), all);
+        Assert.assertEquals(List.of(Set.of(1, 2, 3, 4)), batches);
+        Assert.assertEquals(Map.of(2, "v2"), cache.getAll(List.of(2)));
+        Assert.assertEquals(1, batches.size());
+        cache.shutdown();
+    }
+
+    @Test
+    public void loadException() {
+        Cache<Integer, String> cache = Cache.<Integer, String>builder()
+                .cacheName("exception")
+                .loader(k -> {
+                    throw new IllegalStateException("load " + k);
+                })
+                .build();
+        Assert.assertThrows(IllegalStateException.class, () -> cache.getIfPresent(1));
+        Assert.assertThrows(Exception.class, () -> cache.getAsync(1).get(5, TimeUnit.SECONDS));
+        /*失败之后不会残留加载状态*/
+        Assert.assertEquals("ok", cache.getIfPresent(1, k -> "ok"));
+        cache.shutdown();
+    }
+
+}
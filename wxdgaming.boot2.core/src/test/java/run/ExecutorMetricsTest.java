@@ -0,0 +1,114 @@
+package run;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.lang.DiffTime;
+import wxdgaming.boot2.core.threading.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池统计测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 21:00
+ **/
+public class ExecutorMetricsTest {
+
+    public static void main(String[] args) {
+        LatencyHistogram histogram = new LatencyHistogram(8);
+        int count = 1000_0000;
+        for (int k = 0; k < 5; k++) {
+            DiffTime diffTime = new DiffTime();
+            for (int i = 0; i < count; i++) {
+                histogram.record(i & 4095);
+            }
+            System.out.println("LatencyHistogram " + count + " 次 耗时:" + diffTime.diff() + " ms");
+        }
+        System.out.println(histogram.snapshot());
+    }
+
+    @Test
+    public void histogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(1000, snapshot.count());
+        Assert.assertEquals(500, snapshot.mean());
+        /*分桶相对误差不超过 1/8，并且只会偏大*/
+        assertNear(500, snapshot.p50());
+        assertNear(990, snapshot.p99());
+        assertNear(1000, snapshot.max());
+        Assert.assertEquals(0, new LatencyHistogram().snapshot().p99());
+    }
+
+    void assertNear(long expected, long actual) {
+        Assert.assertTrue(expected + " -> " + actual, actual >= expected && actual <= expected + expected / 8);
+    }
+
+    /** 子队列统计默认关闭，不分配直方图 */
+    @Test
+    public void queueMetricsOff() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("metrics-off", 1, 1);
+        CountDownLatch done = new CountDownLatch(1);
+        executorServices.submit("q", done::countDown);
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, ExecutorMetrics.snapshot(executorServices, true).queues().size());
+        executorServices.shutdown();
+    }
+
+    @Test
+    public void executor() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("metrics-test", 2, 2);
+        ExecutorMetrics.setQueueMetrics(true);
+        try {
+            executorServices.setSubQueueCapacity("q", 1);
+        } finally {
+            ExecutorMetrics.setQueueMetrics(false);
+        }
+        executorServices.setRejectPolicy(RejectPolicy.DropNewest);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(11);
+        executorServices.submit("q", () -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {}
+            done.countDown();
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            executorServices.submit(done::countDown);
+        }
+        executorServices.submit("q", done::countDown);
+        /*容量 1 已经有一个排队，拒绝*/
+        Assert.assertTrue(executorServices.submit("q", done::countDown).isRejected());
+        block.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        /*计数在任务返回之后才记录，等待执行线程收尾*/
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executorServices.getMetrics().snapshot("", 0).active() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        executorServices.shutdown();
+
+        ExecutorMetrics.ExecutorSnapshot snapshot = ExecutorMetrics.snapshot(executorServices, true);
+        ExecutorMetrics.Snapshot metrics = snapshot.metrics();
+        Assert.assertEquals(13, metrics.submitted());
+        Assert.assertEquals(12, metrics.completed());
+        Assert.assertEquals(1, metrics.rejected());
+        Assert.assertEquals(0, metrics.active());
+        Assert.assertEquals(12, metrics.execTime().count());
+        Assert.assertEquals(1, snapshot.queues().size());
+        ExecutorMetrics.Snapshot queue = snapshot.queues().getFirst();
+        Assert.assertEquals("q", queue.name());
+        Assert.assertEquals(3, queue.submitted());
+        Assert.assertEquals(2, queue.completed());
+        Assert.assertEquals(1, queue.rejected());
+    }
+
+}
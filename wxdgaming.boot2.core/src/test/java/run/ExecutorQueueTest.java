@@ -0,0 +1,164 @@
+package run;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import wxdgaming.boot2.core.collection.concurrent.MpscLinkedQueue;
+import wxdgaming.boot2.core.lang.DiffTime;
+import wxdgaming.boot2.core.threading.ExecutorConfig;
+import wxdgaming.boot2.core.threading.ExecutorServices;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.core.threading.Job;
+import wxdgaming.boot2.core.threading.RejectPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+/**
+ * 子队列测试，对比 加锁 LinkedList 和 无锁 mpsc 队列
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 10:40
+ **/
+public class ExecutorQueueTest {
+
+    @BeforeClass
+    public static void init() {
+        if (ExecutorUtil.getInstance().getDefaultExecutor() == null) {
+            ExecutorUtil.getInstance().init(ExecutorConfig.INSTANCE);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int producers = 8;
+        int count = 100_0000;
+        for (int i = 0; i < 3; i++) {
+            lockQueue(producers, count);
+            mpscQueue(producers, count);
+        }
+    }
+
+    /** 原来的实现方式 */
+    public static void lockQueue(int producers, int count) throws Exception {
+        ReentrantLock lock = new ReentrantLock();
+        LinkedList<Integer> queues = new LinkedList<>();
+        DiffTime diffTime = new DiffTime();
+        List<Thread> threads = startProducers(producers, count, v -> {
+            lock.lock();
+            try {
+                queues.add(v);
+            } finally {
+                lock.unlock();
+            }
+        });
+        long total = (long) producers * count;
+        long consumed = 0;
+        while (consumed < total) {
+            lock.lock();
+            try {
+                if (!queues.isEmpty()) {
+                    queues.removeFirst();
+                    consumed++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        for (Thread thread : threads) thread.join();
+        System.out.println("lock LinkedList " + producers + " 生产者, " + total + " 次 耗时:" + diffTime.diff() + " ms");
+    }
+
+    public static void mpscQueue(int producers, int count) throws Exception {
+        MpscLinkedQueue<Integer> queues = new MpscLinkedQueue<>();
+        DiffTime diffTime = new DiffTime();
+        List<Thread> threads = startProducers(producers, count, queues::offer);
+        long total = (long) producers * count;
+        long consumed = 0;
+        while (consumed < total) {
+            if (queues.poll() != null) {
+                consumed++;
+            }
+        }
+        for (Thread thread : threads) thread.join();
+        System.out.println("mpsc queue      " + producers + " 生产者, " + total + " 次 耗时:" + diffTime.diff() + " ms");
+    }
+
+    static List<Thread> startProducers(int producers, int count, IntConsumer consumer) {
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    consumer.accept(i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    /** 多线程投递同一个子队列，执行顺序必须和单个生产者的投递顺序一致 */
+    @Test
+    public void serialOrder() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("queue-test", 4, 4);
+        executorServices.setQueueCheckSize(Long.MAX_VALUE);
+        int producers = 4;
+        int count = 10000;
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        CountDownLatch latch = new CountDownLatch(producers * count);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    final int v = i;
+                    executorServices.submit("q1", () -> {
+                        Assert.assertEquals(last[producer] + 1, v);
+                        last[producer] = v;
+                        latch.countDown();
+                    });
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        executorServices.shutdown();
+    }
+
+    /** 取消的任务留在队列里等消费线程跳过，不能算进队列长度 */
+    @Test
+    public void cancelledNotCounted() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("queue-cancel", 1, 1);
+        executorServices.setRejectPolicy(RejectPolicy.DropNewest);
+        executorServices.setSubQueueCapacity("q", 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch block = new CountDownLatch(1);
+        executorServices.submit("q", () -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {}
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<String> executed = new CopyOnWriteArrayList<>();
+        Job a = executorServices.submit("q", () -> executed.add("a"));
+        executorServices.submit("q", () -> executed.add("b"));
+        Assert.assertTrue(a.cancel());
+        Job c = executorServices.submit("q", () -> executed.add("c"));
+        Assert.assertFalse(c.isRejected());
+        block.countDown();
+        executorServices.shutdown();
+        Assert.assertEquals(List.of("b", "c"), executed);
+    }
+
+}
@@ -0,0 +1,68 @@
+package run;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.chatset.StringUtils;
+import wxdgaming.boot2.core.collection.FrozenIntMap;
+import wxdgaming.boot2.core.lang.DiffTime;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 只读 int 映射表测试，对比 ConcurrentHashMap
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 19:20
+ **/
+public class FrozenIntMapTest {
+
+    public static void main(String[] args) {
+        int[] ids = new int[500];
+        Map<Integer, String> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = StringUtils.hashcode("wxdgaming.game.message.ReqMessage" + i);
+            map.put(ids[i], String.valueOf(i));
+        }
+        FrozenIntMap<String> frozenIntMap = FrozenIntMap.of(map);
+        int count = 1000_0000;
+        long hit = 0;
+        for (int k = 0; k < 5; k++) {
+            DiffTime diffTime = new DiffTime();
+            for (int i = 0; i < count; i++) {
+                if (map.get(ids[i % ids.length]) != null) hit++;
+            }
+            System.out.println("ConcurrentHashMap " + count + " 次 耗时:" + diffTime.diff() + " ms");
+            diffTime.reset();
+            for (int i = 0; i < count; i++) {
+                if (frozenIntMap.get(ids[i % ids.length]) != null) hit++;
+            }
+            System.out.println("FrozenIntMap      " + count + " 次 耗时:" + diffTime.diff() + " ms");
+        }
+        System.out.println(hit);
+    }
+
+    @Test
+    public void get() {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            int key = StringUtils.hashcode("message" + i);
+            map.put(key, i);
+        }
+        map.put(0, -1);
+        map.put(Integer.MIN_VALUE, -2);
+        FrozenIntMap<Integer> frozenIntMap = FrozenIntMap.of(map);
+        Assert.assertEquals(map.size(), frozenIntMap.size());
+        map.forEach((k, v) -> Assert.assertEquals(v, frozenIntMap.get(k)));
+        for (int i = 0; i < 1000; i++) {
+            int key = StringUtils.hashcode("missing" + i);
+            Assert.assertEquals(map.get(key), frozenIntMap.get(key));
+        }
+        Map<Integer, Integer> copy = new HashMap<>();
+        frozenIntMap.forEach(copy::put);
+        Assert.assertEquals(map, copy);
+        Assert.assertNull(FrozenIntMap.empty().get(1));
+    }
+
+}
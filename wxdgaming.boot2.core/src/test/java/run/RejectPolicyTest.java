@@ -0,0 +1,123 @@
+package run;
+
+import io.netty.util.concurrent.FastThreadLocalThread;
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.threading.ExecutorServices;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.core.threading.Job;
+import wxdgaming.boot2.core.threading.RejectPolicy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 队列容量和拒绝策略测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 20:10
+ **/
+public class RejectPolicyTest {
+
+    @Test
+    public void mainQueue() throws Exception {
+        Assert.assertEquals(List.of("a", "b"), run(RejectPolicy.DropNewest, null));
+        Assert.assertEquals(List.of("b", "c"), run(RejectPolicy.DropOldest, null));
+        Assert.assertEquals(List.of("c", "a", "b"), run(RejectPolicy.CallerRuns, null));
+        Assert.assertEquals(List.of("a", "b"), run(RejectPolicy.FailFast, null));
+    }
+
+    @Test
+    public void subQueue() throws Exception {
+        Assert.assertEquals(List.of("a", "b"), run(RejectPolicy.DropNewest, "q"));
+        Assert.assertEquals(List.of("b", "c"), run(RejectPolicy.DropOldest, "q"));
+        /*子队列由调用线程执行会插到排队的任务前面，按 FailFast 处理*/
+        Assert.assertEquals(List.of("a", "b"), run(RejectPolicy.CallerRuns, "q"));
+        Assert.assertEquals(List.of("a", "b"), run(RejectPolicy.FailFast, "q"));
+    }
+
+    /** netty 的 io 线程不能执行业务，CallerRuns 按丢弃新任务处理 */
+    @Test
+    public void callerRunsOnIoThread() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("reject-io", 1, 1);
+        executorServices.setRejectPolicy(RejectPolicy.CallerRuns);
+        executorServices.setQueueCapacity(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch block = new CountDownLatch(1);
+        executorServices.submit(() -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {}
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executorServices.submit(() -> {});
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        AtomicReference<Job> job = new AtomicReference<>();
+        Thread ioThread = new FastThreadLocalThread(() -> job.set(executorServices.submit(() -> ranOn.set(Thread.currentThread()))));
+        ioThread.start();
+        ioThread.join();
+        Assert.assertTrue(job.get().isRejected());
+        Assert.assertTrue(job.get().isQueueFull());
+        Assert.assertNull(ranOn.get());
+        block.countDown();
+        executorServices.shutdown();
+    }
+
+    /** 单线程先卡住，容量 2 的队列依次提交 a b c */
+    List<String> run(RejectPolicy rejectPolicy, String queueName) throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("reject-" + rejectPolicy + "-" + queueName, 1, 1);
+        executorServices.setRejectPolicy(rejectPolicy);
+        if (queueName == null) {
+            executorServices.setQueueCapacity(2);
+        } else {
+            executorServices.setSubQueueCapacity(queueName, 2);
+        }
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch block = new CountDownLatch(1);
+        executorServices.submit(queueName, () -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {}
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<String> executed = new CopyOnWriteArrayList<>();
+        Job a = executorServices.submit(queueName, () -> executed.add("a"));
+        Job b = executorServices.submit(queueName, () -> executed.add("b"));
+        boolean failFast = rejectPolicy == RejectPolicy.FailFast || (rejectPolicy == RejectPolicy.CallerRuns && queueName != null);
+        Job c = null;
+        try {
+            c = executorServices.submit(queueName, () -> executed.add("c"));
+            Assert.assertFalse(failFast);
+        } catch (RejectedExecutionException e) {
+            Assert.assertTrue(failFast);
+        }
+        switch (rejectPolicy) {
+            case DropNewest -> Assert.assertTrue(c.isRejected());
+            case DropOldest -> {
+                /*提交的时候直接丢弃最早的任务，不超过容量*/
+                Assert.assertFalse(c.isRejected());
+                Assert.assertTrue(c.isQueueFull());
+                Assert.assertTrue(a.isRejected());
+                if (queueName == null) Assert.assertEquals(2, executorServices.queueSize());
+            }
+            case CallerRuns -> Assert.assertEquals(queueName == null ? List.of("c") : List.of(), executed);
+        }
+        block.countDown();
+        executorServices.shutdown();
+        if (rejectPolicy == RejectPolicy.DropOldest) {
+            Assert.assertTrue(a.isRejected());
+        } else {
+            Assert.assertFalse(a.isRejected());
+        }
+        Assert.assertFalse(b.isRejected());
+        return executed;
+    }
+
+}
@@ -0,0 +1,138 @@
+package run;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import wxdgaming.boot2.core.threading.Event;
+import wxdgaming.boot2.core.threading.ExecutorConfig;
+import wxdgaming.boot2.core.threading.ExecutorServices;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.core.threading.RejectPolicy;
+import wxdgaming.boot2.core.threading.TimerJob;
+import wxdgaming.boot2.core.util.RandomUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 定时器时间轮测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 15:20
+ **/
+public class TimerWheelTest {
+
+    @BeforeClass
+    public static void init() {
+        if (ExecutorUtil.getInstance().getDefaultExecutor() == null) {
+            ExecutorUtil.getInstance().init(ExecutorConfig.INSTANCE);
+        }
+    }
+
+    @Test
+    public void schedule() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("timer-test", 4, 4);
+        executorServices.setQueueCheckSize(Long.MAX_VALUE);
+        int count = 5_0000;
+        CountDownLatch latch = new CountDownLatch(count);
+        AtomicLong maxLate = new AtomicLong();
+        AtomicInteger early = new AtomicInteger();
+        for (int i = 0; i < count; i++) {
+            long delay = RandomUtils.random(1, 3000);
+            long deadline = System.currentTimeMillis() + delay;
+            executorServices.schedule(() -> {
+                long late = System.currentTimeMillis() - deadline;
+                if (late < 0) early.incrementAndGet();
+                maxLate.accumulateAndGet(late, Math::max);
+                latch.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, early.get());
+        Assert.assertTrue("最大延迟 " + maxLate.get() + " ms", maxLate.get() < 200);
+        executorServices.shutdown();
+    }
+
+    /** 时间轮空闲休眠之后再添加的任务不能按休眠前的刻度提前执行 */
+    @Test
+    public void afterIdle() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("timer-idle", 1, 1);
+        AtomicInteger early = new AtomicInteger();
+        for (int round = 0; round < 3; round++) {
+            Thread.sleep(300);
+            CountDownLatch latch = new CountDownLatch(2);
+            for (long delay : new long[]{50, 150}) {
+                long deadline = System.currentTimeMillis() + delay;
+                executorServices.schedule(() -> {
+                    if (System.currentTimeMillis() < deadline) early.incrementAndGet();
+                    latch.countDown();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(0, early.get());
+        executorServices.shutdown();
+    }
+
+    @Test
+    public void cancel() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("timer-cancel", 1, 1);
+        AtomicInteger fired = new AtomicInteger();
+        List<TimerJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            jobs.add(executorServices.schedule(fired::incrementAndGet, 200, TimeUnit.MILLISECONDS));
+        }
+        jobs.forEach(TimerJob::cancel);
+        AtomicInteger repeat = new AtomicInteger();
+        TimerJob timerJob = executorServices.scheduleAtFixedDelay(repeat::incrementAndGet, 10, 10, TimeUnit.MILLISECONDS);
+        Thread.sleep(500);
+        timerJob.cancel();
+        int snapshot = repeat.get();
+        Thread.sleep(100);
+        Assert.assertEquals(0, fired.get());
+        Assert.assertTrue(snapshot > 10);
+        Assert.assertTrue(repeat.get() <= snapshot + 1);
+        executorServices.shutdown();
+    }
+
+    /** 到期的时候队列已满，任务只拒绝一次，不会每个刻度重试 */
+    @Test
+    public void rejected() throws Exception {
+        ExecutorServices executorServices = ExecutorUtil.getInstance().newExecutorServices("timer-reject", 1, 1);
+        executorServices.setRejectPolicy(RejectPolicy.FailFast);
+        executorServices.setQueueCapacity(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch block = new CountDownLatch(1);
+        executorServices.submit(() -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {}
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executorServices.submit(() -> {});
+        AtomicInteger fired = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        executorServices.schedule(new Event() {
+            @Override public void onEvent() {
+                fired.incrementAndGet();
+            }
+
+            @Override public void onRejected() {
+                rejected.incrementAndGet();
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+        Thread.sleep(200);
+        Assert.assertEquals(1, rejected.get());
+        block.countDown();
+        Thread.sleep(100);
+        Assert.assertEquals(0, fired.get());
+        Assert.assertEquals(1, rejected.get());
+        executorServices.shutdown();
+    }
+
+}
@@ -24,15 +24,31 @@ public class MySqlDDLBuilder extends SqlDDLBuilder {
                     Partition partition = AnnUtil.ann(fieldMapping.getField(), Partition.class);
                     String minRangeValue = partition.mysqlInitMinRangeValue();
                     String[] strings = partition.initRangeArrays();
-                    tableSql.append(" PARTITION BY RANGE")
+                    tableSql.append(" PARTITION BY ").append(partition.type().name().toUpperCase())
                             .append("(").append(fieldMapping.getColumnName()).append(")");
-                    if (strings != null && strings.length > 0 && StringUtils.isNotBlank(strings[0])) {
+                    if (partition.type() == Partition.Type.Hash) {
+                        tableSql.append(" PARTITIONS ").append(partition.hashCount());
+                    } else if (partition.type() == Partition.Type.List) {
+                        /*mysql list 分区建表的时候至少要有一个分区，格式 名字=值1,值2*/
+                        if (strings == null || strings.length == 0 || StringUtils.isBlank(strings[0])) {
+                            throw new RuntimeException(tableName + " list 分区必须配置 initRangeArrays");
+                        }
+                        tableSql.append("(");
+                        for (int i = 0; i < strings.length; i++) {
+                            String[] split = strings[i].split("=");
+                            if (i > 0) tableSql.append(",");
+                            tableSql.append("PARTITION p_%s VALUES IN (%s)".formatted(split[0], split[1]));
+                        }
+                        tableSql.append(")");
+                    } else if (strings != null && strings.length > 0 && StringUtils.isNotBlank(strings[0])) {
                         tableSql.append("(");
+                        int count = 0;
                         for (int i = 0; i < strings.length; i++) {
                             String s = strings[i];
                             if (StringUtils.isBlank(s)) {
                                 continue;
                             }
+                            if (count++ > 0) tableSql.append(",");
                             tableSql.append("PARTITION p_%s VALUES LESS THAN (%s)".formatted(i, s));
                         }
                         tableSql.append(")");
@@ -1,15 +1,25 @@
 package wxdgaming.boot2.starter.batis.sql.pgsql;
 
+import lombok.extern.slf4j.Slf4j;
 import wxdgaming.boot2.starter.batis.sql.SqlDataBatch;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
 /**
  * sql 模型 批量
+ * <p>insert 和 upsert 拼成一条多行 insert 提交，失败的时候退回 jdbc batch 逐条处理
  *
  * @author: wxd-gaming(無心道, 15388152619)
  * @version: 2025-02-16 20:58
  **/
+@Slf4j
 public class MysqlDataBatch extends SqlDataBatch {
 
+    /** mysql 单个语句最多 65535 个占位符 */
+    public static final int MAX_PLACEHOLDERS = 65535;
+
     public MysqlDataBatch(MysqlDataHelper dataHelper) {
         super(dataHelper);
     }
@@ -18,4 +28,35 @@ public class MysqlDataBatch extends SqlDataBatch {
         return super.dataHelper();
     }
 
+    @Override protected int batchRowLimit(BatchParam sample) {
+        int rowLimit = super.batchRowLimit(sample);
+        if (sample.getParams().length > 0) {
+            rowLimit = Math.min(rowLimit, MAX_PLACEHOLDERS / sample.getParams().length);
+        }
+        return rowLimit;
+    }
+
+    @Override protected int executeBulk(BatchThread batchThread, String tableName, String sql, List<BatchParam> batchParams) {
+        BatchParam first = batchParams.getFirst();
+        boolean upsert = first.getBatchType() == BatchType.Upsert;
+        if (batchParams.size() < 2 || !(upsert || first.getBatchType() == BatchType.Insert)) {
+            return super.executeBulk(batchThread, tableName, sql, batchParams);
+        }
+        String multiSql = dataHelper().getDdlBuilder().buildMultiInsertSql(first.getTableMapping(), tableName, batchParams.size(), upsert);
+        try (Connection connection = sqlDataHelper.connection();
+             PreparedStatement preparedStatement = connection.prepareStatement(multiSql)) {
+            int index = 1;
+            for (BatchParam batchParam : batchParams) {
+                for (Object param : batchParam.getParams()) {
+                    preparedStatement.setObject(index++, param);
+                }
+            }
+            preparedStatement.executeUpdate();
+            return batchParams.size();
+        } catch (Exception e) {
+            log.warn("{} 多行 insert {} 条失败，改成 jdbc batch 提交", tableName, batchParams.size(), e);
+            return super.executeBulk(batchThread, tableName, sql, batchParams);
+        }
+    }
+
 }
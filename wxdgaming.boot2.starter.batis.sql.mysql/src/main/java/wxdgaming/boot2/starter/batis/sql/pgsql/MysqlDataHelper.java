@@ -9,7 +9,13 @@ import wxdgaming.boot2.starter.batis.sql.SqlConfig;
 import wxdgaming.boot2.starter.batis.sql.SqlDataHelper;
 import wxdgaming.boot2.starter.batis.sql.SqlQueryBuilder;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -35,6 +41,28 @@ public class MysqlDataHelper extends SqlDataHelper<MySqlDDLBuilder> {
         return new MysqlQueryBuilder(this);
     }
 
+    /**
+     * mysql 驱动没有开启 useCursorFetch 的时候会忽略 fetchSize 一次读完，
+     * 只读顺序结果集设置 Integer.MIN_VALUE 是驱动约定的逐行流式读取
+     */
+    @Override protected void prepareCursor(Connection connection, PreparedStatement statement) throws SQLException {
+        if (getSqlConfig().getUrl().contains("useCursorFetch=true")) {
+            super.prepareCursor(connection, statement);
+        } else {
+            statement.setFetchSize(Integer.MIN_VALUE);
+        }
+    }
+
+    /** 读取 Seconds_Behind_Master，不是从库返回 0，复制线程停止的时候是 null 当作延迟无限大 */
+    @Override protected long replicaLagMs(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SHOW SLAVE STATUS"); ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) return 0;
+            long seconds = resultSet.getLong("Seconds_Behind_Master");
+            if (resultSet.wasNull()) return Long.MAX_VALUE;
+            return seconds * 1000;
+        }
+    }
+
     @Override public void checkTable(Map<String, LinkedHashMap<String, JSONObject>> databseTableMap, TableMapping tableMapping, String tableName, String tableComment) {
         super.checkTable(databseTableMap, tableMapping, tableName, tableComment);
 
@@ -84,4 +112,52 @@ public class MysqlDataHelper extends SqlDataHelper<MySqlDDLBuilder> {
             executeUpdate(string);
         }
     }
+
+    /** mysql 范围分区只能在最大的分区后面追加，已经覆盖到的范围跳过 */
+    @Override protected void addRangePartitions(String tableName, List<int[]> ranges) {
+        long max = Long.MIN_VALUE;
+        for (JSONObject jsonObject : findPartitions(tableName)) {
+            String description = jsonObject.getString("PARTITION_DESCRIPTION");
+            if ("MAXVALUE".equalsIgnoreCase(description)) return;
+            max = Math.max(max, Long.parseLong(description));
+        }
+        for (int[] range : ranges) {
+            if (range[1] > max) {
+                addPartition(tableName, String.valueOf(range[1]));
+                max = range[1];
+            }
+        }
+    }
+
+    /** mysql 不支持分离分区，只有 drop 的时候删除，否则只打印日志 */
+    @Override protected void expirePartitions(String tableName, int cutoff, boolean drop) {
+        List<String> expired = new ArrayList<>();
+        for (JSONObject jsonObject : findPartitions(tableName)) {
+            String partitionName = jsonObject.getString("PARTITION_NAME");
+            String description = jsonObject.getString("PARTITION_DESCRIPTION");
+            /*保留建表时的最小分区，range 分区不能删除全部分区*/
+            if ("p_min_value".equals(partitionName) || "MAXVALUE".equalsIgnoreCase(description)) continue;
+            if (Long.parseLong(description) <= cutoff) {
+                expired.add(partitionName);
+            }
+        }
+        if (expired.isEmpty()) return;
+        if (!drop) {
+            log.warn("{} 表 {} 过期分区 {}，mysql 不支持分离分区，需要手动处理", getDbName(), tableName, expired);
+            return;
+        }
+        executeUpdate("ALTER TABLE %s DROP PARTITION %s".formatted(tableName, String.join(",", expired)));
+        log.warn("{} 表 {} 删除过期分区 {}", getDbName(), tableName, expired);
+    }
+
+    /** 范围分区信息，按上限升序 */
+    protected List<JSONObject> findPartitions(String tableName) {
+        String sql = """
+                SELECT PARTITION_NAME, PARTITION_DESCRIPTION
+                FROM INFORMATION_SCHEMA.PARTITIONS
+                WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+                ORDER BY PARTITION_ORDINAL_POSITION
+                """;
+        return queryList(sql, getDbName(), tableName);
+    }
 }
@@ -0,0 +1,99 @@
+package wxdgaming.boot2.starter.batis.sql.pgsql;
+
+import wxdgaming.boot2.starter.batis.ColumnType;
+import wxdgaming.boot2.starter.batis.TableMapping;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * pgsql copy binary 格式的写入
+ * <p>文件头 + 每行 (int16 列数 + 每列 int32 长度 + 数据，null 长度是 -1) + int16 -1 结尾
+ * <p>列的顺序和 {@link TableMapping#getColumns()} 一致，值是 {@link TableMapping.FieldMapping#toDbValue(Object)} 的结果
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 00:20
+ **/
+public class PgCopyBinaryWriter implements AutoCloseable {
+
+    static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+
+    private final DataOutputStream out;
+    private final ColumnType[] columnTypes;
+
+    public PgCopyBinaryWriter(OutputStream outputStream, TableMapping tableMapping) throws IOException {
+        this.out = new DataOutputStream(outputStream);
+        Collection<TableMapping.FieldMapping> columns = tableMapping.getColumns().values();
+        this.columnTypes = new ColumnType[columns.size()];
+        for (TableMapping.FieldMapping fieldMapping : columns) {
+            columnTypes[fieldMapping.getOrdinal()] = fieldMapping.getColumnType();
+        }
+        out.write(SIGNATURE);
+        /*flags*/
+        out.writeInt(0);
+        /*header extension length*/
+        out.writeInt(0);
+    }
+
+    /** 写一行，values 按列序号排列 */
+    public void writeRow(Object[] values) throws IOException {
+        out.writeShort(columnTypes.length);
+        for (int i = 0; i < columnTypes.length; i++) {
+            writeValue(columnTypes[i], values[i]);
+        }
+    }
+
+    void writeValue(ColumnType columnType, Object value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        switch (columnType) {
+            case Bool -> {
+                out.writeInt(1);
+                out.writeByte((Boolean) value ? 1 : 0);
+            }
+            case Byte, Short -> {
+                out.writeInt(2);
+                out.writeShort(((Number) value).shortValue());
+            }
+            case Int -> {
+                out.writeInt(4);
+                out.writeInt(((Number) value).intValue());
+            }
+            case Long -> {
+                out.writeInt(8);
+                out.writeLong(((Number) value).longValue());
+            }
+            case Float -> {
+                out.writeInt(4);
+                out.writeFloat(((Number) value).floatValue());
+            }
+            case Double -> {
+                out.writeInt(8);
+                out.writeDouble(((Number) value).doubleValue());
+            }
+            case Blob -> {
+                byte[] bytes = (byte[]) value;
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            /*varchar text json 的二进制格式都是 utf8 文本*/
+            case null, default -> {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    /** 写结尾并且关闭输出流，pgsql 收到结尾之后执行 copy */
+    @Override public void close() throws IOException {
+        out.writeShort(-1);
+        out.close();
+    }
+
+}
@@ -23,7 +23,9 @@ public class PgSqlDDLBuilder extends SqlDDLBuilder {
                 .filter(v -> AnnUtil.ann(v.getField(), Partition.class) != null)
                 .findFirst()
                 .ifPresent(fieldMapping -> {
-                    table.append(" PARTITION BY RANGE").append("(\"").append(fieldMapping.getColumnName()).append("\")");
+                    Partition partition = AnnUtil.ann(fieldMapping.getField(), Partition.class);
+                    table.append(" PARTITION BY ").append(partition.type().name().toUpperCase())
+                            .append("(\"").append(fieldMapping.getColumnName()).append("\")");
                 });
 
         return table;
@@ -94,6 +96,19 @@ public class PgSqlDDLBuilder extends SqlDDLBuilder {
         return super.buildSql$$(sql).replace("`", "\"");
     }
 
+    /** pgsql 没有 on duplicate key，用 on conflict 主键 do update */
+    @Override public String buildUpsertSuffix(TableMapping tableMapping) {
+        String sql = "on conflict (";
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getKeyFields()) {
+            sql += "\"" + fieldMapping.getColumnName() + "\",";
+        }
+        sql = sql.substring(0, sql.length() - 1) + ") do update set ";
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+            sql += "\"" + fieldMapping.getColumnName() + "\"=excluded.\"" + fieldMapping.getColumnName() + "\",";
+        }
+        return sql.substring(0, sql.length() - 1);
+    }
+
     @Override public String buildExitSql(Entity entity) {
         TableMapping tableMapping = tableMapping(entity.getClass());
         String tableName = TableMapping.beanTableName(entity);
@@ -1,13 +1,24 @@
 package wxdgaming.boot2.starter.batis.sql.pgsql;
 
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import wxdgaming.boot2.starter.batis.TableMapping;
 import wxdgaming.boot2.starter.batis.sql.SqlDataBatch;
 
+import java.io.BufferedOutputStream;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
 /**
  * 批量
+ * <p>insert 用 copy binary 直接写入表，upsert 先 copy 到临时表再 insert ... on conflict 合并；失败的时候退回 jdbc batch 逐条处理
  *
  * @author: wxd-gaming(無心道, 15388152619)
  * @version: 2025-02-16 20:49
  **/
+@Slf4j
 public class PgsqlDataBatch extends SqlDataBatch {
 
     public PgsqlDataBatch(PgsqlDataHelper dataHelper) {
@@ -17,4 +28,54 @@ public class PgsqlDataBatch extends SqlDataBatch {
     @Override public PgsqlDataHelper dataHelper() {
         return super.dataHelper();
     }
+
+    @Override protected int executeBulk(BatchThread batchThread, String tableName, String sql, List<BatchParam> batchParams) {
+        BatchParam first = batchParams.getFirst();
+        boolean upsert = first.getBatchType() == BatchType.Upsert;
+        if (batchParams.size() < 2 || !(upsert || first.getBatchType() == BatchType.Insert)) {
+            return super.executeBulk(batchThread, tableName, sql, batchParams);
+        }
+        try {
+            copy(first.getTableMapping(), tableName, upsert, batchParams);
+            return batchParams.size();
+        } catch (Exception e) {
+            log.warn("{} copy {} 条失败，改成 jdbc batch 提交", tableName, batchParams.size(), e);
+            return super.executeBulk(batchThread, tableName, sql, batchParams);
+        }
+    }
+
+    protected void copy(TableMapping tableMapping, String tableName, boolean upsert, List<BatchParam> batchParams) throws Exception {
+        PgSqlDDLBuilder ddlBuilder = dataHelper().getDdlBuilder();
+        String columnNames = ddlBuilder.buildColumnNames(tableMapping);
+        String copyTable = upsert ? "copy_" + tableName : tableName;
+        try (Connection connection = sqlDataHelper.connection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                if (upsert) {
+                    /*临时表只在当前事务有效，提交之后自动删除*/
+                    statement.execute("create temp table \"%s\" (like \"%s\" including defaults) on commit drop".formatted(copyTable, tableName));
+                }
+                String copySql = "copy \"%s\" (%s) from stdin (format binary)".formatted(copyTable, columnNames);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (PgCopyBinaryWriter writer = new PgCopyBinaryWriter(new BufferedOutputStream(new PGCopyOutputStream(pgConnection, copySql), 64 * 1024), tableMapping)) {
+                    for (BatchParam batchParam : batchParams) {
+                        writer.writeRow(batchParam.getParams());
+                    }
+                }
+                if (upsert) {
+                    statement.executeUpdate(
+                            "insert into \"%s\" (%s) select %s from \"%s\" %s"
+                                    .formatted(tableName, columnNames, columnNames, copyTable, ddlBuilder.buildSql$$(ddlBuilder.buildUpsertSuffix(tableMapping)))
+                    );
+                }
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
 }
@@ -13,9 +13,16 @@ import wxdgaming.boot2.starter.batis.sql.SqlQueryBuilder;
 import wxdgaming.boot2.starter.batis.sql.ann.Partition;
 
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 数据集
@@ -28,6 +35,9 @@ import java.util.Map;
 @Setter
 public class PgsqlDataHelper extends SqlDataHelper<PgSqlDDLBuilder> {
 
+    /** 范围分区的上限，例如 FOR VALUES FROM (20250101) TO (20250102) */
+    private static final Pattern RANGE_TO = Pattern.compile("TO \\('?(-?\\d+)'?\\)");
+
     public PgsqlDataHelper(SqlConfig sqlConfig) {
         super(sqlConfig, new PgSqlDDLBuilder());
     }
@@ -40,6 +50,25 @@ public class PgsqlDataHelper extends SqlDataHelper<PgSqlDDLBuilder> {
         return new PgsqlQueryBuilder(this);
     }
 
+    /** pgsql 只有在事务里才会用服务端游标按 fetchSize 拉取，自动提交的时候会一次读完整个结果集 */
+    @Override protected void prepareCursor(Connection connection, PreparedStatement statement) throws SQLException {
+        connection.setAutoCommit(false);
+        super.prepareCursor(connection, statement);
+    }
+
+    /** 回放位置追上接收位置的时候没有延迟，否则是最后一次回放事务到现在的时间；主库上返回 0 */
+    @Override protected long replicaLagMs(Connection connection) throws SQLException {
+        String sql = """
+                SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)
+                END
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(sql); ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
     /** 查询当前数据库所有的表 key: 表名字, value: 表备注 */
     @Override public Map<String, String> findTableMap() {
         Map<String, String> dbTableMap = new LinkedHashMap<>();
@@ -139,16 +168,66 @@ public class PgsqlDataHelper extends SqlDataHelper<PgSqlDDLBuilder> {
         if (fieldMapping != null) {
             Field field = fieldMapping.getField();
             Partition partition = AnnUtil.ann(field, Partition.class);
+            if (partition.type() == Partition.Type.Hash) {
+                for (int i = 0; i < partition.hashCount(); i++) {
+                    executeUpdate("CREATE TABLE \"%s_p%s\" PARTITION OF \"%s\" FOR VALUES WITH (MODULUS %s, REMAINDER %s);"
+                            .formatted(tableName, i, tableName, partition.hashCount(), i));
+                }
+                return;
+            }
             String[] strings = partition.initRangeArrays();
             if (strings != null && strings.length > 0 && StringUtils.isNotBlank(strings[0])) {
                 for (String s : strings) {
                     String[] split = s.split("=");
-                    addPartition(tableName, split[0], split[1]);
+                    if (partition.type() == Partition.Type.List) {
+                        executeUpdate("CREATE TABLE \"%s_%s\" PARTITION OF \"%s\" FOR VALUES IN (%s);"
+                                .formatted(tableName, split[0], tableName, split[1]));
+                    } else {
+                        addPartition(tableName, split[0], split[1]);
+                    }
                 }
             }
         }
     }
 
+    @Override protected void addRangePartitions(String tableName, List<int[]> ranges) {
+        Map<String, String> dbTableMap = findTableMap();
+        for (int[] range : ranges) {
+            try {
+                addPartition(dbTableMap, tableName, String.valueOf(range[0]), String.valueOf(range[1]));
+            } catch (Exception e) {
+                /*和手动创建的分区范围重叠*/
+                log.warn("{} 表 {} 创建分区 [{}, {}) 失败", getDbName(), tableName, range[0], range[1], e);
+            }
+        }
+    }
+
+    @Override protected void expirePartitions(String tableName, int cutoff, boolean drop) {
+        String sql = """
+                SELECT c.relname AS partition_name, pg_get_expr(c.relpartbound, c.oid) AS partition_bound
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """;
+        List<String> expired = new ArrayList<>();
+        for (JSONObject jsonObject : this.queryList(sql, tableName)) {
+            Matcher matcher = RANGE_TO.matcher(jsonObject.getString("partition_bound"));
+            if (matcher.find() && Long.parseLong(matcher.group(1)) <= cutoff) {
+                expired.add(jsonObject.getString("partition_name"));
+            }
+        }
+        for (String partitionName : expired) {
+            if (drop) {
+                executeUpdate("DROP TABLE \"%s\";".formatted(partitionName));
+                log.warn("{} 表 {} 删除过期分区 {}", getDbName(), tableName, partitionName);
+            } else {
+                executeUpdate("ALTER TABLE \"%s\" DETACH PARTITION \"%s\";".formatted(tableName, partitionName));
+                log.warn("{} 表 {} 分离过期分区 {}", getDbName(), tableName, partitionName);
+            }
+        }
+    }
+
     /** 添加分区 */
     public void addPartition(String tableName, String from, String to) {
         addPartition(findTableMap(), tableName, from, to);
@@ -0,0 +1,75 @@
+package run;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.batis.EntityLongUID;
+import wxdgaming.boot2.starter.batis.TableMapping;
+import wxdgaming.boot2.starter.batis.sql.pgsql.PgCopyBinaryWriter;
+import wxdgaming.boot2.starter.batis.sql.pgsql.PgSqlDDLBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * copy binary 编码测试，不需要数据库
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 00:35
+ **/
+public class PgCopyBinaryWriterTest {
+
+    @Test
+    public void write() throws Exception {
+        PgSqlDDLBuilder ddlBuilder = new PgSqlDDLBuilder();
+        TableMapping tableMapping = ddlBuilder.tableMapping(CopyEntity.class);
+        CopyEntity entity = new CopyEntity();
+        entity.setUid(3);
+        entity.setLevel(7);
+        entity.setOnline(true);
+        entity.setName("名字");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PgCopyBinaryWriter writer = new PgCopyBinaryWriter(bytes, tableMapping)) {
+            writer.writeRow(ddlBuilder.buildInsertParams(tableMapping, entity));
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        byte[] signature = new byte[11];
+        in.readFully(signature);
+        Assert.assertEquals("PGCOPY\n", new String(signature, 0, 7, StandardCharsets.ISO_8859_1));
+        Assert.assertEquals(0, in.readInt());
+        Assert.assertEquals(0, in.readInt());
+        Assert.assertEquals(5, in.readShort());
+        /*uid int8*/
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(3L, in.readLong());
+        /*level int4*/
+        Assert.assertEquals(4, in.readInt());
+        Assert.assertEquals(7, in.readInt());
+        /*online bool*/
+        Assert.assertEquals(1, in.readInt());
+        Assert.assertEquals(1, in.readByte());
+        /*name varchar*/
+        byte[] name = "名字".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(name.length, in.readInt());
+        in.skipBytes(name.length);
+        /*data null*/
+        Assert.assertEquals(-1, in.readInt());
+        Assert.assertEquals(-1, in.readShort());
+        Assert.assertEquals(0, in.available());
+    }
+
+    @Getter
+    @Setter
+    public static class CopyEntity extends EntityLongUID {
+
+        private int level;
+        private boolean online;
+        private String name;
+        private byte[] data;
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package run;
 
 import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
 import org.junit.Test;
 import run.entity.EntityTest;
 import wxdgaming.boot2.core.timer.MyClock;
@@ -8,6 +9,7 @@ import wxdgaming.boot2.starter.batis.TableMapping;
 import wxdgaming.boot2.starter.batis.sql.SqlConfig;
 import wxdgaming.boot2.starter.batis.sql.pgsql.PgsqlDataHelper;
 
+import java.sql.Connection;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -63,4 +65,28 @@ public class PgsqlTest {
         }
     }
 
+    /** 本地用同一个实例的另一个库模拟从库，检查读写分离 */
+    @Test
+    public void replica() throws Exception {
+        SqlConfig sqlConfig = new SqlConfig();
+        sqlConfig.setDebug(true);
+        sqlConfig.setDriverClassName("org.postgresql.Driver");
+        sqlConfig.setUrl("jdbc:postgresql://192.168.137.10:5432/test2");
+        sqlConfig.setUsername("postgres");
+        sqlConfig.setPassword("test");
+        sqlConfig.setBatchThreadSize(0);
+        sqlConfig.setReplicaUrls(List.of("jdbc:postgresql://192.168.137.10:5432/test1"));
+        PgsqlDataHelper replicaHelper = new PgsqlDataHelper(sqlConfig);
+        try {
+            try (Connection connection = replicaHelper.readConnection()) {
+                Assert.assertEquals("test1", connection.getCatalog());
+            }
+            String catalog = replicaHelper.readPrimary(() -> replicaHelper.executeScalar("select current_database()", String.class));
+            Assert.assertEquals("test2", catalog);
+            Assert.assertEquals("test1", replicaHelper.executeScalar("select current_database()", String.class));
+        } finally {
+            replicaHelper.shutdown();
+        }
+    }
+
 }
@@ -1,11 +1,18 @@
 package wxdgaming.boot2.starter.batis.sql;
 
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.Throw;
 import wxdgaming.boot2.core.cache.Cache;
+import wxdgaming.boot2.core.chatset.StringUtils;
+import wxdgaming.boot2.core.lang.DiffTime;
 import wxdgaming.boot2.core.reflect.ReflectContext;
 import wxdgaming.boot2.starter.batis.Entity;
 import wxdgaming.boot2.starter.batis.TableMapping;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -14,6 +21,7 @@ import java.util.concurrent.TimeUnit;
  * @author: wxd-gaming(無心道, 15388152619)
  * @version: 2025-02-17 11:28
  **/
+@Slf4j
 @Getter
 public class JdbcCache<E extends Entity, Key> {
 
@@ -38,6 +46,7 @@ public class JdbcCache<E extends Entity, Key> {
                 .expireAfterAccess(expireAfterAccessM, TimeUnit.MINUTES)
                 .heartTime(1, TimeUnit.MINUTES)
                 .loader(this::loader)
+                .bulkLoader(this::loaderAll)
                 .heartListener(this::heart)
                 .removalListener(this::removed)
                 .build();
@@ -48,23 +57,63 @@ public class JdbcCache<E extends Entity, Key> {
     }
 
     protected E loader(Key key) {
-        E byId = (E) sqlDataHelper.findByKey(cls, key);
+        /*缓存加载读主库，从库可能还没有同步刚写入的数据*/
+        E byId = (E) sqlDataHelper.readPrimary(() -> sqlDataHelper.findByKey(cls, key));
         if (byId != null) {
             byId.setNewEntity(false);
-            byId.checkHashCode();
+            tableMapping.snapshot(byId);
         }
         return byId;
     }
 
+    /** 批量加载，单主键使用一次 in 查询，联合主键逐个查询 */
+    protected Map<Key, E> loaderAll(Set<Key> keys) {
+        Map<Key, E> map = new HashMap<>();
+        if (tableMapping.getKeyFields().size() != 1) {
+            for (Key key : keys) {
+                E e = loader(key);
+                if (e != null) map.put(key, e);
+            }
+            return map;
+        }
+        TableMapping.FieldMapping keyField = tableMapping.getKeyFields().getFirst();
+        List<E> list = sqlDataHelper.readPrimary(() -> sqlDataHelper.findListByKeys(cls, keys));
+        for (E e : list) {
+            e.setNewEntity(false);
+            tableMapping.snapshot(e);
+            map.put((Key) keyField.getFieldValue(e), e);
+        }
+        return map;
+    }
+
+    /** 按列比较快照，只提交变化的列 */
     protected void heart(Key key, E e) {
-        boolean checkHashCode = e.checkHashCode();
-        if (checkHashCode) {
-            sqlDataHelper.getDataBatch().save(e);
+        BitSet dirty = tableMapping.checkDirty(e);
+        if (e.isNewEntity()) {
+            sqlDataHelper.getDataBatch().insert(e);
+        } else if (!dirty.isEmpty()) {
+            sqlDataHelper.getDataBatch().update(e, dirty);
         }
     }
 
+    /**
+     * 淘汰的数据同样交给批量写入，和队列里还没有提交的写入按主键合并，不会被之前排队的写入覆盖；
+     * 写入落地之前否决移除，否则这期间重新加载会读到数据库里旧的数据；
+     * 没有批量写入或者已经关闭的时候同步写入
+     */
     protected boolean removed(Key key, E e) {
-        sqlDataHelper.update(e);
+        SqlDataBatch dataBatch = sqlDataHelper.getDataBatch();
+        if (dataBatch != null && !dataBatch.isClosed()) {
+            heart(key, e);
+            return !dataBatch.isPending(e);
+        }
+        BitSet dirty = tableMapping.checkDirty(e);
+        if (e.isNewEntity()) {
+            sqlDataHelper.insert(e);
+            e.setNewEntity(false);
+        } else {
+            sqlDataHelper.update(e, dirty);
+        }
         return true;
     }
 
@@ -83,6 +132,87 @@ public class JdbcCache<E extends Entity, Key> {
         return cache.getIfPresent(ID);
     }
 
+    /** 异步获取，缓存没有的时候在虚拟线程查询数据库，同一个 key 并发查询只会执行一次 */
+    public CompletableFuture<E> getAsync(Key key) {
+        return cache.getAsync(key);
+    }
+
+    /** 批量获取，缓存没有的数据一次查询数据库 */
+    public Map<Key, E> getAll(Collection<Key> keys) {
+        return cache.getAll(keys);
+    }
+
+    /**
+     * 预取，缓存没有的 key 按 {@link SqlDataHelper#KEY_IN_BATCH_SIZE} 分批 in 查询放入缓存，
+     * 其他线程正在加载的 key 等待加载完成，适合登录、进入场景之前一次加载需要的数据
+     *
+     * @return 缓存里存在的数量
+     */
+    public int prefetch(Collection<Key> keys) {
+        return cache.getAll(keys).size();
+    }
+
+    /**
+     * 启动预热，把满足条件的数据加载到缓存，在开始接受连接之前调用，例如 {@code @Start @Sort(500)}
+     * <p>游标读取满足条件的主键之后关闭游标，再每 {@link SqlDataHelper#KEY_IN_BATCH_SIZE} 个一批并发 in 查询，
+     * 等待并发的时候不占用连接；已经在缓存里的数据不会被覆盖；只支持单主键
+     *
+     * @param sqlWhere    条件，例如 {@code "last_login_time > ?"}
+     * @param args        参数
+     * @param parallelism 同时查询的批数
+     * @return 放入缓存的数量
+     */
+    public int warmUp(String sqlWhere, Object[] args, int parallelism) {
+        if (tableMapping.getKeyFields().size() != 1) {
+            throw new UnsupportedOperationException(tableMapping.getTableName() + " 联合主键不支持预热");
+        }
+        DiffTime diffTime = new DiffTime();
+        TableMapping.FieldMapping keyField = tableMapping.getKeyFields().getFirst();
+        SqlDDLBuilder ddlBuilder = sqlDataHelper.getDdlBuilder();
+        String selectSql = ddlBuilder.buildSql$$("select `" + keyField.getColumnName() + "` from `" + tableMapping.getTableName() + "`");
+        String sql = StringUtils.isBlank(sqlWhere) ? selectSql : selectSql + " where " + sqlWhere;
+        List<Object> keys = new ArrayList<>();
+        sqlDataHelper.readPrimary(() -> sqlDataHelper.queryResultSet(sql, args, true, resultSet -> {
+            try {
+                keys.add(resultSet.getObject(1));
+            } catch (Exception e) {
+                throw Throw.of(tableMapping.getTableName(), e);
+            }
+            return true;
+        }));
+        Semaphore semaphore = new Semaphore(Math.max(1, parallelism));
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += SqlDataHelper.KEY_IN_BATCH_SIZE) {
+            List<Object> batch = keys.subList(i, Math.min(keys.size(), i + SqlDataHelper.KEY_IN_BATCH_SIZE));
+            futures.add(warmUpBatch(batch, semaphore));
+        }
+        int count = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            count += future.join();
+        }
+        log.info("{} 预热 {} 条，耗时 {} ms", cache.getCacheName(), count, diffTime.diff());
+        return count;
+    }
+
+    /** 一批主键在数据库线程查询，并发达到上限的时候等待 */
+    protected CompletableFuture<Integer> warmUpBatch(List<Object> keys, Semaphore semaphore) {
+        semaphore.acquireUninterruptibly();
+        CompletableFuture<Integer> future = sqlDataHelper.getAsyncExecutor().submit(null, null, 0, () -> {
+            List<E> list = sqlDataHelper.readPrimary(() -> sqlDataHelper.findListByKeys(cls, keys));
+            TableMapping.FieldMapping keyField = tableMapping.getKeyFields().getFirst();
+            int count = 0;
+            for (E e : list) {
+                e.setNewEntity(false);
+                tableMapping.snapshot(e);
+                if (cache.putIfAbsent((Key) keyField.getFieldValue(e), e)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        return future.whenComplete((r, throwable) -> semaphore.release());
+    }
+
     /** 如果数据不存在，不会加载数据库，返回null */
     public E find(Key ID) {
         return cache.getIfPresent(ID, null);
@@ -91,6 +221,7 @@ public class JdbcCache<E extends Entity, Key> {
     public void put(Key key, E value) {
         sqlDataHelper.save(value);
         value.setNewEntity(false);
+        tableMapping.snapshot(value);
         cache.put(key, value);
     }
 
@@ -0,0 +1,180 @@
+package wxdgaming.boot2.starter.batis.sql;
+
+import lombok.Getter;
+import wxdgaming.boot2.core.Throw;
+import wxdgaming.boot2.starter.batis.ColumnType;
+import wxdgaming.boot2.starter.batis.Entity;
+import wxdgaming.boot2.starter.batis.TableMapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 结果集直接映射成实体，不经过 JSONObject
+ * <p>每个 {@link TableMapping} 编译一次，基础类型、字符串、blob 按列序号用 getInt getLong getBytes 读取，通过 MethodHandle 调用 set 方法赋值；
+ * json 等其他类型还是走 {@link TableMapping.FieldMapping#setDbValue(Object, Object)}
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 23:30
+ **/
+public class RowMapper<E extends Entity> {
+
+    @Getter private final TableMapping tableMapping;
+    private final MethodHandle constructor;
+    /** key: 列名 */
+    private final Map<String, ColumnReader> readers = new HashMap<>();
+
+    public RowMapper(TableMapping tableMapping) {
+        this.tableMapping = tableMapping;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(tableMapping.getCls(), MethodHandles.lookup());
+            this.constructor = lookup.findConstructor(tableMapping.getCls(), MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+                readers.put(fieldMapping.getColumnName(), compile(lookup, fieldMapping));
+            }
+        } catch (Exception e) {
+            throw Throw.of(tableMapping.getCls().getName(), e);
+        }
+    }
+
+    /** 一次查询使用一个，第一行的时候根据 {@link ResultSetMetaData} 绑定列序号 */
+    public RowReader newReader() {
+        return new RowReader();
+    }
+
+    public class RowReader {
+
+        private int[] indexes;
+        private ColumnReader[] columnReaders;
+
+        void bind(ResultSetMetaData metaData) throws SQLException {
+            int columnCount = metaData.getColumnCount();
+            int[] tmpIndexes = new int[columnCount];
+            ColumnReader[] tmpReaders = new ColumnReader[columnCount];
+            int size = 0;
+            for (int i = 1; i <= columnCount; i++) {
+                /*不在映射里的列直接忽略*/
+                ColumnReader columnReader = readers.get(metaData.getColumnLabel(i).toLowerCase());
+                if (columnReader == null) continue;
+                tmpIndexes[size] = i;
+                tmpReaders[size] = columnReader;
+                size++;
+            }
+            this.indexes = Arrays.copyOf(tmpIndexes, size);
+            this.columnReaders = Arrays.copyOf(tmpReaders, size);
+        }
+
+        /** 读取当前行 */
+        public E map(ResultSet resultSet) {
+            try {
+                if (indexes == null) {
+                    bind(resultSet.getMetaData());
+                }
+                Object instance = constructor.invokeExact();
+                E entity = (E) instance;
+                for (int i = 0; i < indexes.length; i++) {
+                    columnReaders[i].read(resultSet, indexes[i], entity);
+                }
+                entity.setNewEntity(false);
+                return entity;
+            } catch (Throwable throwable) {
+                throw Throw.of(tableMapping.getTableName(), throwable);
+            }
+        }
+
+    }
+
+    @FunctionalInterface
+    interface ColumnReader {
+
+        void read(ResultSet resultSet, int index, Object bean) throws Throwable;
+
+    }
+
+    /** 可以直接用 getXxx 读取的字段类型对应的列类型 */
+    static ColumnType typedColumn(Class<?> type) {
+        if (type == boolean.class) return ColumnType.Bool;
+        if (type == byte.class) return ColumnType.Byte;
+        if (type == short.class) return ColumnType.Short;
+        if (type == int.class) return ColumnType.Int;
+        if (type == long.class) return ColumnType.Long;
+        if (type == float.class) return ColumnType.Float;
+        if (type == double.class) return ColumnType.Double;
+        if (type == String.class) return ColumnType.String;
+        if (type == byte[].class) return ColumnType.Blob;
+        return null;
+    }
+
+    static ColumnReader compile(MethodHandles.Lookup lookup, TableMapping.FieldMapping fieldMapping) throws IllegalAccessException {
+        Field field = fieldMapping.getField();
+        Class<?> type = field.getType();
+        ColumnType columnType = fieldMapping.getColumnType();
+        boolean typed = columnType == typedColumn(type);
+        if (!typed || (fieldMapping.getSetMethod() == null && Modifier.isFinal(field.getModifiers()))) {
+            /*原子类型、json、final 集合等*/
+            return (resultSet, index, bean) -> fieldMapping.setDbValue(bean, resultSet.getObject(index));
+        }
+        MethodHandle setter = fieldMapping.getSetMethod() != null
+                ? lookup.unreflect(fieldMapping.getSetMethod())
+                : lookup.unreflectSetter(field);
+        setter = setter.asType(MethodType.methodType(void.class, Object.class, type));
+        final MethodHandle mh = setter;
+        if (type == int.class) {
+            return (resultSet, index, bean) -> {
+                int v = resultSet.getInt(index);
+                if (!resultSet.wasNull()) mh.invokeExact(bean, v);
+            };
+        } else if (type == long.class) {
+            return (resultSet, index, bean) -> {
+                long v = resultSet.getLong(index);
+                if (!resultSet.wasNull()) mh.invokeExact(bean, v);
+            };
+        } else if (type == boolean.class) {
+            return (resultSet, index, bean) -> {
+                boolean v = resultSet.getBoolean(index);
+                if (!resultSet.wasNull()) mh.invokeExact(bean, v);
+            };
+        } else if (type == short.class) {
+            return (resultSet, index, bean) -> {
+                short v = resultSet.getShort(index);
+                if (!resultSet.wasNull()) mh.invokeExact(bean, v);
+            };
+        } else if (type == byte.class) {
+            return (resultSet, index, bean) -> {
+                byte v = resultSet.getByte(index);
+                if (!resultSet.wasNull()) mh.invokeExact(bean, v);
+            };
+        } else if (type == float.class) {
+            return (resultSet, index, bean) -> {
+                float v = resultSet.getFloat(index);
+                if (!resultSet.wasNull()) mh.invokeExact(bean, v);
+            };
+        } else if (type == double.class) {
+            return (resultSet, index, bean) -> {
+                double v = resultSet.getDouble(index);
+                if (!resultSet.wasNull()) mh.invokeExact(bean, v);
+            };
+        } else if (type == String.class) {
+            return (resultSet, index, bean) -> {
+                String v = resultSet.getString(index);
+                if (v != null) mh.invokeExact(bean, v);
+            };
+        } else {
+            return (resultSet, index, bean) -> {
+                byte[] v = resultSet.getBytes(index);
+                if (v != null) mh.invokeExact(bean, v);
+            };
+        }
+    }
+
+}
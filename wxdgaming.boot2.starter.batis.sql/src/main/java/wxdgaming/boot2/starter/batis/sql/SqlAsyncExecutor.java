@@ -0,0 +1,256 @@
+package wxdgaming.boot2.starter.batis.sql;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.chatset.StringUtils;
+import wxdgaming.boot2.core.threading.Event;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.core.threading.IExecutorServices;
+import wxdgaming.boot2.core.threading.RejectPolicy;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 数据库异步查询，每个数据源一个有界线程池，线程数和连接池一致
+ * <p>查询在数据库线程执行，结果回到调用方的线程池子队列完成，回调和调用方的其他任务保持串行；
+ * 超时或者取消的时候通过 {@link Statement#cancel()} 中断正在执行的语句
+ * <p>在回调的子队列里对返回的 future 调用 join/get 会直接等待数据库的结果在当前线程完成，不会等待排在自己后面的回调；
+ * thenApply 之类派生出来的 future 没有这个处理，不要在回调的子队列里阻塞等待
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 02:10
+ **/
+@Slf4j
+@Getter
+public class SqlAsyncExecutor {
+
+    /** 当前数据库线程正在执行的异步查询 */
+    static final ThreadLocal<QueryHandle> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final int threadSize;
+    private final int queueCapacity;
+    private volatile IExecutorServices executorServices;
+
+    public SqlAsyncExecutor(String name, int threadSize, int queueCapacity) {
+        this.name = name;
+        this.threadSize = threadSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /** 第一次使用的时候创建线程池 */
+    public IExecutorServices executorServices() {
+        if (executorServices == null) {
+            synchronized (this) {
+                if (executorServices == null) {
+                    executorServices = ExecutorUtil.getInstance().newExecutorServices(name, true, threadSize, threadSize)
+                            .setQueueCapacity(queueCapacity)
+                            .setRejectPolicy(RejectPolicy.FailFast);
+                }
+            }
+        }
+        return executorServices;
+    }
+
+    public void shutdown() {
+        IExecutorServices services = this.executorServices;
+        if (services != null) {
+            services.terminate();
+            ExecutorUtil.getInstance().All_THREAD_LOCAL.remove(name, services);
+        }
+    }
+
+    /**
+     * 异步执行，结果回到当前线程所在的子队列，当前线程不是线程池任务的时候在数据库线程完成
+     * <p>在当前子队列里 join/get 返回的 future 会在当前线程完成，派生的 future 不能在当前子队列里阻塞等待
+     *
+     * @param timeoutMs 超时时间，小于等于 0 不限制
+     */
+    public <R> CompletableFuture<R> submit(long timeoutMs, Supplier<R> supplier) {
+        ExecutorUtil executorUtil = ExecutorUtil.getInstance();
+        return submit(executorUtil.currentThreadExecutor(), executorUtil.currentThreadQueueKey(), timeoutMs, supplier);
+    }
+
+    /**
+     * 异步执行
+     * <p>在回调的子队列里 join/get 返回的 future 会在当前线程完成，派生的 future 不能在回调的子队列里阻塞等待
+     *
+     * @param callbackExecutor 结果回调的线程池，null 表示在数据库线程完成
+     * @param callbackQueue    结果回调的子队列
+     * @param timeoutMs        超时时间，小于等于 0 不限制
+     * @param supplier         查询
+     */
+    public <R> CompletableFuture<R> submit(IExecutorServices callbackExecutor, String callbackQueue, long timeoutMs, Supplier<R> supplier) {
+        QueryHandle handle = new QueryHandle(timeoutMs);
+        CompletableFuture<R> dbFuture = new CompletableFuture<>();
+        CallbackFuture<R> result = new CallbackFuture<>(callbackExecutor, callbackQueue, dbFuture);
+        if (timeoutMs > 0) {
+            dbFuture.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        dbFuture.whenComplete((r, throwable) -> {
+            if (throwable != null) handle.cancel();
+            deliver(result, callbackExecutor, callbackQueue, r, throwable);
+        });
+        /*调用方取消的时候同时取消数据库的查询*/
+        result.whenComplete((r, throwable) -> {
+            if (result.isCancelled()) dbFuture.cancel(false);
+        });
+        try {
+            executorServices().submit(new Event(name, 100, Math.max(1000, timeoutMs)) {
+                @Override public void onEvent() throws Exception {
+                    if (dbFuture.isDone()) return;
+                    CURRENT.set(handle);
+                    try {
+                        dbFuture.complete(supplier.get());
+                    } catch (Throwable throwable) {
+                        dbFuture.completeExceptionally(throwable);
+                    } finally {
+                        CURRENT.remove();
+                    }
+                }
+
+                @Override public void onRejected() {
+                    dbFuture.completeExceptionally(new RejectedExecutionException(name + " 异步查询队列已满"));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dbFuture.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    static <R> void deliver(CompletableFuture<R> result, IExecutorServices callbackExecutor, String callbackQueue, R value, Throwable throwable) {
+        if (callbackExecutor == null) {
+            complete(result, value, throwable);
+            return;
+        }
+        try {
+            callbackExecutor.submit(StringUtils.isBlank(callbackQueue) ? null : callbackQueue, () -> complete(result, value, throwable));
+        } catch (RejectedExecutionException e) {
+            log.error("异步查询结果回调被拒绝 {} {}", callbackExecutor.getName(), callbackQueue, e);
+            complete(result, null, e);
+        }
+    }
+
+    static <R> void complete(CompletableFuture<R> result, R value, Throwable throwable) {
+        if (throwable != null) {
+            result.completeExceptionally(throwable);
+        } else {
+            result.complete(value);
+        }
+    }
+
+    /** 结果回到调用方子队列的 future，在这个子队列里阻塞等待的时候直接等数据库的结果，否则会等待排在自己后面的回调形成死锁 */
+    static class CallbackFuture<R> extends CompletableFuture<R> {
+
+        final IExecutorServices callbackExecutor;
+        final String callbackQueue;
+        final CompletableFuture<R> dbFuture;
+
+        CallbackFuture(IExecutorServices callbackExecutor, String callbackQueue, CompletableFuture<R> dbFuture) {
+            this.callbackExecutor = callbackExecutor;
+            this.callbackQueue = StringUtils.isBlank(callbackQueue) ? "" : callbackQueue;
+            this.dbFuture = dbFuture;
+        }
+
+        /** 当前线程就是回调的子队列 */
+        boolean onCallbackQueue() {
+            if (callbackExecutor == null || isDone()) return false;
+            ExecutorUtil executorUtil = ExecutorUtil.getInstance();
+            return executorUtil.currentThreadExecutor() == callbackExecutor && executorUtil.checkCurrentThread(callbackQueue);
+        }
+
+        void completeInline(Supplier<R> await) {
+            try {
+                complete(await.get());
+            } catch (CompletionException e) {
+                completeExceptionally(e.getCause() == null ? e : e.getCause());
+            } catch (Throwable throwable) {
+                completeExceptionally(throwable);
+            }
+        }
+
+        @Override public R join() {
+            if (onCallbackQueue()) completeInline(dbFuture::join);
+            return super.join();
+        }
+
+        @Override public R get() throws InterruptedException, ExecutionException {
+            if (onCallbackQueue()) completeInline(dbFuture::join);
+            return super.get();
+        }
+
+        @Override public R get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (onCallbackQueue()) {
+                try {
+                    complete(dbFuture.get(timeout, unit));
+                } catch (ExecutionException e) {
+                    completeExceptionally(e.getCause());
+                } catch (CancellationException e) {
+                    completeExceptionally(e);
+                }
+            }
+            return super.get(timeout, unit);
+        }
+
+    }
+
+    /**
+     * 当前线程是异步查询的时候绑定正在执行的语句，设置剩余的超时时间
+     *
+     * @throws SQLTimeoutException 已经超时或者被取消
+     */
+    public static void bind(Statement statement) throws SQLException {
+        QueryHandle handle = CURRENT.get();
+        if (handle == null) return;
+        handle.statement = statement;
+        if (handle.cancelled) {
+            throw new SQLTimeoutException("异步查询已经超时或者取消");
+        }
+        if (handle.deadline > 0) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(handle.deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new SQLTimeoutException("异步查询已经超时");
+            }
+            statement.setQueryTimeout((int) Math.max(1, (remaining + 999) / 1000));
+        }
+    }
+
+    /** 语句执行完成 */
+    public static void unbind() {
+        QueryHandle handle = CURRENT.get();
+        if (handle != null) {
+            handle.statement = null;
+        }
+    }
+
+    /** 一次异步查询 */
+    static class QueryHandle {
+
+        /** 超时的时间点，nanoTime，0 表示不限制 */
+        final long deadline;
+        volatile Statement statement;
+        volatile boolean cancelled;
+
+        QueryHandle(long timeoutMs) {
+            this.deadline = timeoutMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : 0;
+        }
+
+        void cancel() {
+            cancelled = true;
+            Statement running = this.statement;
+            if (running == null) return;
+            try {
+                running.cancel();
+            } catch (SQLException e) {
+                log.warn("取消查询失败", e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package wxdgaming.boot2.starter.batis.sql;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单张表的批量写入熔断
+ * <p>连续 {@link #failures} 批提交失败之后暂停这张表 {@link #pauseMs} 毫秒，期间的数据保留在待提交队列里，
+ * 暂停结束之后放行一批试探，成功就恢复，失败继续暂停
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 00:40
+ **/
+@Slf4j
+@Getter
+public class SqlBatchBreaker {
+
+    private final String tableName;
+    /** 连续失败多少批之后熔断，小于等于 0 表示不熔断 */
+    private final int failures;
+    private final long pauseMs;
+    /** 连续失败的批数 */
+    private final AtomicInteger failCount = new AtomicInteger();
+    /** 熔断到什么时候 */
+    private volatile long openUntil = 0;
+
+    public SqlBatchBreaker(String tableName, int failures, long pauseMs) {
+        this.tableName = tableName;
+        this.failures = failures;
+        this.pauseMs = pauseMs;
+    }
+
+    /** 当前是否允许提交 */
+    public boolean allow() {
+        return openUntil <= System.currentTimeMillis();
+    }
+
+    /** 是否处于熔断 */
+    public boolean isOpen() {
+        return !allow();
+    }
+
+    /** 记录一批提交的结果 */
+    public void record(boolean success) {
+        if (success) {
+            if (failCount.getAndSet(0) >= failures && failures > 0) {
+                log.info("表 {} 批量写入恢复", tableName);
+            }
+            return;
+        }
+        int count = failCount.incrementAndGet();
+        if (failures > 0 && count >= failures) {
+            openUntil = System.currentTimeMillis() + pauseMs;
+            log.error("表 {} 连续 {} 批写入失败，暂停 {} ms", tableName, count, pauseMs);
+        }
+    }
+
+    @Override public String toString() {
+        return "SqlBatchBreaker{tableName='%s', failCount=%s, open=%s}".formatted(tableName, failCount.get(), isOpen());
+    }
+
+}
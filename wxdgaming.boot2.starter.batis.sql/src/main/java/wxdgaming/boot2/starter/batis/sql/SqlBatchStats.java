@@ -0,0 +1,20 @@
+package wxdgaming.boot2.starter.batis.sql;
+
+/**
+ * sql 批量写入统计快照
+ *
+ * @param submitCount   调用 insert update delete 的次数
+ * @param coalesceCount 同一个主键被后面的写入合并掉的次数
+ * @param executeCount  实际提交到数据库的行数
+ * @param pendingCount  当前等待提交的行数
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 22:40
+ */
+public record SqlBatchStats(long submitCount, long coalesceCount, long executeCount, int pendingCount) {
+
+    /** 合并掉的写入占比 */
+    public double coalesceRate() {
+        return submitCount == 0 ? 0 : (double) coalesceCount / submitCount;
+    }
+
+}
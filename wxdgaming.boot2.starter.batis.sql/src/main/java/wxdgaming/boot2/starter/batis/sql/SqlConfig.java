@@ -13,6 +13,8 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -58,6 +60,42 @@ public class SqlConfig extends ObjectBase {
     private int prepStmtCacheSize = 500;
     @JSONField(ordinal = 15)
     private int prepStmtCacheSqlLimit = 100;
+    /** 单次批处理提交估算的字节数上限，json blob 比较大的表按字节切分 */
+    @JSONField(ordinal = 16)
+    private int batchSubmitBytes = 4 * 1024 * 1024;
+    /** 同一张表连续失败多少批之后暂停写入，小于等于 0 不熔断 */
+    @JSONField(ordinal = 17)
+    private int batchBreakerFailures = 5;
+    /** 熔断之后暂停的毫秒数 */
+    @JSONField(ordinal = 18)
+    private int batchBreakerPauseMs = 30000;
+    /** 写入失败的数据记录文件上限，单位 mb */
+    @JSONField(ordinal = 19)
+    private int deadLetterMaxMB = 64;
+    /** 游标查询每次从数据库拉取的行数 */
+    @JSONField(ordinal = 20)
+    private int cursorFetchSize = 1000;
+    /** 异步查询默认超时毫秒，小于等于 0 不限制 */
+    @JSONField(ordinal = 21)
+    private int asyncQueryTimeoutMs = 5000;
+    /** 异步查询排队的上限，超过直接失败 */
+    @JSONField(ordinal = 22)
+    private int asyncQueueCapacity = 10000;
+    /** 只读从库地址，为空表示读写都走主库；用户名密码和连接池参数和主库一致 */
+    @JSONField(ordinal = 23)
+    private List<String> replicaUrls = new ArrayList<>();
+    /** 从库选择策略 */
+    @JSONField(ordinal = 24)
+    private SqlReplicaRouter.Policy replicaPolicy = SqlReplicaRouter.Policy.RoundRobin;
+    /** 从库复制延迟超过这个毫秒数改读主库，小于等于 0 不检查 */
+    @JSONField(ordinal = 25)
+    private int replicaMaxLagMs = 3000;
+    /** 从库复制延迟检查间隔毫秒 */
+    @JSONField(ordinal = 26)
+    private int replicaLagCheckMs = 1000;
+    /** 自动管理分区的检查间隔分钟，小于等于 0 只在启动检查表结构的时候创建分区 */
+    @JSONField(ordinal = 27)
+    private int partitionCheckMinutes = 60;
 
     public String dbName() {
         String dbName = url;
@@ -71,13 +109,26 @@ public class SqlConfig extends ObjectBase {
     }
 
     public HikariDataSource hikariDataSource() {
+        return hikariDataSource(getUrl(), dbName());
+    }
+
+    /** 从库的连接池 */
+    public List<HikariDataSource> replicaDataSources() {
+        List<HikariDataSource> list = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            list.add(hikariDataSource(replicaUrls.get(i), dbName() + "-replica-" + (i + 1)));
+        }
+        return list;
+    }
+
+    public HikariDataSource hikariDataSource(String url, String poolName) {
         HikariConfig config = new HikariConfig();
         config.setDriverClassName(getDriverClassName());
-        config.setJdbcUrl(getUrl());
+        config.setJdbcUrl(url);
         config.setUsername(getUsername());
         config.setPassword(getPassword());
         config.setAutoCommit(true);
-        config.setPoolName(dbName());
+        config.setPoolName(poolName);
         config.setConnectionTimeout(connectionTimeoutMs);
         config.setIdleTimeout(TimeUnit.MINUTES.toMillis(idleTimeoutM));
         config.setValidationTimeout(TimeUnit.SECONDS.toMillis(10));
@@ -9,9 +9,11 @@ import wxdgaming.boot2.starter.batis.TableMapping;
 import wxdgaming.boot2.starter.batis.sql.ann.Partition;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * sql ddl
@@ -21,6 +23,8 @@ import java.util.Map;
  **/
 public abstract class SqlDDLBuilder extends DDLBuilder {
 
+    protected final Map<TableMapping, RowMapper<?>> rowMappers = new ConcurrentHashMap<>();
+
     @Override public TableMapping tableMapping(Class<? extends Entity> cls) {
         TableMapping tableMapping = super.tableMapping(cls);
         long count = tableMapping.getColumns().values().stream().filter(v -> AnnUtil.ann(v.getField(), Partition.class) != null).count();
@@ -152,6 +156,22 @@ public abstract class SqlDDLBuilder extends DDLBuilder {
         return sql;
     }
 
+    /** 单主键 in 查询的 where，只支持单主键 */
+    public String buildKeyInWhere(TableMapping tableMapping, int size) {
+        if (tableMapping.getKeyFields().size() != 1) {
+            throw new UnsupportedOperationException(tableMapping.getTableName() + " 联合主键不支持 in 查询");
+        }
+        TableMapping.FieldMapping fieldMapping = tableMapping.getKeyFields().getFirst();
+        StringBuilder sql = new StringBuilder();
+        sql.append("`").append(fieldMapping.getColumnName()).append("` in (");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(build$$(fieldMapping));
+        }
+        sql.append(")");
+        return buildSql$$(sql.toString());
+    }
+
     /** insert into */
     public String buildExitSql(Entity bean) {
         TableMapping tableMapping = tableMapping(bean.getClass());
@@ -212,6 +232,94 @@ public abstract class SqlDDLBuilder extends DDLBuilder {
         );
     }
 
+    /**
+     * 只更新部分列
+     *
+     * @param columns 需要更新的列序号 {@link TableMapping.FieldMapping#getOrdinal()}，null 表示全部列
+     */
+    public String buildUpdateSql(TableMapping tableMapping, String tableName, BitSet columns) {
+        if (columns == null) return buildUpdateSql(tableMapping, tableName);
+        return tableMapping.getDirtyUpdateSql().computeIfAbsent(
+                tableName + columns,
+                k -> {
+                    String sql = "update `" + tableName + "` set ";
+                    for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+                        if (fieldMapping.isKey() || !columns.get(fieldMapping.getOrdinal())) continue;
+                        sql += "`" + fieldMapping.getColumnName() + "`" + "=" + build$$(fieldMapping) + ",";
+                    }
+                    sql = sql.substring(0, sql.length() - 1);
+                    sql += " where " + buildKeyWhere(tableMapping);
+                    sql = buildSql$$(sql);
+                    return sql;
+                }
+        );
+    }
+
+    /** 根据主键删除 */
+    public String buildDeleteSql(TableMapping tableMapping, String tableName) {
+        return tableMapping.getDeleteSql().computeIfAbsent(
+                tableName,
+                k -> buildSql$$("delete from `" + tableName + "` where " + buildKeyWhere(tableMapping))
+        );
+    }
+
+    /** 插入，主键冲突的时候用插入的值覆盖全部列，参数和 {@link #buildInsertParams(TableMapping, Object)} 一致 */
+    public String buildUpsertSql(TableMapping tableMapping, String tableName) {
+        return tableMapping.getUpsertSql().computeIfAbsent(
+                tableName,
+                k -> buildSql$$(buildInsertSql(tableMapping, tableName) + " " + buildUpsertSuffix(tableMapping))
+        );
+    }
+
+    /**
+     * 主键冲突的时候覆盖全部列
+     * <p>
+     * mysql 8.0.20 开始 values(col) 标记为废弃，推荐 insert ... as new on duplicate key update col = new.col；
+     * 这里仍然用 values(col)，项目基于 mariadb，mariadb 不支持行别名的写法，mysql 里废弃只是警告，目前还可以正常执行
+     */
+    public String buildUpsertSuffix(TableMapping tableMapping) {
+        String sql = "on duplicate key update ";
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+            sql += "`" + fieldMapping.getColumnName() + "`=values(`" + fieldMapping.getColumnName() + "`),";
+        }
+        return sql.substring(0, sql.length() - 1);
+    }
+
+    /** 全部列名，逗号分隔 */
+    public String buildColumnNames(TableMapping tableMapping) {
+        String sql = "";
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+            if (!sql.isEmpty()) sql += ",";
+            sql += "`" + fieldMapping.getColumnName() + "`";
+        }
+        return buildSql$$(sql);
+    }
+
+    /**
+     * 多行 insert，参数是每一行 {@link #buildInsertParams(TableMapping, Object)} 依次拼接
+     *
+     * @param rows   行数
+     * @param upsert 主键冲突的时候是否覆盖
+     */
+    public String buildMultiInsertSql(TableMapping tableMapping, String tableName, int rows, boolean upsert) {
+        StringBuilder row = new StringBuilder("(");
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+            if (row.length() > 1) row.append(",");
+            row.append(build$$(fieldMapping));
+        }
+        row.append(")");
+        StringBuilder sql = new StringBuilder(row.length() * rows + 128);
+        sql.append("insert into `").append(tableName).append("`(").append(buildColumnNames(tableMapping)).append(") values ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(",");
+            sql.append(row);
+        }
+        if (upsert) {
+            sql.append(" ").append(buildUpsertSuffix(tableMapping));
+        }
+        return buildSql$$(sql.toString());
+    }
+
     @Override public Object[] buildKeyParams(TableMapping tableMapping, Object bean) {
         List<Object> params = new ArrayList<>();
         for (TableMapping.FieldMapping fieldMapping : tableMapping.getKeyFields()) {
@@ -240,6 +348,51 @@ public abstract class SqlDDLBuilder extends DDLBuilder {
         return params.toArray();
     }
 
+    /** 把 {@link #buildInsertParams(TableMapping, Object)} 的列值按照 update 语句的参数顺序重新排列 */
+    public Object[] builderUpdateParams(TableMapping tableMapping, Object[] insertParams) {
+        return builderUpdateParams(tableMapping, insertParams, null);
+    }
+
+    /**
+     * 把列值按照 {@link #buildUpdateSql(TableMapping, String, BitSet)} 的参数顺序重新排列
+     *
+     * @param insertParams 按列序号排列的值
+     * @param columns      需要更新的列序号，null 表示全部列
+     */
+    public Object[] builderUpdateParams(TableMapping tableMapping, Object[] insertParams, BitSet columns) {
+        List<Object> params = new ArrayList<>();
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+            if (fieldMapping.isKey()) continue;
+            if (columns != null && !columns.get(fieldMapping.getOrdinal())) continue;
+            params.add(insertParams[fieldMapping.getOrdinal()]);
+        }
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getKeyFields()) {
+            params.add(insertParams[fieldMapping.getOrdinal()]);
+        }
+        return params.toArray();
+    }
+
+    /**
+     * 只取出主键和需要更新的列的值，按列序号排列，其他位置是 null
+     *
+     * @param columns 需要更新的列序号，null 表示全部列
+     */
+    public Object[] buildColumnParams(TableMapping tableMapping, Object bean, BitSet columns) {
+        if (columns == null) return buildInsertParams(tableMapping, bean);
+        Object[] params = new Object[tableMapping.getColumns().size()];
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+            if (fieldMapping.isKey() || columns.get(fieldMapping.getOrdinal())) {
+                params[fieldMapping.getOrdinal()] = fieldMapping.toDbValue(bean);
+            }
+        }
+        return params;
+    }
+
+    /** 结果集直接映射成实体，每个实体类编译一次 */
+    public <E extends Entity> RowMapper<E> rowMapper(TableMapping tableMapping) {
+        return (RowMapper<E>) rowMappers.computeIfAbsent(tableMapping, RowMapper::new);
+    }
+
     /** 把数据库的数据转化成对象 */
     public <R> R data2Object(TableMapping tableMapping, JSONObject data) {
         Entity object = tableMapping.newInstance();
@@ -3,11 +3,7 @@ package wxdgaming.boot2.starter.batis.sql;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import wxdgaming.boot2.core.chatset.StringUtils;
-import wxdgaming.boot2.core.chatset.json.FastJsonUtil;
-import wxdgaming.boot2.core.collection.ConvertCollection;
-import wxdgaming.boot2.core.collection.SplitCollection;
 import wxdgaming.boot2.core.collection.Table;
-import wxdgaming.boot2.core.io.FileWriteUtil;
 import wxdgaming.boot2.core.lang.DiffTime;
 import wxdgaming.boot2.core.lang.Tick;
 import wxdgaming.boot2.core.shutdown;
@@ -18,16 +14,22 @@ import wxdgaming.boot2.starter.batis.TableMapping;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * sql 模型 批量 处理
+ * <p>同一张表同一个主键在一个提交周期内只保留最后一次写入，insert 之后的 update 合并成 insert，delete 覆盖之前的 insert update
+ * <p>批量提交失败之后二分重试，只有真正出错的行写入 {@link SqlDeadLetter}；连接类异常退回队列等下次提交；
+ * 同一张表连续失败会触发 {@link SqlBatchBreaker} 暂停这张表的写入
  *
  * @author: wxd-gaming(無心道, 15388152619)
  * @version: 2025-02-16 20:43
@@ -37,9 +39,23 @@ public abstract class SqlDataBatch extends DataBatch {
 
     protected final SqlDataHelper<?> sqlDataHelper;
     protected final List<BatchThread> batchThreads = new ArrayList<>();
+    /** 调用 insert update delete 的次数 */
+    protected final LongAdder submitCount = new LongAdder();
+    /** 被后面的写入合并掉的次数 */
+    protected final LongAdder coalesceCount = new LongAdder();
+    /** 实际提交到数据库的行数 */
+    protected final LongAdder executeCount = new LongAdder();
+    /** 每张表的熔断 */
+    protected final ConcurrentHashMap<String, SqlBatchBreaker> breakerMap = new ConcurrentHashMap<>();
+    /** 写入失败的数据 */
+    @Getter protected final SqlDeadLetter deadLetter;
 
     public SqlDataBatch(SqlDataHelper<?> sqlDataHelper) {
         this.sqlDataHelper = sqlDataHelper;
+        this.deadLetter = new SqlDeadLetter(
+                new File("target/db_error/" + sqlDataHelper.getDbName() + "/dead_letter.jsonl"),
+                sqlDataHelper.getSqlConfig().getDeadLetterMaxMB() * 1024L * 1024L
+        );
         int batchThreadSize = sqlDataHelper.getSqlConfig().getBatchThreadSize();
         log.info("{} 数据库: {} 创建 {} 个 sql 批量线程", sqlDataHelper.getClass().getSimpleName(), sqlDataHelper.getDbName(), batchThreadSize);
         for (int i = 1; i <= batchThreadSize; i++) {
@@ -47,6 +63,19 @@ public abstract class SqlDataBatch extends DataBatch {
         }
     }
 
+    /** 这个主键还有没有落地的写入，包括排队中和正在提交的 */
+    public boolean isPending(Entity entity) {
+        TableMapping tableMapping = sqlDataHelper.tableMapping(entity.getClass());
+        Object[] keyParams = sqlDataHelper.getDdlBuilder().buildKeyParams(tableMapping, entity);
+        BatchKey batchKey = new BatchKey(TableMapping.beanTableName(entity), Arrays.asList(keyParams));
+        return batchThread(batchKey).isPending(batchKey);
+    }
+
+    /** 批量线程已经关闭，之后的写入不会再落地 */
+    public boolean isClosed() {
+        return batchThreads.isEmpty() || batchThreads.getFirst().closed.get();
+    }
+
     @shutdown
     public void shutdown() {
         for (BatchThread batchThread : batchThreads) {
@@ -72,18 +101,167 @@ public abstract class SqlDataBatch extends DataBatch {
         entity.setNewEntity(false);
     }
 
-    BatchThread batchThread(Entity entity) {
-        int hashCode = entity.hashCode();
-        int index = Math.abs(hashCode) % batchThreads.size();
+    /** 同一个主键必须落在同一个线程，合并和提交顺序才有保证 */
+    BatchThread batchThread(BatchKey batchKey) {
+        int index = Math.floorMod(batchKey.hashCode(), batchThreads.size());
         return batchThreads.get(index);
     }
 
     @Override public void insert(Entity entity) {
-        batchThread(entity).insert(entity);
+        write(entity, BatchType.Insert);
+        entity.setNewEntity(false);
     }
 
     @Override public void update(Entity entity) {
-        batchThread(entity).update(entity);
+        write(entity, BatchType.Update);
+    }
+
+    /**
+     * 只更新变化的列，同一个主键多次部分更新会合并成一次，更新的列取并集
+     *
+     * @param columns 需要更新的列序号 {@link TableMapping#checkDirty(Entity)}，null 表示全部列
+     */
+    public void update(Entity entity, BitSet columns) {
+        if (columns != null && columns.isEmpty()) return;
+        write(entity, BatchType.Update, columns);
+    }
+
+    @Override public void delete(Entity entity) {
+        write(entity, BatchType.Delete);
+    }
+
+    protected void write(Entity entity, BatchType batchType) {
+        write(entity, batchType, null);
+    }
+
+    protected void write(Entity entity, BatchType batchType, BitSet columns) {
+        String tableName = TableMapping.beanTableName(entity);
+        TableMapping tableMapping = sqlDataHelper.tableMapping(entity.getClass());
+        Object[] keyParams = sqlDataHelper.getDdlBuilder().buildKeyParams(tableMapping, entity);
+        /*在调用线程上取出列的值，后面不管合并成哪种语句都从这里重新排列参数*/
+        Object[] columnParams = batchType == BatchType.Delete ? null : sqlDataHelper.getDdlBuilder().buildColumnParams(tableMapping, entity, columns);
+        BatchKey batchKey = new BatchKey(tableName, Arrays.asList(keyParams));
+        submitCount.increment();
+        BatchParam batchParam = new BatchParam(batchType, tableMapping, entity, keyParams, columnParams);
+        batchParam.batchKey = batchKey;
+        batchParam.columns = columns == null ? null : (BitSet) columns.clone();
+        batchThread(batchKey).write(batchKey, batchParam);
+    }
+
+    /** 批量写入的统计 */
+    public SqlBatchStats stats() {
+        int pendingCount = 0;
+        for (BatchThread batchThread : batchThreads) {
+            pendingCount += batchThread.pendingSize();
+        }
+        return new SqlBatchStats(submitCount.sum(), coalesceCount.sum(), executeCount.sum(), pendingCount);
+    }
+
+    /** 表的熔断 */
+    public SqlBatchBreaker breaker(String tableName) {
+        return breakerMap.computeIfAbsent(tableName, k -> new SqlBatchBreaker(
+                k,
+                sqlDataHelper.getSqlConfig().getBatchBreakerFailures(),
+                sqlDataHelper.getSqlConfig().getBatchBreakerPauseMs()
+        ));
+    }
+
+    /**
+     * 重新执行 {@link SqlDeadLetter} 里记录的写入，执行失败的继续保留
+     *
+     * @return 成功执行的条数
+     */
+    public int replayDeadLetter() {
+        return deadLetter.replay((sql, params) -> {
+            sqlDataHelper.executeUpdate(sql, params);
+            return true;
+        });
+    }
+
+    /** 连接断开、获取连接超时之类的异常，数据本身没有问题 */
+    static boolean isConnectionError(Throwable throwable) {
+        while (throwable != null) {
+            if (throwable instanceof SQLTransientConnectionException
+                || throwable instanceof SQLNonTransientConnectionException
+                || throwable instanceof SQLRecoverableException) {
+                return true;
+            }
+            throwable = throwable.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * 单次提交最多多少行，默认 {@link SqlConfig#getBatchSubmitSize()}
+     *
+     * @param sample 同一批的第一条
+     */
+    protected int batchRowLimit(BatchParam sample) {
+        return sqlDataHelper.getSqlConfig().getBatchSubmitSize();
+    }
+
+    /** 按行数和估算的字节数切分，json blob 比较大的表单次提交的行数会少一些 */
+    protected List<List<BatchParam>> splitBatch(List<BatchParam> values) {
+        int rowLimit = Math.max(1, batchRowLimit(values.getFirst()));
+        long byteLimit = sqlDataHelper.getSqlConfig().getBatchSubmitBytes();
+        List<List<BatchParam>> batches = new ArrayList<>();
+        List<BatchParam> batch = new ArrayList<>();
+        long bytes = 0;
+        for (BatchParam value : values) {
+            if (!batch.isEmpty() && (batch.size() >= rowLimit || bytes + value.paramsBytes > byteLimit)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                bytes = 0;
+            }
+            batch.add(value);
+            bytes += value.paramsBytes;
+        }
+        if (!batch.isEmpty()) batches.add(batch);
+        return batches;
+    }
+
+    /**
+     * 提交一批同一张表同一个语句的写入，默认是 jdbc batch；mysql pgsql 重写成多行 insert 或者 copy
+     *
+     * @return 提交成功的行数
+     */
+    protected int executeBulk(BatchThread batchThread, String tableName, String sql, List<BatchParam> batchParams) {
+        return batchThread.executeUpdate(sql, batchParams);
+    }
+
+    /** 合并两次写入，prev 是还没有落地的写入 */
+    public static BatchType merge(BatchType prev, BatchType next) {
+        if (prev == null || next == BatchType.Delete) return next;
+        return switch (prev) {
+            /*数据库还没有这一行，后面不管怎么改都还是 insert*/
+            case Insert -> BatchType.Insert;
+            /*先 update 再 insert 不确定数据库里有没有，用 upsert 保证最终是最后一次的值*/
+            case Update -> next == BatchType.Update ? BatchType.Update : BatchType.Upsert;
+            /*删除之后再更新没有意义，删除之后再插入等价于覆盖*/
+            case Delete -> next == BatchType.Update ? BatchType.Delete : BatchType.Upsert;
+            case Upsert -> BatchType.Upsert;
+        };
+    }
+
+    /**
+     * 合并两次写入的列，本次没有变化的列沿用上一次的值，写入 nextParams
+     *
+     * @param prevColumns 上一次写入的列，null 表示全部列
+     * @param nextColumns 本次写入的列，null 表示全部列
+     * @return 合并之后的列，取并集，null 表示全部列
+     */
+    public static BitSet mergeColumns(TableMapping tableMapping, Object[] prevParams, BitSet prevColumns, Object[] nextParams, BitSet nextColumns) {
+        if (nextColumns == null) return null;
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+            int ordinal = fieldMapping.getOrdinal();
+            if (fieldMapping.isKey() || nextColumns.get(ordinal)) continue;
+            if (prevColumns == null || prevColumns.get(ordinal)) {
+                nextParams[ordinal] = prevParams[ordinal];
+            }
+        }
+        if (prevColumns == null) return null;
+        nextColumns.or(prevColumns);
+        return nextColumns;
     }
 
     public class BatchThread extends Thread {
@@ -92,15 +270,17 @@ public abstract class SqlDataBatch extends DataBatch {
         protected AtomicBoolean closed = new AtomicBoolean();
         protected final int threadId;
         protected final int batchSubmitSize;
-        /** key: tableName, value: {key: sql, value: params} */
-        protected Table<String, String, ConvertCollection<BatchParam>> batchInsertMap = new Table<>();
-        /** key: tableName, value: {key: sql, value: params} */
-        protected Table<String, String, ConvertCollection<BatchParam>> batchUpdateMap = new Table<>();
+        /** 待提交的写入，同一个主键只保留合并之后的一条 */
+        protected LinkedHashMap<BatchKey, BatchParam> pendingMap = new LinkedHashMap<>();
+        /** 正在提交的写入，提交完成之前同样算没有落地 */
+        protected Map<BatchKey, BatchParam> flushingMap = Map.of();
 
         protected DiffTime diffTime = new DiffTime();
         protected long executeDiffTime = 0;
         protected long executeCount = 0;
         protected Tick ticket = new Tick(1, TimeUnit.MINUTES);
+        /** 当前这一批是否出现过连接异常之类的整体失败，用来记录熔断；单行数据错误写入死信不算失败 */
+        protected boolean chunkFailed = false;
 
         public BatchThread(int threadId, String name, int batchSubmitSize) {
             super(name);
@@ -110,34 +290,61 @@ public abstract class SqlDataBatch extends DataBatch {
             this.start();
         }
 
-        public void insert(Entity entity) {
-            String tableName = TableMapping.beanTableName(entity);
-            TableMapping tableMapping = sqlDataHelper.tableMapping(entity.getClass());
-            String insertSql = sqlDataHelper.getDdlBuilder().buildInsertSql(tableMapping, tableName);
-            Object[] keyParams = sqlDataHelper.getDdlBuilder().buildKeyParams(tableMapping, entity);
-            Object[] insertParams = sqlDataHelper.getDdlBuilder().buildInsertParams(tableMapping, entity);
-            BatchParam batchParam = new BatchParam(entity, keyParams, insertParams);
+        public void write(BatchKey batchKey, BatchParam batchParam) {
             lock.lock();
             try {
-                ConvertCollection<BatchParam> collection = batchInsertMap.computeIfAbsent(tableName, insertSql, k -> new ConvertCollection<>());
-                collection.add(batchParam);
-                entity.setNewEntity(false);
+                BatchParam prev = pendingMap.get(batchKey);
+                if (prev != null) {
+                    merge(prev, batchParam);
+                    coalesceCount.increment();
+                }
+                pendingMap.put(batchKey, batchParam);
             } finally {
                 lock.unlock();
             }
         }
 
-        public void update(Entity entity) {
-            String tableName = TableMapping.beanTableName(entity);
-            TableMapping tableMapping = sqlDataHelper.tableMapping(entity.getClass());
-            String updateSql = sqlDataHelper.getDdlBuilder().buildUpdateSql(tableMapping, tableName);
-            Object[] keyParams = sqlDataHelper.getDdlBuilder().buildKeyParams(tableMapping, entity);
-            Object[] updateParams = sqlDataHelper.getDdlBuilder().builderUpdateParams(tableMapping, entity);
-            BatchParam batchParam = new BatchParam(entity, keyParams, updateParams);
+        /** 没有提交成功的写入放回队列，期间又有新的写入就合并到新的写入上 */
+        public void requeue(BatchParam batchParam) {
             lock.lock();
             try {
-                ConvertCollection<BatchParam> collection = batchUpdateMap.computeIfAbsent(tableName, updateSql, k -> new ConvertCollection<>());
-                collection.add(batchParam);
+                BatchParam next = pendingMap.get(batchParam.batchKey);
+                if (next == null) {
+                    pendingMap.put(batchParam.batchKey, batchParam);
+                } else {
+                    merge(batchParam, next);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** 把 prev 合并到 next 上 */
+        protected void merge(BatchParam prev, BatchParam next) {
+            next.batchType = SqlDataBatch.merge(prev.batchType, next.batchType);
+            if (next.batchType == BatchType.Delete) {
+                /*delete 之后的 update 被丢弃，保留 delete*/
+                next.columnParams = null;
+                next.columns = null;
+            } else if (next.columns != null && prev.columnParams != null) {
+                /*部分更新，本次没有变化的列沿用上一次的值*/
+                next.columns = mergeColumns(next.tableMapping, prev.columnParams, prev.columns, next.columnParams, next.columns);
+            }
+        }
+
+        public boolean isPending(BatchKey batchKey) {
+            lock.lock();
+            try {
+                return pendingMap.containsKey(batchKey) || flushingMap.containsKey(batchKey);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int pendingSize() {
+            lock.lock();
+            try {
+                return pendingMap.size();
             } finally {
                 lock.unlock();
             }
@@ -148,10 +355,9 @@ public abstract class SqlDataBatch extends DataBatch {
             while (true) {
                 try {
                     Thread.sleep(200);
-                    insertBach();
-                    updateBach();
+                    flushBach();
                     if (closed.get()) {
-                        if (batchInsertMap.isEmpty() && batchUpdateMap.isEmpty())
+                        if (pendingSize() == 0)
                             break;
                         log.info("停服等待数据落地 sql batch {}", Thread.currentThread());
                     }
@@ -164,47 +370,64 @@ public abstract class SqlDataBatch extends DataBatch {
             log.info("线程 sql batch {} 退出", Thread.currentThread());
         }
 
-        protected void insertBach() {
-            Table<String, String, ConvertCollection<BatchParam>> tmp;
+        protected void flushBach() {
+            LinkedHashMap<BatchKey, BatchParam> tmp;
             lock.lock();
             try {
-                if (batchInsertMap.isEmpty()) {
+                if (pendingMap.isEmpty()) {
                     return;
                 }
-                tmp = batchInsertMap;
-                batchInsertMap = new Table<>();
+                tmp = pendingMap;
+                flushingMap = tmp;
+                pendingMap = new LinkedHashMap<>();
             } finally {
                 lock.unlock();
             }
-            executeBach(tmp);
-        }
-
-        protected void updateBach() {
-            Table<String, String, ConvertCollection<BatchParam>> tmp;
-            lock.lock();
             try {
-                if (batchUpdateMap.isEmpty()) {
-                    return;
-                }
-                tmp = batchUpdateMap;
-                batchUpdateMap = new Table<>();
+                flush(tmp);
             } finally {
-                lock.unlock();
+                lock.lock();
+                try {
+                    flushingMap = Map.of();
+                } finally {
+                    lock.unlock();
+                }
             }
-            executeBach(tmp);
         }
 
-        protected void executeBach(Table<String, String, ConvertCollection<BatchParam>> tmp) {
-            int executeCount = 0;
-            for (HashMap<String, ConvertCollection<BatchParam>> map : tmp.values()) {
-                for (Map.Entry<String, ConvertCollection<BatchParam>> entry : map.entrySet()) {
+        protected void flush(LinkedHashMap<BatchKey, BatchParam> tmp) {
+            /*同一个主键只有一条，不同语句之间不需要保证顺序*/
+            Table<String, String, List<BatchParam>> batchMap = new Table<>();
+            for (Map.Entry<BatchKey, BatchParam> entry : tmp.entrySet()) {
+                BatchParam batchParam = entry.getValue();
+                String tableName = entry.getKey().tableName();
+                String sql = batchParam.sql(tableName);
+                batchParam.params = batchParam.params();
+                batchParam.paramsBytes = estimateBytes(batchParam.params);
+                batchMap.computeIfAbsent(tableName, sql, k -> new ArrayList<>()).add(batchParam);
+            }
+            executeBach(batchMap);
+        }
+
+        protected void executeBach(Table<String, String, List<BatchParam>> tmp) {
+            for (Map.Entry<String, HashMap<String, List<BatchParam>>> tableEntry : tmp.entrySet()) {
+                String tableName = tableEntry.getKey();
+                SqlBatchBreaker breaker = breaker(tableName);
+                for (Map.Entry<String, List<BatchParam>> entry : tableEntry.getValue().entrySet()) {
                     String insertSql = entry.getKey();
-                    ConvertCollection<BatchParam> values = entry.getValue();
-                    SplitCollection<BatchParam> splitCollection = new SplitCollection<>(batchSubmitSize, values.getNodes());
-                    while (!splitCollection.isEmpty()) {
-                        List<BatchParam> batchParams = splitCollection.removeFirst();
+                    List<List<BatchParam>> batches = splitBatch(entry.getValue());
+                    for (int b = 0; b < batches.size(); b++) {
+                        List<BatchParam> batchParams = batches.get(b);
+                        if (!closed.get() && !breaker.allow()) {
+                            /*熔断期间数据留在队列里，停服的时候不再等待*/
+                            batchParams.forEach(this::requeue);
+                            continue;
+                        }
                         diffTime.reset();
-                        executeCount += executeUpdate(insertSql, batchParams);
+                        chunkFailed = false;
+                        int executeCount = executeBulk(this, tableName, insertSql, batchParams);
+                        breaker.record(!chunkFailed);
+                        SqlDataBatch.this.executeCount.add(executeCount);
                         long diff = diffTime.diff100();
                         executeDiffTime += diff;
                         this.executeCount += executeCount;
@@ -212,20 +435,22 @@ public abstract class SqlDataBatch extends DataBatch {
                             log.info(
                                     """
                                             
-                                            %s 数据库: %s, 单次批量提交数量限制: %s, 当前待提交剩余: %s 条
+                                            %s 数据库: %s, 单次批量提交数量限制: %s, 当前待提交剩余: %s 批
                                             本次 count: %s 条 耗时: %s ms 性能：%s 条/s
                                             累计 count: %s 条 耗时: %s ms 性能：%s 条/s
+                                            %s
                                             """
                                             .formatted(
                                                     sqlDataHelper.getClass().getSimpleName(),
                                                     sqlDataHelper.getDbName(),
-                                                    batchSubmitSize, splitCollection.size(),
+                                                    batchSubmitSize, batches.size() - b - 1,
                                                     StringUtils.padLeft(executeCount, 19, ' '),
                                                     StringUtils.padLeft(diff / 100f, 19, ' '),
                                                     StringUtils.padLeft(executeCount / (diff / 100f) * 1000, 19, ' '),
                                                     StringUtils.padLeft(this.executeCount, 19, ' '),
                                                     StringUtils.padLeft(executeDiffTime / 100f, 19, ' '),
-                                                    StringUtils.padLeft(this.executeCount / (executeDiffTime / 100f) * 1000, 19, ' ')
+                                                    StringUtils.padLeft(this.executeCount / (executeDiffTime / 100f) * 1000, 19, ' '),
+                                                    stats()
                                             )
                             );
                         }
@@ -234,8 +459,22 @@ public abstract class SqlDataBatch extends DataBatch {
             }
         }
 
+        /** jdbc batch 提交，失败的时候二分重试 */
         protected int executeUpdate(String sql, List<BatchParam> paramList) {
-            int insertCount = 0;
+            try {
+                return executeBatch(sql, paramList);
+            } catch (Exception e) {
+                int count = bisect(sql, paramList, e);
+                if (count == 0 && paramList.size() > 1) {
+                    /*没有一行成功，表结构不对之类的整体问题*/
+                    chunkFailed = true;
+                }
+                return count;
+            }
+        }
+
+        /** 一个事务提交，失败抛出异常 */
+        protected int executeBatch(String sql, List<BatchParam> paramList) throws SQLException {
             try (Connection connection = sqlDataHelper.connection()) {
                 connection.setAutoCommit(false);
                 try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
@@ -245,57 +484,116 @@ public abstract class SqlDataBatch extends DataBatch {
                             preparedStatement.setObject(i + 1, object);
                         }
                         preparedStatement.addBatch();
-                        insertCount++;
                     }
                     preparedStatement.executeBatch();
                     connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
                 }
-            } catch (Exception e) {
-                insertCount = 0;
-                for (BatchParam objects : paramList) {
-                    try (Connection connection = sqlDataHelper.connection();
-                         PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-                        for (int i = 0; i < objects.params.length; i++) {
-                            Object object = objects.params[i];
-                            preparedStatement.setObject(i + 1, object);
-                        }
-                        preparedStatement.executeUpdate();
-                        insertCount++;
-                    } catch (Exception e1) {
-                        File file = new File("target/db_error/" + sqlDataHelper.getDbName() + "/" + this.threadId + "_" + System.nanoTime() + ".txt");
-                        String formatted = "db batch error\nsql: %s\ndata: %s\n\nerror: \n%s".formatted(sql, FastJsonUtil.toJson(objects), e1.toString());
-                        FileWriteUtil.writeString(file, formatted, true);
-                        log.error("{}", formatted, e1);
-                    }
+            }
+            return paramList.size();
+        }
+
+        /**
+         * 二分重试，一行出错只需要 log2(n) 次提交就能找出来，其他行照常落地
+         *
+         * @param error 这一批提交的异常
+         */
+        protected int bisect(String sql, List<BatchParam> paramList, Exception error) {
+            if (isConnectionError(error) && !closed.get()) {
+                /*数据库不可用，拆分没有意义，放回队列等下次*/
+                log.error("db batch error, 连接异常，{} 条数据放回队列\nsql: {}", paramList.size(), sql, error);
+                chunkFailed = true;
+                paramList.forEach(this::requeue);
+                return 0;
+            }
+            if (paramList.size() == 1) {
+                BatchParam batchParam = paramList.getFirst();
+                deadLetter.append(batchParam.batchKey.tableName(), sql, batchParam.params, error);
+                return 0;
+            }
+            int mid = paramList.size() / 2;
+            int count = 0;
+            for (List<BatchParam> half : List.of(paramList.subList(0, mid), paramList.subList(mid, paramList.size()))) {
+                try {
+                    count += executeBatch(sql, half);
+                } catch (Exception e) {
+                    count += bisect(sql, half, e);
                 }
             }
-            return insertCount;
+            return count;
         }
     }
 
+    /** 估算参数的字节数 */
+    static int estimateBytes(Object[] params) {
+        int bytes = 16;
+        for (Object param : params) {
+            bytes += switch (param) {
+                case null -> 1;
+                case String str -> str.length();
+                case byte[] array -> array.length;
+                default -> 8;
+            };
+        }
+        return bytes;
+    }
+
+    /** 写入类型 */
+    public enum BatchType {
+        Insert,
+        Update,
+        /** 插入，主键冲突就覆盖 */
+        Upsert,
+        Delete,
+    }
+
+    /** 合并写入的 key，表名加主键的值 */
+    protected record BatchKey(String tableName, List<Object> keyParams) {}
+
     @Getter
     protected class BatchParam {
 
+        protected BatchType batchType;
+        protected BatchKey batchKey;
+        protected final TableMapping tableMapping;
         protected final Entity entity;
         /** 主键的值 */
         protected final Object[] keyParams;
-        protected final Object[] params;
+        /** 全部列的值，顺序和 insert 语句一致，delete 的时候是 null */
+        protected Object[] columnParams;
+        /** 部分更新的列序号，null 表示全部列 */
+        protected BitSet columns;
+        /** 提交时对应语句的参数 */
+        protected Object[] params;
+        /** 参数估算的字节数 */
+        protected int paramsBytes;
 
-        public BatchParam(Entity entity, Object[] keyParams, Object[] params) {
+        public BatchParam(BatchType batchType, TableMapping tableMapping, Entity entity, Object[] keyParams, Object[] columnParams) {
+            this.batchType = batchType;
+            this.tableMapping = tableMapping;
             this.entity = entity;
             this.keyParams = keyParams;
-            this.params = params;
+            this.columnParams = columnParams;
         }
 
-        @Override public boolean equals(Object o) {
-            if (o == null || getClass() != o.getClass()) return false;
-
-            BatchParam that = (BatchParam) o;
-            return getEntity().equals(that.getEntity());
+        public String sql(String tableName) {
+            SqlDDLBuilder ddlBuilder = sqlDataHelper.getDdlBuilder();
+            return switch (batchType) {
+                case Insert -> ddlBuilder.buildInsertSql(tableMapping, tableName);
+                case Update -> ddlBuilder.buildUpdateSql(tableMapping, tableName, columns);
+                case Upsert -> ddlBuilder.buildUpsertSql(tableMapping, tableName);
+                case Delete -> ddlBuilder.buildDeleteSql(tableMapping, tableName);
+            };
         }
 
-        @Override public int hashCode() {
-            return getEntity().hashCode();
+        public Object[] params() {
+            return switch (batchType) {
+                case Insert, Upsert -> columnParams;
+                case Update -> sqlDataHelper.getDdlBuilder().builderUpdateParams(tableMapping, columnParams, columns);
+                case Delete -> keyParams;
+            };
         }
 
     }
@@ -12,21 +12,31 @@ import wxdgaming.boot2.core.chatset.StringUtils;
 import wxdgaming.boot2.core.chatset.json.FastJsonUtil;
 import wxdgaming.boot2.core.reflect.ReflectContext;
 import wxdgaming.boot2.core.shutdown;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.core.threading.IExecutorServices;
+import wxdgaming.boot2.core.threading.TimerJob;
+import wxdgaming.boot2.core.util.AnnUtil;
 import wxdgaming.boot2.starter.batis.DataHelper;
 import wxdgaming.boot2.starter.batis.Entity;
 import wxdgaming.boot2.starter.batis.TableMapping;
 import wxdgaming.boot2.starter.batis.ann.DbTable;
+import wxdgaming.boot2.starter.batis.sql.ann.Partition;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 数据集
@@ -39,15 +49,43 @@ import java.util.function.Predicate;
 @Setter
 public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelper<DDL> {
 
+    /** 主键 in 查询每批的数量 */
+    public static final int KEY_IN_BATCH_SIZE = 500;
+
     protected final SqlConfig sqlConfig;
     protected final HikariDataSource hikariDataSource;
     protected SqlDataBatch dataBatch;
+    /** 异步查询，线程数是连接池减去批量写入占用的连接 */
+    protected final SqlAsyncExecutor asyncExecutor;
+    /** 从库路由，没有配置从库的时候是 null */
+    protected final SqlReplicaRouter replicaRouter;
+    /** 当前线程强制读主库 */
+    protected final ThreadLocal<Boolean> readPrimary = new ThreadLocal<>();
+    /** 按时间自动管理分区的表，key: 表名字 */
+    protected final Map<String, TableMapping> partitionTables = new ConcurrentHashMap<>();
+    protected TimerJob partitionJob;
 
     public SqlDataHelper(SqlConfig sqlConfig, DDL ddl) {
         super(ddl);
         this.sqlConfig = sqlConfig;
         this.sqlConfig.createDatabase();
         this.hikariDataSource = sqlConfig.hikariDataSource();
+        this.asyncExecutor = new SqlAsyncExecutor(
+                "db-query-" + getDbName(),
+                Math.max(1, sqlConfig.getMaxPoolSize() - sqlConfig.getBatchThreadSize()),
+                sqlConfig.getAsyncQueueCapacity()
+        );
+        if (sqlConfig.getReplicaUrls().isEmpty()) {
+            this.replicaRouter = null;
+        } else {
+            List<SqlReplica> replicas = new ArrayList<>();
+            List<HikariDataSource> dataSources = sqlConfig.replicaDataSources();
+            for (int i = 0; i < dataSources.size(); i++) {
+                replicas.add(new SqlReplica(sqlConfig.getReplicaUrls().get(i), dataSources.get(i)));
+            }
+            this.replicaRouter = new SqlReplicaRouter(replicas, sqlConfig.getReplicaPolicy(), sqlConfig.getReplicaMaxLagMs());
+            log.info("{} 数据库: {} 配置 {} 个只读从库，策略 {}", this.getClass().getSimpleName(), getDbName(), replicas.size(), sqlConfig.getReplicaPolicy());
+        }
         if (sqlConfig.getBatchThreadSize() > 0) {
             initDataBatch();
         }
@@ -56,6 +94,20 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
     @Start()
     @Sort(100)
     public void start() {
+        /*表结构以主库为准，从库可能还没有同步刚创建的表*/
+        readPrimary(this::checkScanTables);
+        IExecutorServices defaultExecutor = ExecutorUtil.getInstance().getDefaultExecutor();
+        if (sqlConfig.getPartitionCheckMinutes() > 0 && defaultExecutor != null) {
+            partitionJob = defaultExecutor.scheduleAtFixedDelay(
+                    this::maintainPartitions,
+                    sqlConfig.getPartitionCheckMinutes(),
+                    sqlConfig.getPartitionCheckMinutes(),
+                    TimeUnit.MINUTES
+            );
+        }
+    }
+
+    protected void checkScanTables() {
         if (StringUtils.isNotBlank(sqlConfig.getScanPackage())) {
             Map<String, LinkedHashMap<String, JSONObject>> tableStructMap = findTableStructMap();
             ReflectContext.Builder.of(sqlConfig.getScanPackage()).build()
@@ -73,8 +125,13 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
     @shutdown
     @Sort(Integer.MAX_VALUE/*最后关闭*/)
     public void shutdown() {
+        if (this.partitionJob != null)
+            this.partitionJob.cancel();
         if (this.dataBatch != null)
             this.dataBatch.shutdown();
+        this.asyncExecutor.shutdown();
+        if (this.replicaRouter != null)
+            this.replicaRouter.getReplicas().forEach(SqlReplica::close);
         this.hikariDataSource.close();
     }
 
@@ -135,6 +192,55 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
                 }
             });
         }
+        TableMapping.FieldMapping partitionField = SqlPartitions.partitionField(tableMapping);
+        if (partitionField != null && SqlPartitions.managed(AnnUtil.ann(partitionField.getField(), Partition.class))) {
+            partitionTables.put(tableName, tableMapping);
+            maintainPartitions(tableMapping, tableName);
+        }
+    }
+
+    /** 检查所有自动管理分区的表，提前创建分区，处理过期的分区 */
+    public void maintainPartitions() {
+        partitionTables.forEach((tableName, tableMapping) -> {
+            try {
+                maintainPartitions(tableMapping, tableName);
+            } catch (Exception e) {
+                log.error("{} 表 {} 分区维护失败", getDbName(), tableName, e);
+            }
+        });
+    }
+
+    /** 从今天所在的分区开始创建 {@link Partition#ahead()} 个分区，超过 {@link Partition#retention()} 的分区删除或者分离 */
+    public void maintainPartitions(TableMapping tableMapping, String tableName) {
+        TableMapping.FieldMapping fieldMapping = SqlPartitions.partitionField(tableMapping);
+        Partition partition = AnnUtil.ann(fieldMapping.getField(), Partition.class);
+        LocalDate today = LocalDate.now();
+        /*分区信息以主库为准*/
+        readPrimary(() -> {
+            addRangePartitions(tableName, SqlPartitions.aheadRanges(partition.unit(), today, partition.ahead()));
+            if (partition.retention() > 0) {
+                expirePartitions(tableName, SqlPartitions.retentionCutoff(partition.unit(), today, partition.retention()), partition.retentionDrop());
+            }
+        });
+    }
+
+    /**
+     * 添加范围分区，已经存在的跳过
+     *
+     * @param ranges 每个元素 [from, to)
+     */
+    protected void addRangePartitions(String tableName, List<int[]> ranges) {
+        throw new UnsupportedOperationException(this.getClass().getSimpleName() + " 不支持自动创建分区");
+    }
+
+    /**
+     * 处理过期的分区
+     *
+     * @param cutoff 分区上限小于等于这个值的分区已经过期
+     * @param drop   true 删除，false 分离
+     */
+    protected void expirePartitions(String tableName, int cutoff, boolean drop) {
+        throw new UnsupportedOperationException(this.getClass().getSimpleName() + " 不支持清理分区");
     }
 
     protected void createTable(TableMapping tableMapping, String tableName, String comment) {
@@ -224,6 +330,84 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
         }
     }
 
+    /** 查询使用的连接，配置了从库的时候按策略选择从库，没有可用的从库或者 {@link #readPrimary(Supplier)} 的时候用主库 */
+    public Connection readConnection() {
+        if (replicaRouter == null || Boolean.TRUE.equals(readPrimary.get())) {
+            return connection();
+        }
+        checkReplicaLag();
+        SqlReplica replica = replicaRouter.select();
+        if (replica == null) {
+            return connection();
+        }
+        try {
+            return replica.getDataSource().getConnection();
+        } catch (SQLException e) {
+            replica.setHealthy(false);
+            log.warn("{} 从库 {} 获取连接失败，改读主库", getDbName(), replica.getUrl(), e);
+            return connection();
+        }
+    }
+
+    /**
+     * 当前线程里的查询全部读主库，写入之后马上需要读到最新数据的时候使用
+     * <pre>{@code
+     * dataHelper.update(role);
+     * Role role = dataHelper.readPrimary(() -> dataHelper.findByKey(Role.class, uid));
+     * }</pre>
+     */
+    public <R> R readPrimary(Supplier<R> supplier) {
+        Boolean old = readPrimary.get();
+        readPrimary.set(Boolean.TRUE);
+        try {
+            return supplier.get();
+        } finally {
+            readPrimary.set(old);
+        }
+    }
+
+    /** 当前线程里的查询全部读主库 */
+    public void readPrimary(Runnable runnable) {
+        readPrimary(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /** 到了检查间隔的从库在异步线程里查询复制延迟，不阻塞当前查询 */
+    protected void checkReplicaLag() {
+        for (SqlReplica replica : replicaRouter.getReplicas()) {
+            if (!replica.needCheck(sqlConfig.getReplicaLagCheckMs())) continue;
+            try {
+                asyncExecutor.executorServices().submit(() -> refreshReplica(replica));
+            } catch (Exception e) {
+                log.warn("{} 从库 {} 延迟检查提交失败", getDbName(), replica.getUrl(), e);
+            }
+        }
+    }
+
+    protected void refreshReplica(SqlReplica replica) {
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            long lagMs = replicaLagMs(connection);
+            replica.setLagMs(lagMs);
+            if (!replica.isHealthy()) {
+                log.info("{} 从库 {} 恢复", getDbName(), replica.getUrl());
+            }
+            replica.setHealthy(true);
+            if (sqlConfig.getReplicaMaxLagMs() > 0 && lagMs > sqlConfig.getReplicaMaxLagMs()) {
+                log.warn("{} 从库 {} 复制延迟 {} ms，改读主库", getDbName(), replica.getUrl(), lagMs);
+            }
+        } catch (Exception e) {
+            replica.setHealthy(false);
+            log.warn("{} 从库 {} 延迟检查失败", getDbName(), replica.getUrl(), e);
+        }
+    }
+
+    /** 从库的复制延迟毫秒，不支持检查的数据库返回 0 */
+    protected long replicaLagMs(Connection connection) throws SQLException {
+        return 0;
+    }
+
     @Override public <R extends Entity> long tableCount(Class<R> cls) {
         String tableName = TableMapping.tableName(cls);
         return tableCount(tableName);
@@ -388,13 +572,27 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
     }
 
     public void queryResultSet(String sql, Object[] params, Predicate<java.sql.ResultSet> consumer) {
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+        queryResultSet(sql, params, false, consumer);
+    }
+
+    /**
+     * 执行查询
+     *
+     * @param cursor true 使用游标分批拉取 {@link #prepareCursor(Connection, PreparedStatement)}，大结果集不会一次全部加载到内存
+     */
+    public void queryResultSet(String sql, Object[] params, boolean cursor, Predicate<java.sql.ResultSet> consumer) {
+        Connection connection = readConnection();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
             if (params != null) {
                 for (int i = 0; i < params.length; i++) {
                     Object param = params[i];
                     statement.setObject(i + 1, param);
                 }
             }
+            if (cursor) {
+                prepareCursor(connection, statement);
+            }
+            SqlAsyncExecutor.bind(statement);
 
             if (sqlConfig.isDebug()) {
                 log.info(
@@ -411,6 +609,76 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
             }
         } catch (Exception e) {
             throw Throw.of(getDbName() + " " + sql, e);
+        } finally {
+            SqlAsyncExecutor.unbind();
+            closeCursor(connection, null, null);
+        }
+    }
+
+    /**
+     * 在数据库线程异步执行查询，结果回到当前线程所在的子队列，使用默认超时 {@link SqlConfig#getAsyncQueryTimeoutMs()}
+     * <pre>{@code
+     * dataHelper.queryAsync(() -> dataHelper.findListByWhere(Role.class, "lv > ?", 10))
+     *         .thenAccept(list -> ...);
+     * }</pre>
+     */
+    public <R> CompletableFuture<R> queryAsync(Supplier<R> supplier) {
+        return queryAsync(sqlConfig.getAsyncQueryTimeoutMs(), supplier);
+    }
+
+    /**
+     * 在数据库线程异步执行查询，结果回到当前线程所在的子队列
+     *
+     * @param timeoutMs 超时会取消正在执行的语句，小于等于 0 不限制
+     */
+    public <R> CompletableFuture<R> queryAsync(long timeoutMs, Supplier<R> supplier) {
+        if (Boolean.TRUE.equals(readPrimary.get())) {
+            /*调用方在 readPrimary 里，数据库线程同样读主库*/
+            return asyncExecutor.submit(timeoutMs, () -> readPrimary(supplier));
+        }
+        return asyncExecutor.submit(timeoutMs, supplier);
+    }
+
+    /** 异步查询 {@link #findListBySql(Class, String, Object...)} */
+    public <R extends Entity> CompletableFuture<List<R>> findListBySqlAsync(Class<R> cls, String sql, Object... args) {
+        return queryAsync(() -> findListBySql(cls, sql, args));
+    }
+
+    /** 异步查询 {@link #findByKey(Class, Object...)} */
+    public <R extends Entity> CompletableFuture<R> findByKeyAsync(Class<R> cls, Object... args) {
+        return queryAsync(() -> findByKey(cls, args));
+    }
+
+    /** 异步查询 {@link #queryList(String, Object...)} */
+    public CompletableFuture<List<JSONObject>> queryListAsync(String sql, Object... params) {
+        return queryAsync(() -> queryList(sql, params));
+    }
+
+    /** 游标查询，默认设置 fetchSize；pgsql 需要关闭自动提交才会使用服务端游标，mysql 需要流式读取 */
+    protected void prepareCursor(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(sqlConfig.getCursorFetchSize());
+    }
+
+    /** 关闭游标查询占用的资源，连接如果被改成了手动提交要还原之后再还给连接池 */
+    protected void closeCursor(Connection connection, PreparedStatement statement, java.sql.ResultSet resultSet) {
+        try {
+            if (resultSet != null) resultSet.close();
+            if (statement != null) statement.close();
+        } catch (Exception e) {
+            log.error("{} close cursor", getDbName(), e);
+        }
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            log.error("{} reset autoCommit", getDbName(), e);
+        }
+        try {
+            connection.close();
+        } catch (Exception e) {
+            log.error("{} close connection", getDbName(), e);
         }
     }
 
@@ -455,16 +723,104 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
      * @version: 2025-02-16 01:13
      */
     public <R extends Entity> List<R> findListBySql(Class<R> cls, String sql, Object... args) {
-        TableMapping tableMapping = tableMapping(cls);
         List<R> ret = new ArrayList<>();
-        query(sql, args, row -> {
-            R entity = ddlBuilder.data2Object(tableMapping, row);
+        findBySql(cls, sql, args, entity -> {
             ret.add(entity);
             return true;
         });
         return ret;
     }
 
+    /** 逐行读取整张表，使用游标分批拉取，不会生成中间的 list */
+    public <R extends Entity> void findEach(Class<R> cls, Consumer<R> consumer) {
+        TableMapping tableMapping = tableMapping(cls);
+        String sql = ddlBuilder.buildSelectSql(tableMapping, tableMapping.getTableName());
+        findEachBySql(cls, sql, null, consumer);
+    }
+
+    /**
+     * 逐行读取，使用游标分批拉取，不会生成中间的 list
+     *
+     * @param cls      返回的数据实体类
+     * @param sql      查询的sql
+     * @param args     参数
+     * @param consumer 每一行的实体
+     */
+    public <R extends Entity> void findEachBySql(Class<R> cls, String sql, Object[] args, Consumer<R> consumer) {
+        RowMapper<R>.RowReader rowReader = ddlBuilder.<R>rowMapper(tableMapping(cls)).newReader();
+        this.queryResultSet(sql, args, true, resultSet -> {
+            consumer.accept(rowReader.map(resultSet));
+            return true;
+        });
+    }
+
+    /**
+     * 游标查询，返回的 stream 持有数据库连接，必须关闭
+     * <pre>{@code
+     * try (Stream<Role> stream = dataHelper.stream(Role.class, "select * from role where lv > ?", 10)) {
+     *     stream.forEach(role -> ...);
+     * }
+     * }</pre>
+     *
+     * @param cls  返回的数据实体类
+     * @param sql  查询的sql
+     * @param args 参数
+     */
+    public <R extends Entity> Stream<R> stream(Class<R> cls, String sql, Object... args) {
+        RowMapper<R>.RowReader rowReader = ddlBuilder.<R>rowMapper(tableMapping(cls)).newReader();
+        Connection connection = readConnection();
+        PreparedStatement statement = null;
+        java.sql.ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(sql);
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+            }
+            prepareCursor(connection, statement);
+            if (sqlConfig.isDebug()) {
+                log.info("\nstream sql: \n{}", statement.toString());
+            }
+            resultSet = statement.executeQuery();
+        } catch (Exception e) {
+            closeCursor(connection, statement, resultSet);
+            throw Throw.of(getDbName() + " " + sql, e);
+        }
+        final PreparedStatement finalStatement = statement;
+        final java.sql.ResultSet finalResultSet = resultSet;
+        Spliterator<R> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override public boolean tryAdvance(Consumer<? super R> action) {
+                try {
+                    if (!finalResultSet.next()) return false;
+                } catch (SQLException e) {
+                    throw Throw.of(getDbName() + " " + sql, e);
+                }
+                action.accept(rowReader.map(finalResultSet));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeCursor(connection, finalStatement, finalResultSet));
+    }
+
+    /** 整张表的游标查询，返回的 stream 必须关闭 {@link #stream(Class, String, Object...)} */
+    public <R extends Entity> Stream<R> stream(Class<R> cls) {
+        TableMapping tableMapping = tableMapping(cls);
+        String sql = ddlBuilder.buildSelectSql(tableMapping, tableMapping.getTableName());
+        return stream(cls, sql);
+    }
+
+    /**
+     * 结果集直接映射成实体 {@link RowMapper}
+     *
+     * @param consumer 返回 false 停止读取
+     */
+    public <R extends Entity> void findBySql(Class<R> cls, String sql, Object[] args, Predicate<R> consumer) {
+        RowMapper<R>.RowReader rowReader = ddlBuilder.<R>rowMapper(tableMapping(cls)).newReader();
+        this.queryResultSet(sql, args, resultSet -> consumer.test(rowReader.map(resultSet)));
+    }
+
     @Override public <R extends Entity> R findByKey(Class<R> cls, Object... args) {
         TableMapping tableMapping = tableMapping(cls);
         return findByKey(tableMapping.getTableName(), cls, args);
@@ -478,6 +834,27 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
         return findBySql(cls, sql, args);
     }
 
+    /**
+     * 根据多个主键值批量查询，使用 in 查询，每批最多 {@link #KEY_IN_BATCH_SIZE} 个，只支持单主键
+     *
+     * @param cls  返回的数据实体类
+     * @param keys 主键值
+     * @param <R>  实体模型
+     * @return 查询到的数据，不存在的主键没有对应的数据
+     */
+    public <R extends Entity> List<R> findListByKeys(Class<R> cls, Collection<?> keys) {
+        TableMapping tableMapping = tableMapping(cls);
+        String sql = ddlBuilder.buildSelectSql(tableMapping, tableMapping.getTableName());
+        List<R> ret = new ArrayList<>(keys.size());
+        Object[] args = keys.toArray();
+        for (int i = 0; i < args.length; i += KEY_IN_BATCH_SIZE) {
+            Object[] batch = Arrays.copyOfRange(args, i, Math.min(args.length, i + KEY_IN_BATCH_SIZE));
+            String where = ddlBuilder.buildKeyInWhere(tableMapping, batch.length);
+            ret.addAll(findListBySql(cls, sql + " where " + where, batch));
+        }
+        return ret;
+    }
+
     /**
      * 根据主键值查询
      *
@@ -496,20 +873,19 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
     }
 
     public <R extends Entity> R findBySql(Class<R> cls, String sql, Object... args) {
-        TableMapping tableMapping = tableMapping(cls);
         AtomicReference<R> ret = new AtomicReference<>();
-        this.query(sql, args, row -> {
-            R entity = ddlBuilder.data2Object(tableMapping, row);
+        findBySql(cls, sql, args, entity -> {
             ret.set(entity);
             return false;
         });
         return ret.get();
     }
 
+    /** 用来决定 insert 还是 update，读主库，从库的延迟会导致重复 insert 或者 update 0 行 */
     @Override public boolean existBean(Entity entity) {
         TableMapping tableMapping = tableMapping(entity.getClass());
         String exitSql = ddlBuilder.buildExitSql(entity);
-        Integer scalar = executeScalar(exitSql, Integer.class, ddlBuilder.buildKeyParams(tableMapping, entity));
+        Integer scalar = readPrimary(() -> executeScalar(exitSql, Integer.class, ddlBuilder.buildKeyParams(tableMapping, entity)));
         if (scalar != null && scalar == 1) {
             entity.setNewEntity(false);
             return true;
@@ -533,4 +909,26 @@ public abstract class SqlDataHelper<DDL extends SqlDDLBuilder> extends DataHelpe
         this.executeUpdate(sql, objects);
     }
 
+    /**
+     * 只更新变化的列
+     *
+     * @param columns 需要更新的列序号 {@link TableMapping#checkDirty(Entity)}，null 表示全部列
+     */
+    public void update(Entity entity, BitSet columns) {
+        if (columns != null && columns.isEmpty()) return;
+        TableMapping tableMapping = tableMapping(entity.getClass());
+        String tableName = TableMapping.beanTableName(entity);
+        String sql = ddlBuilder.buildUpdateSql(tableMapping, tableName, columns);
+        Object[] insertParams = ddlBuilder.buildColumnParams(tableMapping, entity, columns);
+        this.executeUpdate(sql, ddlBuilder.builderUpdateParams(tableMapping, insertParams, columns));
+    }
+
+    @Override public void delete(Entity entity) {
+        TableMapping tableMapping = tableMapping(entity.getClass());
+        String tableName = TableMapping.beanTableName(entity);
+        String sql = ddlBuilder.buildDeleteSql(tableMapping, tableName);
+        Object[] objects = ddlBuilder.buildKeyParams(tableMapping, entity);
+        this.executeUpdate(sql, objects);
+    }
+
 }
@@ -0,0 +1,147 @@
+package wxdgaming.boot2.starter.batis.sql;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.chatset.json.FastJsonUtil;
+import wxdgaming.boot2.core.function.Function2;
+import wxdgaming.boot2.core.io.FileReadUtil;
+import wxdgaming.boot2.core.io.FileWriteUtil;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 批量写入失败的数据，一行一条 json 追加到本地文件，可以通过 {@link #replay(Function2)} 重新执行
+ * <p>文件超过上限之后不再写入，只计数和打印日志，避免数据库长时间异常把磁盘写满
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 00:50
+ **/
+@Slf4j
+@Getter
+public class SqlDeadLetter {
+
+    private final File file;
+    private final long maxBytes;
+    /** 写入的条数 */
+    private final AtomicLong appendCount = new AtomicLong();
+    /** 超过上限丢弃的条数 */
+    private final AtomicLong dropCount = new AtomicLong();
+
+    public SqlDeadLetter(File file, long maxBytes) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 记录一条失败的写入
+     *
+     * @return false 超过文件上限被丢弃
+     */
+    public synchronized boolean append(String tableName, String sql, Object[] params, Throwable error) {
+        JSONObject line = new JSONObject();
+        line.put("time", System.currentTimeMillis());
+        line.put("table", tableName);
+        line.put("sql", sql);
+        line.put("params", encode(params));
+        line.put("error", String.valueOf(error));
+        String json = FastJsonUtil.toJson(line) + "\n";
+        if (file.length() + json.getBytes(StandardCharsets.UTF_8).length > maxBytes) {
+            dropCount.incrementAndGet();
+            log.error("dead letter 文件 {} 超过 {} 字节，丢弃数据 {}", file, maxBytes, json, error);
+            return false;
+        }
+        FileWriteUtil.writeString(file, json, true);
+        appendCount.incrementAndGet();
+        log.error("db batch error, 写入 dead letter {}\nsql: {}", file, sql, error);
+        return true;
+    }
+
+    /**
+     * 重新执行文件里的数据，执行失败的继续保留在文件里
+     *
+     * @param executor 参数 sql 和参数，返回是否成功，例如 {@code (sql, params) -> sqlDataHelper.executeUpdate(sql, params) >= 0}
+     * @return 成功执行的条数
+     */
+    public synchronized int replay(Function2<String, Object[], Boolean> executor) {
+        if (!file.exists()) return 0;
+        List<String> lines = FileReadUtil.readLines(file.getPath(), StandardCharsets.UTF_8);
+        List<String> failed = new ArrayList<>();
+        int success = 0;
+        for (String line : lines) {
+            if (line.isBlank()) continue;
+            JSONObject jsonObject = FastJsonUtil.parse(line);
+            boolean ok;
+            try {
+                ok = Boolean.TRUE.equals(executor.apply(jsonObject.getString("sql"), decode(jsonObject.getJSONArray("params"))));
+            } catch (Exception e) {
+                log.error("dead letter 重新执行失败 {}", line, e);
+                ok = false;
+            }
+            if (ok) {
+                success++;
+            } else {
+                failed.add(line);
+            }
+        }
+        StringBuilder content = new StringBuilder();
+        for (String line : failed) {
+            content.append(line).append("\n");
+        }
+        FileWriteUtil.writeString(file, content.toString(), false);
+        log.info("dead letter {} 重新执行成功 {} 条，剩余 {} 条", file, success, failed.size());
+        return success;
+    }
+
+    /** 参数带上类型，blob 用 base64 */
+    static JSONArray encode(Object[] params) {
+        JSONArray array = new JSONArray();
+        for (Object param : params) {
+            JSONArray item = new JSONArray();
+            switch (param) {
+                case null -> item.add("null");
+                case byte[] bytes -> {
+                    item.add("bytes");
+                    item.add(Base64.getEncoder().encodeToString(bytes));
+                }
+                case Integer v -> item.fluentAdd("int").fluentAdd(v);
+                case Long v -> item.fluentAdd("long").fluentAdd(v);
+                case Short v -> item.fluentAdd("short").fluentAdd(v);
+                case Byte v -> item.fluentAdd("byte").fluentAdd(v);
+                case Boolean v -> item.fluentAdd("bool").fluentAdd(v);
+                case Float v -> item.fluentAdd("float").fluentAdd(v);
+                case Double v -> item.fluentAdd("double").fluentAdd(v);
+                default -> item.fluentAdd("string").fluentAdd(String.valueOf(param));
+            }
+            array.add(item);
+        }
+        return array;
+    }
+
+    static Object[] decode(JSONArray array) {
+        Object[] params = new Object[array.size()];
+        for (int i = 0; i < params.length; i++) {
+            JSONArray item = array.getJSONArray(i);
+            params[i] = switch (item.getString(0)) {
+                case "null" -> null;
+                case "bytes" -> Base64.getDecoder().decode(item.getString(1));
+                case "int" -> item.getInteger(1);
+                case "long" -> item.getLong(1);
+                case "short" -> item.getShort(1);
+                case "byte" -> item.getByte(1);
+                case "bool" -> item.getBoolean(1);
+                case "float" -> item.getFloat(1);
+                case "double" -> item.getDouble(1);
+                default -> item.getString(1);
+            };
+        }
+        return params;
+    }
+
+}
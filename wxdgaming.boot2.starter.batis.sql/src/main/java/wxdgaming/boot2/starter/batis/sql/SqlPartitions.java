@@ -0,0 +1,69 @@
+package wxdgaming.boot2.starter.batis.sql;
+
+import wxdgaming.boot2.core.util.AnnUtil;
+import wxdgaming.boot2.starter.batis.TableMapping;
+import wxdgaming.boot2.starter.batis.sql.ann.Partition;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按时间自动管理的范围分区，分区列的值是 yyyyMMdd 格式的整数，分区范围左闭右开
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 03:40
+ **/
+public class SqlPartitions {
+
+    /** 分区列，没有分区返回 null */
+    public static TableMapping.FieldMapping partitionField(TableMapping tableMapping) {
+        for (TableMapping.FieldMapping fieldMapping : tableMapping.getColumns().values()) {
+            if (AnnUtil.ann(fieldMapping.getField(), Partition.class) != null) {
+                return fieldMapping;
+            }
+        }
+        return null;
+    }
+
+    /** 是否需要自动管理 */
+    public static boolean managed(Partition partition) {
+        return partition != null && partition.type() == Partition.Type.Range && partition.unit() != Partition.Unit.None;
+    }
+
+    /** yyyyMMdd */
+    public static int code(LocalDate date) {
+        return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    /** 所在分区的开始日期 */
+    public static LocalDate floor(Partition.Unit unit, LocalDate date) {
+        return unit == Partition.Unit.Month ? date.withDayOfMonth(1) : date;
+    }
+
+    public static LocalDate plus(Partition.Unit unit, LocalDate date, long count) {
+        return unit == Partition.Unit.Month ? date.plusMonths(count) : date.plusDays(count);
+    }
+
+    /**
+     * 从 today 所在分区开始需要存在的分区
+     *
+     * @return 每个元素 [from, to)
+     */
+    public static List<int[]> aheadRanges(Partition.Unit unit, LocalDate today, int ahead) {
+        List<int[]> ranges = new ArrayList<>();
+        LocalDate from = floor(unit, today);
+        for (int i = 0; i < Math.max(1, ahead); i++) {
+            LocalDate to = plus(unit, from, 1);
+            ranges.add(new int[]{code(from), code(to)});
+            from = to;
+        }
+        return ranges;
+    }
+
+    /** 保留 retention 个分区，开始值小于返回值的分区都已经过期 */
+    public static int retentionCutoff(Partition.Unit unit, LocalDate today, int retention) {
+        return code(plus(unit, floor(unit, today), -(retention - 1L)));
+    }
+
+}
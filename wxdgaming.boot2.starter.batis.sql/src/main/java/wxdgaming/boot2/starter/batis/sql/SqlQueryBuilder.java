@@ -8,7 +8,10 @@ import wxdgaming.boot2.core.io.Objects;
 import wxdgaming.boot2.starter.batis.Entity;
 import wxdgaming.boot2.starter.batis.TableMapping;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * sql 查询 构造器
@@ -82,6 +85,31 @@ public abstract class SqlQueryBuilder {
         return this;
     }
 
+    /**
+     * 分区列的范围条件 {@code column >= from and column < toExclusive}，条件里带上分区列数据库只扫描命中的分区
+     *
+     * @param column      分区列
+     * @param from        包含
+     * @param toExclusive 不包含
+     */
+    public SqlQueryBuilder pushPartitionRange(String column, Object from, Object toExclusive) {
+        pushWhere(column + " >= ?", from);
+        pushWhere(column + " < ?", toExclusive);
+        return this;
+    }
+
+    /**
+     * 按日期查询分区表，分区列是 yyyyMMdd 格式的整数
+     *
+     * @param from        包含
+     * @param toExclusive 不包含
+     */
+    public SqlQueryBuilder pushPartitionRange(Class<? extends Entity> clazz, LocalDate from, LocalDate toExclusive) {
+        TableMapping.FieldMapping fieldMapping = SqlPartitions.partitionField(sqlDataHelper.tableMapping(clazz));
+        if (fieldMapping == null) throw new IllegalArgumentException(clazz + " 没有分区列");
+        return pushPartitionRange(fieldMapping.getColumnName(), SqlPartitions.code(from), SqlPartitions.code(toExclusive));
+    }
+
     protected void pushParameter(Object... parameters) {
         this.parameters = Objects.merge(this.parameters, parameters);
     }
@@ -116,6 +144,76 @@ public abstract class SqlQueryBuilder {
     }
 
 
+    /**
+     * 按 keyColumn 升序取一页，条件是 keyColumn > 上一页最后一个值，不使用 offset，翻到后面的页也不需要扫描前面的行
+     * <p>忽略 orderBy skip limit，keyColumn 必须唯一并且有索引，一般是主键
+     *
+     * @param keyColumn  翻页的列
+     * @param hasLastKey false 表示第一页
+     * @param pageSize   每页的行数
+     */
+    public String buildKeysetSql(String keyColumn, boolean hasLastKey, int pageSize) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("SELECT ");
+        builder.append(getSelectField());
+        builder.append(" FROM ").append(getTableName());
+
+        String keysetWhere = getWhere();
+        if (hasLastKey) {
+            String keyWhere = keyColumn + " > ?";
+            keysetWhere = StringUtils.isNotBlank(keysetWhere) ? "(" + keysetWhere + ") and " + keyWhere : keyWhere;
+        }
+        if (StringUtils.isNotBlank(keysetWhere)) {
+            builder.append(" WHERE ").append(keysetWhere);
+        }
+        builder.append(" ORDER BY ").append(keyColumn);
+        builder.append(" LIMIT ").append(pageSize);
+        return builder.toString();
+    }
+
+    /**
+     * 查询一页，下一页把这一页最后一行的 keyColumn 值传进来
+     *
+     * @param lastKey 上一页最后一行的值，null 表示第一页
+     */
+    public <R extends Entity> List<R> findKeysetPage(Class<R> entityClass, String keyColumn, Object lastKey, int pageSize) {
+        String sql = buildKeysetSql(keyColumn, lastKey != null, pageSize);
+        Object[] params = lastKey == null ? getParameters() : Objects.merge(getParameters(), new Object[]{lastKey});
+        return sqlDataHelper.findListBySql(entityClass, sql, params);
+    }
+
+    /**
+     * 按 keyColumn 逐页遍历满足条件的所有数据，每次只持有一页
+     *
+     * @param keyGetter    获取实体 keyColumn 对应的值
+     * @param pageConsumer 每一页的数据，返回 false 停止
+     */
+    public <R extends Entity> void forEachKeyset(Class<R> entityClass, String keyColumn, Function<R, Object> keyGetter,
+                                                 int pageSize, Predicate<List<R>> pageConsumer) {
+        Object lastKey = null;
+        while (true) {
+            List<R> page = findKeysetPage(entityClass, keyColumn, lastKey, pageSize);
+            if (page.isEmpty() || !pageConsumer.test(page) || page.size() < pageSize) {
+                break;
+            }
+            lastKey = keyGetter.apply(page.getLast());
+        }
+    }
+
+    /** 按单主键逐页遍历满足条件的所有数据 {@link #forEachKeyset(Class, String, Function, int, Predicate)} */
+    public <R extends Entity> void forEachKeyset(Class<R> entityClass, int pageSize, Predicate<List<R>> pageConsumer) {
+        TableMapping tableMapping = sqlDataHelper.tableMapping(entityClass);
+        if (tableMapping.getKeyFields().size() != 1) {
+            throw new IllegalArgumentException(tableMapping.getTableName() + " 不是单主键，需要指定翻页的列");
+        }
+        TableMapping.FieldMapping keyField = tableMapping.getKeyFields().getFirst();
+        if (StringUtils.isBlank(getTableName())) {
+            setTableName(tableMapping.getTableName());
+        }
+        String keyColumn = sqlDataHelper.getDdlBuilder().buildSql$$("`" + keyField.getColumnName() + "`");
+        forEachKeyset(entityClass, keyColumn, keyField::getFieldValue, pageSize, pageConsumer);
+    }
+
     public String buildCountSql() {
         StringBuilder builder = new StringBuilder();
         builder.append("SELECT COUNT(1) FROM ").append(getTableName());
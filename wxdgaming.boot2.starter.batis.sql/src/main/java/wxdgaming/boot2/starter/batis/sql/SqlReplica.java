@@ -0,0 +1,57 @@
+package wxdgaming.boot2.starter.batis.sql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 只读从库
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 02:50
+ **/
+@Getter
+@Setter
+public class SqlReplica {
+
+    private final String url;
+    private final HikariDataSource dataSource;
+    /** 最近一次检查到的复制延迟毫秒 */
+    private volatile long lagMs = 0;
+    /** 最近一次检查或者获取连接是否正常 */
+    private volatile boolean healthy = true;
+    /** 最近一次检查延迟的时间 */
+    private final AtomicLong lastCheckTime = new AtomicLong();
+
+    public SqlReplica(String url, HikariDataSource dataSource) {
+        this.url = url;
+        this.dataSource = dataSource;
+    }
+
+    /** 正在使用的连接数 */
+    public int activeConnections() {
+        return dataSource.getHikariPoolMXBean().getActiveConnections();
+    }
+
+    /**
+     * 距离上次检查超过间隔，返回 true 的调用方负责这一次检查
+     *
+     * @param intervalMs 检查间隔
+     */
+    public boolean needCheck(long intervalMs) {
+        long now = System.currentTimeMillis();
+        long last = lastCheckTime.get();
+        return now - last >= intervalMs && lastCheckTime.compareAndSet(last, now);
+    }
+
+    public void close() {
+        dataSource.close();
+    }
+
+    @Override public String toString() {
+        return "SqlReplica{url='%s', lagMs=%s, healthy=%s}".formatted(url, lagMs, healthy);
+    }
+
+}
@@ -0,0 +1,66 @@
+package wxdgaming.boot2.starter.batis.sql;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 从库路由，跳过不可用和延迟过大的从库，全部不可用的时候返回 null 读主库
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 02:50
+ **/
+@Getter
+public class SqlReplicaRouter {
+
+    /** 从库选择策略 */
+    public enum Policy {
+        /** 轮询 */
+        RoundRobin,
+        /** 正在使用的连接最少 */
+        LeastBusy,
+    }
+
+    private final List<SqlReplica> replicas;
+    private final Policy policy;
+    /** 延迟超过这个值不再读取，小于等于 0 不检查 */
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public SqlReplicaRouter(List<SqlReplica> replicas, Policy policy, long maxLagMs) {
+        this.replicas = List.copyOf(replicas);
+        this.policy = policy;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean available(SqlReplica replica) {
+        return replica.isHealthy() && (maxLagMs <= 0 || replica.getLagMs() <= maxLagMs);
+    }
+
+    /** 选择一个从库，没有可用的返回 null */
+    public SqlReplica select() {
+        int size = replicas.size();
+        if (size == 0) return null;
+        if (policy == Policy.LeastBusy) {
+            SqlReplica best = null;
+            int bestActive = Integer.MAX_VALUE;
+            for (SqlReplica replica : replicas) {
+                if (!available(replica)) continue;
+                int active = replica.activeConnections();
+                if (active < bestActive) {
+                    best = replica;
+                    bestActive = active;
+                }
+            }
+            return best;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            SqlReplica replica = replicas.get((start + i) % size);
+            if (available(replica)) return replica;
+        }
+        return null;
+    }
+
+}
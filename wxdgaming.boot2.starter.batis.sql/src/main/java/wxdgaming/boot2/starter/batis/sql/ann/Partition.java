@@ -4,6 +4,7 @@ import java.lang.annotation.*;
 
 /**
  * 分区信息
+ * <p>按时间自动管理的范围分区，列的值是 yyyyMMdd 格式的整数，例如 {@code @Partition(unit = Partition.Unit.Day, ahead = 7, retention = 30)}
  *
  * @author: wxd-gaming(無心道, 15388152619)
  * @version: 2025-02-15 22:57
@@ -16,7 +17,42 @@ public @interface Partition {
     /** 由于 mysql 初始化表 添加分区信息必须要有 最小分区 */
     String mysqlInitMinRangeValue() default "0";
 
-    /** 初始化表的时候添加分区信息 */
+    /**
+     * 初始化表的时候添加分区信息
+     * <p>Range: pgsql {@code from=to}，mysql {@code to}；List: {@code 名字=值1,值2}
+     */
     String[] initRangeArrays() default "";
 
+    /** 分区方式 */
+    Type type() default Type.Range;
+
+    /** 按时间自动创建分区的粒度，只对 Range 有效，None 表示不自动管理 */
+    Unit unit() default Unit.None;
+
+    /** 提前创建多少个分区，包含当前时间所在的分区 */
+    int ahead() default 3;
+
+    /** 保留多少个分区，更早的分区按 {@link #retentionDrop()} 处理，小于等于 0 不处理 */
+    int retention() default 0;
+
+    /** 过期的分区 true 删除，false 分离成普通表；mysql 不支持分离，只有 true 的时候删除 */
+    boolean retentionDrop() default false;
+
+    /** hash 分区的数量 */
+    int hashCount() default 8;
+
+    /** 分区方式 */
+    enum Type {
+        Range,
+        Hash,
+        List,
+    }
+
+    /** 范围分区自动管理的时间粒度 */
+    enum Unit {
+        None,
+        Day,
+        Month,
+    }
+
 }
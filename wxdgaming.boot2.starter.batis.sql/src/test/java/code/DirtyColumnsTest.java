@@ -0,0 +1,108 @@
+package code;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.lang.DiffTime;
+import wxdgaming.boot2.starter.batis.EntityLongUID;
+import wxdgaming.boot2.starter.batis.TableMapping;
+import wxdgaming.boot2.starter.batis.sql.SqlDDLBuilder;
+
+import java.util.*;
+
+/**
+ * 按列的脏数据检查测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 23:05
+ **/
+public class DirtyColumnsTest {
+
+    final SqlDDLBuilder ddlBuilder = new SqlDDLBuilder() {};
+
+    @Test
+    public void dirtyColumns() {
+        TableMapping tableMapping = ddlBuilder.tableMapping(Player.class);
+        Player player = new Player();
+        player.setUid(1);
+        player.setName("a");
+        /*没有快照的时候全部非主键列都是脏的*/
+        Assert.assertEquals(tableMapping.getColumns().size() - 1, tableMapping.dirtyColumns(player).size());
+        tableMapping.snapshot(player);
+        Assert.assertTrue(tableMapping.dirtyColumns(player).isEmpty());
+
+        player.setLevel(2);
+        player.getItems().put(1, 10L);
+        List<String> names = tableMapping.dirtyColumns(player).stream().map(TableMapping.FieldMapping::getColumnName).toList();
+        Assert.assertEquals(List.of("level", "items"), names);
+
+        BitSet dirty = tableMapping.checkDirty(player);
+        Assert.assertEquals(2, dirty.cardinality());
+        Assert.assertTrue(tableMapping.checkDirty(player).isEmpty());
+
+        player.setData(new byte[]{1, 2, 3});
+        Assert.assertEquals(List.of("data"), tableMapping.dirtyColumns(player).stream().map(TableMapping.FieldMapping::getColumnName).toList());
+    }
+
+    @Test
+    public void updateSql() {
+        TableMapping tableMapping = ddlBuilder.tableMapping(Player.class);
+        Player player = new Player();
+        player.setUid(7);
+        player.setName("b");
+        tableMapping.snapshot(player);
+        player.setLevel(9);
+        BitSet dirty = tableMapping.checkDirty(player);
+        String sql = ddlBuilder.buildUpdateSql(tableMapping, tableMapping.getTableName(), dirty);
+        Assert.assertEquals("update `player` set `level`=? where `uid`=?", sql);
+        Object[] columnParams = ddlBuilder.buildColumnParams(tableMapping, player, dirty);
+        Object[] params = ddlBuilder.builderUpdateParams(tableMapping, columnParams, dirty);
+        Assert.assertArrayEquals(new Object[]{9, 7L}, params);
+        /*全部列的时候和原来的 update 一致*/
+        Assert.assertEquals(ddlBuilder.buildUpdateSql(tableMapping, tableMapping.getTableName()), ddlBuilder.buildUpdateSql(tableMapping, tableMapping.getTableName(), null));
+        Assert.assertArrayEquals(
+                ddlBuilder.builderUpdateParams(tableMapping, player),
+                ddlBuilder.builderUpdateParams(tableMapping, ddlBuilder.buildInsertParams(tableMapping, player), null)
+        );
+    }
+
+    public static void main(String[] args) {
+        SqlDDLBuilder ddlBuilder = new SqlDDLBuilder() {};
+        TableMapping tableMapping = ddlBuilder.tableMapping(Player.class);
+        Player player = new Player();
+        player.setUid(1);
+        player.setName("c");
+        for (int i = 0; i < 20; i++) {
+            player.getItems().put(i, (long) i);
+        }
+        player.checkHashCode();
+        tableMapping.snapshot(player);
+        for (int k = 0; k < 3; k++) {
+            DiffTime diffTime = new DiffTime();
+            for (int i = 0; i < 100000; i++) {
+                player.setLevel(i);
+                player.checkHashCode();
+            }
+            System.out.println("json hash " + diffTime.diff() + " ms");
+            diffTime.reset();
+            for (int i = 0; i < 100000; i++) {
+                player.setLevel(i);
+                tableMapping.checkDirty(player);
+            }
+            System.out.println("column hash " + diffTime.diff() + " ms");
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Player extends EntityLongUID {
+
+        private String name;
+        private int level;
+        private Map<Integer, Long> items = new TreeMap<>();
+        private byte[] data;
+
+    }
+
+}
@@ -0,0 +1,134 @@
+package code;
+
+import wxdgaming.boot2.starter.batis.sql.SqlConfig;
+
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * 不连接数据库的 jdbc 驱动，测试用
+ * <p>url 格式 {@code jdbc:fake://host/db}，执行的语句按 "host sql" 记录在 {@link #executed}，
+ * 查询结果由 {@link #rows} 按 sql 返回
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 10:40
+ **/
+public class FakeDriver implements Driver {
+
+    public static final String PREFIX = "jdbc:fake://";
+    /** 执行过的语句，"host sql" */
+    public static final List<String> executed = new CopyOnWriteArrayList<>();
+    /** 查询结果，每一行是按列序号的值 */
+    public static volatile Function<String, List<Object[]>> rows = sql -> List.of();
+
+    public static SqlConfig sqlConfig(String host) {
+        SqlConfig sqlConfig = new SqlConfig();
+        sqlConfig.setDriverClassName(FakeDriver.class.getName());
+        sqlConfig.setUrl(PREFIX + host + "/test");
+        sqlConfig.setUsername("test");
+        sqlConfig.setPassword("test");
+        sqlConfig.setMinPoolSize(1);
+        sqlConfig.setMaxPoolSize(4);
+        sqlConfig.setBatchThreadSize(0);
+        return sqlConfig;
+    }
+
+    /** 在 host 上执行过的语句 */
+    public static List<String> executed(String host) {
+        return executed.stream()
+                .filter(str -> str.startsWith(host + " "))
+                .map(str -> str.substring(host.length() + 1))
+                .filter(str -> !str.equals("SELECT 1"))
+                .toList();
+    }
+
+    @Override public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url)) return null;
+        String host = url.substring(PREFIX.length(), url.indexOf('/', PREFIX.length()));
+        return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+            case "prepareStatement", "createStatement" -> statement(host, args == null ? null : (String) args[0]);
+            case "getAutoCommit", "isValid" -> true;
+            case "toString" -> "fake " + host;
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    static Statement statement(String host, String prepared) {
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String sql = args != null && args.length > 0 && args[0] instanceof String str ? str : prepared;
+            return switch (method.getName()) {
+                case "executeQuery" -> {
+                    executed.add(host + " " + sql);
+                    yield resultSet(rows.apply(sql));
+                }
+                case "executeUpdate" -> {
+                    executed.add(host + " " + sql);
+                    yield 1;
+                }
+                case "executeBatch" -> {
+                    executed.add(host + " " + sql);
+                    yield new int[0];
+                }
+                case "execute" -> {
+                    executed.add(host + " " + sql);
+                    yield false;
+                }
+                default -> defaultValue(method.getReturnType());
+            };
+        });
+    }
+
+    static ResultSet resultSet(List<Object[]> rows) {
+        Iterator<Object[]> iterator = rows.iterator();
+        Object[][] current = new Object[1][];
+        return proxy(ResultSet.class, (proxy, method, args) -> switch (method.getName()) {
+            case "next" -> {
+                current[0] = iterator.hasNext() ? iterator.next() : null;
+                yield current[0] != null;
+            }
+            case "getObject" -> current[0][(Integer) args[0] - 1];
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeDriver.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+
+    @Override public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override public Logger getParentLogger() {
+        return Logger.getGlobal();
+    }
+
+}
@@ -0,0 +1,83 @@
+package code;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import wxdgaming.boot2.core.threading.ExecutorConfig;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.starter.batis.sql.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存淘汰和批量写入的顺序测试，用 {@link FakeDriver} 模拟数据库
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 11:40
+ **/
+public class JdbcCacheEvictTest {
+
+    static class PlayerCache extends JdbcCache<DirtyColumnsTest.Player, Long> {
+
+        PlayerCache(SqlDataHelper<?> sqlDataHelper) {
+            super(sqlDataHelper, 1, 10);
+        }
+
+        public boolean evict(Long key, DirtyColumnsTest.Player player) {
+            return removed(key, player);
+        }
+
+    }
+
+    SqlDataHelper<SqlDDLBuilder> dataHelper;
+
+    @Before
+    public void before() {
+        if (ExecutorUtil.getInstance().getDefaultExecutor() == null) {
+            ExecutorUtil.getInstance().init(ExecutorConfig.INSTANCE);
+        }
+        FakeDriver.executed.clear();
+        SqlConfig sqlConfig = FakeDriver.sqlConfig("primary");
+        sqlConfig.setBatchThreadSize(1);
+        dataHelper = new SqlDataHelper<>(sqlConfig, new SqlDDLBuilder() {}) {
+            @Override public void initDataBatch() {
+                this.dataBatch = new SqlDataBatch(this) {};
+            }
+
+            @Override public SqlQueryBuilder queryBuilder() {
+                return null;
+            }
+        };
+    }
+
+    @After
+    public void after() {
+        dataHelper.shutdown();
+    }
+
+    @Test
+    public void evictAfterFlush() throws Exception {
+        PlayerCache playerCache = new PlayerCache(dataHelper);
+        DirtyColumnsTest.Player player = new DirtyColumnsTest.Player();
+        player.setUid(1);
+        player.setNewEntity(false);
+        dataHelper.tableMapping(DirtyColumnsTest.Player.class).snapshot(player);
+        player.setLevel(2);
+
+        /*写入还在批量队列里，不能移除*/
+        Assert.assertFalse(playerCache.evict(1L, player));
+        Assert.assertTrue(dataHelper.getDataBatch().isPending(player));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dataHelper.getDataBatch().isPending(player) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(1, FakeDriver.executed("primary").stream().filter(sql -> sql.startsWith("update")).count());
+        /*落地之后允许移除，没有变化不会重复写入*/
+        Assert.assertTrue(playerCache.evict(1L, player));
+        Assert.assertFalse(dataHelper.getDataBatch().isPending(player));
+        playerCache.shutdown();
+    }
+
+}
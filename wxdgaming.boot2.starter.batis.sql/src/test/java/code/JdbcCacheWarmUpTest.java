@@ -0,0 +1,106 @@
+package code;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import wxdgaming.boot2.core.threading.ExecutorConfig;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.starter.batis.Entity;
+import wxdgaming.boot2.starter.batis.sql.*;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * 缓存预热测试，用 {@link FakeDriver} 模拟数据库
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 10:50
+ **/
+public class JdbcCacheWarmUpTest {
+
+    static class TestDataHelper extends SqlDataHelper<SqlDDLBuilder> {
+
+        final AtomicBoolean cursorOpen = new AtomicBoolean();
+        /** 游标没有关闭的时候查询了数据 */
+        final AtomicBoolean overlapped = new AtomicBoolean();
+
+        TestDataHelper() {
+            super(FakeDriver.sqlConfig("primary"), new SqlDDLBuilder() {});
+        }
+
+        @Override public void initDataBatch() {}
+
+        @Override public SqlQueryBuilder queryBuilder() {
+            return null;
+        }
+
+        @Override public void queryResultSet(String sql, Object[] params, boolean cursor, Predicate<ResultSet> consumer) {
+            cursorOpen.set(cursor);
+            try {
+                super.queryResultSet(sql, params, cursor, consumer);
+            } finally {
+                cursorOpen.set(false);
+            }
+        }
+
+        @Override public <R extends Entity> List<R> findListByKeys(Class<R> cls, Collection<?> keys) {
+            if (cursorOpen.get()) overlapped.set(true);
+            List<R> list = new ArrayList<>();
+            for (Object key : keys) {
+                DirtyColumnsTest.Player player = new DirtyColumnsTest.Player();
+                player.setUid((Long) key);
+                list.add(cls.cast(player));
+            }
+            return list;
+        }
+
+    }
+
+    TestDataHelper dataHelper;
+
+    @Before
+    public void before() {
+        if (ExecutorUtil.getInstance().getDefaultExecutor() == null) {
+            ExecutorUtil.getInstance().init(ExecutorConfig.INSTANCE);
+        }
+    }
+
+    @After
+    public void after() {
+        FakeDriver.rows = sql -> List.of();
+        if (dataHelper != null) dataHelper.shutdown();
+    }
+
+    @Test
+    public void warmUp() {
+        dataHelper = new TestDataHelper();
+        JdbcCache<DirtyColumnsTest.Player, Long> jdbcCache = new JdbcCache<DirtyColumnsTest.Player, Long>(dataHelper, 1, 10) {};
+        int size = SqlDataHelper.KEY_IN_BATCH_SIZE * 2 + 3;
+        List<Object[]> keys = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            keys.add(new Object[]{i});
+        }
+        FakeDriver.rows = sql -> sql.startsWith("select `uid` from `player`") ? keys : List.of();
+
+        DirtyColumnsTest.Player exist = new DirtyColumnsTest.Player();
+        exist.setUid(1);
+        exist.setName("exist");
+        jdbcCache.getCache().put(1L, exist);
+
+        /*已经在缓存里的不覆盖也不计数*/
+        Assert.assertEquals(size - 1, jdbcCache.warmUp("level > ?", new Object[]{0}, 2));
+        Assert.assertSame(exist, jdbcCache.getIfPresent(1L));
+        Assert.assertEquals(size, jdbcCache.getCache().cacheSize());
+        Assert.assertFalse(jdbcCache.getIfPresent(2L).isNewEntity());
+        /*游标关闭之后才开始分批查询，等待并发的时候不占用连接*/
+        Assert.assertFalse(dataHelper.overlapped.get());
+        jdbcCache.shutdown();
+    }
+
+}
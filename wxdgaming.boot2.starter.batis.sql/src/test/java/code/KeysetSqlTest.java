@@ -0,0 +1,30 @@
+package code;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.batis.sql.SqlQueryBuilder;
+
+/**
+ * keyset 翻页 sql 测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 01:40
+ **/
+public class KeysetSqlTest {
+
+    @Test
+    public void keysetSql() {
+        SqlQueryBuilder queryBuilder = new SqlQueryBuilder(null) {};
+        queryBuilder.setTableName("role");
+        queryBuilder.setOrderBy("lv desc");
+        queryBuilder.setSkip(100);
+        Assert.assertEquals("SELECT * FROM role ORDER BY uid LIMIT 50", queryBuilder.buildKeysetSql("uid", false, 50));
+        Assert.assertEquals("SELECT * FROM role WHERE uid > ? ORDER BY uid LIMIT 50", queryBuilder.buildKeysetSql("uid", true, 50));
+
+        queryBuilder.pushWhere("lv > ? or vip = 1", 10);
+        Assert.assertEquals("SELECT * FROM role WHERE lv > ? or vip = 1 ORDER BY uid LIMIT 50", queryBuilder.buildKeysetSql("uid", false, 50));
+        /*原来的条件加括号，避免 or 把翻页条件拆开*/
+        Assert.assertEquals("SELECT * FROM role WHERE (lv > ? or vip = 1) and uid > ? ORDER BY uid LIMIT 50", queryBuilder.buildKeysetSql("uid", true, 50));
+    }
+
+}
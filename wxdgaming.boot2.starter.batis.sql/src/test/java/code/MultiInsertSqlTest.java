@@ -0,0 +1,32 @@
+package code;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.batis.TableMapping;
+import wxdgaming.boot2.starter.batis.sql.SqlDDLBuilder;
+
+/**
+ * 多行 insert 语句测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 00:30
+ **/
+public class MultiInsertSqlTest {
+
+    final SqlDDLBuilder ddlBuilder = new SqlDDLBuilder() {};
+
+    @Test
+    public void multiInsert() {
+        TableMapping tableMapping = ddlBuilder.tableMapping(DirtyColumnsTest.Player.class);
+        String columns = ddlBuilder.buildColumnNames(tableMapping);
+        Assert.assertEquals("`uid`,`name`,`level`,`items`,`data`", columns);
+        Assert.assertEquals(
+                "insert into `player`(" + columns + ") values (?,?,?,?,?),(?,?,?,?,?)",
+                ddlBuilder.buildMultiInsertSql(tableMapping, "player", 2, false)
+        );
+        String upsert = ddlBuilder.buildMultiInsertSql(tableMapping, "player", 1, true);
+        Assert.assertEquals(ddlBuilder.buildUpsertSql(tableMapping, "player"), upsert);
+        Assert.assertTrue(upsert, upsert.endsWith("`data`=values(`data`)"));
+    }
+
+}
@@ -0,0 +1,152 @@
+package code;
+
+import com.alibaba.fastjson.JSONObject;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.lang.DiffTime;
+import wxdgaming.boot2.starter.batis.EntityLongUID;
+import wxdgaming.boot2.starter.batis.TableMapping;
+import wxdgaming.boot2.starter.batis.sql.RowMapper;
+import wxdgaming.boot2.starter.batis.sql.SqlDDLBuilder;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 结果集直接映射实体测试，用代理模拟 ResultSet
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 23:50
+ **/
+public class RowMapperTest {
+
+    static final SqlDDLBuilder ddlBuilder = new SqlDDLBuilder() {};
+
+    @Test
+    public void map() throws Exception {
+        TableMapping tableMapping = ddlBuilder.tableMapping(Role.class);
+        /*列顺序和实体字段不一样，多出来的列忽略*/
+        String[] labels = {"NAME", "uid", "level", "online", "items", "data", "counter", "other"};
+        Object[][] rows = {
+                {"a", 1L, 10, true, "{\"1\":2}", new byte[]{1, 2}, 5, "x"},
+                {null, 2L, null, false, null, null, null, null},
+        };
+        ResultSet resultSet = resultSet(labels, rows);
+        RowMapper<Role>.RowReader rowReader = ddlBuilder.<Role>rowMapper(tableMapping).newReader();
+
+        resultSet.next();
+        Role role = rowReader.map(resultSet);
+        Assert.assertEquals(1L, role.getUid());
+        Assert.assertEquals("a", role.getName());
+        Assert.assertEquals(10, role.getLevel());
+        Assert.assertTrue(role.isOnline());
+        Assert.assertEquals(Map.of(1, 2L), role.getItems());
+        Assert.assertArrayEquals(new byte[]{1, 2}, role.getData());
+        Assert.assertEquals(5, role.getCounter().get());
+        Assert.assertFalse(role.isNewEntity());
+        Assert.assertTrue("set 方法赋值", role.setLevelCalled);
+
+        resultSet.next();
+        role = rowReader.map(resultSet);
+        Assert.assertEquals(2L, role.getUid());
+        Assert.assertNull(role.getName());
+        Assert.assertEquals(0, role.getLevel());
+        Assert.assertTrue(role.getItems().isEmpty());
+        Assert.assertEquals(0, role.getCounter().get());
+    }
+
+    public static void main(String[] args) throws Exception {
+        TableMapping tableMapping = ddlBuilder.tableMapping(Role.class);
+        String[] labels = {"uid", "name", "level", "online", "items", "data", "counter"};
+        Object[][] rows = new Object[50000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{(long) i, "name" + i, i, i % 2 == 0, "{\"1\":2}", new byte[16], i};
+        }
+        for (int k = 0; k < 5; k++) {
+            DiffTime diffTime = new DiffTime();
+            ResultSet resultSet = resultSet(labels, rows);
+            while (resultSet.next()) {
+                JSONObject jsonObject = new JSONObject();
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    jsonObject.put(metaData.getColumnName(i), resultSet.getObject(i));
+                }
+                ddlBuilder.data2Object(tableMapping, jsonObject);
+            }
+            System.out.println("json object " + diffTime.diff() + " ms");
+            diffTime.reset();
+            resultSet = resultSet(labels, rows);
+            RowMapper<Role>.RowReader rowReader = ddlBuilder.<Role>rowMapper(tableMapping).newReader();
+            while (resultSet.next()) {
+                rowReader.map(resultSet);
+            }
+            System.out.println("row mapper  " + diffTime.diff() + " ms");
+        }
+    }
+
+    static ResultSet resultSet(String[] labels, Object[][] rows) {
+        AtomicInteger row = new AtomicInteger(-1);
+        Object[] lastValue = new Object[1];
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                RowMapperTest.class.getClassLoader(),
+                new Class[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> labels.length;
+                    case "getColumnLabel", "getColumnName" -> labels[(int) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+        return (ResultSet) Proxy.newProxyInstance(
+                RowMapperTest.class.getClassLoader(),
+                new Class[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next" -> {
+                            return row.incrementAndGet() < rows.length;
+                        }
+                        case "getMetaData" -> {
+                            return metaData;
+                        }
+                        case "wasNull" -> {
+                            return lastValue[0] == null;
+                        }
+                    }
+                    Object value = rows[row.get()][(int) args[0] - 1];
+                    lastValue[0] = value;
+                    return switch (method.getName()) {
+                        case "getObject", "getString", "getBytes" -> value;
+                        case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                        case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                        case "getBoolean" -> value != null && (Boolean) value;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                }
+        );
+    }
+
+    @Getter
+    @Setter
+    public static class Role extends EntityLongUID {
+
+        private String name;
+        private int level;
+        private boolean online;
+        private Map<Integer, Long> items = new TreeMap<>();
+        private byte[] data;
+        private AtomicInteger counter = new AtomicInteger();
+        private transient boolean setLevelCalled;
+
+        public void setLevel(int level) {
+            this.level = level;
+            this.setLevelCalled = true;
+        }
+
+    }
+
+}
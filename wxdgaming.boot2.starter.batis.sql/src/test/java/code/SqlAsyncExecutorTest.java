@@ -0,0 +1,132 @@
+package code;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.threading.ExecutorServices;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.starter.batis.sql.SqlAsyncExecutor;
+
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步查询测试，不连接数据库，用代理模拟 Statement
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 02:30
+ **/
+public class SqlAsyncExecutorTest {
+
+    static Statement statement(CountDownLatch cancelLatch) {
+        return (Statement) Proxy.newProxyInstance(
+                SqlAsyncExecutorTest.class.getClassLoader(),
+                new Class[]{Statement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("cancel")) cancelLatch.countDown();
+                    return null;
+                }
+        );
+    }
+
+    @Test
+    public void callbackQueue() throws Exception {
+        SqlAsyncExecutor asyncExecutor = new SqlAsyncExecutor("test-query-1", 2, 100);
+        ExecutorServices logic = ExecutorUtil.getInstance().newExecutorServices("test-logic-1", 2);
+        try {
+            AtomicReference<String> callbackQueue = new AtomicReference<>();
+            CompletableFuture<String> future = asyncExecutor.submit(logic, "player-1", 1000, () -> {
+                        /*保证回调注册在完成之前*/
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                        return Thread.currentThread().getName();
+                    })
+                    .whenComplete((r, throwable) -> callbackQueue.set(ExecutorUtil.getInstance().currentThreadQueueKey()));
+            Assert.assertTrue(future.get(3, TimeUnit.SECONDS).startsWith("test-query-1"));
+            Assert.assertEquals("player-1", callbackQueue.get());
+        } finally {
+            asyncExecutor.shutdown();
+            logic.terminate();
+            ExecutorUtil.getInstance().All_THREAD_LOCAL.remove("test-logic-1");
+        }
+    }
+
+    @Test
+    public void joinOnCallbackQueue() throws Exception {
+        SqlAsyncExecutor asyncExecutor = new SqlAsyncExecutor("test-query-4", 1, 100);
+        ExecutorServices logic = ExecutorUtil.getInstance().newExecutorServices("test-logic-4", 2);
+        try {
+            CompletableFuture<String> done = new CompletableFuture<>();
+            logic.submit("player-4", () -> {
+                /*结果回到当前子队列，在当前子队列里等待不能死锁*/
+                String join = asyncExecutor.submit(1000, () -> "ok").join();
+                try {
+                    String get = asyncExecutor.submit(1000, () -> "ok").get(1, TimeUnit.SECONDS);
+                    done.complete(join + get);
+                } catch (Exception e) {
+                    done.completeExceptionally(e);
+                }
+            });
+            Assert.assertEquals("okok", done.get(3, TimeUnit.SECONDS));
+        } finally {
+            asyncExecutor.shutdown();
+            logic.terminate();
+            ExecutorUtil.getInstance().All_THREAD_LOCAL.remove("test-logic-4");
+        }
+    }
+
+    @Test
+    public void timeoutCancel() throws Exception {
+        SqlAsyncExecutor asyncExecutor = new SqlAsyncExecutor("test-query-2", 1, 100);
+        try {
+            CountDownLatch cancelLatch = new CountDownLatch(1);
+            CompletableFuture<Object> future = asyncExecutor.submit(null, null, 100, () -> {
+                try {
+                    SqlAsyncExecutor.bind(statement(cancelLatch));
+                    /*模拟慢查询，语句被取消之后返回*/
+                    cancelLatch.await(5, TimeUnit.SECONDS);
+                    return "late";
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    SqlAsyncExecutor.unbind();
+                }
+            });
+            try {
+                future.get(3, TimeUnit.SECONDS);
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof TimeoutException);
+            }
+            Assert.assertTrue("超时调用 Statement.cancel", cancelLatch.await(1, TimeUnit.SECONDS));
+        } finally {
+            asyncExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void callerCancel() throws Exception {
+        SqlAsyncExecutor asyncExecutor = new SqlAsyncExecutor("test-query-3", 1, 100);
+        try {
+            CountDownLatch bindLatch = new CountDownLatch(1);
+            CountDownLatch cancelLatch = new CountDownLatch(1);
+            CompletableFuture<Object> future = asyncExecutor.submit(null, null, 0, () -> {
+                try {
+                    SqlAsyncExecutor.bind(statement(cancelLatch));
+                    bindLatch.countDown();
+                    cancelLatch.await(5, TimeUnit.SECONDS);
+                    return null;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            Assert.assertTrue(bindLatch.await(3, TimeUnit.SECONDS));
+            future.cancel(true);
+            Assert.assertTrue("取消调用 Statement.cancel", cancelLatch.await(1, TimeUnit.SECONDS));
+        } finally {
+            asyncExecutor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package code;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.batis.TableMapping;
+import wxdgaming.boot2.starter.batis.sql.SqlDDLBuilder;
+import wxdgaming.boot2.starter.batis.sql.SqlDataBatch;
+import wxdgaming.boot2.starter.batis.sql.SqlDataBatch.BatchType;
+
+import java.util.BitSet;
+
+/**
+ * 批量写入同一个主键的合并测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 10:20
+ **/
+public class SqlDataBatchMergeTest {
+
+    final SqlDDLBuilder ddlBuilder = new SqlDDLBuilder() {};
+
+    @Test
+    public void mergeType() {
+        /*数据库还没有这一行，后面的修改都合并到 insert*/
+        Assert.assertEquals(BatchType.Insert, SqlDataBatch.merge(BatchType.Insert, BatchType.Update));
+        Assert.assertEquals(BatchType.Insert, SqlDataBatch.merge(BatchType.Insert, BatchType.Insert));
+        /*不确定数据库里有没有，用 upsert*/
+        Assert.assertEquals(BatchType.Upsert, SqlDataBatch.merge(BatchType.Update, BatchType.Insert));
+        Assert.assertEquals(BatchType.Update, SqlDataBatch.merge(BatchType.Update, BatchType.Update));
+        Assert.assertEquals(BatchType.Upsert, SqlDataBatch.merge(BatchType.Delete, BatchType.Insert));
+        Assert.assertEquals(BatchType.Delete, SqlDataBatch.merge(BatchType.Delete, BatchType.Update));
+        Assert.assertEquals(BatchType.Upsert, SqlDataBatch.merge(BatchType.Upsert, BatchType.Update));
+        /*后面的 delete 覆盖之前的任何写入*/
+        for (BatchType prev : BatchType.values()) {
+            Assert.assertEquals(BatchType.Delete, SqlDataBatch.merge(prev, BatchType.Delete));
+        }
+        Assert.assertEquals(BatchType.Update, SqlDataBatch.merge(null, BatchType.Update));
+    }
+
+    @Test
+    public void mergeColumns() {
+        TableMapping tableMapping = ddlBuilder.tableMapping(DirtyColumnsTest.Player.class);
+        DirtyColumnsTest.Player player = new DirtyColumnsTest.Player();
+        player.setUid(1);
+        player.setName("a");
+        tableMapping.snapshot(player);
+
+        player.setLevel(2);
+        BitSet prevColumns = tableMapping.checkDirty(player);
+        Object[] prevParams = ddlBuilder.buildColumnParams(tableMapping, player, prevColumns);
+
+        /*下一次只改了 name，参数里没有 level*/
+        player.setName("c");
+        BitSet nextColumns = tableMapping.checkDirty(player);
+        Object[] nextParams = ddlBuilder.buildColumnParams(tableMapping, player, nextColumns);
+        Assert.assertEquals(1, nextColumns.cardinality());
+
+        BitSet merged = SqlDataBatch.mergeColumns(tableMapping, prevParams, prevColumns, nextParams, nextColumns);
+        Assert.assertEquals(2, merged.cardinality());
+        String sql = ddlBuilder.buildUpdateSql(tableMapping, tableMapping.getTableName(), merged);
+        Assert.assertEquals("update `player` set `name`=?,`level`=? where `uid`=?", sql);
+        Assert.assertArrayEquals(new Object[]{"c", 2, 1L}, ddlBuilder.builderUpdateParams(tableMapping, nextParams, merged));
+
+        /*上一次是全部列，合并之后也是全部列*/
+        Object[] fullParams = ddlBuilder.buildColumnParams(tableMapping, player, null);
+        player.setLevel(5);
+        BitSet partial = tableMapping.checkDirty(player);
+        Object[] partialParams = ddlBuilder.buildColumnParams(tableMapping, player, partial);
+        Assert.assertNull(SqlDataBatch.mergeColumns(tableMapping, fullParams, null, partialParams, partial));
+        Assert.assertArrayEquals(ddlBuilder.buildColumnParams(tableMapping, player, null), partialParams);
+    }
+
+}
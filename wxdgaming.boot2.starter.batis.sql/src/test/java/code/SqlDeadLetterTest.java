@@ -0,0 +1,81 @@
+package code;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.batis.sql.SqlBatchBreaker;
+import wxdgaming.boot2.starter.batis.sql.SqlDeadLetter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量写入失败记录和熔断测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 01:10
+ **/
+public class SqlDeadLetterTest {
+
+    @Test
+    public void appendReplay() throws Exception {
+        File file = File.createTempFile("dead_letter", ".jsonl");
+        file.delete();
+        SqlDeadLetter deadLetter = new SqlDeadLetter(file, 1024 * 1024);
+        Object[] params = {1, 2L, (short) 3, (byte) 4, true, 1.5f, 2.5d, "a\nb", null, new byte[]{1, 2, 3}};
+        Assert.assertTrue(deadLetter.append("player", "insert into player values(?)", params, new RuntimeException("x")));
+        Assert.assertTrue(deadLetter.append("player", "update player", new Object[]{"fail"}, new RuntimeException("y")));
+
+        List<Object[]> replayed = new ArrayList<>();
+        int success = deadLetter.replay((sql, objects) -> {
+            if (objects[0].equals("fail")) return false;
+            replayed.add(objects);
+            return true;
+        });
+        Assert.assertEquals(1, success);
+        Object[] decoded = replayed.getFirst();
+        for (int i = 0; i < params.length - 1; i++) {
+            Assert.assertEquals(params[i], decoded[i]);
+        }
+        Assert.assertArrayEquals((byte[]) params[params.length - 1], (byte[]) decoded[params.length - 1]);
+
+        /*失败的保留在文件里，下次继续重试*/
+        Assert.assertEquals(1, deadLetter.replay((sql, objects) -> true));
+        Assert.assertEquals(0, deadLetter.replay((sql, objects) -> true));
+        file.delete();
+    }
+
+    @Test
+    public void maxBytes() throws Exception {
+        File file = File.createTempFile("dead_letter", ".jsonl");
+        file.delete();
+        SqlDeadLetter deadLetter = new SqlDeadLetter(file, 300);
+        int count = 0;
+        for (int i = 0; i < 10; i++) {
+            if (deadLetter.append("player", "insert into player values(?)", new Object[]{i}, new RuntimeException("x"))) count++;
+        }
+        Assert.assertTrue(file.length() <= 300);
+        Assert.assertEquals(count, deadLetter.getAppendCount().get());
+        Assert.assertEquals(10 - count, deadLetter.getDropCount().get());
+        file.delete();
+    }
+
+    @Test
+    public void breaker() throws Exception {
+        SqlBatchBreaker breaker = new SqlBatchBreaker("player", 2, 100);
+        breaker.record(false);
+        Assert.assertTrue(breaker.allow());
+        breaker.record(false);
+        Assert.assertFalse(breaker.allow());
+        Thread.sleep(150);
+        /*暂停结束之后放行试探*/
+        Assert.assertTrue(breaker.allow());
+        breaker.record(false);
+        Assert.assertFalse(breaker.allow());
+        Thread.sleep(150);
+        breaker.record(true);
+        Assert.assertTrue(breaker.allow());
+        Assert.assertEquals(0, breaker.getFailCount().get());
+    }
+
+}
@@ -0,0 +1,49 @@
+package code;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.batis.sql.SqlPartitions;
+import wxdgaming.boot2.starter.batis.sql.SqlQueryBuilder;
+import wxdgaming.boot2.starter.batis.sql.ann.Partition;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 自动分区范围测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 04:10
+ **/
+public class SqlPartitionsTest {
+
+    @Test
+    public void dayRanges() {
+        List<int[]> ranges = SqlPartitions.aheadRanges(Partition.Unit.Day, LocalDate.of(2025, 12, 30), 3);
+        Assert.assertEquals(3, ranges.size());
+        Assert.assertArrayEquals(new int[]{20251230, 20251231}, ranges.get(0));
+        Assert.assertArrayEquals(new int[]{20251231, 20260101}, ranges.get(1));
+        Assert.assertArrayEquals(new int[]{20260101, 20260102}, ranges.get(2));
+        /*保留今天在内的 7 天*/
+        Assert.assertEquals(20251224, SqlPartitions.retentionCutoff(Partition.Unit.Day, LocalDate.of(2025, 12, 30), 7));
+    }
+
+    @Test
+    public void monthRanges() {
+        List<int[]> ranges = SqlPartitions.aheadRanges(Partition.Unit.Month, LocalDate.of(2025, 11, 18), 2);
+        Assert.assertArrayEquals(new int[]{20251101, 20251201}, ranges.get(0));
+        Assert.assertArrayEquals(new int[]{20251201, 20260101}, ranges.get(1));
+        Assert.assertEquals(20250901, SqlPartitions.retentionCutoff(Partition.Unit.Month, LocalDate.of(2025, 11, 18), 3));
+    }
+
+    @Test
+    public void pruneSql() {
+        SqlQueryBuilder queryBuilder = new SqlQueryBuilder(null) {};
+        queryBuilder.setTableName("log_login");
+        queryBuilder.pushWhere("uid = ?", 1L);
+        queryBuilder.pushPartitionRange("day", 20251101, 20251201);
+        Assert.assertEquals("SELECT * FROM log_login WHERE uid = ? and day >= ? and day < ?", queryBuilder.buildSelectSql());
+        Assert.assertArrayEquals(new Object[]{1L, 20251101, 20251201}, queryBuilder.getParameters());
+    }
+
+}
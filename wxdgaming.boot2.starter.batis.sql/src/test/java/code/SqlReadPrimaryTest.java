@@ -0,0 +1,70 @@
+package code;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import wxdgaming.boot2.core.threading.ExecutorConfig;
+import wxdgaming.boot2.core.threading.ExecutorUtil;
+import wxdgaming.boot2.starter.batis.sql.SqlConfig;
+import wxdgaming.boot2.starter.batis.sql.SqlDDLBuilder;
+import wxdgaming.boot2.starter.batis.sql.SqlDataHelper;
+import wxdgaming.boot2.starter.batis.sql.SqlQueryBuilder;
+
+import java.util.List;
+
+/**
+ * 配置了从库的时候，写入之前的检查读主库
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 11:10
+ **/
+public class SqlReadPrimaryTest {
+
+    SqlDataHelper<SqlDDLBuilder> dataHelper;
+
+    @Before
+    public void before() {
+        if (ExecutorUtil.getInstance().getDefaultExecutor() == null) {
+            ExecutorUtil.getInstance().init(ExecutorConfig.INSTANCE);
+        }
+        FakeDriver.executed.clear();
+        SqlConfig sqlConfig = FakeDriver.sqlConfig("primary");
+        sqlConfig.setReplicaUrls(List.of(FakeDriver.PREFIX + "replica/test"));
+        dataHelper = new SqlDataHelper<>(sqlConfig, new SqlDDLBuilder() {}) {
+            @Override public void initDataBatch() {}
+
+            @Override public SqlQueryBuilder queryBuilder() {
+                return null;
+            }
+        };
+    }
+
+    @After
+    public void after() {
+        FakeDriver.rows = sql -> List.of();
+        dataHelper.shutdown();
+    }
+
+    @Test
+    public void save() {
+        DirtyColumnsTest.Player player = new DirtyColumnsTest.Player();
+        player.setUid(1);
+        String exitSql = dataHelper.getDdlBuilder().buildExitSql(player);
+
+        /*普通查询走从库*/
+        dataHelper.findByKey(DirtyColumnsTest.Player.class, 1L);
+        Assert.assertEquals(1, FakeDriver.executed("replica").size());
+        Assert.assertTrue(FakeDriver.executed("primary").isEmpty());
+
+        /*从库还没有同步，主库已经有这一行*/
+        FakeDriver.rows = sql -> sql.equals(exitSql) ? List.<Object[]>of(new Object[]{1}) : List.of();
+        Assert.assertTrue(dataHelper.existBean(player));
+        dataHelper.save(player);
+        List<String> primary = FakeDriver.executed("primary");
+        Assert.assertEquals(List.of(exitSql, exitSql), primary.subList(0, 2));
+        Assert.assertTrue(primary.get(2).startsWith("update"));
+        Assert.assertEquals(1, FakeDriver.executed("replica").size());
+    }
+
+}
@@ -0,0 +1,69 @@
+package code;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.batis.sql.SqlReplica;
+import wxdgaming.boot2.starter.batis.sql.SqlReplicaRouter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从库路由测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 03:10
+ **/
+public class SqlReplicaRouterTest {
+
+    static class TestReplica extends SqlReplica {
+
+        int active;
+
+        TestReplica(String url, int active) {
+            super(url, null);
+            this.active = active;
+        }
+
+        @Override public int activeConnections() {
+            return active;
+        }
+
+    }
+
+    @Test
+    public void roundRobin() {
+        TestReplica r1 = new TestReplica("r1", 0);
+        TestReplica r2 = new TestReplica("r2", 0);
+        SqlReplicaRouter router = new SqlReplicaRouter(List.of(r1, r2), SqlReplicaRouter.Policy.RoundRobin, 1000);
+        List<SqlReplica> selected = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            selected.add(router.select());
+        }
+        Assert.assertEquals(List.of(r1, r2, r1, r2), selected);
+
+        /*延迟过大跳过*/
+        r1.setLagMs(5000);
+        Assert.assertSame(r2, router.select());
+        Assert.assertSame(r2, router.select());
+        /*全部不可用读主库*/
+        r2.setHealthy(false);
+        Assert.assertNull(router.select());
+    }
+
+    @Test
+    public void leastBusy() {
+        TestReplica r1 = new TestReplica("r1", 5);
+        TestReplica r2 = new TestReplica("r2", 2);
+        SqlReplicaRouter router = new SqlReplicaRouter(List.of(r1, r2), SqlReplicaRouter.Policy.LeastBusy, 0);
+        Assert.assertSame(r2, router.select());
+        r2.active = 9;
+        Assert.assertSame(r1, router.select());
+        /*maxLagMs 小于等于 0 不检查延迟*/
+        r1.setLagMs(Long.MAX_VALUE);
+        Assert.assertSame(r1, router.select());
+        r1.setHealthy(false);
+        Assert.assertSame(r2, router.select());
+    }
+
+}
@@ -20,5 +20,8 @@ public abstract class DataBatch {
 
     public abstract void update(Entity entity);
 
+    /** 删除，会覆盖同一个主键还没有落地的 insert update */
+    public abstract void delete(Entity entity);
+
     public abstract void shutdown();
 }
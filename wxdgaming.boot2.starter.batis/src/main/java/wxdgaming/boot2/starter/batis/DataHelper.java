@@ -96,4 +96,6 @@ public abstract class DataHelper<DDL extends DDLBuilder> {
 
     public abstract void update(Entity entity);
 
+    public abstract void delete(Entity entity);
+
 }
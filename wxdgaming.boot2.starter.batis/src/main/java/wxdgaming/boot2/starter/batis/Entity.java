@@ -26,7 +26,12 @@ public abstract class Entity extends ObjectBase {
     @DbColumn(ignore = true)
     @JSONField(serialize = false, deserialize = false)
     private transient int oldHashCode = -1;
+    /** 每一列的 hash 快照，{@link TableMapping#checkDirty(Entity)} 用来判断哪些列需要更新 */
+    @DbColumn(ignore = true)
+    @JSONField(serialize = false, deserialize = false)
+    private transient long[] columnHashes;
 
+    /** 整行序列化成 json 计算 hash，数据量大的时候建议使用 {@link TableMapping#checkDirty(Entity)} */
     public boolean checkHashCode() {
         String jsonString = FastJsonUtil.toJson(
                 this,
@@ -78,6 +78,12 @@ public class TableMapping {
     private final Map<String, String> insertSql = new ConcurrentHashMap<>();
     /** 主键列更新  key: tableName, value: sql语句 */
     private final Map<String, String> updateSql = new ConcurrentHashMap<>();
+    /** 主键列删除  key: tableName, value: sql语句 */
+    private final Map<String, String> deleteSql = new ConcurrentHashMap<>();
+    /** 插入或者更新  key: tableName, value: sql语句 */
+    private final Map<String, String> upsertSql = new ConcurrentHashMap<>();
+    /** 只更新部分列  key: tableName + 列序号, value: sql语句 */
+    private final Map<String, String> dirtyUpdateSql = new ConcurrentHashMap<>();
 
     public TableMapping(Class<?> cls) {
         this.cls = cls;
@@ -118,6 +124,7 @@ public class TableMapping {
             }
             /*数据库列名全小写*/
             fieldMapping.columnName = fieldMapping.columnName.toLowerCase();
+            fieldMapping.ordinal = columns.size();
             columns.put(fieldMapping.columnName, fieldMapping);
         }
 
@@ -157,6 +164,55 @@ public class TableMapping {
         }
     }
 
+    /** 每一列的 hash，顺序和 {@link #getColumns()} 一致 */
+    public long[] columnHashes(Object bean) {
+        long[] hashes = new long[columns.size()];
+        for (FieldMapping fieldMapping : columns.values()) {
+            hashes[fieldMapping.ordinal] = fieldMapping.columnHash(bean);
+        }
+        return hashes;
+    }
+
+    /** 记录当前每一列的 hash，之后的 {@link #dirtyColumns(Entity)} 和这个快照比较 */
+    public void snapshot(Entity entity) {
+        entity.setColumnHashes(columnHashes(entity));
+    }
+
+    /** 和快照相比发生变化的非主键列，没有快照的时候返回全部非主键列 */
+    public List<FieldMapping> dirtyColumns(Entity entity) {
+        BitSet dirty = dirty(entity, columnHashes(entity));
+        List<FieldMapping> list = new ArrayList<>(dirty.cardinality());
+        for (FieldMapping fieldMapping : columns.values()) {
+            if (dirty.get(fieldMapping.ordinal)) list.add(fieldMapping);
+        }
+        return list;
+    }
+
+    /**
+     * 检查变化的非主键列，并且把快照更新成当前的值
+     *
+     * @return 变化的列序号，没有变化的时候是空的
+     */
+    public BitSet checkDirty(Entity entity) {
+        long[] hashes = columnHashes(entity);
+        BitSet dirty = dirty(entity, hashes);
+        entity.setColumnHashes(hashes);
+        return dirty;
+    }
+
+    BitSet dirty(Entity entity, long[] hashes) {
+        long[] old = entity.getColumnHashes();
+        BitSet dirty = new BitSet(hashes.length);
+        for (FieldMapping fieldMapping : columns.values()) {
+            if (fieldMapping.isKey()) continue;
+            int ordinal = fieldMapping.ordinal;
+            if (old == null || old.length != hashes.length || old[ordinal] != hashes[ordinal]) {
+                dirty.set(ordinal);
+            }
+        }
+        return dirty;
+    }
+
     public <R> R newInstance() {
         try {
             Constructor<?> constructor = cls.getConstructor();
@@ -183,6 +239,8 @@ public class TableMapping {
         private boolean index;
         private String comment;
         private String defaultValue;
+        /** 在 {@link #getColumns()} 中的序号 */
+        private int ordinal;
 
         public FieldMapping(Class<?> cls, Field field) {
             this.field = field;
@@ -258,6 +316,37 @@ public class TableMapping {
             }
         }
 
+        /**
+         * 列的 hash，基础类型直接用值，字符串和 blob 计算 64 位 hash，json 只序列化这一列
+         * <p>只用来判断列是否变化，null 使用固定的 hash
+         */
+        public long columnHash(Object bean) {
+            Object object = getFieldValue(bean);
+            if (object == null) return NULL_HASH;
+            switch (columnType) {
+                case Bool, Byte, Short, Int, Long -> {
+                    return switch (object) {
+                        case Boolean b -> b ? 1 : 0;
+                        case AtomicBoolean b -> b.get() ? 1 : 0;
+                        case Number number -> number.longValue();
+                        default -> hash64(String.valueOf(object));
+                    };
+                }
+                case Float, Double -> {
+                    if (object instanceof Number number) return Double.doubleToLongBits(number.doubleValue());
+                    return hash64(String.valueOf(object));
+                }
+                case Blob -> {
+                    if (object instanceof byte[] bytes) return hash64(bytes);
+                    return hash64((byte[]) toDbValue(bean));
+                }
+                case null, default -> {
+                    if (object instanceof String str) return hash64(str);
+                    return hash64(String.valueOf(toDbValue(bean)));
+                }
+            }
+        }
+
         /**
          * @param bean 需要赋值的实例
          * @param data 数据库读取的行数据
@@ -265,9 +354,18 @@ public class TableMapping {
          * @version: 2025-02-24 09:39
          */
         public void setValue(Object bean, JSONObject data) {
+            setDbValue(bean, data.get(getColumnName()));
+        }
+
+        /**
+         * 把数据库读取的列值转换之后赋值，null 不处理
+         *
+         * @param bean    需要赋值的实例
+         * @param dbValue 数据库读取的列值
+         */
+        public void setDbValue(Object bean, Object dbValue) {
             try {
-                Object colValue = data.get(getColumnName());
-                colValue = fromDbValue(colValue);
+                Object colValue = fromDbValue(dbValue);
                 if (colValue == null) return;
                 if (setMethod == null) {
                     if (Modifier.isFinal(field.getModifiers())) {
@@ -357,4 +455,26 @@ public class TableMapping {
 
     }
 
+    /** null 值的 hash */
+    static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+
+    /** FNV-1a 64 位 */
+    static long hash64(CharSequence str) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < str.length(); i++) {
+            h ^= str.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    static long hash64(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
 }
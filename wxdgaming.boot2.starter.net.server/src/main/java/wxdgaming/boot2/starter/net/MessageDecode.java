@@ -5,6 +5,7 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.websocketx.*;
@@ -125,14 +126,25 @@ public abstract class MessageDecode extends ChannelInboundHandlerAdapter {
         if (tmpByteBuf == null) {
             tmpByteBuf = byteBuf;
         } else {
-            tmpByteBuf = tmpByteBuf.writeBytes(byteBuf);
-            ByteBufUtil.release(byteBuf);
+            /*还有消息体切片没有释放的时候会重新申请内存，不会覆盖切片数据，byteBuf 会被释放*/
+            tmpByteBuf = ByteToMessageDecoder.MERGE_CUMULATOR.cumulate(ctx.alloc(), tmpByteBuf, byteBuf);
         }
 
-        readBytes0(ctx, tmpByteBuf);
+        try {
+            readBytes0(ctx, tmpByteBuf);
+        } catch (Throwable throwable) {
+            /*原始的 byteBuf 由 channelRead 释放，这里只释放合并出来的缓冲区*/
+            if (tmpByteBuf != byteBuf) {
+                ByteBufUtil.release(tmpByteBuf);
+            }
+            throw throwable;
+        }
 
         if (tmpByteBuf.readableBytes() > 0) {
-            tmpByteBuf.discardReadBytes();
+            if (tmpByteBuf.refCnt() == 1) {
+                /*没有切片引用的时候才能整理内存*/
+                tmpByteBuf.discardSomeReadBytes();
+            }
             ChannelUtil.attr(ctx.channel(), byteBufAttributeKey, tmpByteBuf);
         } else {
             ByteBufUtil.release(tmpByteBuf);
@@ -150,14 +162,14 @@ public abstract class MessageDecode extends ChannelInboundHandlerAdapter {
                 int messageId = byteBuf.readInt();
                 /*TODO 选择压缩*/
                 // byte isZip = tmpByteBuf.readByte();
-                byte[] messageBytes = new byte[len - 4];
-                /*读取报文类容*/
-                byteBuf.readBytes(messageBytes);
                 SocketSession socketSession = ChannelUtil.session(ctx.channel());
-                if (!socketSession.checkReceiveMessage(messageBytes.length)) {
+                if (!socketSession.checkReceiveMessage(len - 4)) {
+                    byteBuf.skipBytes(len - 4);
                     return;
                 }
-                dispatch(socketSession, messageId, messageBytes);
+                /*读取报文类容, 不拷贝，直接引用原始内存，派发完成后释放*/
+                ByteBuf messageBuf = byteBuf.readRetainedSlice(len - 4);
+                dispatch(socketSession, messageId, messageBuf);
             } else {
                 /*重新设置读取进度*/
                 byteBuf.resetReaderIndex();
@@ -170,8 +182,9 @@ public abstract class MessageDecode extends ChannelInboundHandlerAdapter {
         httpListenerFactory.dispatch(ctx, httpRequest);
     }
 
-    protected void dispatch(SocketSession socketSession, int messageId, byte[] messageBytes) throws Exception {
-        protoListenerFactory.dispatch(socketSession, messageId, messageBytes);
+    /** messageBuf 的所有权交给派发器，由派发器负责释放 */
+    protected void dispatch(SocketSession socketSession, int messageId, ByteBuf messageBuf) throws Exception {
+        protoListenerFactory.dispatch(socketSession, messageId, messageBuf);
     }
 
     protected void dispatch(SocketSession socketSession, String messageBytes) throws Exception {
@@ -43,12 +43,7 @@ public abstract class MessageEncode extends ChannelOutboundHandlerAdapter {
             }
             case PojoBase pojoBase -> {
                 int msgId = protoListenerFactory.messageId(pojoBase.getClass());
-                if (msgId == 0) {
-                    log.warn("{} 消息 {} 未注册", session, pojoBase.getClass().getName(), new RuntimeException("无法编码"));
-                    return;
-                }
-                byte[] bytes = SerializerUtil.encode(pojoBase);
-                ByteBuf byteBuf = build(msgId, bytes);
+                ByteBuf byteBuf = build(msgId, pojoBase);
                 if (session.isWebSocket()) {
                     super.write(ctx, new BinaryWebSocketFrame(byteBuf), promise);
                 } else {
@@ -63,6 +58,18 @@ public abstract class MessageEncode extends ChannelOutboundHandlerAdapter {
                 byteBuf.writeBytes(bytes);
                 super.write(ctx, byteBuf, promise);
             }
+            case PreEncodedMessage preEncodedMessage -> {
+                /*广播的时候 ChannelGroup 已经为每个 channel 生成了 retainedDuplicate*/
+                ByteBuf byteBuf = preEncodedMessage.content();
+                if (session.isWebSocket()) {
+                    super.write(ctx, new BinaryWebSocketFrame(byteBuf), promise);
+                } else {
+                    super.write(ctx, byteBuf, promise);
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("发送消息：{} {}, {}", session, preEncodedMessage.getMessageId(), preEncodedMessage.getPojoClass().getSimpleName());
+                }
+            }
             case ByteBuf byteBuf -> {
                 if (session.isWebSocket()) {
                     super.write(ctx, new BinaryWebSocketFrame(byteBuf), promise);
@@ -74,6 +81,22 @@ public abstract class MessageEncode extends ChannelOutboundHandlerAdapter {
         }
     }
 
+    /** 直接序列化到池化的 ByteBuf，先占位长度，写完消息体再回填 */
+    public static ByteBuf build(int messageId, PojoBase pojoBase) {
+        ByteBuf byteBuf = ByteBufUtil.pooledByteBuf(256);
+        try {
+            int lengthIndex = byteBuf.writerIndex();
+            byteBuf.writeInt(0);
+            byteBuf.writeInt(messageId);
+            int len = SerializerUtil.encode(pojoBase, byteBuf);
+            byteBuf.setInt(lengthIndex, len + 4);
+            return byteBuf;
+        } catch (Throwable throwable) {
+            byteBuf.release();
+            throw throwable;
+        }
+    }
+
     public static ByteBuf build(int messageId, byte[] bytes) {
         ByteBuf byteBuf = ByteBufUtil.pooledByteBuf(bytes.length + 10);
         byteBuf.writeInt(bytes.length + 4);
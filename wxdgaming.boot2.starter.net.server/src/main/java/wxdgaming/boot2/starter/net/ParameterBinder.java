@@ -0,0 +1,89 @@
+package wxdgaming.boot2.starter.net;
+
+import com.google.inject.Injector;
+import wxdgaming.boot2.core.BootConfig;
+import wxdgaming.boot2.core.RunApplication;
+import wxdgaming.boot2.core.ann.Qualifier;
+import wxdgaming.boot2.core.ann.ThreadParam;
+import wxdgaming.boot2.core.ann.Value;
+import wxdgaming.boot2.core.reflect.GuiceReflectContext;
+import wxdgaming.boot2.core.threading.ThreadContext;
+
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.function.Function;
+
+/**
+ * 参数绑定
+ * <p>
+ * 注册映射的时候根据参数类型和注解确定每个参数的取值方式，调用的时候不再做类型判断和注解查找
+ *
+ * @param <C> 调用上下文，比如触发器本身
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 18:30
+ **/
+@FunctionalInterface
+public interface ParameterBinder<C> {
+
+    Object bind(C context) throws Exception;
+
+    /** 按照绑定计划生成调用参数 */
+    static <C> Object[] bind(ParameterBinder<C>[] binders, C context) throws Exception {
+        Object[] params = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            params[i] = binders[i].bind(context);
+        }
+        return params;
+    }
+
+    /** 容器相关的参数 GuiceReflectContext, RunApplication, Injector，不匹配返回 null */
+    static <C> ParameterBinder<C> application(Parameter parameter, Function<C, RunApplication> runApplication) {
+        Class<?> parameterType = parameter.getType();
+        if (GuiceReflectContext.class.isAssignableFrom(parameterType)) {
+            return context -> runApplication.apply(context).getGuiceReflectContext();
+        } else if (RunApplication.class.isAssignableFrom(parameterType)) {
+            return runApplication::apply;
+        } else if (Injector.class.isAssignableFrom(parameterType)) {
+            return context -> runApplication.apply(context).getInjector();
+        }
+        return null;
+    }
+
+    /** {@link Value} 注解的配置参数，不匹配返回 null */
+    static <C> ParameterBinder<C> value(Parameter parameter) {
+        Value value = parameter.getAnnotation(Value.class);
+        if (value == null) return null;
+        Class<?> parameterType = parameter.getType();
+        Type parameterizedType = parameter.getParameterizedType();
+        return context -> {
+            Object valued = BootConfig.getIns().value(value, parameterizedType);
+            return parameterType.isPrimitive() ? valued : parameterType.cast(valued);
+        };
+    }
+
+    /** {@link ThreadParam} 注解的线程上下文参数，不匹配返回 null */
+    static <C> ParameterBinder<C> threadParam(Parameter parameter) {
+        ThreadParam threadParam = parameter.getAnnotation(ThreadParam.class);
+        if (threadParam == null) return null;
+        Type parameterizedType = parameter.getParameterizedType();
+        return context -> ThreadContext.context(threadParam, parameterizedType);
+    }
+
+    /** 兜底从 guice 容器获取实例 */
+    static <C> ParameterBinder<C> instance(Parameter parameter, Function<C, RunApplication> runApplication) {
+        Class<?> parameterType = parameter.getType();
+        Qualifier qualifier = parameter.getAnnotation(Qualifier.class);
+        boolean required = qualifier != null && qualifier.required();
+        return context -> {
+            try {
+                return runApplication.apply(context).getInstance(parameterType);
+            } catch (Exception e) {
+                if (required) {
+                    throw new RuntimeException("bean:" + parameterType.getName() + " is not bind");
+                }
+                return null;
+            }
+        };
+    }
+
+}
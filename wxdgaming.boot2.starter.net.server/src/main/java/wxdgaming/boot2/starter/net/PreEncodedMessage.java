@@ -0,0 +1,68 @@
+package wxdgaming.boot2.starter.net;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+import lombok.Getter;
+import wxdgaming.boot2.starter.net.pojo.PojoBase;
+import wxdgaming.boot2.starter.net.pojo.ProtoListenerContent;
+
+/**
+ * 已经编码好的消息，包含 长度 + 消息id + 消息体 完整的帧
+ * <p>
+ * 同一个消息发送给多个 channel 的时候只序列化一次，每个 channel 使用 {@link #retainedDuplicate()} 共享内存
+ * <p>
+ * 通过 {@link SessionGroup} 广播的时候由 ChannelGroup 负责复制和释放
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 17:10
+ **/
+@Getter
+public class PreEncodedMessage extends DefaultByteBufHolder {
+
+    private final int messageId;
+    private final Class<? extends PojoBase> pojoClass;
+
+    /** 编码消息，消息id 和普通发送一样检查冲突 */
+    public static PreEncodedMessage of(PojoBase pojoBase) {
+        Class<? extends PojoBase> pojoClass = pojoBase.getClass();
+        int messageId = ProtoListenerContent.messageId(pojoClass);
+        return new PreEncodedMessage(messageId, pojoClass, MessageEncode.build(messageId, pojoBase));
+    }
+
+    public PreEncodedMessage(int messageId, Class<? extends PojoBase> pojoClass, ByteBuf data) {
+        super(data);
+        this.messageId = messageId;
+        this.pojoClass = pojoClass;
+    }
+
+    @Override public PreEncodedMessage replace(ByteBuf content) {
+        return new PreEncodedMessage(messageId, pojoClass, content);
+    }
+
+    @Override public PreEncodedMessage copy() {
+        return (PreEncodedMessage) super.copy();
+    }
+
+    @Override public PreEncodedMessage duplicate() {
+        return (PreEncodedMessage) super.duplicate();
+    }
+
+    @Override public PreEncodedMessage retainedDuplicate() {
+        return (PreEncodedMessage) super.retainedDuplicate();
+    }
+
+    @Override public PreEncodedMessage retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override public PreEncodedMessage retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override public String toString() {
+        return "PreEncodedMessage{messageId=" + messageId + ", pojoClass=" + pojoClass.getSimpleName() + ", bytes=" + content().readableBytes() + "}";
+    }
+
+}
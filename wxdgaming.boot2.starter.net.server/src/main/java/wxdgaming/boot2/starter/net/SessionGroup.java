@@ -5,6 +5,7 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import lombok.Getter;
 import wxdgaming.boot2.core.collection.concurrent.ConcurrentLoopList;
+import wxdgaming.boot2.starter.net.pojo.PojoBase;
 
 /**
  * channel 列表
@@ -38,11 +39,19 @@ public class SessionGroup extends ConcurrentLoopList<SocketSession> {
     }
 
     public void write(Object message) {
-        channelGroup.write(message);
+        channelGroup.write(preEncode(message));
     }
 
     public void writeAndFlush(Object message) {
-        channelGroup.writeAndFlush(message);
+        channelGroup.writeAndFlush(preEncode(message));
+    }
+
+    /** 广播的 pojo 只序列化一次，每个 channel 发送共享内存的副本 */
+    protected Object preEncode(Object message) {
+        if (message instanceof PojoBase pojoBase) {
+            return PreEncodedMessage.of(pojoBase);
+        }
+        return message;
     }
 
     public void flush() {
@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import wxdgaming.boot2.core.lang.TickCount;
 import wxdgaming.boot2.starter.net.pojo.PojoBase;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -41,6 +42,8 @@ public class SocketSession {
     private int maxFrameLength = -1;
     /** 帧最大字节数 */
     private long maxFrameBytes = -1;
+    /** 业务队列已满时暂停读取的时间，单位毫秒，小于等于 0 不暂停 */
+    private long backpressurePauseMillis = 100;
     private final TickCount receiveMessageTick = new TickCount(1000);
 
     public SocketSession(Type type, Channel channel, Boolean webSocket) {
@@ -121,6 +124,24 @@ public class SocketSession {
         log.info("close {} {}", toString(), string);
     }
 
+    /**
+     * 业务队列已满，暂停读取这个连接的数据，让数据积压在 socket 缓冲区，由 tcp 流控限制对端发送
+     * <p>
+     * 到时间后自动恢复读取
+     */
+    public void pauseAutoRead() {
+        if (backpressurePauseMillis <= 0 || !channel.isActive()) return;
+        if (!channel.config().isAutoRead()) return;
+        channel.config().setAutoRead(false);
+        if (log.isDebugEnabled()) {
+            log.debug("{} 业务队列已满，暂停读取 {} ms", this, backpressurePauseMillis);
+        }
+        channel.eventLoop().schedule(
+                () -> channel.config().setAutoRead(true),
+                backpressurePauseMillis, TimeUnit.MILLISECONDS
+        );
+    }
+
     /** 增加接受消息的次数 */
     public boolean checkReceiveMessage(int c) {
         if (getMaxFrameBytes() > 0 && getMaxFrameBytes() < c) {
@@ -15,4 +15,10 @@ public @interface HttpRequest {
 
     /** 权限 */
     int[] authority() default -1;
+
+    /** 流式接收请求体，不聚合成完整请求，multipart 的文件直接写入磁盘，适合大文件上传 */
+    boolean streaming() default false;
+
+    /** 流式接收的请求体上限，单位 mb，小于等于 0 不限制 */
+    int streamMaxMB() default 1024;
 }
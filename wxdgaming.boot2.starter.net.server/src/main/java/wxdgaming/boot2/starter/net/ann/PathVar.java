@@ -0,0 +1,26 @@
+package wxdgaming.boot2.starter.net.ann;
+
+import java.lang.annotation.Documented;
+
+/**
+ * 路由变量，例如 {@code @HttpRequest(path = "{id}/mail")} 的处理方法参数 {@code @PathVar(path = "id") long id}
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 05:00
+ */
+@Documented
+@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+@java.lang.annotation.Target({
+        java.lang.annotation.ElementType.PARAMETER,
+})
+public @interface PathVar {
+
+    /** 路由里的变量名字 */
+    String path();
+
+    /** 必须 */
+    boolean required() default true;
+
+    /** 默认值 */
+    String defaultValue() default "";
+}
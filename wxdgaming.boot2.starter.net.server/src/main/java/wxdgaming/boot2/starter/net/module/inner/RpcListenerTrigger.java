@@ -1,24 +1,13 @@
 package wxdgaming.boot2.starter.net.module.inner;
 
 import com.alibaba.fastjson.JSONObject;
-import com.google.inject.Injector;
 import lombok.extern.slf4j.Slf4j;
-import wxdgaming.boot2.core.BootConfig;
 import wxdgaming.boot2.core.RunApplication;
-import wxdgaming.boot2.core.Throw;
-import wxdgaming.boot2.core.ann.*;
-import wxdgaming.boot2.core.chatset.StringUtils;
-import wxdgaming.boot2.core.chatset.json.FastJsonUtil;
 import wxdgaming.boot2.core.lang.RunResult;
-import wxdgaming.boot2.core.reflect.GuiceReflectContext;
 import wxdgaming.boot2.core.threading.Event;
-import wxdgaming.boot2.core.threading.ThreadContext;
+import wxdgaming.boot2.starter.net.ParameterBinder;
 import wxdgaming.boot2.starter.net.SocketSession;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.Type;
-
 /**
  * rpc 触发 事件
  *
@@ -30,10 +19,10 @@ public class RpcListenerTrigger extends Event {
 
     private final RpcMapping rpcMapping;
     private final RpcService rpcService;
-    private final RunApplication runApplication;
-    private final SocketSession socketSession;
+    final RunApplication runApplication;
+    final SocketSession socketSession;
     private final long rpcId;
-    private final JSONObject paramObject;
+    final JSONObject paramObject;
 
     public RpcListenerTrigger(RpcMapping rpcMapping,
                               RpcService rpcService,
@@ -53,9 +42,16 @@ public class RpcListenerTrigger extends Event {
         return "RpcListenerTrigger: " + rpcMapping.path() + "; " + rpcMapping.ins().getClass().getName() + "." + rpcMapping.method().getName() + "()";
     }
 
+    /** 队列已满没有执行，通知请求方 */
+    @Override public void onRejected() {
+        if (rpcId > 0) {
+            rpcService.response(socketSession, rpcId, RunResult.error(503, "server busy"));
+        }
+    }
+
     @Override public void onEvent() {
         try {
-            Object invoke = rpcMapping.method().invoke(rpcMapping.ins(), injectorParameters(runApplication, socketSession, paramObject));
+            Object invoke = rpcMapping.invoker().invoke(rpcMapping.ins(), ParameterBinder.bind(rpcMapping.binders(), this));
             if (rpcMapping.method().getReturnType() == void.class) {
                 invoke = null;
             }
@@ -67,9 +63,6 @@ public class RpcListenerTrigger extends Event {
                 rpcService.response(socketSession, rpcId, data);
             }
         } catch (Throwable e) {
-            if (e instanceof InvocationTargetException) {
-                e = e.getCause();
-            }
             log.error("dispatch error rpcId: {}, cmd: {}, paramData: {}", rpcId, rpcMapping.path(), paramObject, e);
             if (rpcId > 0) {
                 rpcService.response(socketSession, rpcId, RunResult.error(500, "server error"));
@@ -77,94 +70,4 @@ public class RpcListenerTrigger extends Event {
         }
     }
 
-    public Object[] injectorParameters(RunApplication runApplication, SocketSession socketSession, JSONObject paramObject) {
-        Parameter[] parameters = rpcMapping.method().getParameters();
-        Object[] params = new Object[parameters.length];
-        for (int i = 0; i < params.length; i++) {
-            Parameter parameter = parameters[i];
-            Class<?> parameterType = parameter.getType();
-            Type parameterizedType = parameter.getParameterizedType();
-            if (GuiceReflectContext.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(runApplication.getGuiceReflectContext());
-                continue;
-            } else if (RunApplication.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(runApplication);
-                continue;
-            } else if (Injector.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(runApplication.getInjector());
-                continue;
-            } else if (SocketSession.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(socketSession);
-                continue;
-            } else if (JSONObject.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(paramObject);
-                continue;
-            }
-            /*实现注入*/
-            {
-                Value value = parameter.getAnnotation(Value.class);
-                if (value != null) {
-                    params[i] = BootConfig.getIns().value(value, parameterizedType);
-                    continue;
-                }
-            }
-
-            {
-                ThreadParam threadParam = parameter.getAnnotation(ThreadParam.class);
-                if (threadParam != null) {
-                    params[i] = ThreadContext.context(threadParam, parameterizedType);
-                    continue;
-                }
-            }
-            {
-                Param param = parameter.getAnnotation(Param.class);
-                if (param != null) {
-                    String name = param.path();
-                    Object o;
-                    try {
-                        o = paramObject.getObject(name, parameterizedType);
-                        if (o == null && StringUtils.isNotBlank(param.defaultValue())) {
-                            o = FastJsonUtil.parse(param.defaultValue(), parameterizedType);
-                        }
-                    } catch (Exception e) {
-                        throw Throw.of("param 参数：" + name, e);
-                    }
-                    if (param.required() && o == null) {
-                        throw new RuntimeException("param:" + name + " is null");
-                    }
-                    params[i] = o;
-                    continue;
-                }
-            }
-
-            {
-                Body body = parameter.getAnnotation(Body.class);
-                if (body != null) {
-                    Object o = null;
-                    if (!paramObject.isEmpty()) {
-                        o = paramObject.toJavaObject(parameterType);
-                    }
-                    if (o == null && StringUtils.isNotBlank(body.defaultValue())) {
-                        o = FastJsonUtil.parse(body.defaultValue(), parameterType);
-                    }
-                    if (body.required() && o == null) {
-                        throw new RuntimeException("body is null");
-                    }
-                    params[i] = o;
-                    continue;
-                }
-            }
-
-            try {
-                params[i] = runApplication.getInstance(parameterType);
-            } catch (Exception e) {
-                Qualifier qualifier = parameter.getAnnotation(Qualifier.class);
-                if (qualifier != null && qualifier.required()) {
-                    throw new RuntimeException("bean:" + parameterType.getName() + " is not bind");
-                }
-            }
-        }
-        return params;
-    }
-
 }
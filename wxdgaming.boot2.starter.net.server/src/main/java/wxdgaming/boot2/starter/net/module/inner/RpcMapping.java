@@ -1,11 +1,101 @@
 package wxdgaming.boot2.starter.net.module.inner;
 
+import com.alibaba.fastjson.JSONObject;
 import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.Throw;
+import wxdgaming.boot2.core.ann.Body;
+import wxdgaming.boot2.core.ann.Param;
+import wxdgaming.boot2.core.assist.MethodInvoker;
+import wxdgaming.boot2.core.chatset.StringUtils;
+import wxdgaming.boot2.core.chatset.json.FastJsonUtil;
+import wxdgaming.boot2.starter.net.ParameterBinder;
+import wxdgaming.boot2.starter.net.SocketSession;
 import wxdgaming.boot2.starter.net.ann.RpcRequest;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
 
+/**
+ * 映射关系绑定
+ *
+ * @param invoker 生成的调用代理
+ * @param binders 参数绑定计划
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2025-02-18 09:15
+ */
 @Slf4j
-public record RpcMapping(RpcRequest rpcRequest, String path, Object ins, Method method) {
+public record RpcMapping(RpcRequest rpcRequest, String path, Object ins, Method method,
+                         MethodInvoker invoker, ParameterBinder<RpcListenerTrigger>[] binders) {
+
+    public RpcMapping(RpcRequest rpcRequest, String path, Object ins, Method method) {
+        this(rpcRequest, path, ins, method, MethodInvoker.of(method), binders(method));
+    }
+
+    @SuppressWarnings("unchecked")
+    static ParameterBinder<RpcListenerTrigger>[] binders(Method method) {
+        Parameter[] parameters = method.getParameters();
+        ParameterBinder<RpcListenerTrigger>[] binders = new ParameterBinder[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            Class<?> parameterType = parameter.getType();
+            ParameterBinder<RpcListenerTrigger> binder = ParameterBinder.application(parameter, trigger -> trigger.runApplication);
+            if (binder == null) {
+                if (SocketSession.class.isAssignableFrom(parameterType)) {
+                    binder = trigger -> trigger.socketSession;
+                } else if (JSONObject.class.isAssignableFrom(parameterType)) {
+                    binder = trigger -> trigger.paramObject;
+                }
+            }
+            if (binder == null) binder = ParameterBinder.value(parameter);
+            if (binder == null) binder = ParameterBinder.threadParam(parameter);
+            if (binder == null) binder = param(parameter);
+            if (binder == null) binder = body(parameter);
+            if (binder == null) binder = ParameterBinder.instance(parameter, trigger -> trigger.runApplication);
+            binders[i] = binder;
+        }
+        return binders;
+    }
+
+    static ParameterBinder<RpcListenerTrigger> param(Parameter parameter) {
+        Param param = parameter.getAnnotation(Param.class);
+        if (param == null) return null;
+        String name = param.path();
+        Type parameterizedType = parameter.getParameterizedType();
+        return trigger -> {
+            Object o;
+            try {
+                o = trigger.paramObject.getObject(name, parameterizedType);
+                if (o == null && StringUtils.isNotBlank(param.defaultValue())) {
+                    o = FastJsonUtil.parse(param.defaultValue(), parameterizedType);
+                }
+            } catch (Exception e) {
+                throw Throw.of("param 参数：" + name, e);
+            }
+            if (param.required() && o == null) {
+                throw new RuntimeException("param:" + name + " is null");
+            }
+            return o;
+        };
+    }
+
+    static ParameterBinder<RpcListenerTrigger> body(Parameter parameter) {
+        Body body = parameter.getAnnotation(Body.class);
+        if (body == null) return null;
+        Class<?> parameterType = parameter.getType();
+        return trigger -> {
+            Object o = null;
+            if (!trigger.paramObject.isEmpty()) {
+                o = trigger.paramObject.toJavaObject(parameterType);
+            }
+            if (o == null && StringUtils.isNotBlank(body.defaultValue())) {
+                o = FastJsonUtil.parse(body.defaultValue(), parameterType);
+            }
+            if (body.required() && o == null) {
+                throw new RuntimeException("body is null");
+            }
+            return o;
+        };
+    }
 
 }
@@ -15,6 +15,7 @@ import wxdgaming.boot2.starter.net.module.inner.message.ReqRemote;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author: wxd-gaming(無心道, 15388152619)
@@ -73,6 +74,9 @@ public class ReqRemoteHandler {
                     paramObject
             );
             rpcListenerTrigger.submit();
+        } catch (RejectedExecutionException e) {
+            /*拒绝的时候已经响应了请求方*/
+            log.warn("dispatch rejected rpcId: {}, cmd: {}, {}", rpcId, cmd, e.getMessage());
         } catch (Throwable e) {
             if (e instanceof InvocationTargetException) {
                 e = e.getCause();
@@ -1,6 +1,7 @@
 package wxdgaming.boot2.starter.net.pojo;
 
 
+import io.netty.buffer.ByteBuf;
 import wxdgaming.boot2.core.chatset.json.FastJsonUtil;
 
 /**
@@ -21,6 +22,11 @@ public class PojoBase {
         SerializerUtil.decode(bytes, this);
     }
 
+    /** 解码，直接读取 byteBuf 不拷贝，不会释放 byteBuf */
+    public void decode(ByteBuf byteBuf) {
+        SerializerUtil.decode(byteBuf, this);
+    }
+
     @Override public String toString() {
         return this.getClass().getSimpleName() + FastJsonUtil.toJson(this);
     }
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import wxdgaming.boot2.core.RunApplication;
 import wxdgaming.boot2.core.chatset.StringUtils;
+import wxdgaming.boot2.core.collection.FrozenIntMap;
 import wxdgaming.boot2.core.io.Objects;
 import wxdgaming.boot2.core.util.AnnUtil;
 import wxdgaming.boot2.starter.net.ann.ProtoRequest;
@@ -11,6 +12,7 @@ import wxdgaming.boot2.starter.net.ann.ProtoRequest;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
+import java.util.HashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -23,14 +25,29 @@ import java.util.concurrent.ConcurrentHashMap;
 @Getter
 public class ProtoListenerContent {
 
-    private final ConcurrentHashMap<Integer, ProtoMapping> mappingMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<Integer, Class<? extends PojoBase>> messageId2MappingMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<Class<? extends PojoBase>, Integer> message2MappingMap = new ConcurrentHashMap<>();
+    /** 收到消息的派发表，构建完成后只读 */
+    private final FrozenIntMap<ProtoMapping> dispatchTable;
+
+    /** 已经使用的消息id 对应的类名，检查不同的消息类计算出相同的id */
+    private static final ConcurrentHashMap<Integer, String> MESSAGE_ID_CLASS = new ConcurrentHashMap<>();
+    /** 消息id 缓存在消息类上面，每个类只在第一次使用的时候检查冲突，编码的时候不需要查表 */
+    private static final ClassValue<Integer> MESSAGE_ID = new ClassValue<>() {
+        @Override protected Integer computeValue(Class<?> type) {
+            int messageId = hashMessageId((Class<? extends PojoBase>) type);
+            String old = MESSAGE_ID_CLASS.putIfAbsent(messageId, type.getName());
+            if (old != null && !Objects.equals(old, type.getName())) {
+                throw new RuntimeException("重复注册消息id: %s %s - %s".formatted(messageId, old, type.getName()));
+            }
+            return messageId;
+        }
+    };
 
     final RunApplication runApplication;
 
     public ProtoListenerContent(RunApplication runApplication) {
         this.runApplication = runApplication;
+        /*只在构建的时候使用，派发只查 dispatchTable*/
+        HashMap<Integer, ProtoMapping> mappingMap = new HashMap<>();
         runApplication.getGuiceReflectContext()
                 .withMethodAnnotated(ProtoRequest.class)
                 .forEach(contentMethod -> {
@@ -59,32 +76,22 @@ public class ProtoListenerContent {
                     }
                     log.debug("proto listener messageId: {} handler: {}", messageId, ins.getClass());
                 });
+        dispatchTable = FrozenIntMap.of(mappingMap);
     }
 
-    public int register(Class<? extends PojoBase> pojoClass) {
-        int hashcode = StringUtils.hashcode(pojoClass.getName());
-        message2MappingMap.put(pojoClass, hashcode);
-        Class<? extends PojoBase> old = messageId2MappingMap.putIfAbsent(hashcode, pojoClass);
-        if (old != null && !Objects.equals(old.getName(), pojoClass.getName())) {
-            throw new RuntimeException("重复注册消息id: %s %s".formatted(hashcode, pojoClass));
-        }
-        return hashcode;
+    /** 查找消息的处理器 */
+    public ProtoMapping mapping(int messageId) {
+        return dispatchTable.get(messageId);
     }
 
-    public int messageId(Class<? extends PojoBase> pojoClass) {
-        Integer hashcode = message2MappingMap.get(pojoClass);
-        if (hashcode == null) {
-            return register(pojoClass);
-        }
-        return hashcode;
+    /** 消息id 由类名计算，和是否注册无关 */
+    public static int hashMessageId(Class<? extends PojoBase> pojoClass) {
+        return StringUtils.hashcode(pojoClass.getName());
     }
 
-    public Class<? extends PojoBase> message(int messageId) {
-        Class<? extends PojoBase> hashcode = messageId2MappingMap.get(messageId);
-        if (hashcode == null) {
-            throw new RuntimeException("未注册消息id: %s".formatted(messageId));
-        }
-        return hashcode;
+    /** 收发消息使用的消息id，第一次使用的时候登记，和已经登记的其他类冲突抛出异常 */
+    public static int messageId(Class<? extends PojoBase> pojoClass) {
+        return MESSAGE_ID.get(pojoClass);
     }
 
     public Class<? extends PojoBase> findPojoClass(Method method) {
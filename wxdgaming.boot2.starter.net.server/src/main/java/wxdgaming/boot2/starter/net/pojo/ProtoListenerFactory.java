@@ -1,13 +1,19 @@
 package wxdgaming.boot2.starter.net.pojo;
 
 import com.google.inject.Singleton;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import wxdgaming.boot2.core.RunApplication;
 import wxdgaming.boot2.core.ann.Init;
 import wxdgaming.boot2.core.ann.Sort;
+import wxdgaming.boot2.core.threading.Job;
+import wxdgaming.boot2.starter.net.ByteBufUtil;
 import wxdgaming.boot2.starter.net.SocketSession;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * 派发器
  *
@@ -19,8 +25,8 @@ import wxdgaming.boot2.starter.net.SocketSession;
 @Singleton
 public class ProtoListenerFactory {
 
-    /** 相当于用 read and copy write方式作为线程安全性 */
-    ProtoListenerContent protoListenerContent = null;
+    /** 相当于用 read and copy write方式作为线程安全性，重新加载的时候整体替换 */
+    volatile ProtoListenerContent protoListenerContent = null;
 
     @Init
     @Sort(6)
@@ -32,17 +38,38 @@ public class ProtoListenerFactory {
         return protoListenerContent.getRunApplication();
     }
 
+    /** 消息id 只和类名有关，直接读取类上的缓存，第一次使用的时候检查冲突 */
     public int messageId(Class<? extends PojoBase> pojoClass) {
-        return protoListenerContent.messageId(pojoClass);
+        return ProtoListenerContent.messageId(pojoClass);
     }
 
     public void dispatch(SocketSession socketSession, int messageId, byte[] data) {
-        ProtoMapping mapping = protoListenerContent.getMappingMap().get(messageId);
+        dispatch(socketSession, messageId, Unpooled.wrappedBuffer(data));
+    }
+
+    /** data 的所有权交给派发器，执行完成或者派发失败都会释放 */
+    public void dispatch(SocketSession socketSession, int messageId, ByteBuf data) {
+        ProtoListenerContent content = protoListenerContent;
+        ProtoMapping mapping = content.mapping(messageId);
         if (mapping == null) {
+            ByteBufUtil.release(data);
             throw new RuntimeException("未找到消息id: %s".formatted(messageId));
         }
-        ProtoListenerTrigger protoListenerTrigger = new ProtoListenerTrigger(mapping, protoListenerContent.getRunApplication(), socketSession, messageId, data);
-        protoListenerTrigger.submit();
+        ProtoListenerTrigger protoListenerTrigger = new ProtoListenerTrigger(mapping, content.getRunApplication(), socketSession, messageId, data);
+        try {
+            Job job = protoListenerTrigger.submit();
+            if (job.isQueueFull()) {
+                /*业务队列已满，丢弃了这条或者更早的消息，在 socket 层限流*/
+                socketSession.pauseAutoRead();
+            }
+        } catch (RejectedExecutionException rejectedExecutionException) {
+            /*拒绝的时候已经释放了 data*/
+            socketSession.pauseAutoRead();
+            log.warn("{} messageId={} {}", socketSession, messageId, rejectedExecutionException.getMessage());
+        } catch (Throwable throwable) {
+            ByteBufUtil.release(data);
+            throw throwable;
+        }
     }
 
 }
@@ -1,18 +1,13 @@
 package wxdgaming.boot2.starter.net.pojo;
 
-import com.google.inject.Injector;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
-import wxdgaming.boot2.core.BootConfig;
 import wxdgaming.boot2.core.RunApplication;
-import wxdgaming.boot2.core.ann.Qualifier;
-import wxdgaming.boot2.core.ann.Value;
-import wxdgaming.boot2.core.reflect.GuiceReflectContext;
 import wxdgaming.boot2.core.threading.Event;
+import wxdgaming.boot2.starter.net.ParameterBinder;
 import wxdgaming.boot2.starter.net.SocketSession;
 
-import java.lang.reflect.Parameter;
-import java.lang.reflect.Type;
-
 /**
  * 事件触发器
  *
@@ -23,18 +18,30 @@ import java.lang.reflect.Type;
 public class ProtoListenerTrigger extends Event {
 
     private final ProtoMapping protoMapping;
-    private final RunApplication runApplication;
-    private final SocketSession socketSession;
+    final RunApplication runApplication;
+    final SocketSession socketSession;
     private final int messageId;
-    private final byte[] bytes;
+    /** 消息体，执行完成后释放 */
+    private final ByteBuf byteBuf;
+    /** 解码后的消息 */
+    PojoBase pojoBase;
 
     public ProtoListenerTrigger(ProtoMapping protoMapping, RunApplication runApplication, SocketSession socketSession, int messageId, byte[] bytes) {
+        this(protoMapping, runApplication, socketSession, messageId, Unpooled.wrappedBuffer(bytes));
+    }
+
+    public ProtoListenerTrigger(ProtoMapping protoMapping, RunApplication runApplication, SocketSession socketSession, int messageId, ByteBuf byteBuf) {
         super(protoMapping.method());
         this.protoMapping = protoMapping;
         this.runApplication = runApplication;
         this.socketSession = socketSession;
         this.messageId = messageId;
-        this.bytes = bytes;
+        this.byteBuf = byteBuf;
+    }
+
+    /** 队列已满没有执行，释放消息体 */
+    @Override public void onRejected() {
+        byteBuf.release();
     }
 
     @Override public void onEvent() throws Exception {
@@ -42,56 +49,16 @@ public class ProtoListenerTrigger extends Event {
             if (log.isDebugEnabled()) {
                 log.debug("收到消息：{} {} {}", socketSession, messageId, protoMapping.pojoClass().getSimpleName());
             }
-            PojoBase pojoBase = protoMapping.pojoClass().getDeclaredConstructor().newInstance();
-            pojoBase.decode(bytes);
-            protoMapping.method().invoke(protoMapping.ins(), injectorParameters(runApplication, socketSession, pojoBase));
-        } catch (Throwable e) {
-            log.error("{} messageId={}, {}", socketSession, messageId, protoMapping.pojoClass().getSimpleName(), e);
-        }
-    }
-
-    public Object[] injectorParameters(RunApplication runApplication, SocketSession socketSession, PojoBase pojoBase) {
-        Parameter[] parameters = protoMapping.method().getParameters();
-        Object[] params = new Object[parameters.length];
-        for (int i = 0; i < params.length; i++) {
-            Parameter parameter = parameters[i];
-            Class<?> parameterType = parameter.getType();
-            Type parameterizedType = parameter.getParameterizedType();
-            if (GuiceReflectContext.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(runApplication.getGuiceReflectContext());
-                continue;
-            } else if (RunApplication.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(runApplication);
-                continue;
-            } else if (Injector.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(runApplication.getInjector());
-                continue;
-            } else if (SocketSession.class.isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(socketSession);
-                continue;
-            } else if (pojoBase.getClass().isAssignableFrom(parameterType)) {
-                params[i] = parameterType.cast(pojoBase);
-                continue;
-            }
-            /*实现注入*/
-            {
-                Value value = parameter.getAnnotation(Value.class);
-                if (value != null) {
-                    Object valued = BootConfig.getIns().value(value, parameterizedType);
-                    params[i] = parameterType.cast(valued);
-                    continue;
-                }
-            }
-
             try {
-                params[i] = runApplication.getInstance(parameterType);
-            } catch (Exception e) {
-                Qualifier qualifier = parameter.getAnnotation(Qualifier.class);
-                if (qualifier != null && qualifier.required()) {
-                    throw new RuntimeException("bean:" + parameterType.getName() + " is not bind");
-                }
+                pojoBase = protoMapping.newPojo();
+                pojoBase.decode(byteBuf);
+            } finally {
+                /*切片和原始缓冲区共用引用计数，只能释放一次*/
+                byteBuf.release();
             }
+            protoMapping.invoker().invoke(protoMapping.ins(), ParameterBinder.bind(protoMapping.binders(), this));
+        } catch (Throwable e) {
+            log.error("{} messageId={}, {}", socketSession, messageId, protoMapping.pojoClass().getSimpleName(), e);
         }
-        return params;
     }
 }
@@ -1,16 +1,74 @@
 package wxdgaming.boot2.starter.net.pojo;
 
 import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.assist.MethodInvoker;
+import wxdgaming.boot2.starter.net.ParameterBinder;
+import wxdgaming.boot2.starter.net.SocketSession;
 import wxdgaming.boot2.starter.net.ann.ProtoRequest;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 
+/**
+ * 映射关系绑定
+ *
+ * @param invoker         生成的调用代理
+ * @param binders         参数绑定计划
+ * @param pojoConstructor 消息的无参构造
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2025-02-18 08:45
+ */
 @Slf4j
 public record ProtoMapping(
         ProtoRequest protoRequest,
         int messageId,
         Class<? extends PojoBase> pojoClass,
         Object ins,
-        Method method) {
+        Method method,
+        MethodInvoker invoker,
+        ParameterBinder<ProtoListenerTrigger>[] binders,
+        Constructor<? extends PojoBase> pojoConstructor) {
+
+    public ProtoMapping(ProtoRequest protoRequest, int messageId, Class<? extends PojoBase> pojoClass, Object ins, Method method) {
+        this(protoRequest, messageId, pojoClass, ins, method, MethodInvoker.of(method), binders(pojoClass, method), pojoConstructor(pojoClass));
+    }
+
+    /** 创建消息对象 */
+    public PojoBase newPojo() throws Exception {
+        return pojoConstructor.newInstance();
+    }
+
+    static Constructor<? extends PojoBase> pojoConstructor(Class<? extends PojoBase> pojoClass) {
+        try {
+            Constructor<? extends PojoBase> constructor = pojoClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("消息类缺少无参构造: %s".formatted(pojoClass), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static ParameterBinder<ProtoListenerTrigger>[] binders(Class<? extends PojoBase> pojoClass, Method method) {
+        Parameter[] parameters = method.getParameters();
+        ParameterBinder<ProtoListenerTrigger>[] binders = new ParameterBinder[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            Class<?> parameterType = parameter.getType();
+            ParameterBinder<ProtoListenerTrigger> binder = ParameterBinder.application(parameter, trigger -> trigger.runApplication);
+            if (binder == null) {
+                if (SocketSession.class.isAssignableFrom(parameterType)) {
+                    binder = trigger -> trigger.socketSession;
+                } else if (pojoClass.isAssignableFrom(parameterType)) {
+                    binder = trigger -> trigger.pojoBase;
+                }
+            }
+            if (binder == null) binder = ParameterBinder.value(parameter);
+            if (binder == null) binder = ParameterBinder.instance(parameter, trigger -> trigger.runApplication);
+            binders[i] = binder;
+        }
+        return binders;
+    }
 
 }
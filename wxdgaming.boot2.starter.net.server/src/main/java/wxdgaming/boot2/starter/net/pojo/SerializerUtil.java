@@ -1,6 +1,9 @@
 package wxdgaming.boot2.starter.net.pojo;
 
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.protostuff.LinkedBuffer;
 import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.Schema;
@@ -16,6 +19,13 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SerializerUtil {
 
+    /** 线程复用的缓冲区，使用完成后必须 clear */
+    private static final ThreadLocal<LinkedBuffer> LINKED_BUFFER = ThreadLocal.withInitial(() -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
+
+    /** 获取当前线程复用的缓冲区 */
+    public static LinkedBuffer linkedBuffer() {
+        return LINKED_BUFFER.get().clear();
+    }
 
     /**
      * 编码数据
@@ -43,8 +53,34 @@ public class SerializerUtil {
      */
     public static <T> byte[] encode(T object, Class<T> clazz) {
         Schema<T> schema = RuntimeSchema.getSchema(clazz);
-        LinkedBuffer buffer = LinkedBuffer.allocate();
-        return ProtostuffIOUtil.toByteArray(object, schema, buffer);
+        LinkedBuffer buffer = linkedBuffer();
+        try {
+            return ProtostuffIOUtil.toByteArray(object, schema, buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * 编码数据直接写入 {@link ByteBuf}，不生成中间的 byte[]
+     *
+     * @param object  数据对象
+     * @param byteBuf 写入的缓冲区，从 writerIndex 开始写入
+     * @return 写入的字节数
+     */
+    public static <T> int encode(T object, ByteBuf byteBuf) {
+        Class<T> clazz = (Class<T>) object.getClass();
+        Schema<T> schema = RuntimeSchema.getSchema(clazz);
+        LinkedBuffer buffer = linkedBuffer();
+        int writerIndex = byteBuf.writerIndex();
+        try (ByteBufOutputStream outputStream = new ByteBufOutputStream(byteBuf)) {
+            ProtostuffIOUtil.writeTo(outputStream, object, schema, buffer);
+        } catch (Exception e) {
+            throw new RuntimeException("Protostuff序列化失败,Class:" + clazz.getName(), e);
+        } finally {
+            buffer.clear();
+        }
+        return byteBuf.writerIndex() - writerIndex;
     }
 
 
@@ -78,4 +114,37 @@ public class SerializerUtil {
         ProtostuffIOUtil.mergeFrom(bytes, object, schema);
         return object;
     }
+
+    /**
+     * 直接从 {@link ByteBuf} 解码，不拷贝到 byte[]
+     * <p>
+     * 堆内存直接读取底层数组，直接内存通过线程复用的 {@link LinkedBuffer} 分段读取；不会释放 byteBuf
+     *
+     * @param byteBuf 消息体，读取完成后 readerIndex 不变
+     * @param object  解码对象
+     */
+    public static <T> T decode(ByteBuf byteBuf, T object) {
+        Class<T> clazz = (Class<T>) object.getClass();
+        Schema<T> schema = RuntimeSchema.getSchema(clazz);
+        if (byteBuf.hasArray()) {
+            ProtostuffIOUtil.mergeFrom(
+                    byteBuf.array(),
+                    byteBuf.arrayOffset() + byteBuf.readerIndex(),
+                    byteBuf.readableBytes(),
+                    object,
+                    schema
+            );
+        } else {
+            LinkedBuffer buffer = linkedBuffer();
+            try (ByteBufInputStream inputStream = new ByteBufInputStream(byteBuf.duplicate())) {
+                ProtostuffIOUtil.mergeFrom(inputStream, object, schema, buffer);
+            } catch (Exception e) {
+                throw new RuntimeException("Protostuff反序列化失败,Class:" + clazz.getName(), e);
+            } finally {
+                buffer.clear();
+            }
+        }
+        return object;
+    }
+
 }
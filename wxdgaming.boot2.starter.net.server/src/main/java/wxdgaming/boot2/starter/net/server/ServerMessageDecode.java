@@ -46,6 +46,7 @@ public class ServerMessageDecode extends MessageDecode {
             socketSession.setMaxFrameBytes(BytesUnit.Mb.toBytes(config.getMaxFrameBytes()));
         }
         socketSession.setMaxFrameLength(config.getMaxFrameLength());
+        socketSession.setBackpressurePauseMillis(config.getBackpressurePauseMillis());
     }
 
     @Override protected void actionWebSocketFrame(ChannelHandlerContext ctx, WebSocketFrame frame) {
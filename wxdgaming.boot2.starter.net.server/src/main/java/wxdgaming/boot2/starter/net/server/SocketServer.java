@@ -93,7 +93,7 @@ public class SocketServer {
                             /*设置读取空闲*/
                             pipeline.addLast("idleHandler", config.idleStateHandler());
                             /* socket 选择器 区分是tcp websocket http*/
-                            pipeline.addLast("socket-choose-handler", new SocketServerChooseHandler(config));
+                            pipeline.addLast("socket-choose-handler", new SocketServerChooseHandler(config, httpListenerFactory));
                             /*处理链接*/
                             pipeline.addLast("device-handler", socketServerDeviceHandler);
                             /*解码消息*/
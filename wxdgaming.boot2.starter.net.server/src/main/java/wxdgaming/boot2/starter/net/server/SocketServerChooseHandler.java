@@ -12,6 +12,8 @@ import io.netty.handler.stream.ChunkedWriteHandler;
 import lombok.extern.slf4j.Slf4j;
 import wxdgaming.boot2.core.util.BytesUnit;
 import wxdgaming.boot2.starter.net.ChannelUtil;
+import wxdgaming.boot2.starter.net.server.http.HttpListenerFactory;
+import wxdgaming.boot2.starter.net.server.http.HttpStreamingHandler;
 
 import java.util.List;
 import java.util.Set;
@@ -41,9 +43,11 @@ public class SocketServerChooseHandler extends ByteToMessageDecoder {
     );
 
     final SocketServerConfig socketServerConfig;
+    final HttpListenerFactory httpListenerFactory;
 
-    public SocketServerChooseHandler(SocketServerConfig socketServerConfig) {
+    public SocketServerChooseHandler(SocketServerConfig socketServerConfig, HttpListenerFactory httpListenerFactory) {
         this.socketServerConfig = socketServerConfig;
+        this.httpListenerFactory = httpListenerFactory;
     }
 
     @Override
@@ -72,8 +76,17 @@ public class SocketServerChooseHandler extends ByteToMessageDecoder {
         int maxContentLength = (int) BytesUnit.Mb.toBytes(socketServerConfig.getMaxAggregatorLength());
         // HttpServerCodec：将请求和应答消息解码为HTTP消息
         ctx.pipeline().addBefore("device-handler", "http-codec", new HttpServerCodec());
+        /*http 使用单独的空闲检查，升级成 websocket 的时候恢复*/
+        if (ctx.pipeline().get("idleHandler") != null) {
+            ctx.pipeline().remove("idleHandler");
+        }
+        ctx.pipeline().addBefore("device-handler", "http-connection", socketServerConfig.httpConnectionHandler());
         // 添加HTTP内容解压缩器，用于处理Gzip压缩的请求
         ctx.pipeline().addBefore("device-handler", "Http-Content-Decompressor", new HttpContentDecompressor());
+        if (socketServerConfig.isEnabledHttp()) {
+            /*流式接收的路由不经过聚合*/
+            ctx.pipeline().addBefore("device-handler", "http-streaming", new HttpStreamingHandler(httpListenerFactory));
+        }
         /*接受完整的http消息 64mb*/
         ctx.pipeline().addBefore("device-handler", "http-object-aggregator", new HttpObjectAggregator(maxContentLength));
         // ChunkedWriteHandler：向客户端发送HTML5文件,文件过大会将内存撑爆
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.Setter;
 import wxdgaming.boot2.core.chatset.StringUtils;
 import wxdgaming.boot2.core.lang.ObjectBase;
+import wxdgaming.boot2.starter.net.server.http.HttpConnectionHandler;
 import wxdgaming.boot2.starter.net.ssl.SslContextByJks;
 import wxdgaming.boot2.starter.net.ssl.SslProtocolType;
 
@@ -50,6 +51,9 @@ public class SocketServerConfig extends ObjectBase {
     /** 完整消息一次最大传输，单位mb */
     @JSONField(ordinal = 22)
     private int maxAggregatorLength = 64;
+    /** 业务队列已满时暂停读取连接的时间，单位毫秒，小于等于 0 不暂停 */
+    @JSONField(ordinal = 23)
+    private int backpressurePauseMillis = 100;
     @JSONField(ordinal = 30)
     private int readTimeout = 0;
     @JSONField(ordinal = 31)
@@ -62,6 +66,23 @@ public class SocketServerConfig extends ObjectBase {
     /** 发送缓冲区大小，单位 mb */
     @JSONField(ordinal = 41)
     private int writeByteBufM = 12;
+    /** http 连接没有请求的时候保持的秒数，和 tcp 的空闲检查分开，小于等于 0 不断开 */
+    @JSONField(ordinal = 50)
+    private int httpKeepAliveSeconds = 60;
+    /** http 请求读完之后开始响应的超时秒数，超过之后断开连接，小于等于 0 不检查 */
+    @JSONField(ordinal = 53)
+    private int httpResponseTimeoutSeconds = 60;
+    /** 单个 http 连接处理的请求上限，达到之后断开，小于等于 0 不限制 */
+    @JSONField(ordinal = 51)
+    private int httpMaxRequests = 10000;
+    /** 单个 http 连接排队等待处理的管道化请求上限，达到之后暂停读取 */
+    @JSONField(ordinal = 52)
+    private int httpMaxPipelined = 16;
+
+    /** http 连接管理 */
+    public HttpConnectionHandler httpConnectionHandler() {
+        return new HttpConnectionHandler(getHttpKeepAliveSeconds(), getHttpResponseTimeoutSeconds(), getHttpMaxRequests(), getHttpMaxPipelined(), this::idleStateHandler);
+    }
 
     public IdleStateHandler idleStateHandler() {
         return new IdleStateHandler(getReadTimeout(), getWriteTimeout(), getIdleTimeout(), TimeUnit.SECONDS);
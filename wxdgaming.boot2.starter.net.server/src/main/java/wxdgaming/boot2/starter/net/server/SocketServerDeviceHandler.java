@@ -37,6 +37,7 @@ public class SocketServerDeviceHandler extends SocketDeviceHandler {
         );
         socketSession.setMaxFrameBytes(socketServerConfig.getMaxFrameBytes());
         socketSession.setMaxFrameLength(socketServerConfig.getMaxFrameLength());
+        socketSession.setBackpressurePauseMillis(socketServerConfig.getBackpressurePauseMillis());
     }
 
 }
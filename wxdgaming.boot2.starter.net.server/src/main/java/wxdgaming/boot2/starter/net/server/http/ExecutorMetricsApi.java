@@ -0,0 +1,36 @@
+package wxdgaming.boot2.starter.net.server.http;
+
+import com.google.inject.Singleton;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import wxdgaming.boot2.core.ann.Param;
+import wxdgaming.boot2.core.threading.ExecutorMetrics;
+import wxdgaming.boot2.starter.net.ann.HttpRequest;
+import wxdgaming.boot2.starter.net.ann.RequestMapping;
+
+/**
+ * 线程池统计查询接口
+ * <p>
+ * 需要配置 http.server.executorMetrics: true 才会开放，耗时单位微秒
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 20:50
+ **/
+@Singleton
+@RequestMapping(path = "/executor")
+public class ExecutorMetricsApi {
+
+    /**
+     * 全部线程池的统计
+     *
+     * @param queue 是否包含子队列的统计
+     */
+    @HttpRequest
+    public Object metrics(HttpContext httpContext, @Param(path = "queue", defaultValue = "true") boolean queue) {
+        if (!httpContext.getHttpServerConfig().isExecutorMetrics()) {
+            httpContext.getResponse().setStatus(HttpResponseStatus.NOT_FOUND);
+            return "not found";
+        }
+        return ExecutorMetrics.snapshots(queue);
+    }
+
+}
@@ -0,0 +1,170 @@
+package wxdgaming.boot2.starter.net.server.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * http 分块输出，由 {@link HttpContext.Response#responseChunked(boolean)} 创建
+ * <p>内容按块大小缓冲之后写出，不需要把完整内容放在内存里；开启 gzip 的时候边压缩边输出
+ * <p>客户端读取太慢导致连接不可写的时候，等待已经写出的内容发送完成再继续，超过 {@link #writeTimeoutMs} 断开连接
+ * <p>在 netty 线程调用的时候不等待，避免阻塞 io 线程
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 07:00
+ **/
+@Slf4j
+@Getter
+public class HttpChunkedWriter extends OutputStream {
+
+    /** 默认块大小 */
+    public static final int CHUNK_SIZE = 8 * 1024;
+
+    private final ChannelHandlerContext ctx;
+    private final boolean keepAlive;
+    private final boolean gzip;
+    private final byte[] buffer;
+    private int count = 0;
+    private final OutputStream out;
+    /** 连接不可写的时候等待客户端读取的毫秒数 */
+    @Setter private long writeTimeoutMs = 30_000;
+    private ChannelFuture lastFuture = null;
+    private volatile boolean closed = false;
+
+    HttpChunkedWriter(ChannelHandlerContext ctx, boolean keepAlive, boolean gzip, int chunkSize) throws IOException {
+        this.ctx = ctx;
+        this.keepAlive = keepAlive;
+        this.gzip = gzip;
+        this.buffer = new byte[chunkSize];
+        ChunkOutput chunkOutput = new ChunkOutput();
+        /*syncFlush 保证 flush 的时候已经写入的内容能够被客户端解压*/
+        this.out = gzip ? new GZIPOutputStream(chunkOutput, chunkSize, true) : chunkOutput;
+    }
+
+    @Override public synchronized void write(int b) throws IOException {
+        checkOpen();
+        out.write(b);
+    }
+
+    @Override public synchronized void write(byte[] b, int off, int len) throws IOException {
+        checkOpen();
+        out.write(b, off, len);
+    }
+
+    /** 写入 utf-8 字符串 */
+    public synchronized HttpChunkedWriter write(String str) throws IOException {
+        write(str.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    /** 把已经缓冲的内容作为一个分块立即发送 */
+    @Override public synchronized void flush() throws IOException {
+        checkOpen();
+        out.flush();
+    }
+
+    /** 发送剩余的内容和结束块 */
+    @Override public synchronized void close() throws IOException {
+        if (closed) return;
+        try {
+            out.close();
+        } finally {
+            closed = true;
+        }
+    }
+
+    /** 中途出错，直接断开连接，客户端可以知道内容不完整 */
+    public synchronized void abort() {
+        if (closed) return;
+        closed = true;
+        ctx.close();
+    }
+
+    /** 连接还在并且没有结束 */
+    public boolean isOpen() {
+        return !closed && ctx.channel().isActive();
+    }
+
+    void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("分块输出已经结束");
+        }
+        if (!ctx.channel().isActive()) {
+            closed = true;
+            throw new IOException("连接已经断开 " + ctx.channel());
+        }
+    }
+
+    void writeChunk() throws IOException {
+        if (count == 0) return;
+        DefaultHttpContent content = new DefaultHttpContent(Unpooled.copiedBuffer(buffer, 0, count));
+        count = 0;
+        lastFuture = ctx.writeAndFlush(content);
+        awaitWritable();
+    }
+
+    void writeLast() {
+        ChannelFuture future = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        if (!keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /** 连接不可写的时候等待最后一块写完，这时候 netty 的发送缓冲区已经清空 */
+    void awaitWritable() throws IOException {
+        if (ctx.channel().isWritable() || ctx.executor().inEventLoop()) return;
+        if (!lastFuture.awaitUninterruptibly(writeTimeoutMs)) {
+            closed = true;
+            ctx.close();
+            throw new IOException("客户端读取太慢，等待超过 " + writeTimeoutMs + " ms " + ctx.channel());
+        }
+        if (!lastFuture.isSuccess()) {
+            closed = true;
+            throw new IOException("分块写入失败 " + ctx.channel(), lastFuture.cause());
+        }
+    }
+
+    /** 按块大小缓冲，满了写出一个分块 */
+    class ChunkOutput extends OutputStream {
+
+        @Override public void write(int b) throws IOException {
+            buffer[count++] = (byte) b;
+            if (count == buffer.length) writeChunk();
+        }
+
+        @Override public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int size = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, size);
+                count += size;
+                off += size;
+                len -= size;
+                if (count == buffer.length) writeChunk();
+            }
+        }
+
+        @Override public void flush() throws IOException {
+            writeChunk();
+        }
+
+        @Override public void close() throws IOException {
+            if (ctx.channel().isActive()) {
+                writeChunk();
+                writeLast();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,253 @@
+package wxdgaming.boot2.starter.net.server.http;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.*;
+import io.netty.util.AsciiString;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.starter.net.ChannelUtil;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * http 连接管理，放在 {@link HttpServerCodec} 后面，每个连接一个实例
+ * <p>同一个连接的请求按顺序一个一个处理，保证管道化请求的响应顺序；处理中收到的请求先排队，
+ * 排队数量达到上限暂停读取
+ * <p>单个连接处理的请求数量达到上限之后，最后一个请求按 Connection: close 响应然后断开，让负载均衡重新分配连接
+ * <p>没有请求在处理并且空闲超过 keep-alive 时间的连接断开，推送中的长连接不受影响；
+ * 升级成 websocket 之后恢复游戏连接的空闲检查
+ * <p>请求读完之后超过响应超时还没有开始响应的连接断开，避免卡住的业务让连接一直占着
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 09:00
+ **/
+@Slf4j
+@Getter
+public class HttpConnectionHandler extends ChannelDuplexHandler {
+
+    /** Keep-Alive 响应头，netty 的 HttpHeaderNames.KEEP_ALIVE 已经废弃 */
+    public static final AsciiString KEEP_ALIVE = AsciiString.cached("keep-alive");
+
+    /** 空闲断开的秒数，小于等于 0 不检查 */
+    private final int keepAliveSeconds;
+    /** 请求读完到开始响应的超时秒数，小于等于 0 不检查 */
+    private final int responseTimeoutSeconds;
+    /** 单个连接处理的请求上限，小于等于 0 不限制 */
+    private final int maxRequests;
+    /** 排队的请求上限，达到之后暂停读取 */
+    private final int maxPipelined;
+    /** 升级成 websocket 之后的空闲检查，null 表示不需要 */
+    private final Supplier<ChannelHandler> webSocketIdleHandler;
+
+    /** 已经开始处理的请求数量 */
+    private int requests = 0;
+    /** 当前有请求在处理 */
+    private boolean processing = false;
+    /** 当前请求已经开始响应 */
+    private boolean responding = false;
+    /** 当前请求的内容还没有读完，后续的分块直接交给聚合器 */
+    private boolean reading = false;
+    /** 处理中收到的消息 */
+    private final ArrayDeque<Object> pending = new ArrayDeque<>();
+    private int pendingRequests = 0;
+    /** 当前请求处理完成之后断开 */
+    private boolean closeAfterResponse = false;
+    /** 当前写出的是 100-continue 这种中间响应 */
+    private boolean informational = false;
+    private long lastActivity = System.nanoTime();
+    private ScheduledFuture<?> idleFuture = null;
+
+    public HttpConnectionHandler(int keepAliveSeconds, int responseTimeoutSeconds, int maxRequests, int maxPipelined, Supplier<ChannelHandler> webSocketIdleHandler) {
+        this.keepAliveSeconds = keepAliveSeconds;
+        this.responseTimeoutSeconds = responseTimeoutSeconds;
+        this.maxRequests = maxRequests;
+        this.maxPipelined = Math.max(1, maxPipelined);
+        this.webSocketIdleHandler = webSocketIdleHandler;
+    }
+
+    @Override public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        super.handlerAdded(ctx);
+        scheduleIdle(ctx, checkNanos());
+    }
+
+    @Override public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest request && "websocket".equalsIgnoreCase(request.headers().get(HttpHeaderNames.UPGRADE))) {
+            if (!processing && pending.isEmpty()) {
+                /*websocket 是游戏连接，不再按 http 管理*/
+                if (webSocketIdleHandler != null) {
+                    ctx.pipeline().addBefore(ctx.name(), "idleHandler", webSocketIdleHandler.get());
+                }
+                ctx.pipeline().remove(this);
+                ctx.fireChannelRead(msg);
+                return;
+            }
+        }
+        if (reading && !(msg instanceof HttpRequest)) {
+            /*当前请求自己的内容分块，不能排队*/
+            deliver(ctx, msg);
+            return;
+        }
+        if (processing || !pending.isEmpty()) {
+            pending.add(msg);
+            if (msg instanceof HttpRequest) {
+                pendingRequests++;
+                if (pendingRequests >= maxPipelined) {
+                    ctx.channel().config().setAutoRead(false);
+                }
+            }
+            return;
+        }
+        deliver(ctx, msg);
+    }
+
+    void deliver(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof HttpRequest request) {
+            processing = true;
+            responding = false;
+            requests++;
+            lastActivity = System.nanoTime();
+            if (maxRequests > 0 && requests >= maxRequests) {
+                /*最后一个请求，响应之后断开*/
+                closeAfterResponse = true;
+                HttpUtil.setKeepAlive(request, false);
+            } else if (!HttpUtil.isKeepAlive(request)) {
+                closeAfterResponse = true;
+            }
+            reading = true;
+        }
+        if (msg instanceof HttpContent) {
+            /*响应超时从请求内容读完开始计算，上传慢不算*/
+            lastActivity = System.nanoTime();
+        }
+        if (msg instanceof LastHttpContent) {
+            reading = false;
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof HttpResponse response) {
+            int code = response.status().code();
+            informational = code < 200 && code != HttpResponseStatus.SWITCHING_PROTOCOLS.code();
+            if (!informational) {
+                responding = true;
+                if (closeAfterResponse || !HttpUtil.isKeepAlive(response)) {
+                    closeAfterResponse = true;
+                    HttpUtil.setKeepAlive(response, false);
+                } else if (keepAliveSeconds > 0) {
+                    String keepAlive = "timeout=" + keepAliveSeconds;
+                    if (maxRequests > 0) keepAlive += ", max=" + (maxRequests - requests);
+                    response.headers().set(KEEP_ALIVE, keepAlive);
+                }
+            }
+        }
+        if (msg instanceof LastHttpContent && !informational) {
+            if (closeAfterResponse) {
+                promise = promise.unvoid();
+                promise.addListener(ChannelFutureListener.CLOSE);
+            }
+            ctx.write(msg, promise);
+            complete(ctx);
+            return;
+        }
+        ctx.write(msg, promise);
+    }
+
+    /** 当前请求响应完成，开始处理排队的请求 */
+    void complete(ChannelHandlerContext ctx) {
+        if (!processing) return;
+        processing = false;
+        lastActivity = System.nanoTime();
+        if (closeAfterResponse) {
+            releasePending();
+            return;
+        }
+        while (!pending.isEmpty()) {
+            Object msg = pending.peek();
+            if (msg instanceof HttpRequest && processing) break;
+            pending.poll();
+            if (msg instanceof HttpRequest) {
+                pendingRequests--;
+            }
+            deliver(ctx, msg);
+        }
+        if (pendingRequests < maxPipelined && !ctx.channel().config().isAutoRead()) {
+            ctx.channel().config().setAutoRead(true);
+            ctx.read();
+        }
+    }
+
+    /** 检查间隔，取空闲时间和响应超时里面短的 */
+    long checkNanos() {
+        long nanos = Long.MAX_VALUE;
+        if (keepAliveSeconds > 0) nanos = TimeUnit.SECONDS.toNanos(keepAliveSeconds);
+        if (responseTimeoutSeconds > 0) nanos = Math.min(nanos, TimeUnit.SECONDS.toNanos(responseTimeoutSeconds));
+        return nanos;
+    }
+
+    void scheduleIdle(ChannelHandlerContext ctx, long delayNanos) {
+        if ((keepAliveSeconds <= 0 && responseTimeoutSeconds <= 0) || !ctx.channel().isOpen()) return;
+        idleFuture = ctx.executor().schedule(() -> checkIdle(ctx), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void checkIdle(ChannelHandlerContext ctx) {
+        long idle = System.nanoTime() - lastActivity;
+        long delayNanos = checkNanos();
+        if (processing) {
+            /*已经开始响应的不再计时，推送中的长连接不受影响*/
+            if (responseTimeoutSeconds > 0 && !responding && !reading) {
+                long timeoutNanos = TimeUnit.SECONDS.toNanos(responseTimeoutSeconds);
+                if (idle >= timeoutNanos) {
+                    log.warn("{} http 请求超过 {} 秒没有响应，断开", ChannelUtil.ctxTostring(ctx), responseTimeoutSeconds);
+                    ctx.close();
+                    return;
+                }
+                delayNanos = timeoutNanos - idle;
+            }
+        } else if (keepAliveSeconds > 0 && pending.isEmpty()) {
+            long timeoutNanos = TimeUnit.SECONDS.toNanos(keepAliveSeconds);
+            if (idle >= timeoutNanos) {
+                if (log.isDebugEnabled()) {
+                    log.debug("{} http 连接空闲超过 {} 秒，断开", ChannelUtil.ctxTostring(ctx), keepAliveSeconds);
+                }
+                ctx.close();
+                return;
+            }
+            delayNanos = timeoutNanos - idle;
+        }
+        scheduleIdle(ctx, delayNanos);
+    }
+
+    void releasePending() {
+        Object msg;
+        while ((msg = pending.poll()) != null) {
+            ReferenceCountUtil.release(msg);
+        }
+        pendingRequests = 0;
+    }
+
+    @Override public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        if (idleFuture != null) {
+            idleFuture.cancel(false);
+        }
+        releasePending();
+        super.handlerRemoved(ctx);
+    }
+
+    @Override public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (idleFuture != null) {
+            idleFuture.cancel(false);
+        }
+        releasePending();
+        super.channelInactive(ctx);
+    }
+
+}
@@ -6,12 +6,18 @@ import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.codec.http.multipart.*;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedFile;
+import io.netty.handler.stream.ChunkedStream;
 import io.netty.util.AsciiString;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.Throw;
 import wxdgaming.boot2.core.chatset.StringUtils;
 import wxdgaming.boot2.core.chatset.json.FastJsonUtil;
 import wxdgaming.boot2.core.collection.MapOf;
@@ -26,6 +32,9 @@ import wxdgaming.boot2.starter.net.http.HttpHeadValueType;
 import wxdgaming.boot2.starter.net.ssl.WxdOptionalSslHandler;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
@@ -60,12 +69,34 @@ public class HttpContext implements AutoCloseable {
 
 
     public HttpContext(HttpServerConfig httpServerConfig, ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest) throws Exception {
+        this(httpServerConfig, ctx, fullHttpRequest, null);
+    }
+
+    /**
+     * @param streamBody 流式接收的请求体，普通请求是 null
+     */
+    public HttpContext(HttpServerConfig httpServerConfig, ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest, HttpStreamBody streamBody) throws Exception {
         this.httpServerConfig = httpServerConfig;
         this.ctx = ctx;
-        this.request = new Request(fullHttpRequest);
+        this.request = new Request(fullHttpRequest, streamBody);
         this.response = new Response();
     }
 
+    /** 请求路径，去掉结尾的 /，根路径是 /index.html */
+    public static String uriPath(URI uri) {
+        String uriPathString = HttpDataAction.rawUrlDecode(uri.getPath());
+        if (uriPathString.length() > 1) {
+            if (uriPathString.endsWith("/")) {
+                uriPathString = uriPathString.substring(0, uriPathString.length() - 1);
+            }
+        }
+
+        if (StringUtils.isBlank(uriPathString) || "/".equalsIgnoreCase(uriPathString)) {
+            uriPathString = "/index.html";
+        }
+        return uriPathString;
+    }
+
     public StringBuilder showLog() {
         if (showLogStringBuilder == null) {
             showLogStringBuilder = new StringBuilder();
@@ -105,14 +136,21 @@ public class HttpContext implements AutoCloseable {
         return remoteAddress;
     }
 
+    /**
+     * 请求
+     * <p>参数和请求体在第一次访问 {@link #getReqContent()} {@link #getReqParams()} {@link #getUploadFileMap()} 的时候才解析，
+     * 不读取参数的接口没有解析开销
+     */
     @Getter
     public class Request implements AutoCloseable {
         private final FullHttpRequest fullHttpRequest;
+        /** 流式接收的请求体，普通请求是 null */
+        private final HttpStreamBody streamBody;
 
         private String reqContentType;
         private boolean content_gzip = false;
-        /** 完整content参数 */
-        private String reqContent = "";
+        /** 完整content参数，第一次访问的时候解析 */
+        private String reqContent;
         private final CookiePack reqCookies = new CookiePack();
         private HttpPostMultipartRequestDecoder httpDecoder;
         /** post或者get完整参数 */
@@ -126,9 +164,17 @@ public class HttpContext implements AutoCloseable {
         private String uriPath;
         /** 完整的url */
         private String completeUri;
+        /** 路由变量 */
+        @Setter
+        private Map<String, String> pathVars = Map.of();
 
         public Request(FullHttpRequest fullHttpRequest) throws Exception {
+            this(fullHttpRequest, null);
+        }
+
+        public Request(FullHttpRequest fullHttpRequest, HttpStreamBody streamBody) throws Exception {
             this.fullHttpRequest = fullHttpRequest;
+            this.streamBody = streamBody;
             this.init();
         }
 
@@ -139,6 +185,9 @@ public class HttpContext implements AutoCloseable {
                     httpDecoder.destroy();
                 }
             } catch (Exception ignored) {}
+            if (streamBody != null) {
+                streamBody.close();
+            }
             try {
                 fullHttpRequest.content().release();
             } catch (Exception e) {
@@ -166,36 +215,20 @@ public class HttpContext implements AutoCloseable {
             String host = this.header(HttpHeaderNames.HOST);
             String uriString = this.getFullHttpRequest().uri();
             URI uriPath = new URI(uriString);
-            String uriPathString = uriPath.getPath();
-            uriPathString = HttpDataAction.rawUrlDecode(uriPathString);
-            if (uriPathString.length() > 1) {
-                if (uriPathString.endsWith("/")) {
-                    uriPathString = uriPathString.substring(0, uriPathString.length() - 1);
-                }
-            }
-
-            if (StringUtils.isBlank(uriPathString) || "/".equalsIgnoreCase(uriPathString)) {
-                uriPathString = "/index.html";
-            }
+            String uriPathString = uriPath(uriPath);
 
             this.uri = uriPath;
             String http = ssl() ? "https" : "http";
             this.uriPath = uriPathString;
             this.domainName = http + "://" + host;
             this.completeUri = this.domainName + uriPathString;
-            actionGetData();
-            actionPostData();
         }
 
         protected void actionGetData() throws Exception {
             if (this.getUri() != null) {
                 String queryString = this.getUri().getQuery();
                 if (StringUtils.isNotBlank(queryString)) {
-                    if (!this.reqContent.isEmpty()) {
-                        this.reqContent += "&";
-                    }
-                    this.reqContent += queryString;
-                    HttpDataAction.httpDataDecoder(getReqParams(), this.reqContent);
+                    HttpDataAction.httpDataDecoder(getReqParams(), queryString);
                 }
             }
         }
@@ -205,7 +238,10 @@ public class HttpContext implements AutoCloseable {
          * @throws Exception
          */
         protected void actionPostData() throws Exception {
-            if (isMultipart()) {
+            if (streamBody != null) {
+                streamBody.collect(this.getReqParams(), this.getUploadFileMap());
+                this.reqContent = HttpDataAction.httpData(this.getReqParams());
+            } else if (isMultipart()) {
                 httpDecoder = new HttpPostMultipartRequestDecoder(factory, fullHttpRequest, StandardCharsets.UTF_8);
                 httpDecoder.setDiscardThreshold(0);
                 httpDecoder.offer(fullHttpRequest);
@@ -239,12 +275,10 @@ public class HttpContext implements AutoCloseable {
                 }
                 this.reqContent = HttpDataAction.httpData(this.getReqParams());
             } else {
-                byte[] bytes = ByteBufUtil.getBytes(fullHttpRequest.content());
-                this.reqContent = new String(bytes, StandardCharsets.UTF_8);
-                this.reqContent = URLDecoder.decode(this.reqContent, StandardCharsets.UTF_8);
+                String reqContent = this.getReqContent();
                 if (this.reqContentType.contains("json")) {
-                    if (StringUtils.isNotBlank(this.reqContent)) {
-                        final JSONObject jsonObject = FastJsonUtil.parse(this.reqContent);
+                    if (StringUtils.isNotBlank(reqContent)) {
+                        final JSONObject jsonObject = FastJsonUtil.parse(reqContent);
                         if (jsonObject != null && !jsonObject.isEmpty()) {
                             this.getReqParams().putAll(jsonObject);
                         }
@@ -252,9 +286,22 @@ public class HttpContext implements AutoCloseable {
                 } else if (this.reqContentType.contains("xml") || this.reqContentType.contains("pure-text")) {
 
                 } else {
-                    HttpDataAction.httpDataDecoder(getReqParams(), this.reqContent);
+                    HttpDataAction.httpDataDecoder(getReqParams(), reqContent);
+                }
+            }
+        }
+
+        /** 完整的请求内容，表单请求是参数拼接之后的内容 */
+        public String getReqContent() {
+            if (reqContent == null) {
+                if (streamBody != null || isMultipart()) {
+                    getReqParams();
+                } else {
+                    byte[] bytes = ByteBufUtil.getBytes(fullHttpRequest.content());
+                    reqContent = URLDecoder.decode(new String(bytes, StandardCharsets.UTF_8), StandardCharsets.UTF_8);
                 }
             }
+            return reqContent;
         }
 
         public String header(AsciiString name) {
@@ -288,16 +335,30 @@ public class HttpContext implements AutoCloseable {
             return HttpUtil.isKeepAlive(fullHttpRequest);
         }
 
+        /** 路由变量，没有返回 null */
+        public String pathVar(String name) {
+            return pathVars.get(name);
+        }
+
+        /** post或者get完整参数，第一次访问的时候解析 */
         public JSONObject getReqParams() {
             if (reqParams == null) {
                 reqParams = MapOf.newJSONObject();
+                try {
+                    actionGetData();
+                    actionPostData();
+                } catch (Exception e) {
+                    throw Throw.of("解析请求参数 " + getUriPath(), e);
+                }
             }
             return reqParams;
         }
 
+        /** 上传的文件集合，第一次访问的时候解析 */
         public Map<String, FileUpload> getUploadFileMap() {
             if (uploadFileMap == null) {
                 uploadFileMap = new LinkedHashMap<>();
+                getReqParams();
             }
             return uploadFileMap;
         }
@@ -311,6 +372,9 @@ public class HttpContext implements AutoCloseable {
         private final Map<String, String> headers = new LinkedHashMap<>();
         private HttpResponseStatus status = HttpResponseStatus.OK;
         private HttpHeadValueType responseContentType;
+        /** 分块输出，没有使用是 null */
+        @Setter(AccessLevel.NONE)
+        private HttpChunkedWriter chunkedWriter;
 
 
         public Response() {
@@ -385,13 +449,7 @@ public class HttpContext implements AutoCloseable {
 
             DefaultFullHttpResponse response = new DefaultFullHttpResponse(HttpContext.this.getRequest().fullHttpRequest.protocolVersion(), status, byteBuf);
 
-            response.headers().set(HttpHeaderNames.CONTENT_TYPE, responseContentType);
-
-            responseCookie.serverCookie(response.headers());
-
-            for (Map.Entry<String, String> entry : headers.entrySet()) {
-                response.headers().set(entry.getKey(), entry.getValue());
-            }
+            fillHeaders(response);
             if (accept_gzip) {
                 response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
             }
@@ -399,23 +457,7 @@ public class HttpContext implements AutoCloseable {
             int readableBytes = byteBuf.readableBytes();
             response.headers().set(HttpHeaderNames.CONTENT_LENGTH, readableBytes);
 
-            boolean keepAlive = HttpContext.this.getRequest().keepAlive();
-            if (keepAlive) {
-                /* TODO 复用连接池 */
-                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
-            } else {
-                /* TODO 非复用的连接池 */
-                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-            }
-
-            HttpContext.this.ctx
-                    .writeAndFlush(response)
-                    .addListener((ChannelFutureListener) future1 -> {
-                        if (!keepAlive) {
-                            /* TODO 非复用的连接池 */
-                            HttpContext.this.ctx.disconnect();
-                        }
-                    });
+            writeAndFlush(response);
 
             if (HttpContext.this.httpServerConfig.isShowResponse()) {
                 StringBuilder showLog = showLog();
@@ -439,6 +481,151 @@ public class HttpContext implements AutoCloseable {
 
         }
 
+        /**
+         * 输出已经处理好的内容，不再压缩，用于静态资源
+         *
+         * @param content       内容，null 表示只输出消息头，比如 HEAD 请求
+         * @param contentLength 消息头里的长度，小于 0 不输出，比如 304
+         */
+        public void responseStatic(ByteBuf content, long contentLength) {
+            if (!disconnected.compareAndSet(false, true)) {
+                if (content != null) content.release();
+                return;
+            }
+            if (responseContentType == null)
+                responseContentType = HttpHeadValueType.OctetStream;
+            DefaultFullHttpResponse response = new DefaultFullHttpResponse(
+                    HttpContext.this.getRequest().fullHttpRequest.protocolVersion(),
+                    status,
+                    content == null ? Unpooled.EMPTY_BUFFER : content
+            );
+            fillHeaders(response);
+            if (contentLength >= 0) {
+                response.headers().set(HttpHeaderNames.CONTENT_LENGTH, contentLength);
+            }
+            writeAndFlush(response);
+        }
+
+        /**
+         * 直接发送本地文件的一段，明文连接用 {@link DefaultFileRegion} 零拷贝，ssl 连接分块读取加密
+         *
+         * @param file   文件，null 表示只输出消息头，比如 HEAD 请求
+         * @param offset 开始位置
+         * @param length 长度
+         */
+        public void responseFile(File file, long offset, long length) throws IOException {
+            if (!disconnected.compareAndSet(false, true)) return;
+            if (responseContentType == null)
+                responseContentType = file == null ? HttpHeadValueType.OctetStream : HttpHeadValueType.findContentType(file);
+            DefaultHttpResponse response = new DefaultHttpResponse(HttpContext.this.getRequest().fullHttpRequest.protocolVersion(), status);
+            fillHeaders(response);
+            response.headers().set(HttpHeaderNames.CONTENT_LENGTH, length);
+            if (file == null) {
+                ctx.write(response);
+                writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+                return;
+            }
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            ctx.write(response);
+            if (ssl() || ctx.pipeline().get(SslHandler.class) != null) {
+                writeAndFlush(new HttpChunkedInput(new ChunkedFile(randomAccessFile, offset, length, 8192)));
+            } else {
+                ctx.write(new DefaultFileRegion(randomAccessFile.getChannel(), offset, length));
+                writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            }
+        }
+
+        /**
+         * 分块输出，内容不需要一次性放在内存里，比如导出大的报表
+         * <p>写完之后必须调用 {@link HttpChunkedWriter#close()}
+         *
+         * @param gzip 客户端支持的时候边压缩边输出
+         */
+        public HttpChunkedWriter responseChunked(boolean gzip) throws IOException {
+            if (!disconnected.compareAndSet(false, true)) {
+                throw new IllegalStateException("已经响应 " + HttpContext.this.getRequest().getUriPath());
+            }
+            if (responseContentType == null)
+                responseContentType = HttpHeadValueType.OctetStream;
+            boolean accept_gzip = gzip && HttpContext.this.getRequest().headerOptional(HttpHeaderNames.ACCEPT_ENCODING)
+                    .map(String::toLowerCase)
+                    .map(v -> v.contains("gzip"))
+                    .orElse(false);
+            DefaultHttpResponse response = new DefaultHttpResponse(HttpContext.this.getRequest().fullHttpRequest.protocolVersion(), status);
+            fillHeaders(response);
+            HttpUtil.setTransferEncodingChunked(response, true);
+            if (accept_gzip) {
+                response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
+            }
+            ctx.writeAndFlush(response);
+            chunkedWriter = new HttpChunkedWriter(ctx, HttpContext.this.getRequest().keepAlive(), accept_gzip, HttpChunkedWriter.CHUNK_SIZE);
+            return chunkedWriter;
+        }
+
+        /** server-sent events 推送，消息头立即发送 */
+        public HttpSseEmitter responseSse() throws IOException {
+            responseContentType = HttpHeadValueType.EventStream;
+            header(HttpHeaderNames.CACHE_CONTROL.toString(), HttpHeaderValues.NO_CACHE.toString());
+            /*nginx 代理的时候不要缓冲*/
+            header("X-Accel-Buffering", "no");
+            return new HttpSseEmitter(responseChunked(false));
+        }
+
+        /**
+         * 分块发送输入流，由 {@link io.netty.handler.stream.ChunkedWriteHandler} 按连接的可写状态读取，发送完成之后关闭输入流
+         *
+         * @param inputStream 输入流
+         */
+        public void responseStream(InputStream inputStream) {
+            if (!disconnected.compareAndSet(false, true)) {
+                throw new IllegalStateException("已经响应 " + HttpContext.this.getRequest().getUriPath());
+            }
+            if (responseContentType == null)
+                responseContentType = HttpHeadValueType.OctetStream;
+            DefaultHttpResponse response = new DefaultHttpResponse(HttpContext.this.getRequest().fullHttpRequest.protocolVersion(), status);
+            fillHeaders(response);
+            HttpUtil.setTransferEncodingChunked(response, true);
+            ctx.write(response);
+            writeAndFlush(new HttpChunkedInput(new ChunkedStream(inputStream, HttpChunkedWriter.CHUNK_SIZE)));
+        }
+
+        /** 分块输出中途出错的时候断开连接 */
+        public void abort() {
+            if (chunkedWriter != null) {
+                chunkedWriter.abort();
+            }
+        }
+
+        void fillHeaders(HttpResponse response) {
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, responseContentType);
+
+            responseCookie.serverCookie(response.headers());
+
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
+                response.headers().set(entry.getKey(), entry.getValue());
+            }
+
+            if (HttpContext.this.getRequest().keepAlive()) {
+                /* TODO 复用连接池 */
+                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+            } else {
+                /* TODO 非复用的连接池 */
+                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+            }
+        }
+
+        void writeAndFlush(Object msg) {
+            boolean keepAlive = HttpContext.this.getRequest().keepAlive();
+            HttpContext.this.ctx
+                    .writeAndFlush(msg)
+                    .addListener((ChannelFutureListener) future1 -> {
+                        if (!keepAlive) {
+                            /* TODO 非复用的连接池 */
+                            HttpContext.this.ctx.disconnect();
+                        }
+                    });
+        }
+
         @Override public void close() {
 
         }
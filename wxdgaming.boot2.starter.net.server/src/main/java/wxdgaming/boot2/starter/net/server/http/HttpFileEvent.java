@@ -4,17 +4,9 @@ import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import lombok.extern.slf4j.Slf4j;
 import wxdgaming.boot2.core.Throw;
-import wxdgaming.boot2.core.io.FileUtil;
-import wxdgaming.boot2.core.lang.Tuple2;
 import wxdgaming.boot2.core.threading.Event;
-import wxdgaming.boot2.core.timer.MyClock;
-import wxdgaming.boot2.starter.net.http.HttpHeadValueType;
 
 import java.io.File;
-import java.nio.file.Path;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 /**
  * http 监听 事件
@@ -25,49 +17,46 @@ import java.util.Locale;
 @Slf4j
 public class HttpFileEvent extends Event {
 
-    /** 过期时间格式化 */
-    public static SimpleDateFormat ExpiresFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss", Locale.ENGLISH);
-
-
+    private final HttpStaticContent staticContent;
     private final HttpContext httpContext;
 
-    public HttpFileEvent(HttpContext httpContext) {
+    public HttpFileEvent(HttpStaticContent staticContent, HttpContext httpContext) {
         super();
+        this.staticContent = staticContent;
         this.httpContext = httpContext;
     }
 
+    /** 队列已满没有执行，直接响应服务繁忙 */
+    @Override public void onRejected() {
+        try {
+            httpContext.getResponse().setStatus(HttpResponseStatus.SERVICE_UNAVAILABLE);
+            httpContext.getResponse().response("server busy");
+        } finally {
+            httpContext.close();
+        }
+    }
+
     @Override public void onEvent() throws Exception {
         String htmlPath = "html" + httpContext.getRequest().getUriPath();
         try {
-            Tuple2<Path, byte[]> inputStream = FileUtil.findInputStream(this.getClass().getClassLoader(), htmlPath);
-            if (inputStream != null) {
-                HttpHeadValueType contentType = HttpHeadValueType.findContentType(htmlPath);
-                /*如果是固有资源增加缓存效果*/
-                httpContext.getResponse().header(HttpHeaderNames.PRAGMA.toString(), "private");
-                /*过期时间10个小时*/
-                httpContext.getResponse().header(HttpHeaderNames.EXPIRES.toString(), ExpiresFormat.format(new Date(MyClock.addHourOfTime(10))) + " GMT");
-                /*过期时间10个小时*/
-                httpContext.getResponse().header(HttpHeaderNames.CACHE_CONTROL.toString(), "max-age=" + (60 * 60 * 10));
-                httpContext.getResponse().setResponseContentType(contentType);
-                if (httpContext.getHttpServerConfig().isShowResponse()) {
-                    StringBuilder stringBuilder = httpContext.showLog();
-                    stringBuilder
-                            .append("\n=============================================输出================================================")
-                            .append("\n").append(HttpHeaderNames.CONTENT_TYPE).append("=").append(contentType)
-                            .append("\n")
-                            .append(HttpHeaderNames.CONTENT_LENGTH).append("=").append(inputStream.getRight().length)
-                            .append("\n")
-                            .append("file path = ").append(new File(htmlPath).getCanonicalPath())
-                            .append("\n=============================================结束================================================")
-                            .append("\n");
-                    log.debug(stringBuilder.toString());
-                    stringBuilder.setLength(0);
-                }
-                httpContext.getResponse().response(inputStream.getRight());
-                return;
+            HttpStaticContent.StaticFile staticFile = staticContent.find(httpContext.getRequest().getUriPath());
+            if (staticFile != null && httpContext.getHttpServerConfig().isShowResponse()) {
+                StringBuilder stringBuilder = httpContext.showLog();
+                stringBuilder
+                        .append("\n=============================================输出================================================")
+                        .append("\n").append(HttpHeaderNames.CONTENT_TYPE).append("=").append(staticFile.contentType())
+                        .append("\n")
+                        .append(HttpHeaderNames.CONTENT_LENGTH).append("=").append(staticFile.length())
+                        .append("\n")
+                        .append(HttpHeaderNames.ETAG).append("=").append(staticFile.etag())
+                        .append("\n")
+                        .append("file path = ").append(staticFile.file() == null ? htmlPath : staticFile.file().getCanonicalPath())
+                        .append("\n=============================================结束================================================")
+                        .append("\n");
+                log.debug(stringBuilder.toString());
+                stringBuilder.setLength(0);
             }
-            httpContext.getResponse().setStatus(HttpResponseStatus.NOT_FOUND);
-            httpContext.getResponse().response("not found url " + httpContext.getRequest().getUriPath());
+            staticContent.response(httpContext, staticFile);
         } catch (Exception e) {
             final String ofString = Throw.ofString(e);
             StringBuilder stringBuilder = httpContext.showLog();
@@ -1,7 +1,12 @@
 package wxdgaming.boot2.starter.net.server.http;
 
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.util.ReferenceCountUtil;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import wxdgaming.boot2.core.RunApplication;
@@ -13,7 +18,10 @@ import wxdgaming.boot2.starter.net.ann.HttpRequest;
 import wxdgaming.boot2.starter.net.ann.RequestMapping;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * http 监听 绑定工厂
@@ -28,11 +36,21 @@ public class HttpListenerContent {
     final HttpServerConfig httpServerConfig;
     final RunApplication runApplication;
 
-    final HashMap<String, HttpMapping> httpMappingMap = new HashMap<>();
+    final HttpRouter<HttpMapping> httpRouter = new HttpRouter<>();
+    /** 匹配结果每个线程复用 */
+    final ThreadLocal<HttpRouter.Match<HttpMapping>> routeMatch = ThreadLocal.withInitial(httpRouter::newMatch);
+    /** 静态资源缓存 */
+    final HttpStaticContent staticContent;
+    /** 流式接收请求体的路由数量，没有的时候不需要匹配 */
+    int streamingCount = 0;
+    /** 队列已满拒绝的请求数量，每秒最多告警一次 */
+    final AtomicLong rejectedCount = new AtomicLong();
+    final AtomicLong rejectedWarnTime = new AtomicLong();
 
     public HttpListenerContent(HttpServerConfig httpServerConfig, RunApplication runApplication) {
         this.httpServerConfig = Objects.returnNonNull(httpServerConfig, HttpServerConfig.INSTANCE);
         this.runApplication = runApplication;
+        this.staticContent = new HttpStaticContent(this.httpServerConfig);
 
         runApplication.getGuiceReflectContext()
                 .withMethodAnnotated(HttpRequest.class)
@@ -70,57 +88,144 @@ public class HttpListenerContent {
                         path += methodRequestMapping.path();
                     }
 
-                    String lowerCase = path.toLowerCase();
+                    String lowerCase = HttpRouter.normalize(path);
                     HttpMapping httpMapping = new HttpMapping(methodRequestMapping, lowerCase, ins, method);
 
-                    HttpMapping old = httpMappingMap.put(lowerCase, httpMapping);
+                    HttpMapping old = httpRouter.add(lowerCase, methodRequestMapping.method(), httpMapping);
                     if (old != null && !Objects.equals(old.ins().getClass().getName(), ins.getClass().getName())) {
-                        String formatted = "重复路由监听 %s old = %s - new = %s"
+                        String formatted = "重复路由监听 %s %s old = %s - new = %s"
                                 .formatted(
+                                        methodRequestMapping.method(),
                                         lowerCase,
                                         old.ins().getClass().getName(),
                                         ins.getClass().getName()
                                 );
                         throw new RuntimeException(formatted);
                     }
+                    if (methodRequestMapping.streaming()) {
+                        streamingCount++;
+                    }
                     log.debug("http listener url: {}", lowerCase);
                 });
     }
 
-    public void dispatch(ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest) {
+    /**
+     * 需要流式接收请求体的路由
+     *
+     * @return 不是流式路由返回 null
+     */
+    public HttpMapping streamingMapping(io.netty.handler.codec.http.HttpRequest request) {
+        if (streamingCount == 0) return null;
+        String uriPath;
+        try {
+            uriPath = HttpContext.uriPath(new URI(request.uri()));
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        HttpRouter.Match<HttpMapping> match = routeMatch.get();
         try {
-            HttpContext httpContext = new HttpContext(this.httpServerConfig, ctx, fullHttpRequest);
+            if (!httpRouter.match(request.method().name(), uriPath, match) || !match.isMethodAllowed()) return null;
+            HttpMapping httpMapping = match.handler();
+            return httpMapping.httpRequest().streaming() ? httpMapping : null;
+        } finally {
+            match.clear();
+        }
+    }
 
-            String uriPath = httpContext.getRequest().getUriPath();
-            String lowerCase = uriPath.toLowerCase();
-            HttpMapping httpMapping = httpMappingMap.get(lowerCase);
-            HttpRequest httpRequest = httpMapping == null ? null : httpMapping.httpRequest();
-            Method method = httpMapping == null ? null : httpMapping.method();
+    public void dispatch(ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest) {
+        dispatch(ctx, fullHttpRequest, null);
+    }
 
+    /**
+     * 派发请求
+     *
+     * @param streamBody 流式接收的请求体，普通请求是 null
+     */
+    public void dispatch(ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest, HttpStreamBody streamBody) {
+        HttpContext httpContext = null;
+        try {
+            httpContext = new HttpContext(this.httpServerConfig, ctx, fullHttpRequest, streamBody);
+            dispatch(httpContext);
+        } catch (RejectedExecutionException e) {
+            /*拒绝的时候已经响应了 503*/
+            rejected(e);
+        } catch (Exception e) {
+            log.error("dispatch error", e);
+            serverError(ctx, fullHttpRequest, streamBody, httpContext);
+        }
+    }
 
-            Object filterMatch = runApplication.classWithSuper(HttpFilter.class)
-                    .map(httpFilter -> httpFilter.doFilter(httpRequest, method, uriPath, httpContext))
-                    .filter(Objects::nonNull)
-                    .findFirst()
-                    .orElse(null);
+    /** 按路由派发，异常由调用方响应 500 */
+    void dispatch(HttpContext httpContext) throws Exception {
+        String uriPath = httpContext.getRequest().getUriPath();
+        HttpMapping httpMapping = null;
+        HttpRouter.Match<HttpMapping> match = routeMatch.get();
+        if (httpRouter.match(httpContext.getRequest().httpMethod().name(), uriPath, match)) {
+            /*请求方式不匹配的时候也返回路由，由 HttpListenerTrigger 响应 405*/
+            httpMapping = match.handler();
+            httpContext.getRequest().setPathVars(match.vars());
+        }
+        match.clear();
+        HttpRequest httpRequest = httpMapping == null ? null : httpMapping.httpRequest();
+        Method method = httpMapping == null ? null : httpMapping.method();
+
+        Object filterMatch = runApplication.classWithSuper(HttpFilter.class)
+                .map(httpFilter -> httpFilter.doFilter(httpRequest, method, uriPath, httpContext))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+
+        if (filterMatch != null) {
+            httpContext.getResponse().response(filterMatch);
+            httpContext.close();
+            return;
+        }
+        if (httpMapping == null) {
+            HttpFileEvent httpFileEvent = new HttpFileEvent(staticContent, httpContext);
+            ExecutorUtil.getInstance().getVirtualExecutor().execute(httpFileEvent);
+        } else {
+            if (this.httpServerConfig.isShowRequest()) {
+                StringBuilder showLog = httpContext.showLog();
+                log.info("{}", showLog);
+            }
+            HttpListenerTrigger httpListenerTrigger = new HttpListenerTrigger(httpMapping, runApplication, httpContext);
+            httpListenerTrigger.submit();
+        }
+    }
 
-            if (filterMatch != null) {
-                httpContext.getResponse().response(filterMatch);
+    /** 派发失败响应 500，不能让连接一直等待响应 */
+    void serverError(ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest, HttpStreamBody streamBody, HttpContext httpContext) {
+        try {
+            if (httpContext != null) {
+                try {
+                    httpContext.getResponse().setStatus(HttpResponseStatus.INTERNAL_SERVER_ERROR);
+                    httpContext.getResponse().response("server error");
+                } finally {
+                    httpContext.close();
+                }
                 return;
             }
-            if (httpMapping == null) {
-                HttpFileEvent httpFileEvent = new HttpFileEvent(httpContext);
-                ExecutorUtil.getInstance().getVirtualExecutor().execute(httpFileEvent);
-            } else {
-                if (this.httpServerConfig.isShowRequest()) {
-                    StringBuilder showLog = httpContext.showLog();
-                    log.info("{}", showLog);
-                }
-                HttpListenerTrigger httpListenerTrigger = new HttpListenerTrigger(httpMapping, runApplication, httpContext);
-                httpListenerTrigger.submit();
+            /*请求解析失败，没有上下文，直接响应并且断开*/
+            try {
+                FullHttpResponse response = new DefaultFullHttpResponse(fullHttpRequest.protocolVersion(), HttpResponseStatus.INTERNAL_SERVER_ERROR);
+                HttpUtil.setContentLength(response, 0);
+                HttpUtil.setKeepAlive(response, false);
+                ctx.writeAndFlush(response);
+            } finally {
+                if (streamBody != null) streamBody.close();
+                ReferenceCountUtil.release(fullHttpRequest);
             }
         } catch (Exception e) {
-            log.error("dispatch error", e);
+            log.error("response server error", e);
+        }
+    }
+
+    void rejected(RejectedExecutionException e) {
+        rejectedCount.incrementAndGet();
+        long now = System.currentTimeMillis();
+        long warnTime = rejectedWarnTime.get();
+        if (now - warnTime >= 1000 && rejectedWarnTime.compareAndSet(warnTime, now)) {
+            log.warn("业务队列已满，拒绝请求 {} 个，{}", rejectedCount.getAndSet(0), e.getMessage());
         }
     }
 
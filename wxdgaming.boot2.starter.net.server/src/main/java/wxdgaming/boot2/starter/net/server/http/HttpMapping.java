@@ -1,9 +1,21 @@
 package wxdgaming.boot2.starter.net.server.http;
 
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.TypeUtils;
 import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.Throw;
+import wxdgaming.boot2.core.ann.Body;
+import wxdgaming.boot2.core.ann.Param;
+import wxdgaming.boot2.core.assist.MethodInvoker;
+import wxdgaming.boot2.core.chatset.StringUtils;
+import wxdgaming.boot2.core.chatset.json.FastJsonUtil;
+import wxdgaming.boot2.starter.net.ParameterBinder;
 import wxdgaming.boot2.starter.net.ann.HttpRequest;
+import wxdgaming.boot2.starter.net.ann.PathVar;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
 
 /**
  * 映射关系绑定
@@ -12,10 +24,111 @@ import java.lang.reflect.Method;
  * @param path
  * @param ins
  * @param method
+ * @param invoker     生成的调用代理
+ * @param binders     参数绑定计划
  * @author: wxd-gaming(無心道, 15388152619)
  * @version: 2025-02-18 08:50
  */
 @Slf4j
-public record HttpMapping(HttpRequest httpRequest, String path, Object ins, Method method) {
+public record HttpMapping(HttpRequest httpRequest, String path, Object ins, Method method,
+                          MethodInvoker invoker, ParameterBinder<HttpListenerTrigger>[] binders) {
+
+    public HttpMapping(HttpRequest httpRequest, String path, Object ins, Method method) {
+        this(httpRequest, path, ins, method, MethodInvoker.of(method), binders(method));
+    }
+
+    @SuppressWarnings("unchecked")
+    static ParameterBinder<HttpListenerTrigger>[] binders(Method method) {
+        Parameter[] parameters = method.getParameters();
+        ParameterBinder<HttpListenerTrigger>[] binders = new ParameterBinder[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            Class<?> parameterType = parameter.getType();
+            ParameterBinder<HttpListenerTrigger> binder = ParameterBinder.application(parameter, trigger -> trigger.runApplication);
+            if (binder == null) {
+                if (HttpContext.class.isAssignableFrom(parameterType)) {
+                    binder = trigger -> trigger.httpContext;
+                } else if (HttpContext.Request.class.isAssignableFrom(parameterType)) {
+                    binder = trigger -> trigger.httpContext.getRequest();
+                } else if (HttpContext.Response.class.isAssignableFrom(parameterType)) {
+                    binder = trigger -> trigger.httpContext.getResponse();
+                }
+            }
+            if (binder == null) binder = ParameterBinder.value(parameter);
+            if (binder == null) binder = ParameterBinder.threadParam(parameter);
+            if (binder == null) binder = param(parameter);
+            if (binder == null) binder = pathVar(parameter);
+            if (binder == null) binder = body(parameter);
+            if (binder == null) binder = ParameterBinder.instance(parameter, trigger -> trigger.runApplication);
+            binders[i] = binder;
+        }
+        return binders;
+    }
+
+    static ParameterBinder<HttpListenerTrigger> param(Parameter parameter) {
+        Param param = parameter.getAnnotation(Param.class);
+        if (param == null) return null;
+        String name = param.path();
+        Type parameterizedType = parameter.getParameterizedType();
+        return trigger -> {
+            Object o;
+            try {
+                o = trigger.httpContext.getRequest().getReqParams().getObject(name, parameterizedType);
+                if (o == null && StringUtils.isNotBlank(param.defaultValue())) {
+                    o = FastJsonUtil.parse(param.defaultValue(), parameterizedType);
+                }
+            } catch (Exception e) {
+                throw Throw.of("参数：" + name, e);
+            }
+            if (param.required() && o == null) {
+                throw new RuntimeException("param:" + name + " is null");
+            }
+            return o;
+        };
+    }
+
+    static ParameterBinder<HttpListenerTrigger> pathVar(Parameter parameter) {
+        PathVar pathVar = parameter.getAnnotation(PathVar.class);
+        if (pathVar == null) return null;
+        String name = pathVar.path();
+        Type parameterizedType = parameter.getParameterizedType();
+        return trigger -> {
+            String value = trigger.httpContext.getRequest().pathVar(name);
+            if (value == null && StringUtils.isNotBlank(pathVar.defaultValue())) {
+                value = pathVar.defaultValue();
+            }
+            if (value == null) {
+                if (pathVar.required()) {
+                    throw new RuntimeException("path var:" + name + " is null");
+                }
+                return null;
+            }
+            try {
+                return TypeUtils.cast(value, parameterizedType, ParserConfig.getGlobalInstance());
+            } catch (Exception e) {
+                throw Throw.of("路由变量：" + name, e);
+            }
+        };
+    }
+
+    static ParameterBinder<HttpListenerTrigger> body(Parameter parameter) {
+        Body body = parameter.getAnnotation(Body.class);
+        if (body == null) return null;
+        Class<?> parameterType = parameter.getType();
+        return trigger -> {
+            HttpContext.Request request = trigger.httpContext.getRequest();
+            Object o = null;
+            if (StringUtils.isNotBlank(request.getReqContent())) {
+                o = request.getReqParams().toJavaObject(parameterType);
+            }
+            if (o == null && StringUtils.isNotBlank(body.defaultValue())) {
+                o = body.defaultValue();
+            }
+            if (body.required() && o == null) {
+                throw new RuntimeException("body is null");
+            }
+            return o;
+        };
+    }
 
 }
@@ -0,0 +1,460 @@
+package wxdgaming.boot2.starter.net.server.http;
+
+import lombok.Getter;
+import wxdgaming.boot2.core.chatset.StringUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 压缩前缀树路由
+ * <p>路由格式：静态路径 {@code /player/list}，单段变量 {@code /player/{id}/mail}，
+ * 匹配剩余全部路径的通配 {@code /res/*} 或者 {@code /res/{*file}}，通配只能在最后
+ * <p>静态部分大小写不敏感，变量保留原始大小写；优先级 静态 > 变量 > 通配，
+ * 同一个路径可以按请求方式注册不同的处理，没有指定请求方式的当作任意方式
+ * <p>匹配过程不分配对象，变量只记录在路径中的位置，{@link Match#var(String)} 的时候才截取字符串；
+ * 没有变量的路由另外放在忽略大小写的开放寻址表里，命中的时候不需要走树
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 04:40
+ **/
+@Getter
+public class HttpRouter<T> {
+
+    private final Node<T> root = new Node<>("");
+    /** 路由数量 */
+    private int size;
+    /** 单个路由最多的变量数量 */
+    private int maxVars;
+    /** 没有变量的路由，开放寻址，key 是小写的完整路径 */
+    private String[] staticKeys = new String[0];
+    private int[] staticHashes = new int[0];
+    @SuppressWarnings("unchecked")
+    private Leaf<T>[] staticLeaves = new Leaf[0];
+
+    /** 静态部分转小写，变量名字保持不变 */
+    public static String normalize(String pattern) {
+        StringBuilder builder = new StringBuilder(pattern.length());
+        boolean inVar = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '{') inVar = true;
+            else if (c == '}') inVar = false;
+            builder.append(inVar ? c : Character.toLowerCase(c));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 注册路由
+     *
+     * @param pattern 路由
+     * @param method  请求方式，为空表示任意方式
+     * @param handler 处理
+     * @return 同一个路由同一个请求方式已经注册的处理，没有返回 null
+     */
+    public T add(String pattern, String method, T handler) {
+        if (StringUtils.isBlank(pattern) || pattern.charAt(0) != '/') {
+            throw new IllegalArgumentException("路由必须以 / 开头: " + pattern);
+        }
+        String normalize = normalize(pattern);
+        String[] varNames = new String[0];
+        Node<T> node = root;
+        int pos = 0;
+        while (pos < normalize.length()) {
+            int open = normalize.indexOf('{', pos);
+            int star = normalize.indexOf('*', pos);
+            int next = open < 0 ? star : star < 0 ? open : Math.min(open, star);
+            if (next < 0) {
+                node = insertStatic(node, normalize.substring(pos));
+                break;
+            }
+            if (next == pos || normalize.charAt(next - 1) != '/') {
+                throw new IllegalArgumentException("变量必须是完整的一段: " + pattern);
+            }
+            node = insertStatic(node, normalize.substring(pos, next));
+            String varName;
+            int end;
+            boolean wildcard;
+            if (next == star) {
+                varName = "*";
+                end = next + 1;
+                wildcard = true;
+            } else {
+                int close = normalize.indexOf('}', next);
+                if (close < 0) throw new IllegalArgumentException("变量缺少 }: " + pattern);
+                varName = normalize.substring(next + 1, close);
+                wildcard = varName.startsWith("*");
+                if (wildcard) varName = varName.length() > 1 ? varName.substring(1) : "*";
+                if (StringUtils.isBlank(varName)) throw new IllegalArgumentException("变量名字为空: " + pattern);
+                end = close + 1;
+            }
+            varNames = Arrays.copyOf(varNames, varNames.length + 1);
+            varNames[varNames.length - 1] = varName;
+            if (wildcard) {
+                if (end != normalize.length()) throw new IllegalArgumentException("通配只能在最后: " + pattern);
+                if (node.wildChild == null) node.wildChild = new Node<>("");
+                node = node.wildChild;
+            } else {
+                if (end < normalize.length() && normalize.charAt(end) != '/') {
+                    throw new IllegalArgumentException("变量必须是完整的一段: " + pattern);
+                }
+                if (node.varChild == null) node.varChild = new Node<>("");
+                node = node.varChild;
+            }
+            pos = end;
+        }
+        String methodName = method == null ? "" : method.trim().toUpperCase();
+        Route<T> route = new Route<>(normalize, methodName, handler, varNames);
+        if (node.leaf == null) {
+            node.leaf = new Leaf<>();
+            if (varNames.length == 0) {
+                putStatic(normalize, node.leaf);
+            }
+        }
+        Leaf<T> leaf = node.leaf;
+        for (int i = 0; i < leaf.routes.length; i++) {
+            if (leaf.routes[i].method.equals(methodName)) {
+                T old = leaf.routes[i].handler;
+                leaf.routes[i] = route;
+                return old;
+            }
+        }
+        leaf.routes = Arrays.copyOf(leaf.routes, leaf.routes.length + 1);
+        leaf.routes[leaf.routes.length - 1] = route;
+        size++;
+        maxVars = Math.max(maxVars, varNames.length);
+        return null;
+    }
+
+    /** 注册的时候执行，超过一半就扩容重建 */
+    @SuppressWarnings("unchecked")
+    private void putStatic(String key, Leaf<T> leaf) {
+        int count = 1;
+        for (String staticKey : staticKeys) {
+            if (staticKey != null) count++;
+        }
+        if (count * 2 > staticKeys.length) {
+            String[] oldKeys = staticKeys;
+            Leaf<T>[] oldLeaves = staticLeaves;
+            int capacity = Integer.highestOneBit(Math.max(8, count * 4) - 1) << 1;
+            staticKeys = new String[capacity];
+            staticHashes = new int[capacity];
+            staticLeaves = new Leaf[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) insertStaticSlot(oldKeys[i], oldLeaves[i]);
+            }
+        }
+        insertStaticSlot(key, leaf);
+    }
+
+    private void insertStaticSlot(String key, Leaf<T> leaf) {
+        int hash = hash(key);
+        int mask = staticKeys.length - 1;
+        int index = hash & mask;
+        while (staticKeys[index] != null) index = (index + 1) & mask;
+        staticKeys[index] = key;
+        staticHashes[index] = hash;
+        staticLeaves[index] = leaf;
+    }
+
+    /**
+     * 忽略大小写的 hash，ascii 字母 | 0x20 就是小写；
+     * 非 ascii 的大小写可能算出不同的 hash，查不到的时候会继续走树匹配，结果不受影响
+     */
+    static int hash(String path) {
+        int h = 0;
+        for (int i = 0; i < path.length(); i++) {
+            h = 31 * h + (path.charAt(i) | 0x20);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /** 没有变量的路由 */
+    private Leaf<T> staticLeaf(String path) {
+        String[] keys = staticKeys;
+        if (keys.length == 0) return null;
+        int hash = hash(path);
+        int mask = keys.length - 1;
+        for (int index = hash & mask; ; index = (index + 1) & mask) {
+            String key = keys[index];
+            if (key == null) return null;
+            if (staticHashes[index] == hash && key.equalsIgnoreCase(path)) {
+                return staticLeaves[index];
+            }
+        }
+    }
+
+    /** 插入静态路径，返回最后的节点 */
+    private Node<T> insertStatic(Node<T> node, String text) {
+        while (!text.isEmpty()) {
+            Node<T> child = node.staticChild(text.charAt(0));
+            if (child == null) {
+                child = new Node<>(text);
+                node.addChild(child);
+                return child;
+            }
+            int common = 0;
+            int max = Math.min(child.prefix.length(), text.length());
+            while (common < max && child.prefix.charAt(common) == text.charAt(common)) common++;
+            if (common < child.prefix.length()) {
+                child.split(common);
+            }
+            text = text.substring(common);
+            node = child;
+        }
+        return node;
+    }
+
+    /** 创建匹配结果，每个线程复用一个 */
+    public Match<T> newMatch() {
+        return new Match<>(Math.max(1, maxVars));
+    }
+
+    /**
+     * 匹配路由
+     * <p>路径存在但是没有对应请求方式的时候返回这个路径的其他处理，并且 {@link Match#isMethodAllowed()} 是 false
+     *
+     * @param method 请求方式，大小写不敏感
+     * @param path   请求路径
+     * @param match  匹配结果
+     * @return 是否找到
+     */
+    public boolean match(String method, String path, Match<T> match) {
+        match.clear();
+        match.path = path;
+        Leaf<T> leaf = staticLeaf(path);
+        if (leaf != null) {
+            Route<T> route = leaf.route(method);
+            if (route != null) {
+                match.route = route;
+                match.methodAllowed = true;
+                return true;
+            }
+        }
+        if (match(root, path, 0, method, match)) {
+            match.methodAllowed = true;
+            return true;
+        }
+        match.count = 0;
+        if (method != null && match(root, path, 0, null, match)) {
+            match.methodAllowed = false;
+            return true;
+        }
+        match.path = null;
+        return false;
+    }
+
+    private boolean match(Node<T> node, String path, int pos, String method, Match<T> match) {
+        int length = path.length();
+        if (pos == length) {
+            Route<T> route = node.route(method);
+            if (route != null) {
+                match.route = route;
+                return true;
+            }
+        } else {
+            Node<T> child = node.staticChild(lower(path.charAt(pos)));
+            if (child != null && child.regionMatches(path, pos)) {
+                if (match(child, path, pos + child.prefix.length(), method, match)) return true;
+            }
+            if (node.varChild != null) {
+                int end = path.indexOf('/', pos);
+                if (end < 0) end = length;
+                if (end > pos) {
+                    int count = match.count;
+                    match.push(pos, end);
+                    if (match(node.varChild, path, end, method, match)) return true;
+                    match.count = count;
+                }
+            }
+        }
+        if (node.wildChild != null) {
+            Route<T> route = node.wildChild.route(method);
+            if (route != null) {
+                match.push(pos, length);
+                match.route = route;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 路径基本都是 ascii，先走快速分支 */
+    static char lower(char c) {
+        if (c < 128) return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        return Character.toLowerCase(c);
+    }
+
+    /** 所有路由 */
+    public void forEach(BiConsumer<String, T> consumer) {
+        forEach(root, consumer);
+    }
+
+    private void forEach(Node<T> node, BiConsumer<String, T> consumer) {
+        if (node.leaf != null) for (Route<T> route : node.leaf.routes) {
+            consumer.accept(route.method.isEmpty() ? route.pattern : route.method + " " + route.pattern, route.handler);
+        }
+        for (Node<T> child : node.children) forEach(child, consumer);
+        if (node.varChild != null) forEach(node.varChild, consumer);
+        if (node.wildChild != null) forEach(node.wildChild, consumer);
+    }
+
+    /** 节点，prefix 是静态路径，变量和通配节点的 prefix 是空 */
+    static final class Node<T> {
+
+        String prefix;
+        /** 静态子节点的第一个字符 */
+        char[] indices = new char[0];
+        @SuppressWarnings("unchecked")
+        Node<T>[] children = new Node[0];
+        Node<T> varChild;
+        Node<T> wildChild;
+        /** 在这个节点结束的路由，拆分节点的时候整体移到后半段 */
+        Leaf<T> leaf;
+
+        Node(String prefix) {
+            this.prefix = prefix;
+        }
+
+        Node<T> staticChild(char c) {
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == c) return children[i];
+            }
+            return null;
+        }
+
+        void addChild(Node<T> child) {
+            indices = Arrays.copyOf(indices, indices.length + 1);
+            indices[indices.length - 1] = child.prefix.charAt(0);
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+        }
+
+        /** 在 index 位置拆分成两个节点，原来的子节点和路由都移到后半段 */
+        @SuppressWarnings("unchecked")
+        void split(int index) {
+            Node<T> tail = new Node<>(prefix.substring(index));
+            tail.indices = indices;
+            tail.children = children;
+            tail.varChild = varChild;
+            tail.wildChild = wildChild;
+            tail.leaf = leaf;
+            prefix = prefix.substring(0, index);
+            indices = new char[]{tail.prefix.charAt(0)};
+            children = new Node[]{tail};
+            varChild = null;
+            wildChild = null;
+            leaf = null;
+        }
+
+        /** 路径从 pos 开始是否以 prefix 开头，忽略大小写 */
+        boolean regionMatches(String path, int pos) {
+            int length = prefix.length();
+            if (path.length() - pos < length) return false;
+            for (int i = 0; i < length; i++) {
+                if (lower(path.charAt(pos + i)) != prefix.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        /** 在这个节点结束的路由 */
+        Route<T> route(String method) {
+            return leaf == null ? null : leaf.route(method);
+        }
+
+    }
+
+    /** 同一个路由不同请求方式的处理 */
+    static final class Leaf<T> {
+
+        @SuppressWarnings("unchecked")
+        Route<T>[] routes = new Route[0];
+
+        /** 请求方式一致的优先，其次是任意方式；method 是 null 的时候返回第一个 */
+        Route<T> route(String method) {
+            if (routes.length == 0) return null;
+            if (method == null) return routes[0];
+            Route<T> any = null;
+            for (Route<T> route : routes) {
+                if (route.method.isEmpty()) any = route;
+                else if (route.method.equalsIgnoreCase(method)) return route;
+            }
+            return any;
+        }
+
+    }
+
+    /**
+     * 注册的路由
+     *
+     * @param pattern  路由
+     * @param method   请求方式，空表示任意方式
+     * @param handler  处理
+     * @param varNames 变量名字，按路由中的顺序
+     */
+    public record Route<T>(String pattern, String method, T handler, String[] varNames) {
+    }
+
+    /** 匹配结果，变量记录在路径中的开始和结束位置 */
+    @Getter
+    public static final class Match<T> {
+
+        private String path;
+        private Route<T> route;
+        private boolean methodAllowed;
+        private int[] starts;
+        private int[] ends;
+        private int count;
+
+        Match(int capacity) {
+            this.starts = new int[capacity];
+            this.ends = new int[capacity];
+        }
+
+        void push(int start, int end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+
+        /** 释放路径的引用 */
+        public void clear() {
+            path = null;
+            route = null;
+            methodAllowed = false;
+            count = 0;
+        }
+
+        public T handler() {
+            return route == null ? null : route.handler;
+        }
+
+        /** 变量的值，没有返回 null */
+        public String var(String name) {
+            String[] varNames = route.varNames;
+            for (int i = 0; i < varNames.length; i++) {
+                if (varNames[i].equals(name)) return path.substring(starts[i], ends[i]);
+            }
+            return null;
+        }
+
+        /** 所有变量，没有变量的时候返回空的不可变 map */
+        public Map<String, String> vars() {
+            if (route == null || count == 0) return Map.of();
+            Map<String, String> vars = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                vars.put(route.varNames[i], path.substring(starts[i], ends[i]));
+            }
+            return vars;
+        }
+
+    }
+
+}
@@ -13,16 +13,41 @@ import lombok.Getter;
 @Getter
 public class HttpServerConfig {
 
-    public static final HttpServerConfig INSTANCE = new HttpServerConfig(false, false);
+    public static final HttpServerConfig INSTANCE = new HttpServerConfig(false, false, false);
 
     private final boolean showRequest;
     private final boolean showResponse;
+    /** 是否开放线程池统计接口 {@link ExecutorMetricsApi} */
+    private final boolean executorMetrics;
+    /** 静态资源内存缓存上限，单位 mb */
+    private final int staticCacheMB;
+    /** 超过这个大小的本地文件不进缓存，直接零拷贝发送，单位 kb */
+    private final int staticCacheFileKB;
+    /** 静态资源浏览器缓存时间，单位秒 */
+    private final int staticMaxAgeSeconds;
 
+    public HttpServerConfig(boolean showRequest, boolean showResponse) {
+        this(showRequest, showResponse, false);
+    }
+
+    public HttpServerConfig(boolean showRequest, boolean showResponse, boolean executorMetrics) {
+        this(showRequest, showResponse, executorMetrics, 0, 0, 0);
+    }
+
+    /** 静态资源的配置小于等于 0 使用默认值 */
     @JSONCreator
     public HttpServerConfig(@JSONField(name = "showRequest") boolean showRequest,
-                            @JSONField(name = "showResponse") boolean showResponse) {
+                            @JSONField(name = "showResponse") boolean showResponse,
+                            @JSONField(name = "executorMetrics") boolean executorMetrics,
+                            @JSONField(name = "staticCacheMB") int staticCacheMB,
+                            @JSONField(name = "staticCacheFileKB") int staticCacheFileKB,
+                            @JSONField(name = "staticMaxAgeSeconds") int staticMaxAgeSeconds) {
         this.showRequest = showRequest;
         this.showResponse = showResponse;
+        this.executorMetrics = executorMetrics;
+        this.staticCacheMB = staticCacheMB > 0 ? staticCacheMB : 64;
+        this.staticCacheFileKB = staticCacheFileKB > 0 ? staticCacheFileKB : 1024;
+        this.staticMaxAgeSeconds = staticMaxAgeSeconds > 0 ? staticMaxAgeSeconds : 60 * 60 * 10;
     }
 
 }
@@ -0,0 +1,70 @@
+package wxdgaming.boot2.starter.net.server.http;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * server-sent events 推送，由 {@link HttpContext.Response#responseSse()} 创建
+ * <p>请求处理方法可以把它交给其他线程，方法返回之后连接保持，直到调用 {@link #close()} 或者客户端断开
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 07:00
+ **/
+@Getter
+public class HttpSseEmitter implements AutoCloseable {
+
+    private final HttpChunkedWriter writer;
+
+    HttpSseEmitter(HttpChunkedWriter writer) {
+        this.writer = writer;
+    }
+
+    /** 推送消息 */
+    public HttpSseEmitter send(String data) throws IOException {
+        return send(null, null, data);
+    }
+
+    /**
+     * 推送消息，每次推送立即发送
+     *
+     * @param event 事件名称，null 表示默认的 message
+     * @param id    消息 id，客户端重连的时候放在 Last-Event-ID 里
+     * @param data  内容，多行的内容拆成多个 data 字段
+     */
+    public synchronized HttpSseEmitter send(String event, String id, String data) throws IOException {
+        StringBuilder stringBuilder = new StringBuilder(data.length() + 32);
+        if (event != null) stringBuilder.append("event: ").append(event).append('\n');
+        if (id != null) stringBuilder.append("id: ").append(id).append('\n');
+        for (String line : data.split("\r\n|\r|\n", -1)) {
+            stringBuilder.append("data: ").append(line).append('\n');
+        }
+        stringBuilder.append('\n');
+        writer.write(stringBuilder.toString());
+        writer.flush();
+        return this;
+    }
+
+    /** 注释，客户端忽略，用来做心跳避免中间的代理断开空闲连接 */
+    public synchronized HttpSseEmitter comment(String comment) throws IOException {
+        writer.write(": " + comment + "\n\n");
+        writer.flush();
+        return this;
+    }
+
+    /** 客户端断开之后重连的等待毫秒 */
+    public synchronized HttpSseEmitter retry(long millis) throws IOException {
+        writer.write("retry: " + millis + "\n\n");
+        writer.flush();
+        return this;
+    }
+
+    public boolean isOpen() {
+        return writer.isOpen();
+    }
+
+    @Override public void close() throws IOException {
+        writer.close();
+    }
+
+}
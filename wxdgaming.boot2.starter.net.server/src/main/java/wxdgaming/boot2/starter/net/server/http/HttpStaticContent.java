@@ -0,0 +1,362 @@
+package wxdgaming.boot2.starter.net.server.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.chatset.StringUtils;
+import wxdgaming.boot2.core.zip.GzipUtil;
+import wxdgaming.boot2.starter.net.http.HttpHeadValueType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * 静态资源
+ * <p>查找顺序和 {@link wxdgaming.boot2.core.io.FileUtil#findInputStream(ClassLoader, String)} 一致：本地目录、config 目录、jar 包内资源
+ * <p>小文件连同压缩后的内容放在按访问顺序淘汰的内存缓存里，本地文件修改之后重新加载；
+ * 大的本地文件不进缓存，通过 {@link HttpContext.Response#responseFile(File, long, long)} 零拷贝发送
+ * <p>支持 ETag / Last-Modified 协商缓存和单个 Range 请求；同目录下有预先压缩好的 .br .gz 文件的时候直接使用，
+ * 没有 .gz 的文本资源在加载的时候压缩一次
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 06:00
+ **/
+@Slf4j
+@Getter
+public class HttpStaticContent {
+
+    /** 小于这个大小不压缩，和 {@link HttpContext.Response#response(Object)} 一致 */
+    static final int GZIP_MIN_LENGTH = 512;
+    /** Range 不合法 */
+    public static final long[] UNSATISFIABLE = new long[0];
+
+    private final String root;
+    private final ClassLoader classLoader;
+    private final long maxCacheBytes;
+    private final long maxCacheFileBytes;
+    private final int maxAgeSeconds;
+    /** 访问顺序，超过上限淘汰最久没有访问的 */
+    private final LinkedHashMap<String, StaticFile> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cacheBytes = 0;
+
+    public HttpStaticContent(HttpServerConfig httpServerConfig) {
+        this(
+                "html",
+                HttpStaticContent.class.getClassLoader(),
+                httpServerConfig.getStaticCacheMB() * 1024L * 1024L,
+                httpServerConfig.getStaticCacheFileKB() * 1024L,
+                httpServerConfig.getStaticMaxAgeSeconds()
+        );
+    }
+
+    public HttpStaticContent(String root, ClassLoader classLoader, long maxCacheBytes, long maxCacheFileBytes, int maxAgeSeconds) {
+        this.root = root;
+        this.classLoader = classLoader;
+        this.maxCacheBytes = maxCacheBytes;
+        this.maxCacheFileBytes = maxCacheFileBytes;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /** 响应静态资源 */
+    public void response(HttpContext httpContext) throws IOException {
+        response(httpContext, find(httpContext.getRequest().getUriPath()));
+    }
+
+    /**
+     * 响应静态资源
+     *
+     * @param staticFile {@link #find(String)} 的结果，null 返回 404
+     */
+    public void response(HttpContext httpContext, StaticFile staticFile) throws IOException {
+        HttpContext.Request request = httpContext.getRequest();
+        HttpContext.Response response = httpContext.getResponse();
+        if (staticFile == null) {
+            response.setStatus(HttpResponseStatus.NOT_FOUND);
+            response.response("not found url " + request.getUriPath());
+            return;
+        }
+        response.setResponseContentType(staticFile.contentType);
+        response.header(HttpHeaderNames.ETAG.toString(), staticFile.etag);
+        response.header(HttpHeaderNames.LAST_MODIFIED.toString(), DateFormatter.format(new Date(staticFile.lastModified)));
+        response.header(HttpHeaderNames.CACHE_CONTROL.toString(), "max-age=" + maxAgeSeconds);
+        response.header(HttpHeaderNames.EXPIRES.toString(), DateFormatter.format(new Date(System.currentTimeMillis() + maxAgeSeconds * 1000L)));
+        response.header(HttpHeaderNames.ACCEPT_RANGES.toString(), HttpHeaderValues.BYTES.toString());
+        if (staticFile.gzip != null || staticFile.brotli != null) {
+            response.header(HttpHeaderNames.VARY.toString(), HttpHeaderNames.ACCEPT_ENCODING.toString());
+        }
+
+        if (notModified(request.header(HttpHeaderNames.IF_NONE_MATCH), request.header(HttpHeaderNames.IF_MODIFIED_SINCE), staticFile)) {
+            response.setStatus(HttpResponseStatus.NOT_MODIFIED);
+            response.responseStatic(null, -1);
+            return;
+        }
+
+        boolean head = HttpMethod.HEAD.equals(request.httpMethod());
+        long[] range = range(request.header(HttpHeaderNames.RANGE), request.header(HttpHeaderNames.IF_RANGE), staticFile);
+        if (range == UNSATISFIABLE) {
+            response.setStatus(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.header(HttpHeaderNames.CONTENT_RANGE.toString(), "bytes */" + staticFile.length);
+            response.responseStatic(null, 0);
+            return;
+        }
+        long offset = 0;
+        long length = staticFile.length;
+        if (range != null) {
+            offset = range[0];
+            length = range[1] - range[0] + 1;
+            response.setStatus(HttpResponseStatus.PARTIAL_CONTENT);
+            response.header(HttpHeaderNames.CONTENT_RANGE.toString(), "bytes %s-%s/%s".formatted(range[0], range[1], staticFile.length));
+        }
+
+        if (staticFile.bytes == null) {
+            response.responseFile(head ? null : staticFile.file, offset, length);
+            return;
+        }
+        byte[] body = staticFile.bytes;
+        if (range == null) {
+            /*分段请求只按原始内容计算*/
+            String acceptEncoding = request.headerOptional(HttpHeaderNames.ACCEPT_ENCODING).map(String::toLowerCase).orElse("");
+            if (staticFile.brotli != null && acceptEncoding.contains("br")) {
+                body = staticFile.brotli;
+                response.header(HttpHeaderNames.CONTENT_ENCODING.toString(), HttpHeaderValues.BR.toString());
+                response.header(HttpHeaderNames.ETAG.toString(), variantEtag(staticFile.etag, "br"));
+            } else if (staticFile.gzip != null && acceptEncoding.contains("gzip")) {
+                body = staticFile.gzip;
+                response.header(HttpHeaderNames.CONTENT_ENCODING.toString(), HttpHeaderValues.GZIP.toString());
+                response.header(HttpHeaderNames.ETAG.toString(), variantEtag(staticFile.etag, "gz"));
+            }
+            length = body.length;
+        }
+        response.responseStatic(head ? null : Unpooled.wrappedBuffer(body, (int) offset, (int) length), length);
+    }
+
+    /**
+     * 查找资源
+     *
+     * @param uriPath 请求路径
+     * @return 不存在或者路径不合法返回 null
+     */
+    public StaticFile find(String uriPath) throws IOException {
+        if (uriPath.contains("..") || uriPath.indexOf('\\') >= 0) {
+            /*不允许访问根目录以外的文件*/
+            return null;
+        }
+        String resourcePath = root + uriPath;
+        StaticFile staticFile;
+        synchronized (this) {
+            staticFile = cache.get(resourcePath);
+        }
+        if (staticFile != null && staticFile.fresh()) {
+            return staticFile;
+        }
+        staticFile = load(resourcePath);
+        synchronized (this) {
+            StaticFile old = cache.remove(resourcePath);
+            if (old != null) cacheBytes -= old.weight();
+            if (staticFile != null && staticFile.bytes != null && staticFile.weight() <= maxCacheBytes) {
+                cache.put(resourcePath, staticFile);
+                cacheBytes += staticFile.weight();
+                Iterator<StaticFile> iterator = cache.values().iterator();
+                while (cacheBytes > maxCacheBytes && iterator.hasNext()) {
+                    cacheBytes -= iterator.next().weight();
+                    iterator.remove();
+                }
+            }
+        }
+        return staticFile;
+    }
+
+    /** 清空缓存 */
+    public synchronized void clear() {
+        cache.clear();
+        cacheBytes = 0;
+    }
+
+    StaticFile load(String resourcePath) throws IOException {
+        File file = new File(resourcePath);
+        if (!file.isFile()) {
+            file = new File("config/" + resourcePath);
+        }
+        if (file.isFile()) {
+            long length = file.length();
+            long lastModified = file.lastModified();
+            HttpHeadValueType contentType = HttpHeadValueType.findContentType(resourcePath);
+            if (length > maxCacheFileBytes) {
+                String etag = "\"%s-%s\"".formatted(Long.toHexString(length), Long.toHexString(lastModified));
+                return new StaticFile(file, length, lastModified, etag, contentType, null, null, null);
+            }
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            File gzFile = new File(file.getPath() + ".gz");
+            File brFile = new File(file.getPath() + ".br");
+            byte[] gzip = gzFile.isFile() ? Files.readAllBytes(gzFile.toPath()) : gzip(contentType, bytes);
+            byte[] brotli = brFile.isFile() ? Files.readAllBytes(brFile.toPath()) : null;
+            return new StaticFile(file, bytes.length, lastModified, etag(bytes), contentType, bytes, gzip, brotli);
+        }
+        URL url = classLoader.getResource(resourcePath);
+        if (url == null || resourcePath.endsWith("/")) return null;
+        if ("file".equals(url.getProtocol()) && new File(url.getPath()).isDirectory()) return null;
+        URLConnection connection = url.openConnection();
+        byte[] bytes;
+        try (InputStream inputStream = connection.getInputStream()) {
+            bytes = inputStream.readAllBytes();
+        }
+        long lastModified = connection.getLastModified();
+        if (lastModified <= 0) lastModified = System.currentTimeMillis();
+        HttpHeadValueType contentType = HttpHeadValueType.findContentType(resourcePath);
+        byte[] gzip = readResource(resourcePath + ".gz");
+        if (gzip == null) gzip = gzip(contentType, bytes);
+        byte[] brotli = readResource(resourcePath + ".br");
+        return new StaticFile(null, bytes.length, lastModified, etag(bytes), contentType, bytes, gzip, brotli);
+    }
+
+    byte[] readResource(String resourcePath) throws IOException {
+        try (InputStream inputStream = classLoader.getResourceAsStream(resourcePath)) {
+            return inputStream == null ? null : inputStream.readAllBytes();
+        }
+    }
+
+    /** 文本资源压缩，压缩之后没有变小的不保留 */
+    static byte[] gzip(HttpHeadValueType contentType, byte[] bytes) {
+        if (bytes.length <= GZIP_MIN_LENGTH) return null;
+        switch (contentType) {
+            case Html, CSS, Javascript, Xml, Json, XJson, Text -> {
+                byte[] gzip = GzipUtil.gzip(bytes);
+                return gzip.length < bytes.length ? gzip : null;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /** 内容的强校验 ETag */
+    static String etag(byte[] bytes) {
+        CRC32C crc32C = new CRC32C();
+        crc32C.update(bytes);
+        return "\"%s-%s\"".formatted(Integer.toHexString(bytes.length), Long.toHexString(crc32C.getValue()));
+    }
+
+    /** 压缩后的内容不同，ETag 也要不同 */
+    static String variantEtag(String etag, String encoding) {
+        return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+    }
+
+    /**
+     * 协商缓存，有 If-None-Match 的时候忽略 If-Modified-Since
+     *
+     * @return true 返回 304
+     */
+    public static boolean notModified(String ifNoneMatch, String ifModifiedSince, StaticFile staticFile) {
+        if (StringUtils.isNotBlank(ifNoneMatch)) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.equals("*")) return true;
+                /*If-None-Match 使用弱比较*/
+                if (tag.startsWith("W/")) tag = tag.substring(2);
+                if (tag.equals(staticFile.etag)
+                    || tag.equals(variantEtag(staticFile.etag, "gz"))
+                    || tag.equals(variantEtag(staticFile.etag, "br"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (StringUtils.isNotBlank(ifModifiedSince)) {
+            Date date = DateFormatter.parseHttpDate(ifModifiedSince);
+            /*http 时间只精确到秒*/
+            return date != null && staticFile.lastModified / 1000 <= date.getTime() / 1000;
+        }
+        return false;
+    }
+
+    /**
+     * 解析单个 Range，多段的请求按完整内容返回
+     *
+     * @return null 返回完整内容；{@link #UNSATISFIABLE} 返回 416；否则 [开始, 结束] 都包含
+     */
+    public static long[] range(String range, String ifRange, StaticFile staticFile) {
+        if (StringUtils.isBlank(range) || !range.startsWith("bytes=") || range.indexOf(',') >= 0) return null;
+        if (StringUtils.isNotBlank(ifRange)) {
+            /*If-Range 使用强比较，不一致的时候返回完整内容*/
+            Date date = ifRange.startsWith("\"") || ifRange.startsWith("W/") ? null : DateFormatter.parseHttpDate(ifRange);
+            boolean match = date != null ? staticFile.lastModified / 1000 == date.getTime() / 1000 : ifRange.equals(staticFile.etag);
+            if (!match) return null;
+        }
+        String spec = range.substring(6).trim();
+        int index = spec.indexOf('-');
+        if (index < 0) return null;
+        long length = staticFile.length;
+        try {
+            long start;
+            long end;
+            if (index == 0) {
+                /*最后 n 个字节*/
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) return UNSATISFIABLE;
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, index));
+                end = index == spec.length() - 1 ? length - 1 : Math.min(length - 1, Long.parseLong(spec.substring(index + 1)));
+            }
+            if (start >= length || start > end) return UNSATISFIABLE;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 静态资源
+     *
+     * @param file         本地文件，jar 包内资源是 null
+     * @param length       原始内容长度
+     * @param lastModified 修改时间
+     * @param etag         强校验 ETag
+     * @param contentType  类型
+     * @param bytes        原始内容，大的本地文件是 null
+     * @param gzip         gzip 内容，没有是 null
+     * @param brotli       预先压缩好的 br 内容，没有是 null
+     */
+    public record StaticFile(File file, long length, long lastModified, String etag, HttpHeadValueType contentType,
+                             byte[] bytes, byte[] gzip, byte[] brotli) {
+
+        /** 本地文件没有修改 */
+        boolean fresh() {
+            return file == null || (file.lastModified() == lastModified && file.length() == length);
+        }
+
+        long weight() {
+            return (bytes == null ? 0 : bytes.length) + (gzip == null ? 0 : gzip.length) + (brotli == null ? 0 : brotli.length);
+        }
+
+    }
+
+    @Override public String toString() {
+        synchronized (this) {
+            return "HttpStaticContent{root='%s', files=%s, bytes=%s}".formatted(root, cache.size(), cacheBytes);
+        }
+    }
+
+    /** 缓存的文件 */
+    public synchronized Map<String, Long> cacheWeights() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        cache.forEach((k, v) -> map.put(k, v.weight()));
+        return map;
+    }
+
+}
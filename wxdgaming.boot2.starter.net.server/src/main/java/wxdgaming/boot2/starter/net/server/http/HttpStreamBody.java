@@ -0,0 +1,113 @@
+package wxdgaming.boot2.starter.net.server.http;
+
+import com.alibaba.fastjson.JSONObject;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.multipart.*;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.chatset.StringUtils;
+import wxdgaming.boot2.starter.net.http.HttpHeadValueType;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 流式接收的请求体，不经过 {@link io.netty.handler.codec.http.HttpObjectAggregator} 聚合
+ * <p>multipart 请求边接收边解码，超过 {@link #MEMORY_LIMIT} 的部分直接写入磁盘；
+ * 其他请求的内容整体作为名字是 {@link #BODY} 的上传文件
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 08:00
+ **/
+@Slf4j
+@Getter
+public class HttpStreamBody implements AutoCloseable {
+
+    /** 非 multipart 请求的内容在上传文件里的名字 */
+    public static final String BODY = "body";
+    /** 超过这个大小写入磁盘 */
+    public static final long MEMORY_LIMIT = 16 * 1024;
+    /** 超过 {@link #MEMORY_LIMIT} 写入磁盘 */
+    static final HttpDataFactory factory = new DefaultHttpDataFactory(MEMORY_LIMIT, StandardCharsets.UTF_8);
+
+    private final HttpRequest request;
+    private final long maxLength;
+    private final HttpPostMultipartRequestDecoder decoder;
+    private final FileUpload body;
+    private long received = 0;
+
+    public HttpStreamBody(HttpRequest request, long maxLength) {
+        this.request = request;
+        this.maxLength = maxLength;
+        String contentType = request.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType != null && contentType.toLowerCase().contains("multipart")) {
+            this.decoder = new HttpPostMultipartRequestDecoder(factory, request, StandardCharsets.UTF_8);
+            this.decoder.setDiscardThreshold(0);
+            this.body = null;
+        } else {
+            this.decoder = null;
+            this.body = factory.createFileUpload(
+                    request, BODY, BODY,
+                    StringUtils.isBlank(contentType) ? HttpHeadValueType.OctetStream.getValue() : contentType,
+                    "binary", null, 0
+            );
+        }
+    }
+
+    /**
+     * 接收一段内容，调用方负责释放 content
+     *
+     * @return false 超过长度上限
+     */
+    public boolean offer(HttpContent content) throws IOException {
+        received += content.content().readableBytes();
+        if (maxLength > 0 && received > maxLength) {
+            return false;
+        }
+        boolean last = content instanceof LastHttpContent;
+        if (decoder != null) {
+            decoder.offer(content);
+        } else {
+            body.addContent(content.content().retain(), last);
+        }
+        return true;
+    }
+
+    /** 收到的表单参数和文件，和聚合之后的 multipart 请求一样 */
+    void collect(JSONObject reqParams, Map<String, FileUpload> uploadFileMap) throws IOException {
+        if (decoder == null) {
+            uploadFileMap.put(BODY, body);
+            return;
+        }
+        for (InterfaceHttpData data : decoder.getBodyHttpDatas()) {
+            if (data instanceof Attribute attribute) {
+                String value = URLDecoder.decode(attribute.getValue(), StandardCharsets.UTF_8);
+                String get = reqParams.getString(data.getName());
+                reqParams.put(data.getName(), StringUtils.isNotBlank(get) ? get + "," + value : value);
+            } else if (data instanceof FileUpload fileUpload && fileUpload.isCompleted()) {
+                uploadFileMap.put(URLDecoder.decode(fileUpload.getFilename(), StandardCharsets.UTF_8), fileUpload);
+            }
+        }
+    }
+
+    /** 删除临时文件 */
+    @Override public void close() {
+        try {
+            if (decoder != null) {
+                decoder.cleanFiles();
+                decoder.destroy();
+            } else {
+                /*工厂按请求记录了创建的上传文件，从记录里移除同时释放，释放的时候删除临时文件*/
+                factory.cleanRequestHttpData(request);
+            }
+        } catch (Exception e) {
+            log.debug("close() {}", request.uri(), e);
+        }
+    }
+
+}
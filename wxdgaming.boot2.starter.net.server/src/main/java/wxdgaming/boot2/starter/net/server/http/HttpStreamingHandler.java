@@ -0,0 +1,137 @@
+package wxdgaming.boot2.starter.net.server.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.*;
+import lombok.extern.slf4j.Slf4j;
+import wxdgaming.boot2.core.util.BytesUnit;
+import wxdgaming.boot2.starter.net.ChannelUtil;
+import wxdgaming.boot2.starter.net.MessageDecode;
+
+/**
+ * 流式接收请求体，放在 {@link HttpObjectAggregator} 前面
+ * <p>{@link wxdgaming.boot2.starter.net.ann.HttpRequest#streaming()} 的路由直接消费 {@link HttpContent} 分块，
+ * 接收完成之后按普通请求派发；其他请求原样交给后面的聚合器
+ * <p>每个连接一个实例
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 08:00
+ **/
+@Slf4j
+public class HttpStreamingHandler extends ChannelInboundHandlerAdapter {
+
+    private final HttpListenerFactory httpListenerFactory;
+    /** 正在接收的请求体 */
+    private HttpStreamBody streamBody = null;
+    /** 超过上限之后丢弃剩余的分块 */
+    private boolean discarding = false;
+
+    public HttpStreamingHandler(HttpListenerFactory httpListenerFactory) {
+        this.httpListenerFactory = httpListenerFactory;
+    }
+
+    @Override public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest request && !(msg instanceof FullHttpRequest)) {
+            if (streamBody == null && !discarding && request.decoderResult().isSuccess()) {
+                HttpMapping httpMapping = httpListenerFactory.getHttpListenerContent().streamingMapping(request);
+                if (httpMapping != null) {
+                    start(ctx, request, httpMapping);
+                    return;
+                }
+            }
+        } else if (msg instanceof HttpContent content && (streamBody != null || discarding)) {
+            try {
+                read(ctx, content);
+            } finally {
+                content.release();
+            }
+            return;
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    void start(ChannelHandlerContext ctx, HttpRequest request, HttpMapping httpMapping) {
+        long maxLength = BytesUnit.Mb.toBytes(httpMapping.httpRequest().streamMaxMB());
+        if (maxLength > 0 && HttpUtil.getContentLength(request, -1L) > maxLength) {
+            tooLarge(ctx, request);
+            return;
+        }
+        if (HttpUtil.is100ContinueExpected(request)) {
+            ctx.writeAndFlush(new DefaultFullHttpResponse(request.protocolVersion(), HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER));
+            request.headers().remove(HttpHeaderNames.EXPECT);
+        }
+        streamBody = new HttpStreamBody(request, maxLength);
+    }
+
+    void read(ChannelHandlerContext ctx, HttpContent content) throws Exception {
+        boolean last = content instanceof LastHttpContent;
+        if (discarding) {
+            if (last) discarding = false;
+            return;
+        }
+        HttpStreamBody body = this.streamBody;
+        boolean offer;
+        try {
+            offer = body.offer(content);
+        } catch (Exception e) {
+            this.streamBody = null;
+            body.close();
+            throw e;
+        }
+        if (!offer) {
+            this.streamBody = null;
+            body.close();
+            tooLarge(ctx, body.getRequest());
+            discarding = !last;
+            return;
+        }
+        if (last) {
+            this.streamBody = null;
+            HttpRequest request = body.getRequest();
+            DefaultFullHttpRequest fullHttpRequest = new DefaultFullHttpRequest(
+                    request.protocolVersion(), request.method(), request.uri(),
+                    Unpooled.EMPTY_BUFFER, request.headers(), ((LastHttpContent) content).trailingHeaders()
+            );
+            /*和普通请求一样从解码器的位置响应，经过 ChunkedWriteHandler*/
+            ChannelHandlerContext decodeCtx = ctx.pipeline().context(MessageDecode.class);
+            httpListenerFactory.getHttpListenerContent().dispatch(decodeCtx == null ? ctx : decodeCtx, fullHttpRequest, body);
+        }
+    }
+
+    /** 超过上限返回 413 并断开连接 */
+    void tooLarge(ChannelHandlerContext ctx, HttpRequest request) {
+        log.warn("{} 请求体超过上限 {}", ChannelUtil.ctxTostring(ctx), request.uri());
+        DefaultFullHttpResponse response = new DefaultFullHttpResponse(
+                request.protocolVersion(), HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, Unpooled.EMPTY_BUFFER
+        );
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        discarding = true;
+    }
+
+    @Override public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        release();
+        super.channelInactive(ctx);
+    }
+
+    @Override public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        release();
+        super.handlerRemoved(ctx);
+    }
+
+    void release() {
+        if (streamBody != null) {
+            streamBody.close();
+            streamBody = null;
+        }
+    }
+
+    @Override public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        release();
+        super.exceptionCaught(ctx, cause);
+    }
+
+}
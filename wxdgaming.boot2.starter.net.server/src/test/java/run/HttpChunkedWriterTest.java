@@ -0,0 +1,128 @@
+package run;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.zip.GzipUtil;
+import wxdgaming.boot2.starter.net.server.http.HttpChunkedWriter;
+import wxdgaming.boot2.starter.net.server.http.HttpContext;
+import wxdgaming.boot2.starter.net.server.http.HttpServerConfig;
+import wxdgaming.boot2.starter.net.server.http.HttpSseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 分块输出测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 07:30
+ **/
+public class HttpChunkedWriterTest {
+
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+
+    HttpContext httpContext(String acceptEncoding) throws Exception {
+        ChannelHandlerContext ctx = channel.pipeline().firstContext();
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/export");
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+        if (acceptEncoding != null) request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, acceptEncoding);
+        return new HttpContext(new HttpServerConfig(false, false), ctx, request);
+    }
+
+    /** 读取所有分块，检查结束块 */
+    byte[] readBody(HttpResponse response) {
+        Assert.assertTrue(HttpUtil.isTransferEncodingChunked(response));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Object msg;
+        while ((msg = channel.readOutbound()) != null) {
+            HttpContent content = (HttpContent) msg;
+            ByteBuf byteBuf = content.content();
+            body.writeBytes(ByteBufUtil.getBytes(byteBuf));
+            content.release();
+            if (msg instanceof LastHttpContent) {
+                Assert.assertNull(channel.readOutbound());
+                return body.toByteArray();
+            }
+        }
+        throw new AssertionError("没有结束块");
+    }
+
+    @Test
+    public void chunked() throws Exception {
+        HttpContext httpContext = httpContext(null);
+        byte[] bytes = new byte[HttpChunkedWriter.CHUNK_SIZE * 2 + 100];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) i;
+        try (HttpChunkedWriter writer = httpContext.getResponse().responseChunked(true)) {
+            Assert.assertFalse(writer.isGzip());
+            writer.write(bytes, 0, 100);
+            writer.write(bytes, 100, bytes.length - 100);
+        }
+        HttpResponse response = channel.readOutbound();
+        Assert.assertNull(response.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        Assert.assertArrayEquals(bytes, readBody(response));
+        /*已经开始分块输出，普通的响应不再生效*/
+        httpContext.getResponse().response("ignored");
+        Assert.assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void gzip() throws Exception {
+        HttpContext httpContext = httpContext("gzip, deflate");
+        StringBuilder expected = new StringBuilder();
+        HttpChunkedWriter writer = httpContext.getResponse().responseChunked(true);
+        Assert.assertTrue(writer.isGzip());
+        for (int i = 0; i < 5000; i++) {
+            String line = "{\"id\":" + i + ",\"name\":\"player" + i + "\"}\n";
+            expected.append(line);
+            writer.write(line);
+        }
+        writer.close();
+        HttpResponse response = channel.readOutbound();
+        Assert.assertEquals("gzip", response.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        byte[] body = readBody(response);
+        Assert.assertTrue(body.length < expected.length());
+        Assert.assertEquals(expected.toString(), new String(GzipUtil.unGZip(body), StandardCharsets.UTF_8));
+        Assert.assertThrows(IOException.class, () -> writer.write("closed"));
+    }
+
+    @Test
+    public void sse() throws Exception {
+        HttpContext httpContext = httpContext("gzip");
+        HttpSseEmitter emitter = httpContext.getResponse().responseSse();
+        HttpResponse response = channel.readOutbound();
+        Assert.assertTrue(response.headers().get(HttpHeaderNames.CONTENT_TYPE).startsWith("text/event-stream"));
+        /*推送不压缩*/
+        Assert.assertNull(response.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+
+        emitter.send("tick", "1", "a\nb");
+        HttpContent content = channel.readOutbound();
+        Assert.assertEquals("event: tick\nid: 1\ndata: a\ndata: b\n\n", content.content().toString(StandardCharsets.UTF_8));
+        content.release();
+
+        emitter.comment("ping");
+        content = channel.readOutbound();
+        Assert.assertEquals(": ping\n\n", content.content().toString(StandardCharsets.UTF_8));
+        content.release();
+
+        emitter.close();
+        Assert.assertTrue(channel.readOutbound() instanceof LastHttpContent);
+        Assert.assertFalse(emitter.isOpen());
+    }
+
+    @Test
+    public void disconnect() throws Exception {
+        HttpContext httpContext = httpContext(null);
+        HttpChunkedWriter writer = httpContext.getResponse().responseChunked(false);
+        channel.close();
+        Assert.assertThrows(IOException.class, () -> writer.write("x"));
+        Assert.assertFalse(writer.isOpen());
+    }
+
+}
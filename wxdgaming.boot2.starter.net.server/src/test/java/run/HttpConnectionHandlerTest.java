@@ -0,0 +1,193 @@
+package run;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.net.server.http.HttpConnectionHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * http 连接管理测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 09:30
+ **/
+public class HttpConnectionHandlerTest {
+
+    final List<HttpRequest> received = new ArrayList<>();
+
+    EmbeddedChannel channel(int keepAliveSeconds, int maxRequests, int maxPipelined) {
+        return channel(keepAliveSeconds, 0, maxRequests, maxPipelined);
+    }
+
+    EmbeddedChannel channel(int keepAliveSeconds, int responseTimeoutSeconds, int maxRequests, int maxPipelined) {
+        return new EmbeddedChannel(
+                new HttpConnectionHandler(keepAliveSeconds, responseTimeoutSeconds, maxRequests, maxPipelined, null),
+                new ChannelInboundHandlerAdapter() {
+                    @Override public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        received.add((HttpRequest) msg);
+                    }
+                }
+        );
+    }
+
+    static FullHttpRequest request(String uri) {
+        return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+    }
+
+    static FullHttpResponse response() {
+        DefaultFullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+        return response;
+    }
+
+    @Test
+    public void pipelined() {
+        EmbeddedChannel channel = channel(60, 0, 16);
+        channel.writeInbound(request("/a"), request("/b"), request("/c"));
+        /*同一个连接按顺序处理*/
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals("/a", received.get(0).uri());
+
+        channel.writeOutbound(response());
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals("/b", received.get(1).uri());
+        FullHttpResponse response = channel.readOutbound();
+        Assert.assertEquals("timeout=60", response.headers().get(HttpConnectionHandler.KEEP_ALIVE));
+
+        /*100-continue 不算响应完成*/
+        channel.writeOutbound(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE));
+        Assert.assertEquals(2, received.size());
+        channel.writeOutbound(response());
+        Assert.assertEquals(3, received.size());
+        Assert.assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void codec() {
+        /*和服务器一样解码器 -> 连接管理 -> 聚合器*/
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new HttpServerCodec(),
+                new HttpConnectionHandler(60, 0, 0, 16, null),
+                new HttpObjectAggregator(1 << 20),
+                new ChannelInboundHandlerAdapter() {
+                    @Override public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        received.add((HttpRequest) msg);
+                    }
+                }
+        );
+        String raw = "GET /a HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                     + "POST /b HTTP/1.1\r\nHost: localhost\r\nContent-Length: 5\r\n\r\nhello"
+                     + "GET /c HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        channel.writeInbound(Unpooled.copiedBuffer(raw, StandardCharsets.US_ASCII));
+        /*当前请求的内容分块交给聚合器，后面的请求排队*/
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals("/a", received.get(0).uri());
+        Assert.assertTrue(received.get(0) instanceof FullHttpRequest);
+
+        channel.writeOutbound(response());
+        Assert.assertEquals(2, received.size());
+        FullHttpRequest post = (FullHttpRequest) received.get(1);
+        Assert.assertEquals("/b", post.uri());
+        Assert.assertEquals("hello", post.content().toString(StandardCharsets.US_ASCII));
+
+        channel.writeOutbound(response());
+        Assert.assertEquals(3, received.size());
+        Assert.assertEquals("/c", received.get(2).uri());
+        received.forEach(request -> ((FullHttpRequest) request).release());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void maxPipelined() {
+        EmbeddedChannel channel = channel(60, 0, 2);
+        channel.writeInbound(request("/a"), request("/b"));
+        Assert.assertTrue(channel.config().isAutoRead());
+        channel.writeInbound(request("/c"));
+        /*排队达到上限暂停读取*/
+        Assert.assertFalse(channel.config().isAutoRead());
+        channel.writeOutbound(response());
+        Assert.assertTrue(channel.config().isAutoRead());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void maxRequests() {
+        EmbeddedChannel channel = channel(60, 2, 16);
+        channel.writeInbound(request("/a"));
+        channel.writeOutbound(response());
+        FullHttpResponse first = channel.readOutbound();
+        Assert.assertEquals("timeout=60, max=1", first.headers().get(HttpConnectionHandler.KEEP_ALIVE));
+
+        channel.writeInbound(request("/b"), request("/c"));
+        /*最后一个请求按不保持连接处理*/
+        Assert.assertFalse(HttpUtil.isKeepAlive(received.get(1)));
+        channel.writeOutbound(response());
+        FullHttpResponse last = channel.readOutbound();
+        Assert.assertEquals("close", last.headers().get(HttpHeaderNames.CONNECTION));
+        Assert.assertFalse(channel.isOpen());
+        Assert.assertEquals(2, received.size());
+    }
+
+    @Test
+    public void connectionClose() {
+        EmbeddedChannel channel = channel(60, 0, 16);
+        FullHttpRequest request = request("/a");
+        request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        channel.writeInbound(request);
+        channel.writeOutbound(response());
+        Assert.assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void idle() throws Exception {
+        EmbeddedChannel channel = channel(1, 0, 16);
+        channel.writeInbound(request("/a"));
+        Thread.sleep(1100);
+        channel.runScheduledPendingTasks();
+        /*处理中的请求不算空闲*/
+        Assert.assertTrue(channel.isOpen());
+        channel.writeOutbound(response());
+        Thread.sleep(1100);
+        channel.runScheduledPendingTasks();
+        Assert.assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void responseTimeout() throws Exception {
+        EmbeddedChannel channel = channel(60, 1, 0, 16);
+        channel.writeInbound(request("/a"));
+        channel.writeOutbound(response());
+        channel.writeInbound(request("/b"));
+        Thread.sleep(1100);
+        channel.runScheduledPendingTasks();
+        /*请求超过响应超时还没有开始响应，断开*/
+        Assert.assertFalse(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void respondingNoTimeout() throws Exception {
+        EmbeddedChannel channel = channel(60, 1, 0, 16);
+        channel.writeInbound(request("/a"));
+        /*已经开始分块响应的推送不算超时*/
+        DefaultHttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        HttpUtil.setTransferEncodingChunked(response, true);
+        channel.writeOutbound(response);
+        Thread.sleep(1100);
+        channel.runScheduledPendingTasks();
+        Assert.assertTrue(channel.isOpen());
+        channel.writeOutbound(LastHttpContent.EMPTY_LAST_CONTENT);
+        Assert.assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+}
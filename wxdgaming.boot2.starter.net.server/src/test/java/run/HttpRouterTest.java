@@ -0,0 +1,165 @@
+package run;
+
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.lang.DiffTime;
+import wxdgaming.boot2.starter.net.server.http.HttpRouter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 前缀树路由测试，对比原来按完整路径转小写查 HashMap
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 05:10
+ **/
+public class HttpRouterTest {
+
+    public static void main(String[] args) {
+        String[] modules = {"player", "mail", "guild", "bag", "shop", "rank", "task", "chat", "gm", "login"};
+        Map<String, String> map = new HashMap<>();
+        HttpRouter<String> router = new HttpRouter<>();
+        String[] paths = new String[5000];
+        for (int i = 0; i < paths.length; i++) {
+            String path = "/" + modules[i % modules.length] + "/Action" + i;
+            paths[i] = path;
+            map.put(path.toLowerCase(), path);
+            router.add(path, "", path);
+        }
+        router.add("/player/{id}/mail/{mailId}", "GET", "mail");
+        HttpRouter.Match<String> match = router.newMatch();
+        int count = 1000_0000;
+        long hit = 0;
+        for (int k = 0; k < 5; k++) {
+            DiffTime diffTime = new DiffTime();
+            hit += mapLoop(map, paths, count);
+            System.out.println("HashMap    " + count + " 次 耗时:" + diffTime.diff() + " ms");
+            diffTime.reset();
+            hit += routerLoop(router, match, paths, count);
+            System.out.println("HttpRouter " + count + " 次 耗时:" + diffTime.diff() + " ms");
+            diffTime.reset();
+            hit += varLoop(router, match, count);
+            System.out.println("HttpRouter 变量 " + count + " 次 耗时:" + diffTime.diff() + " ms");
+        }
+        System.out.println(hit);
+    }
+
+    /** 原来的查找方式，每次都要把路径转小写 */
+    static long mapLoop(Map<String, String> map, String[] paths, int count) {
+        long hit = 0;
+        for (int i = 0; i < count; i++) {
+            if (map.get(paths[i % paths.length].toLowerCase()) != null) hit++;
+        }
+        return hit;
+    }
+
+    static long routerLoop(HttpRouter<String> router, HttpRouter.Match<String> match, String[] paths, int count) {
+        long hit = 0;
+        for (int i = 0; i < count; i++) {
+            if (router.match("GET", paths[i % paths.length], match)) hit++;
+        }
+        return hit;
+    }
+
+    static long varLoop(HttpRouter<String> router, HttpRouter.Match<String> match, int count) {
+        long hit = 0;
+        for (int i = 0; i < count; i++) {
+            if (router.match("GET", "/player/10086/mail/7", match)) hit++;
+        }
+        return hit;
+    }
+
+    @Test
+    public void staticRoute() {
+        HttpRouter<String> router = new HttpRouter<>();
+        router.add("/player/list", "", "list");
+        router.add("/player/listAll", "", "listAll");
+        router.add("/player/login", "", "login");
+        router.add("/p", "", "p");
+        HttpRouter.Match<String> match = router.newMatch();
+        Assert.assertTrue(router.match("GET", "/player/list", match));
+        Assert.assertEquals("list", match.handler());
+        Assert.assertTrue(router.match("GET", "/Player/LISTALL", match));
+        Assert.assertEquals("listAll", match.handler());
+        Assert.assertTrue(router.match("GET", "/player/login", match));
+        Assert.assertEquals("login", match.handler());
+        Assert.assertTrue(router.match("GET", "/p", match));
+        Assert.assertEquals("p", match.handler());
+        Assert.assertFalse(router.match("GET", "/player/lis", match));
+        Assert.assertFalse(router.match("GET", "/player/list/1", match));
+        Assert.assertEquals(4, router.getSize());
+    }
+
+    @Test
+    public void varRoute() {
+        HttpRouter<String> router = new HttpRouter<>();
+        router.add("/player/{id}/mail/{mailId}", "", "mail");
+        router.add("/player/{id}", "", "player");
+        router.add("/player/top", "", "top");
+        router.add("/res/{*file}", "", "res");
+        router.add("/static/*", "", "static");
+        HttpRouter.Match<String> match = router.newMatch();
+
+        Assert.assertTrue(router.match("GET", "/player/AbC/mail/7", match));
+        Assert.assertEquals("mail", match.handler());
+        /*变量保留原始大小写*/
+        Assert.assertEquals("AbC", match.var("id"));
+        Assert.assertEquals("7", match.var("mailId"));
+        Assert.assertEquals(Map.of("id", "AbC", "mailId", "7"), match.vars());
+
+        /*静态优先*/
+        Assert.assertTrue(router.match("GET", "/player/top", match));
+        Assert.assertEquals("top", match.handler());
+        Assert.assertTrue(router.match("GET", "/player/topx", match));
+        Assert.assertEquals("player", match.handler());
+        Assert.assertEquals("topx", match.var("id"));
+
+        Assert.assertTrue(router.match("GET", "/res/img/a.png", match));
+        Assert.assertEquals("img/a.png", match.var("file"));
+        Assert.assertTrue(router.match("GET", "/static/js/a.js", match));
+        Assert.assertEquals("js/a.js", match.var("*"));
+        Assert.assertFalse(router.match("GET", "/player", match));
+        Assert.assertFalse(router.match("GET", "/player/1/mail", match));
+    }
+
+    @Test
+    public void backtrack() {
+        HttpRouter<String> router = new HttpRouter<>();
+        router.add("/a/b/c", "", "static");
+        router.add("/a/{x}/d", "", "var");
+        HttpRouter.Match<String> match = router.newMatch();
+        /*静态分支 b 走不通之后回到变量分支*/
+        Assert.assertTrue(router.match("GET", "/a/b/d", match));
+        Assert.assertEquals("var", match.handler());
+        Assert.assertEquals("b", match.var("x"));
+    }
+
+    @Test
+    public void method() {
+        HttpRouter<String> router = new HttpRouter<>();
+        router.add("/role/{id}", "get", "get");
+        router.add("/role/{id}", "POST", "post");
+        router.add("/role/create", "post", "create");
+        HttpRouter.Match<String> match = router.newMatch();
+        Assert.assertTrue(router.match("GET", "/role/1", match));
+        Assert.assertEquals("get", match.handler());
+        Assert.assertTrue(router.match("post", "/role/1", match));
+        Assert.assertEquals("post", match.handler());
+        /*静态路由只有 post，get 请求落到变量路由*/
+        Assert.assertTrue(router.match("GET", "/role/create", match));
+        Assert.assertEquals("get", match.handler());
+        Assert.assertTrue(match.isMethodAllowed());
+        /*路径存在但是请求方式不对*/
+        Assert.assertTrue(router.match("DELETE", "/role/1", match));
+        Assert.assertFalse(match.isMethodAllowed());
+        /*重复注册返回旧的*/
+        Assert.assertEquals("get", router.add("/role/{uid}", "GET", "get2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void badPattern() {
+        new HttpRouter<String>().add("/res/*/a", "", "x");
+    }
+
+}
@@ -0,0 +1,113 @@
+package run;
+
+import io.netty.handler.codec.DateFormatter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import wxdgaming.boot2.starter.net.http.HttpHeadValueType;
+import wxdgaming.boot2.starter.net.server.http.HttpStaticContent;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+/**
+ * 静态资源缓存测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 06:30
+ **/
+public class HttpStaticContentTest {
+
+    Path root;
+    HttpStaticContent staticContent;
+
+    @Before
+    public void before() throws Exception {
+        root = Files.createTempDirectory("static");
+        Files.writeString(root.resolve("index.html"), "<html>" + "a".repeat(2000) + "</html>");
+        Files.write(root.resolve("big.bin"), new byte[4096]);
+        staticContent = new HttpStaticContent(root.toString(), getClass().getClassLoader(), 1024 * 1024, 3000, 3600);
+    }
+
+    @Test
+    public void cache() throws Exception {
+        HttpStaticContent.StaticFile index = staticContent.find("/index.html");
+        Assert.assertNotNull(index);
+        Assert.assertEquals(HttpHeadValueType.Html, index.contentType());
+        Assert.assertNotNull(index.gzip());
+        Assert.assertTrue(index.gzip().length < index.bytes().length);
+        /*第二次直接命中缓存*/
+        Assert.assertSame(index, staticContent.find("/index.html"));
+
+        /*文件修改之后重新加载*/
+        File file = root.resolve("index.html").toFile();
+        Files.writeString(file.toPath(), "<html>b</html>", StandardCharsets.UTF_8);
+        file.setLastModified(index.lastModified() + 2000);
+        HttpStaticContent.StaticFile changed = staticContent.find("/index.html");
+        Assert.assertNotSame(index, changed);
+        Assert.assertNotEquals(index.etag(), changed.etag());
+        Assert.assertNull(changed.gzip());
+
+        /*大文件不缓存内容*/
+        HttpStaticContent.StaticFile big = staticContent.find("/big.bin");
+        Assert.assertNull(big.bytes());
+        Assert.assertEquals(4096, big.length());
+        Assert.assertFalse(staticContent.cacheWeights().containsKey(root + "/big.bin"));
+
+        Assert.assertNull(staticContent.find("/none.html"));
+        Assert.assertNull(staticContent.find("/../etc/passwd"));
+        Assert.assertNull(staticContent.find("/..\\etc\\passwd"));
+    }
+
+    @Test
+    public void evict() throws Exception {
+        HttpStaticContent small = new HttpStaticContent(root.toString(), getClass().getClassLoader(), 2500, 2048, 3600);
+        Files.write(root.resolve("a.bin"), new byte[1500]);
+        Files.write(root.resolve("b.bin"), new byte[1500]);
+        small.find("/a.bin");
+        small.find("/b.bin");
+        /*超过上限淘汰最久没有访问的*/
+        Assert.assertEquals(1, small.cacheWeights().size());
+        Assert.assertTrue(small.cacheWeights().containsKey(root + "/b.bin"));
+    }
+
+    @Test
+    public void notModified() throws Exception {
+        HttpStaticContent.StaticFile index = staticContent.find("/index.html");
+        String etag = index.etag();
+        Assert.assertTrue(HttpStaticContent.notModified(etag, null, index));
+        Assert.assertTrue(HttpStaticContent.notModified("W/" + etag, null, index));
+        Assert.assertTrue(HttpStaticContent.notModified("\"x\", " + etag.substring(0, etag.length() - 1) + "-gz\"", null, index));
+        Assert.assertTrue(HttpStaticContent.notModified("*", null, index));
+        Assert.assertFalse(HttpStaticContent.notModified("\"x\"", null, index));
+        String lastModified = DateFormatter.format(new Date(index.lastModified()));
+        Assert.assertTrue(HttpStaticContent.notModified(null, lastModified, index));
+        Assert.assertFalse(HttpStaticContent.notModified(null, DateFormatter.format(new Date(index.lastModified() - 10_000)), index));
+        /*有 If-None-Match 的时候忽略 If-Modified-Since*/
+        Assert.assertFalse(HttpStaticContent.notModified("\"x\"", lastModified, index));
+    }
+
+    @Test
+    public void range() throws Exception {
+        HttpStaticContent.StaticFile big = staticContent.find("/big.bin");
+        Assert.assertArrayEquals(new long[]{0, 99}, HttpStaticContent.range("bytes=0-99", null, big));
+        Assert.assertArrayEquals(new long[]{4000, 4095}, HttpStaticContent.range("bytes=4000-", null, big));
+        Assert.assertArrayEquals(new long[]{4000, 4095}, HttpStaticContent.range("bytes=4000-9999", null, big));
+        Assert.assertArrayEquals(new long[]{3996, 4095}, HttpStaticContent.range("bytes=-100", null, big));
+        Assert.assertArrayEquals(new long[]{0, 4095}, HttpStaticContent.range("bytes=-10000", null, big));
+        Assert.assertSame(HttpStaticContent.UNSATISFIABLE, HttpStaticContent.range("bytes=4096-", null, big));
+        Assert.assertSame(HttpStaticContent.UNSATISFIABLE, HttpStaticContent.range("bytes=10-5", null, big));
+        /*多段和不认识的格式返回完整内容*/
+        Assert.assertNull(HttpStaticContent.range("bytes=0-1,5-6", null, big));
+        Assert.assertNull(HttpStaticContent.range("items=0-1", null, big));
+        Assert.assertNull(HttpStaticContent.range("bytes=a-b", null, big));
+        /*If-Range 不一致返回完整内容*/
+        Assert.assertArrayEquals(new long[]{0, 9}, HttpStaticContent.range("bytes=0-9", big.etag(), big));
+        Assert.assertNull(HttpStaticContent.range("bytes=0-9", "\"x\"", big));
+        Assert.assertArrayEquals(new long[]{0, 9}, HttpStaticContent.range("bytes=0-9", DateFormatter.format(new Date(big.lastModified())), big));
+    }
+
+}
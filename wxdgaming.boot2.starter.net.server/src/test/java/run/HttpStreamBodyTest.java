@@ -0,0 +1,131 @@
+package run;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.multipart.FileUpload;
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.starter.net.server.http.HttpContext;
+import wxdgaming.boot2.starter.net.server.http.HttpServerConfig;
+import wxdgaming.boot2.starter.net.server.http.HttpStreamBody;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 流式请求体和延迟解析测试
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-19 08:30
+ **/
+public class HttpStreamBodyTest {
+
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+
+    HttpContext httpContext(HttpRequest request, HttpStreamBody streamBody) throws Exception {
+        ChannelHandlerContext ctx = channel.pipeline().firstContext();
+        DefaultFullHttpRequest fullHttpRequest = new DefaultFullHttpRequest(
+                request.protocolVersion(), request.method(), request.uri(), Unpooled.EMPTY_BUFFER, request.headers(), EmptyHttpHeaders.INSTANCE
+        );
+        return new HttpContext(new HttpServerConfig(false, false), ctx, fullHttpRequest, streamBody);
+    }
+
+    /** 按固定大小切成多个分块 */
+    void offer(HttpStreamBody streamBody, byte[] bytes, int chunkSize) throws Exception {
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - i);
+            HttpContent content = i + length >= bytes.length
+                    ? new DefaultLastHttpContent(Unpooled.wrappedBuffer(bytes, i, length))
+                    : new DefaultHttpContent(Unpooled.wrappedBuffer(bytes, i, length));
+            Assert.assertTrue(streamBody.offer(content));
+            content.release();
+        }
+    }
+
+    @Test
+    public void multipart() throws Exception {
+        String log = "log line\n".repeat(10000);
+        String body = "--XyZ\r\n"
+                      + "Content-Disposition: form-data; name=\"account\"\r\n\r\n"
+                      + "wxd\r\n"
+                      + "--XyZ\r\n"
+                      + "Content-Disposition: form-data; name=\"file\"; filename=\"client.log\"\r\n"
+                      + "Content-Type: text/plain\r\n\r\n"
+                      + log + "\r\n"
+                      + "--XyZ--\r\n";
+        DefaultHttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/log/upload?server=1");
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, "multipart/form-data; boundary=XyZ");
+        HttpStreamBody streamBody = new HttpStreamBody(request, 0);
+        offer(streamBody, body.getBytes(StandardCharsets.UTF_8), 1000);
+
+        HttpContext httpContext = httpContext(request, streamBody);
+        Assert.assertEquals("wxd", httpContext.getRequest().getReqParams().getString("account"));
+        Assert.assertEquals("1", httpContext.getRequest().getReqParams().getString("server"));
+        FileUpload fileUpload = httpContext.getRequest().getUploadFileMap().get("client.log");
+        /*大文件已经写入磁盘*/
+        Assert.assertFalse(fileUpload.isInMemory());
+        File file = fileUpload.getFile();
+        Assert.assertTrue(file.exists());
+        Assert.assertEquals(log, fileUpload.getString(StandardCharsets.UTF_8));
+        httpContext.close();
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void raw() throws Exception {
+        byte[] bytes = new byte[100_000];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) i;
+        DefaultHttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.PUT, "/log/raw");
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+        HttpStreamBody streamBody = new HttpStreamBody(request, 0);
+        offer(streamBody, bytes, 8192);
+        HttpContext httpContext = httpContext(request, streamBody);
+        FileUpload fileUpload = httpContext.getRequest().getUploadFileMap().get(HttpStreamBody.BODY);
+        Assert.assertArrayEquals(bytes, fileUpload.get());
+        httpContext.close();
+    }
+
+    @Test
+    public void maxLength() throws Exception {
+        DefaultHttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/log/raw");
+        HttpStreamBody streamBody = new HttpStreamBody(request, 10);
+        DefaultHttpContent content = new DefaultHttpContent(Unpooled.wrappedBuffer(new byte[8]));
+        Assert.assertTrue(streamBody.offer(content));
+        Assert.assertFalse(streamBody.offer(content));
+        content.release();
+        streamBody.close();
+    }
+
+    @Test
+    public void lazy() throws Exception {
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(
+                HttpVersion.HTTP_1_1, HttpMethod.POST, "/player/save?a=1",
+                Unpooled.copiedBuffer("{bad json", StandardCharsets.UTF_8)
+        );
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+        /*构造的时候不解析请求体*/
+        HttpContext httpContext = new HttpContext(new HttpServerConfig(false, false), channel.pipeline().firstContext(), request);
+        Assert.assertEquals("/player/save", httpContext.getRequest().getUriPath());
+        Assert.assertEquals("{bad json", httpContext.getRequest().getReqContent());
+        Assert.assertThrows(RuntimeException.class, () -> httpContext.getRequest().getReqParams());
+        httpContext.close();
+
+        DefaultFullHttpRequest form = new DefaultFullHttpRequest(
+                HttpVersion.HTTP_1_1, HttpMethod.POST, "/player/save?a=1",
+                Unpooled.copiedBuffer("b=2&c=%E4%BD%A0", StandardCharsets.UTF_8)
+        );
+        form.headers().set(HttpHeaderNames.HOST, "localhost");
+        HttpContext formContext = new HttpContext(new HttpServerConfig(false, false), channel.pipeline().firstContext(), form);
+        Assert.assertEquals("1", formContext.getRequest().getReqParams().getString("a"));
+        Assert.assertEquals("2", formContext.getRequest().getReqParams().getString("b"));
+        Assert.assertEquals("你", formContext.getRequest().getReqParams().getString("c"));
+        Assert.assertEquals("b=2&c=你", formContext.getRequest().getReqContent());
+        formContext.close();
+    }
+
+}
@@ -0,0 +1,131 @@
+package run;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.Assert;
+import org.junit.Test;
+import wxdgaming.boot2.core.RunApplication;
+import wxdgaming.boot2.core.ann.Qualifier;
+import wxdgaming.boot2.core.assist.MethodInvoker;
+import wxdgaming.boot2.core.lang.DiffTime;
+import wxdgaming.boot2.core.reflect.GuiceReflectContext;
+import wxdgaming.boot2.starter.net.ParameterBinder;
+import wxdgaming.boot2.starter.net.SocketSession;
+import wxdgaming.boot2.starter.net.module.inner.message.ReqRemote;
+import wxdgaming.boot2.starter.net.pojo.PojoBase;
+import wxdgaming.boot2.starter.net.pojo.ProtoListenerTrigger;
+import wxdgaming.boot2.starter.net.pojo.ProtoMapping;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+
+/**
+ * 消息分发调用测试，对比 反射逐个解析参数 和 预先绑定参数 + 生成字节码调用
+ *
+ * @author: wxd-gaming(無心道, 15388152619)
+ * @version: 2026-10-18 18:50
+ **/
+public class InvokerTest {
+
+    public static void main(String[] args) throws Throwable {
+        RunApplication runApplication = new RunApplication(Guice.createInjector()) {};
+        Handler handler = new Handler();
+        Method method = Handler.class.getMethod("reqRemote", SocketSession.class, ReqRemote.class, RunApplication.class);
+        ProtoMapping mapping = new ProtoMapping(null, 1, ReqRemote.class, handler, method);
+        ProtoListenerTrigger trigger = new ProtoListenerTrigger(mapping, runApplication, null, 1, new byte[0]);
+        int count = 500_0000;
+        for (int i = 0; i < 5; i++) {
+            DiffTime diffTime = new DiffTime();
+            for (int j = 0; j < count; j++) {
+                PojoBase pojoBase = mapping.pojoClass().getDeclaredConstructor().newInstance();
+                method.invoke(handler, reflectParameters(method, runApplication, pojoBase));
+            }
+            System.out.println("反射 调用 " + count + " 次 耗时:" + diffTime.diff() + " ms");
+            diffTime.reset();
+            for (int j = 0; j < count; j++) {
+                mapping.newPojo();
+                mapping.invoker().invoke(handler, ParameterBinder.bind(mapping.binders(), trigger));
+            }
+            System.out.println("生成 调用 " + count + " 次 耗时:" + diffTime.diff() + " ms");
+        }
+        System.out.println(handler.count);
+    }
+
+    /** 原来每次调用都要执行的参数解析 */
+    static Object[] reflectParameters(Method method, RunApplication runApplication, PojoBase pojoBase) {
+        Parameter[] parameters = method.getParameters();
+        Object[] params = new Object[parameters.length];
+        for (int i = 0; i < params.length; i++) {
+            Parameter parameter = parameters[i];
+            Class<?> parameterType = parameter.getType();
+            if (GuiceReflectContext.class.isAssignableFrom(parameterType)) {
+                params[i] = parameterType.cast(runApplication.getGuiceReflectContext());
+            } else if (RunApplication.class.isAssignableFrom(parameterType)) {
+                params[i] = parameterType.cast(runApplication);
+            } else if (Injector.class.isAssignableFrom(parameterType)) {
+                params[i] = parameterType.cast(runApplication.getInjector());
+            } else if (SocketSession.class.isAssignableFrom(parameterType)) {
+                params[i] = null;
+            } else if (pojoBase.getClass().isAssignableFrom(parameterType)) {
+                params[i] = parameterType.cast(pojoBase);
+            } else {
+                Qualifier qualifier = parameter.getAnnotation(Qualifier.class);
+                params[i] = qualifier == null ? runApplication.getInstance(parameterType) : null;
+            }
+        }
+        return params;
+    }
+
+    @Test
+    public void invoke() throws Throwable {
+        Handler handler = new Handler();
+        MethodInvoker sum = MethodInvoker.of(Handler.class.getMethod("sum", int.class, long.class, Integer.class));
+        Assert.assertEquals(6L, sum.invoke(handler, new Object[]{1, 2L, 3}));
+
+        MethodInvoker join = MethodInvoker.of(Handler.class.getMethod("join", String[].class));
+        Assert.assertEquals("a,b", join.invoke(null, new Object[]{new String[]{"a", "b"}}));
+
+        /*非 public 方法退化为 MethodHandle*/
+        MethodInvoker hidden = MethodInvoker.of(Handler.class.getDeclaredMethod("hidden", int.class));
+        Assert.assertEquals(3, hidden.invoke(handler, new Object[]{2}));
+
+        Method method = Handler.class.getMethod("reqRemote", SocketSession.class, ReqRemote.class, RunApplication.class);
+        MethodInvoker reqRemote = MethodInvoker.of(method);
+        Assert.assertNull(reqRemote.invoke(handler, new Object[]{null, new ReqRemote(), null}));
+        Assert.assertEquals(1, handler.count);
+
+        try {
+            MethodInvoker.of(Handler.class.getMethod("error")).invoke(handler, new Object[0]);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            /*目标方法的异常直接抛出*/
+        }
+    }
+
+    public static class Handler {
+
+        long count = 0;
+
+        public void reqRemote(SocketSession socketSession, ReqRemote reqRemote, RunApplication runApplication) {
+            count++;
+        }
+
+        public long sum(int a, long b, Integer c) {
+            return a + b + c;
+        }
+
+        public static String join(String[] strings) {
+            return String.join(",", strings);
+        }
+
+        public void error() {
+            throw new IllegalStateException("error");
+        }
+
+        int hidden(int a) {
+            return a + 1;
+        }
+
+    }
+
+}
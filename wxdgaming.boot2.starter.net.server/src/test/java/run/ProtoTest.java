@@ -1,7 +1,13 @@
 package run;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.protostuff.Tag;
+import org.junit.Assert;
 import org.junit.Test;
+import wxdgaming.boot2.starter.net.MessageEncode;
+import wxdgaming.boot2.starter.net.PreEncodedMessage;
+import wxdgaming.boot2.starter.net.module.inner.message.ReqRemote;
 import wxdgaming.boot2.starter.net.pojo.PojoBase;
 import wxdgaming.boot2.starter.net.pojo.ProtoBuf2Pojo;
 
@@ -34,6 +40,47 @@ public class ProtoTest {
         );
     }
 
+    /** 直接从 ByteBuf 解码，堆内存和直接内存结果一致 */
+    @Test
+    public void decodeByteBuf() {
+        ReqRemote reqRemote = new ReqRemote().setUid(1).setToken("token").setCmd("cmd").setGzip(1).setParams("{}");
+        byte[] bytes = reqRemote.encode();
+
+        ByteBuf heap = Unpooled.buffer().writeInt(99).writeBytes(bytes).writeInt(99);
+        ByteBuf direct = Unpooled.directBuffer().writeInt(99).writeBytes(bytes).writeInt(99);
+        for (ByteBuf byteBuf : new ByteBuf[]{heap, direct}) {
+            ByteBuf slice = byteBuf.skipBytes(4).readRetainedSlice(bytes.length);
+            ReqRemote decode = new ReqRemote();
+            decode.decode(slice);
+            slice.release();
+            Assert.assertEquals(reqRemote.getToken(), decode.getToken());
+            Assert.assertEquals(reqRemote.getCmd(), decode.getCmd());
+            Assert.assertEquals(reqRemote.getParams(), decode.getParams());
+            Assert.assertEquals(reqRemote.getUid(), decode.getUid());
+            Assert.assertEquals(1, byteBuf.refCnt());
+            byteBuf.release();
+        }
+    }
+
+    /** 直接写入 ByteBuf 的编码结果和 byte[] 编码结果一致 */
+    @Test
+    public void encodeByteBuf() {
+        ReqRemote reqRemote = new ReqRemote().setUid(1).setToken("token").setCmd("cmd").setGzip(1).setParams("{}".repeat(300));
+        ByteBuf expected = MessageEncode.build(100, reqRemote.encode());
+        ByteBuf actual = MessageEncode.build(100, reqRemote);
+        Assert.assertEquals(expected, actual);
+        expected.release();
+        actual.release();
+
+        PreEncodedMessage preEncodedMessage = PreEncodedMessage.of(reqRemote);
+        PreEncodedMessage duplicate = preEncodedMessage.retainedDuplicate();
+        Assert.assertEquals(2, preEncodedMessage.refCnt());
+        Assert.assertEquals(preEncodedMessage.content().readableBytes(), duplicate.content().readableBytes());
+        duplicate.release();
+        preEncodedMessage.release();
+        Assert.assertEquals(0, preEncodedMessage.refCnt());
+    }
+
     // @Test
     // public void t0() {
     //     ReqRemote builder = new ReqRemote();
@@ -44,6 +44,9 @@ public enum HttpHeadValueType {
     /** text/css; charset=UTF-8 */
     CSS("text/css; charset=UTF-8"),
 
+    /** text/event-stream; charset=UTF-8 */
+    EventStream("text/event-stream; charset=UTF-8"),
+
     /** multipart/form-data; charset=UTF-8 */
     Multipart("multipart/form-data"),
     /** form-data */